@@ -0,0 +1,100 @@
+package com.Guard.Back.Benchmark;
+
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Geo.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 원형 안심 구역의 포함 여부 판정 비용을 비교하는 벤치마크.
+ * - haversine: 기존 방식. 위치마다 Haversine 거리를 계산해 반경과 비교
+ * - fastPath : CircleFence.contains. bounding box, 평면 근사 거리를 먼저 보고 경계 근처에서만 Haversine 계산
+ *
+ * 위치 분포는 실제 업로드 패턴을 흉내냄
+ * - HOME    : 대부분 집 근처(반경 안쪽 깊숙이)에 머무는 경우
+ * - COMMUTE : 통근/외출 중이라 대부분 수 km 밖에 있는 경우
+ * - BOUNDARY: 구역 경계 ±5% 안에서 맴도는 경우 (최악의 경우)
+ * - MIXED   : 집 70%, 외출 25%, 경계 5%
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(GeofenceEvaluationBenchmark.POINTS)
+public class GeofenceEvaluationBenchmark {
+
+    /*한 번의 호출에서 판정하는 위치 수. 결과는 마이크로초당 판정 수로 환산*/
+    static final int POINTS = 4096;
+
+    private static final double HOME_LATITUDE = 37.4500;
+    private static final double HOME_LONGITUDE = 127.1300;
+    private static final double METERS_PER_DEGREE = 111_195.0;
+
+    @Param({"HOME", "COMMUTE", "BOUNDARY", "MIXED"})
+    public String distribution;
+
+    @Param({"300"})
+    public double radiusMeters;
+
+    private CircleFence fence;
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fence = new CircleFence(HOME_LATITUDE, HOME_LONGITUDE, radiusMeters);
+        Random random = new Random(20240501L);
+        for (int i = 0; i < POINTS; i++) {
+            double meters = switch (distribution) {
+                case "HOME" -> home(random);
+                case "COMMUTE" -> commute(random);
+                case "BOUNDARY" -> boundary(random);
+                default -> {
+                    double pick = random.nextDouble();
+                    yield pick < 0.70 ? home(random) : pick < 0.95 ? commute(random) : boundary(random);
+                }
+            };
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            latitudes[i] = HOME_LATITUDE + Math.cos(bearing) * meters / METERS_PER_DEGREE;
+            longitudes[i] = HOME_LONGITUDE
+                    + Math.sin(bearing) * meters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(HOME_LATITUDE)));
+        }
+    }
+
+    @Benchmark
+    public int haversine() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (GeoUtils.haversine(HOME_LATITUDE, HOME_LONGITUDE, latitudes[i], longitudes[i]) <= radiusMeters) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int fastPath() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (fence.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    /*GPS 오차 수준으로 집 주변에 흩어진 위치 (반경의 0~30%).*/
+    private double home(Random random) {
+        return Math.abs(random.nextGaussian()) * radiusMeters * 0.1;
+    }
+
+    /*집에서 1~15km 떨어진 외출 위치.*/
+    private double commute(Random random) {
+        return 1_000 + random.nextDouble() * 14_000;
+    }
+
+    /*경계 ±5% 안의 위치.*/
+    private double boundary(Random random) {
+        return radiusMeters * (0.95 + random.nextDouble() * 0.1);
+    }
+}
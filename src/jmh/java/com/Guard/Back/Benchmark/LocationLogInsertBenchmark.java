@@ -0,0 +1,128 @@
+package com.Guard.Back.Benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * location_log INSERT 처리량을 ID 할당 방식별로 비교하는 벤치마크.
+ * - identityPerRow: 기존 IDENTITY 방식. 행마다 INSERT 후 생성된 키를 받아옴 (JDBC 배치 불가)
+ * - pooledLoBatch : pooled-lo 방식. ID 블록을 미리 받아 메모리에서 할당하고 JDBC 배치로 INSERT
+ *
+ * 실행 중인 MariaDB가 필요하며, 접속 정보는 BENCH_DB_URL, BENCH_DB_USER, BENCH_DB_PASSWORD 환경 변수로 전달
+ * 벤치마크 전용 테이블(location_log_bench, id_generator_bench)을 만들고 종료 시 삭제
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(LocationLogInsertBenchmark.ROWS_PER_COMMIT)
+public class LocationLogInsertBenchmark {
+
+    /*한 트랜잭션(커밋)에 저장하는 행 수. 결과는 초당 저장된 행 수로 환산*/
+    static final int ROWS_PER_COMMIT = 100;
+
+    /*LocationLog의 @TableGenerator allocationSize와 동일한 값.*/
+    private static final int ALLOCATION_SIZE = 500;
+
+    private Connection connection;
+    private Connection generatorConnection;
+    private long nextId;
+    private long blockEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv().getOrDefault("BENCH_DB_URL", "jdbc:mariadb://localhost:3306/bench");
+        String user = System.getenv().getOrDefault("BENCH_DB_USER", "root");
+        String password = System.getenv().getOrDefault("BENCH_DB_PASSWORD", "");
+
+        connection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "useBulkStmts=true", user, password);
+        // Hibernate의 TableGenerator처럼 ID 블록 할당은 별도 커넥션/트랜잭션에서 수행
+        generatorConnection = DriverManager.getConnection(url, user, password);
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS location_log_bench");
+            st.execute("CREATE TABLE location_log_bench ("
+                    + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                    + "protected_user_id BIGINT NOT NULL, "
+                    + "latitude DOUBLE NOT NULL, "
+                    + "longitude DOUBLE NOT NULL, "
+                    + "recorded_at DATETIME(6)) ENGINE = InnoDB");
+            st.execute("DROP TABLE IF EXISTS id_generator_bench");
+            st.execute("CREATE TABLE id_generator_bench (sequence_name VARCHAR(64) PRIMARY KEY, next_val BIGINT NOT NULL)");
+            // IDENTITY 벤치마크가 사용하는 AUTO_INCREMENT 범위와 겹치지 않도록 큰 값에서 시작
+            st.execute("INSERT INTO id_generator_bench VALUES ('location_log', 1000000000000)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS location_log_bench");
+            st.execute("DROP TABLE IF EXISTS id_generator_bench");
+        }
+        connection.close();
+        generatorConnection.close();
+    }
+
+    @Benchmark
+    public long identityPerRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO location_log_bench (protected_user_id, latitude, longitude, recorded_at) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS_PER_COMMIT; i++) {
+                bind(ps, 1, i);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledLoBatch() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO location_log_bench (id, protected_user_id, latitude, longitude, recorded_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS_PER_COMMIT; i++) {
+                lastId = allocateId();
+                ps.setLong(1, lastId);
+                bind(ps, 2, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    /*pooled-lo: 블록이 소진되었을 때만 DB에서 다음 블록의 시작값을 받아옴*/
+    private long allocateId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (Statement st = generatorConnection.createStatement()) {
+                st.executeUpdate("UPDATE id_generator_bench SET next_val = LAST_INSERT_ID(next_val) + " + ALLOCATION_SIZE
+                        + " WHERE sequence_name = 'location_log'");
+                try (ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    nextId = rs.getLong(1);
+                }
+            }
+            blockEnd = nextId + ALLOCATION_SIZE;
+        }
+        return nextId++;
+    }
+
+    private void bind(PreparedStatement ps, int firstIndex, int i) throws SQLException {
+        ps.setLong(firstIndex, 1L + (i % 50));
+        ps.setDouble(firstIndex + 1, 37.45 + i * 1e-5);
+        ps.setDouble(firstIndex + 2, 127.13 + i * 1e-5);
+        ps.setTimestamp(firstIndex + 3, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.Guard.Back.Codec;
+
+import com.Guard.Back.Dto.LocationRequest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 바이너리 위치 업로드를 디코딩한 결과.
+ * 위치마다 객체를 만들지 않도록 기록 시간, 위도, 경도를 각각 원시 타입 배열로 보관
+ */
+public final class LocationPacket {
+
+    private final long[] epochMillis;
+    private final int[] latitudeE7;
+    private final int[] longitudeE7;
+
+    LocationPacket(long[] epochMillis, int[] latitudeE7, int[] longitudeE7) {
+        this.epochMillis = epochMillis;
+        this.latitudeE7 = latitudeE7;
+        this.longitudeE7 = longitudeE7;
+    }
+
+    /*패킷에 담긴 위치 개수.*/
+    public int size() {
+        return epochMillis.length;
+    }
+
+    /*i번째 위치의 기록 시간 (epoch 밀리초).*/
+    public long epochMillis(int i) {
+        return epochMillis[i];
+    }
+
+    /*i번째 위치의 위도.*/
+    public double latitude(int i) {
+        return latitudeE7[i] / LocationPacketCodec.E7;
+    }
+
+    /*i번째 위치의 경도.*/
+    public double longitude(int i) {
+        return longitudeE7[i] / LocationPacketCodec.E7;
+    }
+
+    /**
+     * 기존 저장 로직(JSON 업로드와 동일한 경로)에 넘기기 위해 요청 DTO 목록으로 변환
+     * 시간대 오프셋은 다음 전환 시점 전까지 다시 구하지 않으므로, 위치마다 Instant를 만들거나 시간대 규칙을 조회하지 않음
+     *
+     * @param zone 기록 시간을 LocalDateTime으로 바꿀 때 사용할 시간대.
+     * @return 패킷 순서대로 변환된 요청 DTO 목록.
+     */
+    public List<LocationRequest> toRequests(ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        ZoneOffset offset = null;
+        // offset이 유효한 epoch 초 범위 [offsetFrom, offsetUntil)
+        long offsetFrom = Long.MAX_VALUE;
+        long offsetUntil = Long.MIN_VALUE;
+        List<LocationRequest> requests = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            long seconds = Math.floorDiv(epochMillis[i], 1000L);
+            if (seconds < offsetFrom || seconds >= offsetUntil) {
+                Instant instant = Instant.ofEpochSecond(seconds);
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                offset = rules.getOffset(instant);
+                offsetFrom = seconds;
+                offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            }
+            int nanos = (int) Math.floorMod(epochMillis[i], 1000L) * 1_000_000;
+            requests.add(new LocationRequest(latitude(i), longitude(i), LocalDateTime.ofEpochSecond(seconds, nanos, offset)));
+        }
+        return requests;
+    }
+}
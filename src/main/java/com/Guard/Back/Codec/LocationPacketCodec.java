@@ -0,0 +1,142 @@
+package com.Guard.Back.Codec;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 기기에서 올리는 위치 묶음을 위한 압축 바이너리 포맷(application/x-guard-location)의 인코더/디코더.
+ *
+ * 포맷 (모든 정수는 LEB128 varint, 부호 있는 값은 zigzag 인코딩):
+ * <pre>
+ *   version(1 byte = 1)
+ *   count(varint)
+ *   첫 위치 : epochMillis, latitudeE7, longitudeE7 (zigzag varint, 절대값)
+ *   이후 위치: 직전 위치와의 차이 (zigzag varint)
+ * </pre>
+ * 위도/경도는 1e7을 곱한 정수(약 1cm 정밀도)로, 연속된 위치는 차이가 작아 대부분 1~3바이트로 표현됨
+ */
+public final class LocationPacketCodec {
+
+    /*이 포맷의 Content-Type.*/
+    public static final String MEDIA_TYPE = "application/x-guard-location";
+
+    /*현재 포맷 버전.*/
+    static final int VERSION = 1;
+
+    /*위도/경도를 정수로 바꿀 때 곱하는 값.*/
+    static final double E7 = 1e7;
+
+    private static final long MAX_LATITUDE_E7 = 900_000_000L;
+    private static final long MAX_LONGITUDE_E7 = 1_800_000_000L;
+
+    /*허용하는 가장 늦은 기록 시간 (2100-01-01T00:00:00Z). 이보다 늦은 값은 DB의 DATETIME에 저장하기 전에 거절*/
+    static final long MAX_EPOCH_MILLIS = 4_102_444_800_000L;
+
+    private LocationPacketCodec() {
+    }
+
+    /**
+     * 바이너리 위치 묶음을 디코딩
+     * 위치 개수만큼의 원시 타입 배열 세 개만 할당하고, 위치마다 객체를 만들지 않음
+     *
+     * @param data      요청 본문.
+     * @param maxPoints 허용하는 최대 위치 개수.
+     * @return 디코딩된 위치 묶음.
+     * @throws IllegalArgumentException 포맷이 올바르지 않거나, 개수가 0이거나 maxPoints를 넘거나, 좌표나 기록 시간이 범위를 벗어난 경우 발생.
+     */
+    public static LocationPacket decode(byte[] data, int maxPoints) {
+        if (data == null || data.length == 0 || data[0] != VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 위치 패킷 버전입니다.");
+        }
+        int[] pos = {1};
+        long count = readVarLong(data, pos);
+        // 위치 하나는 최소 3바이트이므로, 본문 길이로 개수를 먼저 검증해 큰 배열 할당을 막음
+        if (count < 1 || count > maxPoints || count * 3 > data.length - pos[0]) {
+            throw new IllegalArgumentException("위치 개수가 올바르지 않습니다: " + count);
+        }
+
+        int n = (int) count;
+        long[] epochMillis = new long[n];
+        int[] latitudeE7 = new int[n];
+        int[] longitudeE7 = new int[n];
+        long time = 0;
+        long lat = 0;
+        long lon = 0;
+        for (int i = 0; i < n; i++) {
+            time += zigzagDecode(readVarLong(data, pos));
+            lat += zigzagDecode(readVarLong(data, pos));
+            lon += zigzagDecode(readVarLong(data, pos));
+            // Math.abs(Long.MIN_VALUE)는 음수이므로 양쪽 경계와 직접 비교
+            if (lat < -MAX_LATITUDE_E7 || lat > MAX_LATITUDE_E7 || lon < -MAX_LONGITUDE_E7 || lon > MAX_LONGITUDE_E7
+                    || time < 0 || time > MAX_EPOCH_MILLIS) {
+                throw new IllegalArgumentException(i + "번째 위치의 값이 범위를 벗어났습니다.");
+            }
+            epochMillis[i] = time;
+            latitudeE7[i] = (int) lat;
+            longitudeE7[i] = (int) lon;
+        }
+        if (pos[0] != data.length) {
+            throw new IllegalArgumentException("위치 패킷 뒤에 알 수 없는 데이터가 있습니다.");
+        }
+        return new LocationPacket(epochMillis, latitudeE7, longitudeE7);
+    }
+
+    /**
+     * 위치 묶음을 바이너리 포맷으로 인코딩 (클라이언트 구현 참고 및 테스트용).
+     *
+     * @param epochMillis 기록 시간 (epoch 밀리초) 배열.
+     * @param latitudes   위도 배열.
+     * @param longitudes  경도 배열.
+     * @return 인코딩된 바이트 배열.
+     */
+    public static byte[] encode(long[] epochMillis, double[] latitudes, double[] longitudes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + epochMillis.length * 6);
+        out.write(VERSION);
+        writeVarLong(out, epochMillis.length);
+        long prevTime = 0;
+        long prevLat = 0;
+        long prevLon = 0;
+        for (int i = 0; i < epochMillis.length; i++) {
+            long lat = Math.round(latitudes[i] * E7);
+            long lon = Math.round(longitudes[i] * E7);
+            writeVarLong(out, zigzagEncode(epochMillis[i] - prevTime));
+            writeVarLong(out, zigzagEncode(lat - prevLat));
+            writeVarLong(out, zigzagEncode(lon - prevLon));
+            prevTime = epochMillis[i];
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return out.toByteArray();
+    }
+
+    /*pos[0] 위치에서 varint 하나를 읽고 pos[0]을 다음 위치로 옮기는 헬퍼 메소드.*/
+    private static long readVarLong(byte[] data, int[] pos) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= data.length) {
+                throw new IllegalArgumentException("위치 패킷이 중간에 끝났습니다.");
+            }
+            byte b = data[pos[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("varint 길이가 너무 깁니다.");
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,10 @@
+package com.Guard.Back.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*@Scheduled 로 등록된 주기 작업(위치 기록 보존 정리 등)을 활성화하는 설정 클래스.*/
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,9 +1,11 @@
 package com.Guard.Back.Config;
 
 import com.Guard.Back.Jwt.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -36,6 +38,9 @@ public class SecurityConfig {
 
                 // 접근 권한 설정
                 .authorizeHttpRequests(auth -> auth
+                        // SSE 등 비동기 응답의 재디스패치는 최초 요청에서 이미 인가되었으므로 허용
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 1. 인증 없이 누구나 접근 가능한 경로
                         .requestMatchers(
                                 "/api/auth/**",
@@ -48,12 +53,17 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/ocr/upload", "/api/tts").permitAll()
 
+                        // 위치 일괄 업로드는 아래 "/api/location/{protectedUserId}" 패턴보다 먼저 매칭되어야 함
+                        .requestMatchers(HttpMethod.POST, "/api/location/batch").hasRole("PROTECTED")
+
                         // GUARDIAN(보호자) 역할만 접근 가능한 경로
                         .requestMatchers(
                                 "/api/users/me",                        // 내 정보 조회
                                 "/api/users/fcm-token",                 // FCM 토큰 갱신
                                 "/api/relationship/link",               // 관계 맺기
                                 "/api/location/{protectedUserId}",      // 특정 피보호자 위치 조회
+                                "/api/location/{protectedUserId}/history", // 특정 피보호자 위치 기록 조회
+                                "/api/location/{protectedUserId}/stream",  // 특정 피보호자 위치 실시간 구독 (SSE)
                                 "/api/geofence/**",                     // 지오펜스 관련 모든 API
                                 "/api/alerts/**"                        // 알림 기록 관련 모든 API
                         ).hasAnyRole("GUARDIAN", "ADMIN")
@@ -65,7 +75,8 @@ public class SecurityConfig {
                                 "/api/sos"       // SOS 호출 (POST)
                         ).hasRole("PROTECTED")
 
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
 
                         // 위에 명시되지 않은 나머지 모든 요청은 인증만 되면 접근 가능
                         .anyRequest().authenticated()
@@ -94,6 +105,8 @@ public class SecurityConfig {
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // 알림 기록 페이지 커서와 ETag 헤더를 브라우저 클라이언트에서 읽을 수 있도록 노출
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "ETag"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -2,18 +2,33 @@ package com.Guard.Back.Controller;
 
 import com.Guard.Back.Dto.*;
 import com.Guard.Back.Service.AdminService;
+import com.Guard.Back.Service.HistoryExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
+
+    /*내보내기 기간을 지정하지 않았을 때의 시작 시간.*/
+    private static final LocalDateTime EXPORT_FROM_BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
     private final AdminService adminService;
+    private final HistoryExportService historyExportService;
 
     @GetMapping("/dashboard")
     public ResponseEntity<AdminDashboardDto> getDashboard() {
@@ -27,4 +42,75 @@ public class AdminController {
     public ResponseEntity<List<SosLogDto>> getSosLogs() {
         return ResponseEntity.ok(adminService.getAllSosLogs());
     }
-}
\ No newline at end of file
+
+    /**
+     * 피보호자의 알림 기록 전체(또는 기간)를 NDJSON/CSV 파일로 내보냄
+     * 기록을 DB에서 읽는 즉시 응답으로 쓰므로 기록 수와 관계없이 메모리 사용량이 일정하며,
+     * 클라이언트가 gzip을 받을 수 있으면(Accept-Encoding) 압축하여 보냄
+     *
+     * @param format ndjson(기본) 또는 csv.
+     * @param from   시작 시간 (ISO-8601, 선택, Asia/Seoul). 없으면 처음부터
+     * @param to     종료 시간 (ISO-8601, 선택, Asia/Seoul). 없으면 현재 시간까지
+     */
+    @GetMapping("/export/protected-users/{protectedUserId}/alerts")
+    public ResponseEntity<StreamingResponseBody> exportAlerts(
+            @PathVariable Long protectedUserId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        HistoryExportService.Format exportFormat = HistoryExportService.Format.from(format);
+        LocalDateTime start = from != null ? from : EXPORT_FROM_BEGINNING;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        historyExportService.validate(protectedUserId, start, end);
+
+        ZoneId zone = ZoneId.of("Asia/Seoul");
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> historyExportService.exportAlerts(
+                protectedUserId, start.atZone(zone), end.atZone(zone), exportFormat, gzip, out);
+        return exportResponse("alerts-" + protectedUserId, exportFormat, gzip).body(body);
+    }
+
+    /**
+     * 피보호자의 위치 기록 전체(또는 기간)를 NDJSON/CSV 파일로 내보냄
+     * 기록을 DB에서 읽는 즉시 응답으로 쓰므로 기록 수와 관계없이 메모리 사용량이 일정하며,
+     * 클라이언트가 gzip을 받을 수 있으면(Accept-Encoding) 압축하여 보냄
+     *
+     * @param format ndjson(기본) 또는 csv.
+     * @param from   시작 시간 (ISO-8601, 선택). 없으면 처음부터
+     * @param to     종료 시간 (ISO-8601, 선택). 없으면 현재 시간까지
+     */
+    @GetMapping("/export/protected-users/{protectedUserId}/locations")
+    public ResponseEntity<StreamingResponseBody> exportLocations(
+            @PathVariable Long protectedUserId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        HistoryExportService.Format exportFormat = HistoryExportService.Format.from(format);
+        LocalDateTime start = from != null ? from : EXPORT_FROM_BEGINNING;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        historyExportService.validate(protectedUserId, start, end);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> historyExportService.exportLocations(
+                protectedUserId, start, end, exportFormat, gzip, out);
+        return exportResponse("locations-" + protectedUserId, exportFormat, gzip).body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /*내보내기 응답의 헤더 (파일 이름, 형식, 압축 여부)를 설정하는 헬퍼 메소드.*/
+    private static ResponseEntity.BodyBuilder exportResponse(String fileName, HistoryExportService.Format format, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response;
+    }
+}
@@ -1,11 +1,15 @@
 package com.Guard.Back.Controller;
 
+import com.Guard.Back.Domain.EventType;
 import com.Guard.Back.Dto.AlertLogDto;
+import com.Guard.Back.Dto.AlertLogPage;
 import com.Guard.Back.Service.AlertService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication; // 💡 import 추가
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 /**
@@ -16,26 +20,56 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AlertController {
 
+    /*다음 페이지 커서를 담는 응답 헤더. 마지막 페이지면 보내지 않음*/
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final AlertService alertService;
 
     /**
-     * 특정 피보호자의 모든 알림 기록을 최신순으로 조회
+     * 특정 피보호자의 알림 기록을 최신순으로 한 페이지 조회
+     * 본문은 기존과 같은 알림 기록 목록이고, 더 오래된 기록이 있으면 X-Next-Cursor 헤더의 값을 before로 넘겨 이어서 조회
+     *
+     * 앱은 마지막으로 받은 알림 ID를 sinceId로 넘겨 새 알림만 받을 수 있음
+     * 응답의 ETag(피보호자의 마지막 알림 ID)를 If-None-Match로 보내면, 그 사이 새 알림이 없을 때
+     * DB를 조회하지 않고 304 Not Modified로 응답
      * SecurityConfig에 의해 GUARDIAN, ADMIN 역할만 접근 가능.
      *
      * @param protectedUserId 기록을 조회할 피보호자의 ID.
+     * @param sinceId         이 ID보다 새로운 기록만 조회 (선택).
+     * @param before          이전 응답의 X-Next-Cursor 값 (선택). 없으면 가장 최근 기록부터
+     * @param limit           한 페이지의 최대 기록 수 (1~200, 기본 50).
+     * @param types           조회할 알림 종류 (선택, e.g., types=SOS,GEOFENCE_EXIT). 없으면 모든 종류
      * @param authentication  현재 로그인한 보호자의 인증 정보.
-     * @return 성공 시 알림 기록 DTO 리스트.
+     * @param webRequest      If-None-Match 헤더 확인용.
+     * @return 성공 시 알림 기록 DTO 리스트. 새 알림이 없으면 본문 없는 304
      */
     @GetMapping("/{protectedUserId}")
     public ResponseEntity<List<AlertLogDto>> getAlertLogs(
             @PathVariable Long protectedUserId,
-            Authentication authentication) {
+            @RequestParam(required = false) Long sinceId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<EventType> types,
+            Authentication authentication,
+            WebRequest webRequest) {
 
         // 현재 로그인한 보호자 ID를 인증 정보에서 추출
         Long guardianId = Long.parseLong(authentication.getName());
 
-        // 서비스 호출 시 두 개의 인자(protectedUserId, guardianId)를 전달
-        List<AlertLogDto> logs = alertService.getAlertLogs(protectedUserId, guardianId);
-        return ResponseEntity.ok(logs);
+        // 잘못된 조회 조건은 304가 아닌 400으로 응답되도록 ETag 확인보다 먼저 검증
+        alertService.validateAlertRequest(sinceId, before, limit);
+
+        // 마지막 알림 ID가 클라이언트가 가진 것과 같으면 목록을 조회하지 않고 304로 응답
+        String eTag = "\"" + alertService.getLastAlertId(protectedUserId, guardianId) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        AlertLogPage page = alertService.getAlertLogs(protectedUserId, guardianId, sinceId, before, limit, types);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.alerts());
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import com.Guard.Back.Domain.User;
 import com.Guard.Back.Domain.UserRole;
 import com.Guard.Back.Dto.AuthDto.*;
 import com.Guard.Back.Dto.OAuthUserInfoDto;
+import com.Guard.Back.Event.AccountChangedEvent;
 import com.Guard.Back.Jwt.JwtTokenProvider;
 import com.Guard.Back.Repository.UserRepository;
 import com.Guard.Back.Service.GoogleOAuthService;
@@ -13,6 +14,7 @@ import com.Guard.Back.Service.TokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value; // 👈 [수정] 이 import가 없어서 에러가 났었습니다!
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -31,6 +33,7 @@ public class AuthController {
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
     private final TokenService tokenService;
+    private final ApplicationEventPublisher eventPublisher;
     @Value("${kakao.client-id}")
     private String kakaoClientId;
 
@@ -79,13 +82,15 @@ public class AuthController {
         User user = userRepository.findByProviderAndProviderId(OAuthProvider.KAKAO, userInfo.getProviderId())
                 .orElseGet(() -> {
                     log.info("[카카오 로그인] 신규 회원 가입 진행");
-                    return userRepository.save(User.builder()
+                    User newUser = userRepository.save(User.builder()
                             .provider(OAuthProvider.KAKAO)
                             .providerId(userInfo.getProviderId())
                             .nickname(userInfo.getNickname())
                             .profileImage(userInfo.getProfileImage())
                             .role(UserRole.GUARDIAN) // 👈 [중요] 카카오 유저도 기본 권한 설정
                             .build());
+                    eventPublisher.publishEvent(new AccountChangedEvent(UserRole.GUARDIAN, true));
+                    return newUser;
                 });
 
         String accessToken = jwtTokenProvider.createAccessToken(user.getId(), UserRole.GUARDIAN);
@@ -112,14 +117,18 @@ public class AuthController {
         OAuthUserInfoDto userInfo = googleOAuthService.getUserInfo(code);
 
         User user = userRepository.findByProviderAndProviderId(OAuthProvider.GOOGLE, userInfo.getProviderId())
-                .orElseGet(() -> userRepository.save(User.builder()
-                        .provider(OAuthProvider.GOOGLE)
-                        .providerId(userInfo.getProviderId())
-                        .nickname(userInfo.getNickname())
-                        .email(userInfo.getEmail())
-                        .profileImage(userInfo.getProfileImage())
-                        .role(UserRole.GUARDIAN) // 초기 생성 시엔 관리자 권한 없음
-                        .build()));
+                .orElseGet(() -> {
+                    User newUser = userRepository.save(User.builder()
+                            .provider(OAuthProvider.GOOGLE)
+                            .providerId(userInfo.getProviderId())
+                            .nickname(userInfo.getNickname())
+                            .email(userInfo.getEmail())
+                            .profileImage(userInfo.getProfileImage())
+                            .role(UserRole.GUARDIAN) // 초기 생성 시엔 관리자 권한 없음
+                            .build());
+                    eventPublisher.publishEvent(new AccountChangedEvent(UserRole.GUARDIAN, true));
+                    return newUser;
+                });
 
         // 🚨 DB에 'ADMIN' 권한이 있는지 확인
         if (user.getRole() != UserRole.ADMIN) {
@@ -1,6 +1,7 @@
 package com.Guard.Back.Controller;
 
 import com.Guard.Back.Dto.GeofenceDto;
+import com.Guard.Back.Dto.GeofenceZoneDto;
 import com.Guard.Back.Service.GeofenceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/geofence")
 @RequiredArgsConstructor
@@ -50,4 +53,34 @@ public class GeofenceController {
         // 설정된 값이 있으면 200 OK 와 함께 데이터 반환
         return ResponseEntity.ok(geofenceDto);
     }
-}
\ No newline at end of file
+
+    // 추가 안심 구역(원형/다각형) 등록
+    @PostMapping("/{protectedUserId}/zones")
+    public ResponseEntity<GeofenceZoneDto> createZone(
+            @PathVariable Long protectedUserId,
+            @Valid @RequestBody GeofenceZoneDto zoneDto,
+            Authentication authentication) {
+        Long guardianId = Long.parseLong(authentication.getName());
+        return ResponseEntity.ok(geofenceService.createZone(guardianId, protectedUserId, zoneDto));
+    }
+
+    // 추가 안심 구역 목록 조회
+    @GetMapping("/{protectedUserId}/zones")
+    public ResponseEntity<List<GeofenceZoneDto>> getZones(
+            @PathVariable Long protectedUserId,
+            Authentication authentication) {
+        Long guardianId = Long.parseLong(authentication.getName());
+        return ResponseEntity.ok(geofenceService.getZones(guardianId, protectedUserId));
+    }
+
+    // 추가 안심 구역 삭제
+    @DeleteMapping("/{protectedUserId}/zones/{zoneId}")
+    public ResponseEntity<Void> deleteZone(
+            @PathVariable Long protectedUserId,
+            @PathVariable Long zoneId,
+            Authentication authentication) {
+        Long guardianId = Long.parseLong(authentication.getName());
+        geofenceService.deleteZone(guardianId, protectedUserId, zoneId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,13 +1,25 @@
 package com.Guard.Back.Controller;
 
+import com.Guard.Back.Codec.LocationPacketCodec;
+import com.Guard.Back.Dto.LocationHistoryResponse;
 import com.Guard.Back.Dto.LocationRequest;
 import com.Guard.Back.Dto.LocationResponse;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Service.LocationIngestService;
 import com.Guard.Back.Service.LocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /*피보호자의 위치 정보 업로드 및 보호자의 위치 조회 API 요청을 처리하는 컨트롤러.*/
 @RestController
@@ -17,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class LocationController {
 
     private final LocationService locationService;
+    private final LocationIngestService locationIngestService;
 
     /**
      * 피보호자가 자신의 현재 위치 정보를 서버에 업로드(저장)
@@ -24,7 +37,7 @@ public class LocationController {
      *
      * @param request        요청 DTO. 위도, 경도, 기록 시간 정보를 포함
      * @param authentication 현재 로그인한 피보호자의 인증 정보.
-     * @return 성공 시 200 OK.
+     * @return 성공 시 200 OK. 비동기 수집 모드에서는 202 Accepted, 저장 큐가 가득 차면 429 Too Many Requests.
      */
     @PostMapping
     public ResponseEntity<Void> uploadLocation(@RequestBody LocationRequest request, Authentication authentication) {
@@ -32,12 +45,78 @@ public class LocationController {
         log.info("[위치 업로드] 피보호자 ID: {}가 위치 정보 업로드를 요청했습니다. (위도: {}, 경도: {})",
                 protectedUserId, request.latitude(), request.longitude());
 
+        if (locationIngestService.isAsyncEnabled()) {
+            return enqueue(protectedUserId, List.of(request));
+        }
         locationService.saveLocation(protectedUserId, request);
 
         log.info("[위치 업로드] 피보호자 ID: {}의 위치 정보가 성공적으로 저장되었습니다.", protectedUserId);
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 피보호자가 오프라인 동안 쌓아둔 여러 위치 정보를 한 번에 업로드
+     * SecurityConfig에 의해 PROTECTED 역할만 접근
+     *
+     * @param requests       요청 DTO 목록. 각 항목은 위도, 경도, 기록 시간 정보를 포함
+     * @param authentication 현재 로그인한 피보호자의 인증 정보.
+     * @return 성공 시 200 OK. 비동기 수집 모드에서는 202 Accepted, 저장 큐가 가득 차면 429 Too Many Requests.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Void> uploadLocations(@RequestBody List<LocationRequest> requests, Authentication authentication) {
+        Long protectedUserId = Long.parseLong(authentication.getName());
+        log.info("[위치 일괄 업로드] 피보호자 ID: {}가 위치 {}건의 업로드를 요청했습니다.",
+                protectedUserId, requests.size());
+
+        if (locationIngestService.isAsyncEnabled()) {
+            return enqueue(protectedUserId, requests);
+        }
+        locationService.saveLocations(protectedUserId, requests);
+
+        log.info("[위치 일괄 업로드] 피보호자 ID: {}의 위치 정보가 성공적으로 저장되었습니다.", protectedUserId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 피보호자가 여러 위치 정보를 압축 바이너리 포맷(application/x-guard-location)으로 업로드
+     * JSON 대비 본문 크기와 파싱 비용을 줄이기 위한 포맷이며, 기존 JSON 업로드도 그대로 지원
+     * 포맷은 {@link LocationPacketCodec} 참고. SecurityConfig에 의해 PROTECTED 역할만 접근
+     *
+     * @param body           바이너리 위치 묶음.
+     * @param authentication 현재 로그인한 피보호자의 인증 정보.
+     * @return 성공 시 200 OK. 비동기 수집 모드에서는 202 Accepted, 저장 큐가 가득 차면 429 Too Many Requests.
+     * @throws CustomException 바이너리 형식이 올바르지 않은 경우 발생.
+     */
+    @PostMapping(consumes = LocationPacketCodec.MEDIA_TYPE)
+    public ResponseEntity<Void> uploadLocationPacket(@RequestBody byte[] body, Authentication authentication) {
+        Long protectedUserId = Long.parseLong(authentication.getName());
+        List<LocationRequest> requests = locationService.decodePacket(protectedUserId, body);
+        log.info("[위치 바이너리 업로드] 피보호자 ID: {}가 위치 {}건의 업로드를 요청했습니다. ({}바이트)",
+                protectedUserId, requests.size(), body.length);
+
+        if (locationIngestService.isAsyncEnabled()) {
+            return enqueue(protectedUserId, requests);
+        }
+        locationService.saveLocations(protectedUserId, requests);
+
+        log.info("[위치 바이너리 업로드] 피보호자 ID: {}의 위치 정보가 성공적으로 저장되었습니다.", protectedUserId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 위치 정보를 비동기 저장 큐에 적재하고 응답을 만드는 헬퍼 메소드.
+     * 큐가 가득 차면 잠시 후 다시 보내도록 Retry-After 헤더와 함께 429를 반환
+     */
+    private ResponseEntity<Void> enqueue(Long protectedUserId, List<LocationRequest> requests) {
+        if (!locationIngestService.enqueue(protectedUserId, requests)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        log.info("[위치 업로드] 피보호자 ID: {}의 위치 {}건이 저장 큐에 적재되었습니다.", protectedUserId, requests.size());
+        return ResponseEntity.accepted().build();
+    }
+
     /**
      * 보호자가 자신과 연결된 특정 피보호자의 가장 최신 위치 정보를 조회
      * SecurityConfig에 의해 GUARDIAN 역할만 접근
@@ -64,4 +143,54 @@ public class LocationController {
                 currentGuardianId, protectedUserId);
         return ResponseEntity.ok(latestLocation);
     }
-}
\ No newline at end of file
+
+    /**
+     * 보호자가 자신과 연결된 특정 피보호자의 위치를 SSE(Server-Sent Events)로 실시간 수신
+     * 주기적으로 최신 위치를 조회(polling)하는 대신, 새 위치가 저장될 때마다 "location" 이벤트로 전달
+     * SecurityConfig에 의해 GUARDIAN 역할만 접근
+     *
+     * @param protectedUserId 구독하려는 피보호자의 ID.
+     * @param authentication  현재 로그인한 보호자의 인증 정보.
+     * @return 위치 이벤트 스트림.
+     * @throws com.Guard.Back.Exception.CustomException 조회 권한이 없는 경우 발생.
+     */
+    @GetMapping(value = "/{protectedUserId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLocation(@PathVariable Long protectedUserId, Authentication authentication) {
+        Long currentGuardianId = Long.parseLong(authentication.getName());
+        log.info("[위치 스트림] 보호자 ID: {}가 피보호자 ID: {}의 위치 스트림 구독을 요청했습니다.",
+                currentGuardianId, protectedUserId);
+        return locationService.subscribeLocation(protectedUserId, currentGuardianId);
+    }
+
+    /**
+     * 보호자가 자신과 연결된 특정 피보호자의 기간 내 위치 기록(이동 경로)을 조회
+     * SecurityConfig에 의해 GUARDIAN 역할만 접근
+     *
+     * @param protectedUserId 조회하려는 피보호자의 ID.
+     * @param from            조회 시작 시간 (ISO-8601, 선택). 기본값은 to의 24시간 전.
+     * @param to              조회 종료 시간 (ISO-8601, 선택). 기본값은 현재 시간.
+     * @param cursor          이전 응답의 nextCursor (선택).
+     * @param limit           한 페이지에서 읽을 최대 위치 개수.
+     * @param maxPoints       응답에 담을 최대 위치 개수 (선택). 지정하면 기간 전체의 경로를 단순화하여 한 번에 반환 (cursor와 함께 쓸 수 없음)
+     * @param authentication  현재 로그인한 보호자의 인증 정보.
+     * @return 성공 시 위치 목록과 다음 페이지 커서가 담긴 DTO.
+     * @throws com.Guard.Back.Exception.CustomException 조회 권한이 없거나 조회 조건이 올바르지 않은 경우 발생.
+     */
+    @GetMapping("/{protectedUserId}/history")
+    public ResponseEntity<LocationHistoryResponse> getLocationHistory(
+            @PathVariable Long protectedUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(required = false) Integer maxPoints,
+            Authentication authentication) {
+        Long currentGuardianId = Long.parseLong(authentication.getName());
+        log.info("[위치 기록 조회] 보호자 ID: {}가 피보호자 ID: {}의 위치 기록 조회를 요청했습니다. (from: {}, to: {})",
+                currentGuardianId, protectedUserId, from, to);
+
+        LocationHistoryResponse history = locationService.getLocationHistory(
+                protectedUserId, currentGuardianId, from, to, cursor, limit, maxPoints);
+        return ResponseEntity.ok(history);
+    }
+}
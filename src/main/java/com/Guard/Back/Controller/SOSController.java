@@ -3,11 +3,13 @@ package com.Guard.Back.Controller;
 import com.Guard.Back.Service.SOSService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.time.LocalDateTime;
 
 /**
  * SOS 긴급 호출 관련 API 요청을 처리하는 컨트롤러.
@@ -22,19 +24,24 @@ public class SOSController {
 
     /**
      * 피보호자가 SOS 버튼을 눌렀을 때 호출되는 API.
-     * 연결된 모든 보호자에게 푸시 알림을 발송
+     * 연결된 모든 보호자에게 보낼 푸시 알림을 발송 대기열에 등록 (실제 발송은 비동기로 처리되므로 응답 시점에는 전달되지 않았을 수 있음)
      *
      * @param authentication 현재 SOS를 요청한 피보호자의 인증 정보.
-     * @return 성공 메시지.
+     * @return 등록 결과 메시지. 연결된 보호자가 없으면 409 (SOS 기록은 저장됨)
      */
     @PostMapping
     public ResponseEntity<String> sendSOS(Authentication authentication) {
+        // 발송 지연(notification.outbox.latency)은 요청을 받은 이 시점부터 측정
+        LocalDateTime requestedAt = LocalDateTime.now();
         Long protectedUserId = Long.parseLong(authentication.getName());
         log.info("[SOS] 피보호자 ID: {}로부터 긴급 호출이 접수되었습니다.", protectedUserId);
 
-        sosService.sendSOSToGuardians(protectedUserId);
+        int queued = sosService.sendSOSToGuardians(protectedUserId, requestedAt);
+        if (queued == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("연결된 보호자가 없어 긴급 호출을 전달할 수 없습니다.");
+        }
 
-        log.info("[SOS] 피보호자 ID: {}의 긴급 호출 메시지 발송이 완료되었습니다.", protectedUserId);
-        return ResponseEntity.ok("연결된 보호자에게 긴급 호출을 보냈습니다.");
+        log.info("[SOS] 피보호자 ID: {}의 긴급 호출 메시지 {}건을 발송 대기열에 등록했습니다.", protectedUserId, queued);
+        return ResponseEntity.ok("연결된 보호자 " + queued + "명에게 긴급 호출 발송을 요청했습니다.");
     }
 }
\ No newline at end of file
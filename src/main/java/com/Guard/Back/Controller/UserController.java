@@ -1,6 +1,9 @@
 package com.Guard.Back.Controller;
 
+import com.Guard.Back.Domain.DevicePlatform;
 import com.Guard.Back.Domain.UserRole;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
 import com.Guard.Back.Service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -74,9 +77,11 @@ public class UserController {
     }
 
     /**
-     * 현재 로그인한 보호자의 FCM 디바이스 토큰을 갱신
+     * 현재 로그인한 보호자의 FCM 디바이스 토큰을 등록
+     * 기기마다 따로 등록하며, 등록된 모든 기기로 알림이 발송됨
      *
-     * @param fcmTokenMap    요청 DTO. {"fcmToken": "..."} 형식의 JSON.
+     * @param fcmTokenMap    요청 DTO. {"fcmToken": "...", "platform": "ANDROID"} 형식의 JSON.
+     *                       platform(ANDROID, IOS, WEB)은 선택 사항이며, 없거나 알 수 없는 값이면 UNKNOWN.
      * @param authentication 현재 로그인한 보호자의 인증 정보.
      * @return 성공 메시지.
      */
@@ -84,11 +89,27 @@ public class UserController {
     public ResponseEntity<String> updateFcmToken(@RequestBody Map<String, String> fcmTokenMap, Authentication authentication) {
         Long currentUserId = Long.parseLong(authentication.getName());
         String fcmToken = fcmTokenMap.get("fcmToken");
+        if (fcmToken == null || fcmToken.isBlank()) {
+            throw new CustomException(ErrorCode.INVALID_FCM_TOKEN);
+        }
+        DevicePlatform platform = parsePlatform(fcmTokenMap.get("platform"));
 
-        log.info("[FCM 토큰 갱신] 보호자 ID: {}의 FCM 토큰을 갱신합니다.", currentUserId);
-        userService.updateFcmToken(currentUserId, fcmToken);
+        log.info("[FCM 토큰 갱신] 보호자 ID: {}의 FCM 토큰을 갱신합니다. (플랫폼: {})", currentUserId, platform);
+        userService.updateFcmToken(currentUserId, fcmToken, platform);
         log.info("[FCM 토큰 갱신] 보호자 ID: {}의 FCM 토큰 갱신이 완료되었습니다.", currentUserId);
 
         return ResponseEntity.ok("FCM 토큰이 성공적으로 갱신되었습니다.");
     }
-}
\ No newline at end of file
+
+    /*요청의 플랫폼 문자열을 변환하는 헬퍼 메소드. 없거나 알 수 없는 값이면 UNKNOWN*/
+    private static DevicePlatform parsePlatform(String platform) {
+        if (platform == null) {
+            return DevicePlatform.UNKNOWN;
+        }
+        try {
+            return DevicePlatform.valueOf(platform.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return DevicePlatform.UNKNOWN;
+        }
+    }
+}
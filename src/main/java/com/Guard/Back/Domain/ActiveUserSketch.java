@@ -0,0 +1,42 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 서버(노드)별, 시간 구간별로 위치를 보낸 피보호자 집합을 근사한 HyperLogLog 스케치를 저장하는 엔티티.
+ * 서버가 다시 시작되어도 활성 사용자 집계 구간을 잃지 않도록 ActiveUserCounter가 주기적으로 저장하고,
+ * 다른 서버의 스케치와 합쳐 전체 활성 사용자 수를 구함
+ * 행은 ActiveUserSketchRepository.upsert 로만 생성/갱신
+ */
+@Entity
+@Table(name = "active_user_sketch", uniqueConstraints =
+        @UniqueConstraint(name = "uk_active_user_sketch_node_bucket", columnNames = {"node", "bucket_start"}),
+        indexes = @Index(name = "idx_active_user_sketch_bucket", columnList = "bucket_start"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ActiveUserSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*스케치를 기록한 서버의 이름 (dashboard.active-users.node-id).*/
+    @Column(nullable = false, length = 100)
+    private String node;
+
+    /*시간 구간의 시작 시간.*/
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    /*HyperLogLog 레지스터 (정밀도 12이면 4096바이트).*/
+    @Lob
+    @Column(nullable = false)
+    private byte[] registers;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -6,6 +6,12 @@ import org.hibernate.annotations.CreationTimestamp; // 👈 import 추가
 import java.time.ZonedDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_alert_log_user_time", columnList = "protected_user_id, event_time, id"),
+        @Index(name = "idx_alert_log_user_type_time", columnList = "protected_user_id, event_type, event_time, id"),
+        @Index(name = "idx_alert_log_user_id", columnList = "protected_user_id, id"),
+        @Index(name = "idx_alert_log_time", columnList = "event_time")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
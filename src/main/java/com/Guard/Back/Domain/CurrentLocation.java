@@ -0,0 +1,33 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 피보호자별 가장 최신 위치 하나만 보관하는 엔티티.
+ * 위치가 저장될 때마다 갱신(upsert)되어, 최신 위치 조회 시 location_log 전체를 정렬하지 않도록 함
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class CurrentLocation {
+
+    /*피보호자의 ID. 피보호자당 한 행만 존재*/
+    @Id
+    private Long protectedUserId;
+
+    /*최신 위치의 위도.*/
+    @Column(nullable = false)
+    private double latitude;
+
+    /*최신 위치의 경도.*/
+    @Column(nullable = false)
+    private double longitude;
+
+    /*최신 위치가 기록된 시간.*/
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
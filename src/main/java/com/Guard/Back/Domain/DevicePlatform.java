@@ -0,0 +1,12 @@
+package com.Guard.Back.Domain;
+
+/**
+ * 푸시 알림을 받는 기기의 플랫폼.
+ */
+public enum DevicePlatform {
+    ANDROID,
+    IOS,
+    WEB,
+    /*플랫폼을 알 수 없음 (플랫폼 없이 등록된 토큰, 기존 users.fcm_token에서 옮겨온 토큰 등).*/
+    UNKNOWN
+}
@@ -0,0 +1,46 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 보호자가 푸시 알림을 받을 기기의 FCM 토큰을 정의하는 엔티티.
+ * 보호자 한 명이 휴대폰, 태블릿 등 여러 기기를 등록할 수 있으며, 토큰 하나는 한 보호자에게만 속함
+ * 같은 토큰이 다시 등록되면 새 행을 만들지 않고 보호자/플랫폼/마지막 등록 시간만 갱신 (DeviceTokenRepository.upsert)
+ */
+@Entity
+@Table(name = "device_token", indexes = {
+        @Index(name = "idx_device_token_guardian", columnList = "guardian_id"),
+        @Index(name = "idx_device_token_last_seen", columnList = "last_seen_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DeviceToken {
+
+    /*기기 토큰의 고유 식별자 (자동 생성).*/
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*토큰을 등록한 보호자의 ID. 발송 시 보호자 엔티티를 읽지 않도록 ID만 보관*/
+    @Column(nullable = false)
+    private Long guardianId;
+
+    /*FCM 디바이스 토큰.*/
+    @Column(nullable = false, unique = true)
+    private String token;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DevicePlatform platform;
+
+    /*이 기기에서 토큰을 마지막으로 등록한 시간. 오래 갱신되지 않은 기기를 정리하는 데 사용*/
+    @Column(nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 관리자 대시보드용으로 미리 집계해 둔 카운터 한 칸을 정의하는 엔티티.
+ * 날짜별 알림 종류별 건수(alert.SOS 등)와 전체 사용자 수(users.*)를 보관하며,
+ * EventCounterService가 증감분을 모아 반영하고 주기적으로 원본 테이블과 맞춤
+ */
+@Entity
+@Table(name = "event_counter", uniqueConstraints =
+        @UniqueConstraint(name = "uk_event_counter_name_day", columnNames = {"name", "day"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class EventCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*카운터 이름 (e.g., "alert.SOS", "users.guardian").*/
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    /*집계 날짜 (Asia/Seoul). 날짜와 관계없는 전체 합계는 EventCounterService.TOTAL_DAY*/
+    @Column(nullable = false)
+    private LocalDate day;
+
+    /*집계된 건수.*/
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 피보호자별 안심 구역(집, 어린이집, 병원 등)을 저장하는 엔티티.
+ * ProtectedUser의 기본 안심 구역(home*, geofenceRadius)과 별개로 여러 개를 등록 가능
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_geofence_zone_user", columnList = "protected_user_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class GeofenceZone {
+
+    /*안심 구역의 고유 식별자 (자동 생성).*/
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*이 안심 구역의 주인인 피보호자.*/
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "protected_user_id", nullable = false)
+    private ProtectedUser protectedUser;
+
+    /*보호자가 붙인 구역 이름 (예: "집", "복지관").*/
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    /*구역 모양 (원형 또는 다각형).*/
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private GeofenceZoneType type;
+
+    /*원형 구역의 중심 위도/경도와 반경(미터). 다각형이면 null*/
+    private Double latitude;
+    private Double longitude;
+    private Integer radius;
+
+    /*다각형 구역의 꼭짓점 목록. "위도,경도;위도,경도;..." 형식. 원형이면 null*/
+    @Column(columnDefinition = "TEXT")
+    private String vertices;
+
+    /*피보호자가 현재 이 구역 안에 있는지 여부. 진입/이탈 알림 판정에 사용*/
+    @Column(nullable = false)
+    private boolean insideZone;
+}
@@ -0,0 +1,6 @@
+package com.Guard.Back.Domain;
+
+public enum GeofenceZoneType {
+    CIRCLE,   // 중심점 + 반경
+    POLYGON   // 꼭짓점 목록
+}
@@ -0,0 +1,49 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 피보호자가 한 자리에 머문 구간(체류)을 저장하는 엔티티.
+ * 마지막으로 저장된 위치 기록 근처에서 연속으로 들어온 위치는 location_log에 저장하지 않고,
+ * 이 구간의 종료 시간과 개수만 갱신
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_location_dwell_user_started", columnList = "protected_user_id, started_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class LocationDwell {
+
+    /*체류 구간의 고유 식별자 (자동 생성).*/
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*이 체류 구간의 주인인 피보호자.*/
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "protected_user_id", nullable = false)
+    private ProtectedUser protectedUser;
+
+    /*체류 위치(기준이 된 위치 기록)의 위도.*/
+    @Column(nullable = false)
+    private double latitude;
+
+    /*체류 위치(기준이 된 위치 기록)의 경도.*/
+    @Column(nullable = false)
+    private double longitude;
+
+    /*체류 시작 시간. 기준이 된 위치 기록의 기록 시간*/
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    /*체류 중 마지막으로 들어온 위치의 기록 시간.*/
+    @Column(nullable = false)
+    private LocalDateTime endedAt;
+
+    /*location_log에 저장하지 않고 이 구간으로 합친 위치 개수.*/
+    @Column(nullable = false)
+    private int pointCount;
+}
@@ -0,0 +1,59 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 보존 기간이 지난 위치 기록을 피보호자별, 1시간 단위로 요약한 엔티티.
+ * 원본 location_log 행을 삭제하기 전에 중심점, 범위(bounding box), 개수만 남김
+ * 행은 LocationRetentionService의 INSERT ... SELECT 로만 생성/갱신
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_location_hourly_summary_user_hour",
+        columnNames = {"protected_user_id", "hour_start"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class LocationHourlySummary {
+
+    /*요약의 고유 식별자 (자동 생성).*/
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*이 요약의 주인인 피보호자.*/
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "protected_user_id", nullable = false)
+    private ProtectedUser protectedUser;
+
+    /*요약 구간의 시작 시간 (정시).*/
+    @Column(nullable = false)
+    private LocalDateTime hourStart;
+
+    /*요약된 위치 기록 개수.*/
+    @Column(nullable = false)
+    private int pointCount;
+
+    /*요약된 위치들의 평균 위도 (중심점).*/
+    @Column(nullable = false)
+    private double latitude;
+
+    /*요약된 위치들의 평균 경도 (중심점).*/
+    @Column(nullable = false)
+    private double longitude;
+
+    /*요약된 위치들의 최소/최대 위도, 경도 (bounding box).*/
+    @Column(nullable = false)
+    private double minLatitude;
+
+    @Column(nullable = false)
+    private double maxLatitude;
+
+    @Column(nullable = false)
+    private double minLongitude;
+
+    @Column(nullable = false)
+    private double maxLongitude;
+}
@@ -6,15 +6,26 @@ import java.time.LocalDateTime;
 
 /*피보호자의 위치 기록을 저장하는 엔티티.*/
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_location_log_user_recorded", columnList = "protected_user_id, recorded_at, id"),
+        @Index(name = "idx_location_log_recorded", columnList = "recorded_at")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
 public class LocationLog {
 
-    /*위치 기록의 고유 식별자 (자동 생성).*/
+    /**
+     * 위치 기록의 고유 식별자 (자동 생성).
+     * IDENTITY 방식은 INSERT마다 생성된 키를 기다려야 해서 JDBC 배치가 꺼지므로,
+     * id_generator 테이블에서 allocationSize만큼 ID 블록을 받아 메모리에서 할당(pooled-lo)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "location_log_id")
+    @TableGenerator(name = "location_log_id", table = "id_generator",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "location_log", allocationSize = 500)
     private Long id;
 
     /**
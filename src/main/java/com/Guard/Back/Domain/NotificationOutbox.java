@@ -0,0 +1,87 @@
+package com.Guard.Back.Domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 보호자에게 보낼 푸시 알림을 저장하는 발송 대기열(transactional outbox) 엔티티.
+ * 알림 기록(AlertLog)과 같은 트랜잭션에서 보호자마다 한 행씩 저장되며,
+ * NotificationDispatcher가 커밋된 행을 가져가 발송하고 실패하면 재시도
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_notification_outbox_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_priority_status_next", columnList = "priority, status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_claim", columnList = "claim_token")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    /*대기열 항목의 고유 식별자 (자동 생성).*/
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /*이 알림을 만든 알림 기록의 ID.*/
+    @Column(nullable = false)
+    private Long alertLogId;
+
+    /*알림 대상 피보호자의 ID.*/
+    @Column(nullable = false)
+    private Long protectedUserId;
+
+    /*알림을 받을 보호자의 ID. FCM 토큰은 발송 시점에 조회*/
+    @Column(nullable = false)
+    private Long guardianId;
+
+    /*알림 종류 (SOS, 안심 구역 이탈 등).*/
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EventType eventType;
+
+    /*발송 우선순위. 우선순위마다 다른 발송 스레드가 가져감*/
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private NotificationPriority priority;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(nullable = false)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationStatus status;
+
+    /*지금까지 발송을 시도한 횟수.*/
+    @Column(nullable = false)
+    private int attempts;
+
+    /*이 시간 이후에 발송(재시도) 가능.*/
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /*이 항목을 가져간 발송 작업의 식별자. 발송 중이 아니면 null*/
+    @Column(length = 36)
+    private String claimToken;
+
+    /*발송 작업이 이 항목을 가져간 시간. 오래된 발송 중 항목을 다시 가져가는 데 사용*/
+    private LocalDateTime claimedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /*알림의 원인이 된 요청(SOS 호출 등)을 받은 시간. 요청부터 FCM 접수까지의 지연 측정에 사용*/
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime sentAt;
+
+    /*마지막 발송 실패 사유.*/
+    @Column(length = 500)
+    private String lastError;
+}
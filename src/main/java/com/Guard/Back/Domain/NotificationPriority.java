@@ -0,0 +1,18 @@
+package com.Guard.Back.Domain;
+
+/**
+ * 발송 대기열(notification_outbox)에 저장된 푸시 알림의 우선순위.
+ * 우선순위마다 NotificationDispatcher의 발송 스레드와 발송 스레드 풀이 따로 있어,
+ * 일반 알림이 아무리 많이 쌓여도 긴급 알림은 기다리지 않고 발송됨
+ */
+public enum NotificationPriority {
+    /*SOS 등 긴급 알림. FCM에도 높은 우선순위로 발송*/
+    HIGH,
+    /*안심 구역 진입/이탈 등 일반 알림.*/
+    NORMAL;
+
+    /*알림 종류에 맞는 우선순위.*/
+    public static NotificationPriority of(EventType eventType) {
+        return eventType == EventType.SOS ? HIGH : NORMAL;
+    }
+}
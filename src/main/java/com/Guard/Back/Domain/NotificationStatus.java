@@ -0,0 +1,15 @@
+package com.Guard.Back.Domain;
+
+/**
+ * 발송 대기열(notification_outbox)에 저장된 푸시 알림의 상태.
+ */
+public enum NotificationStatus {
+    /*발송 대기 중 (재시도 대기 포함).*/
+    PENDING,
+    /*발송 담당 서버가 가져가 발송 중.*/
+    SENDING,
+    /*발송 완료.*/
+    SENT,
+    /*최대 재시도 횟수를 넘었거나 발송할 수 없어 포기.*/
+    FAILED
+}
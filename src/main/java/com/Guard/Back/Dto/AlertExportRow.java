@@ -0,0 +1,15 @@
+package com.Guard.Back.Dto;
+
+import com.Guard.Back.Domain.EventType;
+import java.time.ZonedDateTime;
+
+/*관리자 알림 기록 내보내기(NDJSON/CSV)의 한 행.*/
+public record AlertExportRow(
+        Long id,
+        EventType eventType,
+        String message,
+        ZonedDateTime eventTime,
+        /*이벤트 발생 당시의 위치. 없으면 null*/
+        Double latitude,
+        Double longitude
+) {}
@@ -4,7 +4,9 @@ import com.Guard.Back.Domain.EventType;
 import java.time.ZonedDateTime;
 
 public record AlertLogDto(
+        /*알림 기록의 ID. 페이지가 겹쳐 받은 기록을 걸러내는 데 사용*/
+        Long id,
         EventType eventType,
         String message,
         ZonedDateTime eventTime
-) {}
\ No newline at end of file
+) {}
@@ -0,0 +1,15 @@
+package com.Guard.Back.Dto;
+
+import java.util.List;
+
+/*알림 기록 한 페이지 조회 결과. 컨트롤러는 목록만 본문으로 보내고 커서는 X-Next-Cursor 헤더로 보냄*/
+public record AlertLogPage(
+        /*최신순으로 정렬된 알림 기록 목록.*/
+        List<AlertLogDto> alerts,
+
+        /*
+         * 다음(더 오래된) 페이지를 조회할 때 before 파라미터로 전달할 값.
+         * 더 이상 조회할 기록이 없으면 null
+         */
+        String nextCursor
+) {}
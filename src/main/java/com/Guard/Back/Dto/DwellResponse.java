@@ -0,0 +1,21 @@
+package com.Guard.Back.Dto;
+
+import java.time.LocalDateTime;
+
+/*위치 기록 조회 시 함께 응답하는 체류 구간(한 자리에 머문 구간) 데이터 전송 객체(DTO).*/
+public record DwellResponse(
+        /*체류 위치의 위도.*/
+        double latitude,
+
+        /*체류 위치의 경도.*/
+        double longitude,
+
+        /*체류 시작 시간. 같은 시간의 위치가 points에 함께 들어 있음*/
+        LocalDateTime startedAt,
+
+        /*체류 중 마지막으로 들어온 위치의 기록 시간.*/
+        LocalDateTime endedAt,
+
+        /*points에 포함되지 않고 이 구간으로 합쳐진 위치 개수.*/
+        int pointCount
+) {}
@@ -0,0 +1,34 @@
+package com.Guard.Back.Dto;
+
+import com.Guard.Back.Domain.GeofenceZoneType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/*피보호자의 안심 구역(원형 또는 다각형)을 등록하거나 조회할 때 사용하는 데이터 전송 객체(DTO).*/
+public record GeofenceZoneDto(
+        /*안심 구역 ID. 등록 요청 시에는 비워 둠*/
+        Long id,
+
+        /*구역 이름 (예: "집", "복지관").*/
+        @NotBlank @Size(max = 50)
+        String name,
+
+        /*구역 모양 (CIRCLE 또는 POLYGON).*/
+        @NotNull
+        GeofenceZoneType type,
+
+        /*원형 구역의 중심 위도/경도와 반경(미터). 다각형이면 생략*/
+        Double latitude,
+        Double longitude,
+        Integer radius,
+
+        /*다각형 구역의 꼭짓점 목록 (3~100개). 원형이면 생략*/
+        @Valid
+        List<Vertex> vertices
+) {
+    /*다각형 꼭짓점 하나.*/
+    public record Vertex(@NotNull Double latitude, @NotNull Double longitude) {}
+}
@@ -0,0 +1,11 @@
+package com.Guard.Back.Dto;
+
+import java.time.LocalDateTime;
+
+/*관리자 위치 기록 내보내기(NDJSON/CSV)의 한 행.*/
+public record LocationExportRow(
+        Long id,
+        double latitude,
+        double longitude,
+        LocalDateTime recordedAt
+) {}
@@ -0,0 +1,21 @@
+package com.Guard.Back.Dto;
+
+import java.util.List;
+
+/*보호자가 피보호자의 위치 기록(이동 경로)을 조회했을 때, 서버가 응답하는 데이터 전송 객체(DTO).*/
+public record LocationHistoryResponse(
+        /*기록 시간 순으로 정렬된 위치 목록. maxPoints를 지정하면 단순화된 경로*/
+        List<LocationResponse> points,
+
+        /*
+         * 이 페이지의 위치 기록 구간에서 시작한 체류 구간 목록 (시작 시간 순).
+         * 제자리에 머무는 동안 들어온 위치는 points에 없고 이 구간의 종료 시간과 개수로만 남음
+         */
+        List<DwellResponse> dwells,
+
+        /*
+         * 다음 페이지를 조회할 때 cursor 파라미터로 전달할 값.
+         * 더 이상 조회할 기록이 없으면 null
+         */
+        String nextCursor
+) {}
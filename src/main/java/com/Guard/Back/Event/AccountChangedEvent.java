@@ -0,0 +1,15 @@
+package com.Guard.Back.Event;
+
+import com.Guard.Back.Domain.UserRole;
+
+/**
+ * 보호자(users) 또는 피보호자(protected_user) 계정이 생성되거나 삭제되었을 때 발행되는 이벤트.
+ * 커밋 후 EventCounterService가 전체 사용자 수를 갱신
+ */
+public record AccountChangedEvent(
+        /*PROTECTED면 피보호자, 그 외(GUARDIAN, ADMIN)는 users 테이블의 계정.*/
+        UserRole role,
+
+        /*생성되었으면 true, 삭제되었으면 false.*/
+        boolean created
+) {}
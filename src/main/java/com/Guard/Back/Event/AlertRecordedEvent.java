@@ -0,0 +1,22 @@
+package com.Guard.Back.Event;
+
+import com.Guard.Back.Domain.EventType;
+import java.time.ZonedDateTime;
+
+/**
+ * 피보호자의 알림 기록(AlertLog)이 새로 저장되었을 때 발행되는 이벤트.
+ * 커밋 후 AlertMarkerCache가 피보호자의 마지막 알림 ID를, EventCounterService가 날짜별 알림 수를 갱신
+ */
+public record AlertRecordedEvent(
+        /*알림이 기록된 피보호자의 ID.*/
+        Long protectedUserId,
+
+        /*저장된 알림 기록의 ID.*/
+        Long alertLogId,
+
+        /*알림 종류.*/
+        EventType eventType,
+
+        /*알림 발생 시간.*/
+        ZonedDateTime eventTime
+) {}
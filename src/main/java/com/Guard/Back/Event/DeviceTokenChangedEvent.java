@@ -0,0 +1,10 @@
+package com.Guard.Back.Event;
+
+/**
+ * 보호자의 기기 토큰이 등록/삭제되었을 때 발행되는 이벤트.
+ * 커밋 후 DeviceTokenCache가 해당 보호자의 토큰 목록을 무효화
+ */
+public record DeviceTokenChangedEvent(
+        /*기기 토큰이 바뀐 보호자의 ID.*/
+        Long guardianId
+) {}
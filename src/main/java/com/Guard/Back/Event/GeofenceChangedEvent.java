@@ -0,0 +1,10 @@
+package com.Guard.Back.Event;
+
+/**
+ * 피보호자의 안심 구역 설정이 추가, 변경, 삭제되었을 때 발행되는 이벤트.
+ * 서버 메모리에 보관 중인 안심 구역 정보를 무효화하는 데 사용
+ */
+public record GeofenceChangedEvent(
+        /*안심 구역이 바뀐 피보호자의 ID.*/
+        Long protectedUserId
+) {}
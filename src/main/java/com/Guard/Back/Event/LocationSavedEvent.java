@@ -0,0 +1,21 @@
+package com.Guard.Back.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * 피보호자의 위치가 저장되었을 때 발행되는 이벤트.
+ * 여러 위치가 한 번에 저장된 경우 그중 가장 최신 위치를 담음
+ */
+public record LocationSavedEvent(
+        /*위치가 저장된 피보호자의 ID.*/
+        Long protectedUserId,
+
+        /*저장된 최신 위치의 위도.*/
+        double latitude,
+
+        /*저장된 최신 위치의 경도.*/
+        double longitude,
+
+        /*저장된 최신 위치가 기록된 시간.*/
+        LocalDateTime recordedAt
+) {}
@@ -0,0 +1,24 @@
+package com.Guard.Back.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 피보호자의 위치가 저장되었을 때, 저장된 모든 위치를 기록 시간 순으로 담아 발행되는 이벤트.
+ * 커밋 후 지오펜스 진입/이탈 판정에 사용 (체류 구간으로 합쳐져 location_log에 저장되지 않은 위치도 포함)
+ */
+public record LocationsRecordedEvent(
+        /*위치가 저장된 피보호자의 ID.*/
+        Long protectedUserId,
+
+        /*저장된 위치 목록 (기록 시간 순).*/
+        List<Point> points
+) {
+    /**
+     * 저장된 위치 하나.
+     * @param latitude   위도.
+     * @param longitude  경도.
+     * @param recordedAt 기록 시간.
+     */
+    public record Point(double latitude, double longitude, LocalDateTime recordedAt) {}
+}
@@ -0,0 +1,16 @@
+package com.Guard.Back.Event;
+
+/**
+ * 보호자와 피보호자 간의 관계가 생성되거나 삭제되었을 때 발행되는 이벤트.
+ * 회원 탈퇴로 여러 관계가 함께 삭제되면 관계마다 하나씩 발행
+ */
+public record RelationshipChangedEvent(
+        /*관계가 바뀐 보호자의 ID.*/
+        Long guardianId,
+
+        /*관계가 바뀐 피보호자의 ID.*/
+        Long protectedUserId,
+
+        /*관계가 생성되었으면 true, 삭제되었으면 false.*/
+        boolean linked
+) {}
@@ -15,6 +15,13 @@ public enum ErrorCode {
     /* 400 BAD_REQUEST : 잘못된 요청 */
     INVALID_LINKING_CODE(HttpStatus.BAD_REQUEST, "유효하지 않은 연동 코드입니다."),
     INVALID_REFRESH_TOKEN(HttpStatus.BAD_REQUEST, "유효하지 않은 리프레시 토큰입니다."),
+    INVALID_HISTORY_REQUEST(HttpStatus.BAD_REQUEST, "위치 기록 조회 조건이 올바르지 않습니다."),
+    INVALID_ALERT_REQUEST(HttpStatus.BAD_REQUEST, "알림 기록 조회 조건이 올바르지 않습니다. (limit 1~200, sinceId 0 이상, 올바른 before 커서)"),
+    INVALID_LOCATION_BATCH(HttpStatus.BAD_REQUEST, "위치 일괄 업로드 요청이 올바르지 않습니다. (1~500건, 위도/경도 필수)"),
+    INVALID_LOCATION_PACKET(HttpStatus.BAD_REQUEST, "위치 바이너리 데이터 형식이 올바르지 않습니다."),
+    INVALID_GEOFENCE_ZONE(HttpStatus.BAD_REQUEST, "안심 구역 정보가 올바르지 않습니다. (원형: 중심/반경, 다각형: 꼭짓점 3~100개)"),
+    INVALID_FCM_TOKEN(HttpStatus.BAD_REQUEST, "FCM 토큰이 비어 있습니다."),
+    INVALID_EXPORT_REQUEST(HttpStatus.BAD_REQUEST, "기록 내보내기 조건이 올바르지 않습니다. (format: ndjson/csv, from < to)"),
 
     /* 401 UNAUTHORIZED : 인증되지 않은 사용자 */
     UNAUTHORIZED_ACCESS(HttpStatus.UNAUTHORIZED, "해당 정보에 접근할 권한이 없습니다."),
@@ -24,10 +31,12 @@ public enum ErrorCode {
     GUARDIAN_NOT_FOUND(HttpStatus.NOT_FOUND, "보호자 정보를 찾을 수 없습니다."),
     PROTECTED_USER_NOT_FOUND(HttpStatus.NOT_FOUND, "피보호자 정보를 찾을 수 없습니다."),
     RELATIONSHIP_NOT_FOUND(HttpStatus.NOT_FOUND, "존재하지 않는 관계입니다."),
+    GEOFENCE_ZONE_NOT_FOUND(HttpStatus.NOT_FOUND, "존재하지 않는 안심 구역입니다."),
 
     /* 409 CONFLICT : 리소스 충돌 */
     RELATIONSHIP_ALREADY_EXISTS(HttpStatus.CONFLICT, "이미 연결된 관계입니다."),
-    MAX_GUARDIANS_REACHED(HttpStatus.CONFLICT, "이미 최대 2명의 보호자가 연결되어 있습니다.");
+    MAX_GUARDIANS_REACHED(HttpStatus.CONFLICT, "이미 최대 2명의 보호자가 연결되어 있습니다."),
+    MAX_GEOFENCE_ZONES_REACHED(HttpStatus.CONFLICT, "안심 구역은 피보호자당 최대 20개까지 등록할 수 있습니다.");
 
     /*해당 에러 코드의 HTTP 상태 코드.*/
     private final HttpStatus httpStatus;
@@ -0,0 +1,14 @@
+package com.Guard.Back.Geo;
+
+/**
+ * 위도/경도 범위로 표현한 사각형 영역.
+ * 안심 구역이 날짜 변경선(경도 ±180)을 넘지 않는다고 가정
+ */
+public record BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+
+    /*지점이 이 영역 안(경계 포함)에 있는지 확인*/
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+}
@@ -0,0 +1,153 @@
+package com.Guard.Back.Geo;
+
+/**
+ * 중심점과 반경(미터)으로 정의되는 원형 안심 구역.
+ *
+ * 위치마다 Haversine(삼각함수, atan2, sqrt)을 계산하지 않도록 단계적으로 판정
+ * 1. bounding box 밖이면 바로 외부
+ * 2. 중심 위도의 cos 값을 미리 구해 둔 평면(equirectangular) 근사 거리의 제곱으로, 경계에서 충분히 떨어져 있으면 바로 판정
+ * 3. 경계 근처(반경의 ±1%)에서만 정확한 Haversine 거리로 판정
+ *
+ * 근사 거리는 경도 1도의 길이를 중심 위도의 값으로 고정하므로, 중심보다 극 쪽에 있는 점일수록 동서 거리를 작게 잼
+ * 판정에 쓰는 가장 먼 점(반경 + 경계 띠)에서의 이 오차가 여유(±1%)의 절반을 넘는 구역은 항상 정확한 거리로 판정
+ */
+public final class CircleFence implements FenceShape {
+
+    /*지구 반지름 (미터). GeoUtils와 같은 값*/
+    private static final double EARTH_RADIUS_METERS = 6371 * 1000;
+
+    /*위도 1도의 길이 (미터).*/
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    /*평면 근사 거리를 믿을 수 있는 범위. 이 비율 안쪽/바깥쪽은 근사만으로 판정*/
+    private static final double FAST_PATH_MARGIN = 0.01;
+
+    /*classify의 경계 띠는 반경의 절반까지이므로, 판정에 쓰는 가장 먼 거리는 반경의 1.5배 (+ 여유)*/
+    private static final double MAX_REACH_RATIO = 1.5 * (1 + FAST_PATH_MARGIN);
+
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final double radiusMeters;
+    private final BoundingBox bounds;
+    private final boolean fastPath;
+    /*중심 위도에서 경도 1도의 길이 (미터).*/
+    private final double metersPerDegreeLongitude;
+    private final double innerSquared;
+    private final double outerSquared;
+
+    public CircleFence(double centerLatitude, double centerLongitude, double radiusMeters) {
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusMeters = radiusMeters;
+
+        // 극지방 근처에서 0으로 나누지 않도록 cos 값의 하한을 둠
+        double cosLatitude = Math.max(Math.cos(Math.toRadians(centerLatitude)), 0.01);
+        this.metersPerDegreeLongitude = METERS_PER_DEGREE * cosLatitude;
+        this.fastPath = approximationError(centerLatitude, radiusMeters) <= FAST_PATH_MARGIN / 2;
+
+        // 원의 실제 동서 끝은 중심 위도보다 약간 극 쪽에 있으므로 여유를 두고 감쌈
+        double latDelta = radiusMeters * (1 + FAST_PATH_MARGIN) / METERS_PER_DEGREE;
+        double lonDelta = radiusMeters * (1 + FAST_PATH_MARGIN) / metersPerDegreeLongitude;
+        this.bounds = new BoundingBox(centerLatitude - latDelta, centerLongitude - lonDelta,
+                centerLatitude + latDelta, centerLongitude + lonDelta);
+
+        double inner = radiusMeters * (1 - FAST_PATH_MARGIN);
+        double outer = radiusMeters * (1 + FAST_PATH_MARGIN);
+        this.innerSquared = inner * inner;
+        this.outerSquared = outer * outer;
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        if (fastPath) {
+            if (!bounds.contains(latitude, longitude)) {
+                return false;
+            }
+            double dy = (latitude - centerLatitude) * METERS_PER_DEGREE;
+            double dx = (longitude - centerLongitude) * metersPerDegreeLongitude;
+            double squared = dx * dx + dy * dy;
+            if (squared <= innerSquared) {
+                return true;
+            }
+            if (squared >= outerSquared) {
+                return false;
+            }
+        }
+        return distanceToCenter(latitude, longitude) <= radiusMeters;
+    }
+
+    /**
+     * 반경 ± bandMeters를 기준으로 분류. contains와 마찬가지로 근사 거리로 확실한 경우는 바로 판정
+     * 띠가 반경의 절반보다 넓으면 안쪽 영역이 사라지지 않도록 반경의 절반으로 줄임
+     */
+    @Override
+    public FenceRegion classify(double latitude, double longitude, double bandMeters) {
+        double band = Math.min(Math.max(bandMeters, 0), radiusMeters / 2);
+        double inner = radiusMeters - band;
+        double outer = radiusMeters + band;
+
+        if (fastPath) {
+            double dy = (latitude - centerLatitude) * METERS_PER_DEGREE;
+            double dx = (longitude - centerLongitude) * metersPerDegreeLongitude;
+            double squared = dx * dx + dy * dy;
+            if (squared <= square(inner * (1 - FAST_PATH_MARGIN))) {
+                return FenceRegion.INSIDE;
+            }
+            if (squared >= square(outer * (1 + FAST_PATH_MARGIN))) {
+                return FenceRegion.OUTSIDE;
+            }
+            if (squared >= square(inner * (1 + FAST_PATH_MARGIN)) && squared <= square(outer * (1 - FAST_PATH_MARGIN))) {
+                return FenceRegion.BOUNDARY;
+            }
+        }
+        double distance = distanceToCenter(latitude, longitude);
+        if (distance <= inner) {
+            return FenceRegion.INSIDE;
+        }
+        return distance > outer ? FenceRegion.OUTSIDE : FenceRegion.BOUNDARY;
+    }
+
+    /**
+     * 평면 근사 거리의 최대 상대 오차
+     * 중심에서 판정에 쓰는 가장 먼 거리만큼 극 쪽으로 떨어진 점에서 경도 1도의 실제 길이(cos)와 중심 위도의 값의 비율로 계산하고,
+     * 평면과 구면의 차이(거리/반지름의 제곱 정도)를 더함
+     *
+     * @return 상대 오차. 극을 넘어가는 구역이면 무한대
+     */
+    static double approximationError(double centerLatitude, double radiusMeters) {
+        double reach = radiusMeters * MAX_REACH_RATIO / EARTH_RADIUS_METERS;
+        double farLatitude = Math.toRadians(Math.abs(centerLatitude)) + reach;
+        if (farLatitude >= Math.PI / 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cosCenter = Math.cos(Math.toRadians(centerLatitude));
+        double cosFar = Math.cos(farLatitude);
+        return (cosCenter - cosFar) / cosFar + reach * reach;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    /*지점과 중심점 사이의 정확한 거리 (미터, Haversine).*/
+    public double distanceToCenter(double latitude, double longitude) {
+        return GeoUtils.haversine(centerLatitude, centerLongitude, latitude, longitude);
+    }
+
+    @Override
+    public BoundingBox bounds() {
+        return bounds;
+    }
+
+    public double centerLatitude() {
+        return centerLatitude;
+    }
+
+    public double centerLongitude() {
+        return centerLongitude;
+    }
+
+    public double radiusMeters() {
+        return radiusMeters;
+    }
+}
@@ -0,0 +1,100 @@
+package com.Guard.Back.Geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 안심 구역을 위도/경도 격자 칸(bucket)에 나누어 담는 읽기 전용 공간 인덱스.
+ * 각 구역은 bounding box가 걸치는 모든 칸에 등록되고, 지점 조회 시 그 지점이 속한 칸의 구역만 후보로 반환
+ * 따라서 구역 수가 늘어나도 위치 하나를 판정하는 비용은 근처 구역 수에만 비례
+ *
+ * 생성 후 변경되지 않으므로 여러 스레드에서 동시에 조회 가능
+ *
+ * @param <T> 구역과 함께 보관할 값 (예: 구역 ID).
+ */
+public final class FenceIndex<T> {
+
+    /*기본 격자 크기 (도). 약 1.1km*/
+    public static final double DEFAULT_CELL_DEGREES = 0.01;
+
+    /*구역 하나가 이보다 많은 칸에 걸치면 칸에 넣지 않고 항상 후보로 검사 (도시 단위의 큰 구역).*/
+    private static final int MAX_CELLS_PER_FENCE = 256;
+
+    /*인덱스에 담긴 구역과 값.*/
+    public record Entry<T>(T value, FenceShape shape) {}
+
+    private final double cellDegrees;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final List<Entry<T>> large = new ArrayList<>();
+    private final int size;
+
+    public FenceIndex(List<Entry<T>> entries) {
+        this(entries, DEFAULT_CELL_DEGREES);
+    }
+
+    public FenceIndex(List<Entry<T>> entries, double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.size = entries.size();
+        for (Entry<T> entry : entries) {
+            BoundingBox box = entry.shape().bounds();
+            int minRow = row(box.minLatitude()), maxRow = row(box.maxLatitude());
+            int minCol = col(box.minLongitude()), maxCol = col(box.maxLongitude());
+            if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) > MAX_CELLS_PER_FENCE) {
+                large.add(entry);
+                continue;
+            }
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    cells.computeIfAbsent(key(r, c), k -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * 지점을 포함할 가능성이 있는 구역(후보)을 반환
+     * 실제 포함 여부는 {@link FenceShape#contains}로 확인해야 함
+     */
+    public List<Entry<T>> candidates(double latitude, double longitude) {
+        List<Entry<T>> cell = cells.getOrDefault(key(row(latitude), col(longitude)), List.of());
+        if (large.isEmpty()) {
+            return cell;
+        }
+        List<Entry<T>> result = new ArrayList<>(cell.size() + large.size());
+        result.addAll(cell);
+        result.addAll(large);
+        return result;
+    }
+
+    /**
+     * 지점을 포함하는 구역의 값을 모두 반환
+     */
+    public List<T> containing(double latitude, double longitude) {
+        List<T> result = new ArrayList<>();
+        for (Entry<T> entry : candidates(latitude, longitude)) {
+            if (entry.shape().contains(latitude, longitude)) {
+                result.add(entry.value());
+            }
+        }
+        return result;
+    }
+
+    /*인덱스에 담긴 구역 수.*/
+    public int size() {
+        return size;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,11 @@
+package com.Guard.Back.Geo;
+
+/**
+ * 경계 띠(hysteresis band)를 고려한 지점의 위치.
+ * 경계 양쪽으로 일정 거리 안에 있으면 BOUNDARY로 보고 진입/이탈 판정을 보류
+ */
+public enum FenceRegion {
+    INSIDE,
+    BOUNDARY,
+    OUTSIDE
+}
@@ -0,0 +1,28 @@
+package com.Guard.Back.Geo;
+
+/**
+ * 안심 구역(지오펜스)의 모양.
+ * 구현체는 생성 후 변경되지 않으며(immutable), 여러 스레드에서 동시에 사용 가능
+ */
+public interface FenceShape {
+
+    /**
+     * 지점이 구역 안에 있는지 확인
+     * @param latitude  확인할 지점의 위도.
+     * @param longitude 확인할 지점의 경도.
+     * @return 구역 안(경계 포함)이면 true.
+     */
+    boolean contains(double latitude, double longitude);
+
+    /**
+     * 경계 양쪽 bandMeters 폭의 띠를 고려해 지점의 위치를 분류
+     * @param latitude   확인할 지점의 위도.
+     * @param longitude  확인할 지점의 경도.
+     * @param bandMeters 경계 띠의 폭 (미터, 경계 한쪽 기준). 0이면 contains와 같은 결과.
+     * @return 띠보다 안쪽이면 INSIDE, 띠보다 바깥이면 OUTSIDE, 띠 안이면 BOUNDARY.
+     */
+    FenceRegion classify(double latitude, double longitude, double bandMeters);
+
+    /*구역을 감싸는 최소 사각형. 공간 인덱스에서 후보를 고를 때 사용*/
+    BoundingBox bounds();
+}
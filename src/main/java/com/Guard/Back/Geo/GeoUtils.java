@@ -0,0 +1,27 @@
+package com.Guard.Back.Geo;
+
+/**
+ * 위도/경도 좌표 계산에 사용하는 유틸리티 클래스.
+ */
+public final class GeoUtils {
+
+    /*지구 반지름 (미터).*/
+    private static final double EARTH_RADIUS_METERS = 6371 * 1000;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * 두 지점의 위도, 경도 좌표를 사용하여 거리를 계산하는 Haversine 공식 구현체.
+     * @return 두 지점 간의 거리 (미터 단위).
+     */
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+}
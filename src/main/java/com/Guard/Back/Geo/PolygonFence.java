@@ -0,0 +1,250 @@
+package com.Guard.Back.Geo;
+
+import java.util.Arrays;
+
+/**
+ * 꼭짓점 목록으로 정의되는 다각형 안심 구역.
+ * 안심 구역 정도의 작은 영역에서는 위도/경도를 평면 좌표로 보고 판정해도 오차가 무시할 수준
+ */
+public final class PolygonFence implements FenceShape {
+
+    /*위도 1도의 길이 (미터). GeoUtils의 지구 반지름과 같은 값으로 계산*/
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6371 * 1000;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final BoundingBox bounds;
+
+    /**
+     * @param latitudes  꼭짓점의 위도 배열 (순서대로, 마지막 점과 첫 점은 자동으로 연결. 마지막 점이 첫 점과 같으면 생략).
+     * @param longitudes 꼭짓점의 경도 배열.
+     * @throws IllegalArgumentException 서로 다른 꼭짓점이 3개 미만이거나, 두 배열의 길이가 다르거나,
+     *                                  좌표가 유한한 수가 아니거나, 변끼리 만나는(자기 교차) 경우 발생.
+     */
+    public PolygonFence(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("꼭짓점의 위도와 경도 개수가 다릅니다.");
+        }
+        int n = latitudes.length;
+        // 닫힌 형식(첫 점을 마지막에 한 번 더 적은 경우)은 마지막 점을 생략
+        if (n > 1 && latitudes[0] == latitudes[n - 1] && longitudes[0] == longitudes[n - 1]) {
+            n--;
+        }
+        if (n < 3) {
+            throw new IllegalArgumentException("다각형은 3개 이상의 꼭짓점이 필요합니다.");
+        }
+        this.latitudes = Arrays.copyOf(latitudes, n);
+        this.longitudes = Arrays.copyOf(longitudes, n);
+        validate(this.latitudes, this.longitudes);
+
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minLat = Math.min(minLat, this.latitudes[i]);
+            maxLat = Math.max(maxLat, this.latitudes[i]);
+            minLon = Math.min(minLon, this.longitudes[i]);
+            maxLon = Math.max(maxLon, this.longitudes[i]);
+        }
+        this.bounds = new BoundingBox(minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * "위도,경도;위도,경도;..." 형식의 꼭짓점 문자열로 다각형을 만듦
+     * @throws IllegalArgumentException 형식이 올바르지 않거나 올바른 다각형이 아닌 경우 발생.
+     */
+    public static PolygonFence parse(String encoded) {
+        double[][] vertices = decode(encoded);
+        return new PolygonFence(vertices[0], vertices[1]);
+    }
+
+    /**
+     * "위도,경도;위도,경도;..." 형식의 꼭짓점 문자열을 위도 배열과 경도 배열로 나눔 (다각형 검증은 하지 않음)
+     * @return {위도 배열, 경도 배열}
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우 발생.
+     */
+    public static double[][] decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            throw new IllegalArgumentException("꼭짓점 정보가 없습니다.");
+        }
+        String[] points = encoded.split(";");
+        double[] latitudes = new double[points.length];
+        double[] longitudes = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            int comma = points[i].indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("꼭짓점 형식이 올바르지 않습니다: " + points[i]);
+            }
+            latitudes[i] = Double.parseDouble(points[i].substring(0, comma));
+            longitudes[i] = Double.parseDouble(points[i].substring(comma + 1));
+        }
+        return new double[][] {latitudes, longitudes};
+    }
+
+    /*꼭짓점을 "위도,경도;위도,경도;..." 형식으로 변환 (저장용).*/
+    public String encode() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < latitudes.length; i++) {
+            if (i > 0) {
+                builder.append(';');
+            }
+            builder.append(latitudes[i]).append(',').append(longitudes[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 좌표가 유한한 수이고, 같은 꼭짓점이 반복되지 않고, 넓이가 있고, 변끼리 만나지 않는지 검사하는 헬퍼 메소드.
+     * 꼭짓점 수가 적으므로(100개 이하) 모든 변의 쌍을 비교
+     */
+    private static void validate(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(latitudes[i]) || !Double.isFinite(longitudes[i])) {
+                throw new IllegalArgumentException("꼭짓점 좌표가 올바르지 않습니다.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (latitudes[i] == latitudes[j] && longitudes[i] == longitudes[j]) {
+                    throw new IllegalArgumentException("같은 꼭짓점이 반복됩니다.");
+                }
+            }
+        }
+
+        double doubleArea = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            doubleArea += longitudes[j] * latitudes[i] - longitudes[i] * latitudes[j];
+        }
+        if (doubleArea == 0) {
+            throw new IllegalArgumentException("모든 꼭짓점이 한 직선 위에 있습니다.");
+        }
+
+        // 변 i는 꼭짓점 i에서 i+1로 가는 선분
+        for (int i = 0; i < n; i++) {
+            int i2 = (i + 1) % n;
+            for (int j = i + 1; j < n; j++) {
+                int j2 = (j + 1) % n;
+                boolean adjacent = j == i + 1 || (i == 0 && j == n - 1);
+                boolean crosses = adjacent
+                        ? foldsBack(longitudes, latitudes, i, i2, j, j2)
+                        : intersects(longitudes[i], latitudes[i], longitudes[i2], latitudes[i2],
+                                     longitudes[j], latitudes[j], longitudes[j2], latitudes[j2]);
+                if (crosses) {
+                    throw new IllegalArgumentException("다각형의 변끼리 만납니다 (자기 교차).");
+                }
+            }
+        }
+    }
+
+    /*꼭짓점을 공유하는 이웃한 두 변이 한 직선 위에서 겹치는지 (되돌아가는지) 확인하는 헬퍼 메소드.*/
+    private static boolean foldsBack(double[] x, double[] y, int i, int i2, int j, int j2) {
+        // 공유하지 않는 두 끝점과 공유하는 점
+        int shared = i2 == j ? i2 : i;
+        int a = shared == i2 ? i : i2;
+        int b = shared == j ? j2 : j;
+        if (cross(x[shared], y[shared], x[a], y[a], x[b], y[b]) != 0) {
+            return false;
+        }
+        // 한 직선 위에서 두 끝점이 공유점의 같은 쪽에 있으면 겹침
+        return (x[a] - x[shared]) * (x[b] - x[shared]) + (y[a] - y[shared]) * (y[b] - y[shared]) > 0;
+    }
+
+    /*두 선분 (a-b), (c-d)가 만나는지 (끝점이 닿는 경우 포함) 확인하는 헬퍼 메소드.*/
+    private static boolean intersects(double ax, double ay, double bx, double by,
+                                      double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    /*(o-a)와 (o-b)의 외적. 양수이면 b가 o-a의 왼쪽에 있음*/
+    private static double cross(double ox, double oy, double ax, double ay, double bx, double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+    }
+
+    /*한 직선 위에 있는 점 p가 선분 (a-b)의 범위 안에 있는지 확인.*/
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    /**
+     * 지점에서 오른쪽으로 그은 반직선이 변과 만나는 횟수가 홀수이면 내부로 판정(ray casting).
+     */
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        if (!bounds.contains(latitude, longitude)) {
+            return false;
+        }
+        boolean inside = false;
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double latI = latitudes[i], latJ = latitudes[j];
+            if ((latI > latitude) != (latJ > latitude)) {
+                double crossLon = longitudes[i] + (latitude - latI) * (longitudes[j] - longitudes[i]) / (latJ - latI);
+                if (longitude < crossLon) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * 내부 여부는 contains로, 경계 띠 여부는 가장 가까운 변까지의 거리로 판정
+     */
+    @Override
+    public FenceRegion classify(double latitude, double longitude, double bandMeters) {
+        boolean inside = contains(latitude, longitude);
+        if (bandMeters > 0 && distanceToBoundary(latitude, longitude) < bandMeters) {
+            return FenceRegion.BOUNDARY;
+        }
+        return inside ? FenceRegion.INSIDE : FenceRegion.OUTSIDE;
+    }
+
+    /**
+     * 지점에서 가장 가까운 변까지의 거리 (미터).
+     * 지점을 원점으로 하는 평면(equirectangular) 좌표로 바꾸어 점-선분 거리를 계산
+     */
+    public double distanceToBoundary(double latitude, double longitude) {
+        double metersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        double minSquared = Double.POSITIVE_INFINITY;
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double ax = (longitudes[j] - longitude) * metersPerDegreeLongitude;
+            double ay = (latitudes[j] - latitude) * METERS_PER_DEGREE;
+            double bx = (longitudes[i] - longitude) * metersPerDegreeLongitude;
+            double by = (latitudes[i] - latitude) * METERS_PER_DEGREE;
+            double ex = bx - ax, ey = by - ay;
+            double lengthSquared = ex * ex + ey * ey;
+            // 원점에서 선분에 내린 수선의 발 위치 (0~1로 제한)
+            double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, -(ax * ex + ay * ey) / lengthSquared));
+            double px = ax + t * ex, py = ay + t * ey;
+            minSquared = Math.min(minSquared, px * px + py * py);
+        }
+        return Math.sqrt(minSquared);
+    }
+
+    @Override
+    public BoundingBox bounds() {
+        return bounds;
+    }
+
+    /*꼭짓점 개수.*/
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double latitude(int i) {
+        return latitudes[i];
+    }
+
+    public double longitude(int i) {
+        return longitudes[i];
+    }
+}
@@ -0,0 +1,101 @@
+package com.Guard.Back.Geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 위치 경로(트랙)를 지정한 점 개수 이하로 단순화하는 유틸리티 클래스.
+ * Douglas–Peucker 알고리즘을 허용 오차 대신 "남길 점 개수" 기준으로 수행하여,
+ * 경로 모양에서 가장 크게 벗어나는 점부터 차례로 남김
+ */
+public final class TrackSimplifier {
+
+    private TrackSimplifier() {
+    }
+
+    /*분할 대상 구간과, 그 구간에서 직선으로부터 가장 멀리 떨어진 점.*/
+    private record Segment(int start, int end, int farthest, double distance) {}
+
+    /**
+     * 경로를 최대 maxPoints개의 점으로 단순화
+     * 시작점과 끝점은 항상 남기며, 결과는 원래 순서를 유지
+     *
+     * @param points    시간 순으로 정렬된 점 목록.
+     * @param latitude  점에서 위도를 꺼내는 함수.
+     * @param longitude 점에서 경도를 꺼내는 함수.
+     * @param maxPoints 남길 최대 점 개수 (2 미만이면 2로 처리).
+     * @return 단순화된 점 목록. 원래 점 개수가 maxPoints 이하이면 그대로 반환
+     */
+    public static <T> List<T> simplify(List<T> points, ToDoubleFunction<T> latitude,
+                                       ToDoubleFunction<T> longitude, int maxPoints) {
+        int n = points.size();
+        int limit = Math.max(2, maxPoints);
+        if (n <= limit) {
+            return points;
+        }
+
+        // 좁은 지역에서는 위도에 따른 경도 길이 차이만 보정한 평면 좌표로 충분
+        double cosLat = Math.cos(Math.toRadians(latitude.applyAsDouble(points.get(0))));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = longitude.applyAsDouble(points.get(i)) * cosLat;
+            y[i] = latitude.applyAsDouble(points.get(i));
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        PriorityQueue<Segment> queue = new PriorityQueue<>(Comparator.comparingDouble(Segment::distance).reversed());
+        queue.add(farthestOf(x, y, 0, n - 1));
+        while (kept < limit && !queue.isEmpty()) {
+            Segment segment = queue.poll();
+            if (segment.farthest() < 0) {
+                continue;
+            }
+            keep[segment.farthest()] = true;
+            kept++;
+            queue.add(farthestOf(x, y, segment.start(), segment.farthest()));
+            queue.add(farthestOf(x, y, segment.farthest(), segment.end()));
+        }
+
+        List<T> result = new ArrayList<>(kept);
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                result.add(points.get(i));
+            }
+        }
+        return result;
+    }
+
+    /*구간 (start, end) 내부에서 선분 start-end로부터 가장 먼 점을 찾는 헬퍼 메소드.*/
+    private static Segment farthestOf(double[] x, double[] y, int start, int end) {
+        int farthest = -1;
+        double maxDistance = -1;
+        for (int i = start + 1; i < end; i++) {
+            double d = segmentDistanceSquared(x[i], y[i], x[start], y[start], x[end], y[end]);
+            if (d > maxDistance) {
+                maxDistance = d;
+                farthest = i;
+            }
+        }
+        return new Segment(start, end, farthest, maxDistance);
+    }
+
+    /*점 (px, py)에서 선분 (ax, ay)-(bx, by)까지 거리의 제곱.*/
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+}
@@ -0,0 +1,45 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.ActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*ActiveUserSketch(활성 사용자 스케치) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, Long> {
+
+    /*해당 시간 이후에 시작한 모든 서버의 스케치.*/
+    List<ActiveUserSketch> findAllByBucketStartGreaterThanEqual(LocalDateTime from);
+
+    /**
+     * 해당 시간 이후에 시작했고, 마지막으로 확인한 뒤 갱신된 스케치만 조회 (다른 서버의 변경분을 가져올 때 사용)
+     * @param from         조회할 가장 오래된 구간의 시작 시간.
+     * @param updatedSince 이 시간 이후에 저장된 행만 조회.
+     */
+    @Query("SELECT s FROM ActiveUserSketch s WHERE s.bucketStart >= :from AND s.updatedAt >= :updatedSince")
+    List<ActiveUserSketch> findUpdatedSince(@Param("from") LocalDateTime from,
+                                            @Param("updatedSince") LocalDateTime updatedSince);
+
+    /**
+     * 서버의 시간 구간 스케치를 저장. 이미 있으면 레지스터를 덮어씀
+     * (서버는 자신의 구간 스케치를 메모리에 모두 가지고 있으므로 합치지 않고 덮어써도 됨)
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO active_user_sketch (node, bucket_start, registers, updated_at) "
+            + "VALUES (:node, :bucketStart, :registers, :now) "
+            + "ON DUPLICATE KEY UPDATE registers = VALUES(registers), updated_at = VALUES(updated_at)", nativeQuery = true)
+    int upsert(@Param("node") String node, @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("registers") byte[] registers, @Param("now") LocalDateTime now);
+
+    /**
+     * 집계 구간을 벗어난 모든 서버의 스케치를 삭제
+     * @return 삭제된 행 수.
+     */
+    @Modifying
+    @Query("DELETE FROM ActiveUserSketch s WHERE s.bucketStart < :before")
+    int deleteByBucketStartBefore(@Param("before") LocalDateTime before);
+}
@@ -2,19 +2,121 @@ package com.Guard.Back.Repository;
 
 import com.Guard.Back.Domain.AlertLog;
 import com.Guard.Back.Domain.EventType;
-import com.Guard.Back.Domain.ProtectedUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 
 public interface AlertLogRepository extends JpaRepository<AlertLog, Long> {
-    // 특정 피보호자의 모든 기록을 최신순으로 조회
-    List<AlertLog> findAllByProtectedUserOrderByEventTimeDesc(ProtectedUser protectedUser);
 
-    // 오늘 SOS 카운트
-    long countByEventTypeAndEventTimeAfter(EventType eventType, ZonedDateTime time);
+    /*알림 종류와 건수만 담는 조회 결과.*/
+    interface EventTypeCount {
+        EventType getEventType();
+        long getTotal();
+    }
+
+    /**
+     * 특정 피보호자의 가장 최근 알림 기록을 (eventTime, id) 역순으로 조회 (첫 페이지, 모든 종류)
+     * (protected_user_id, event_time, id) 인덱스를 거꾸로 읽으므로 정렬 없이 limit건만 읽음
+     *
+     * @param protectedUserId 알림 기록을 조회할 피보호자의 ID.
+     * @param sinceId         이 ID보다 큰(새로운) 기록만 조회. 전체를 조회하려면 0
+     * @param pageable        조회할 최대 개수 (정렬은 쿼리에 고정).
+     * @return 최신순으로 정렬된 알림 기록 목록.
+     */
+    @Query("SELECT a FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId AND a.id > :sinceId "
+            + "ORDER BY a.eventTime DESC, a.id DESC")
+    List<AlertLog> findLatestPage(@Param("protectedUserId") Long protectedUserId,
+                                  @Param("sinceId") Long sinceId,
+                                  Pageable pageable);
+
+    /**
+     * 특정 피보호자의 알림 기록 중 이전 페이지의 마지막 기록보다 오래된 것을 (eventTime, id) 역순으로 keyset 페이지네이션하여 조회 (모든 종류)
+     * OFFSET 없이 마지막으로 읽은 (eventTime, id) 다음부터 읽으므로 페이지가 뒤로 가도 비용이 일정
+     *
+     * @param beforeTime 이전 페이지의 마지막 기록 시간.
+     * @param beforeId   이전 페이지의 마지막 기록 ID.
+     * @return 최신순으로 정렬된 알림 기록 목록.
+     */
+    @Query("SELECT a FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId AND a.id > :sinceId "
+            + "AND (a.eventTime < :beforeTime OR (a.eventTime = :beforeTime AND a.id < :beforeId)) "
+            + "ORDER BY a.eventTime DESC, a.id DESC")
+    List<AlertLog> findPageBefore(@Param("protectedUserId") Long protectedUserId,
+                                  @Param("sinceId") Long sinceId,
+                                  @Param("beforeTime") ZonedDateTime beforeTime,
+                                  @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+
+    /**
+     * findLatestPage의 한 종류 버전
+     * 종류를 등호로 비교하므로 (protected_user_id, event_type, event_time, id) 인덱스를 거꾸로 읽어 정렬 없이 limit건만 읽음
+     * (IN으로 여러 종류를 한 번에 조회하면 종류별 범위를 합쳐 정렬해야 하므로, 여러 종류는 종류별로 조회하여 합침)
+     */
+    @Query("SELECT a FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId AND a.eventType = :type "
+            + "AND a.id > :sinceId "
+            + "ORDER BY a.eventTime DESC, a.id DESC")
+    List<AlertLog> findLatestPageByType(@Param("protectedUserId") Long protectedUserId,
+                                        @Param("type") EventType type,
+                                        @Param("sinceId") Long sinceId,
+                                        Pageable pageable);
+
+    /**
+     * findPageBefore의 한 종류 버전
+     * (protected_user_id, event_type, event_time, id) 인덱스를 사용
+     */
+    @Query("SELECT a FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId AND a.eventType = :type "
+            + "AND a.id > :sinceId "
+            + "AND (a.eventTime < :beforeTime OR (a.eventTime = :beforeTime AND a.id < :beforeId)) "
+            + "ORDER BY a.eventTime DESC, a.id DESC")
+    List<AlertLog> findPageBeforeByType(@Param("protectedUserId") Long protectedUserId,
+                                        @Param("type") EventType type,
+                                        @Param("sinceId") Long sinceId,
+                                        @Param("beforeTime") ZonedDateTime beforeTime,
+                                        @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
+
+    /**
+     * 특정 피보호자의 기간 내 알림 기록을 오래된 순으로 하나씩 읽는 Stream (내보내기용)
+     * 결과를 한 번에 메모리에 올리지 않고 fetch size만큼씩 DB에서 받아오며, 읽기 전용으로 조회하여 변경 감지용 사본을 만들지 않음
+     * 트랜잭션 안에서 사용하고, 다 읽은 뒤 반드시 닫아야 함 (try-with-resources)
+     *
+     * @param protectedUserId 알림 기록을 내보낼 피보호자의 ID.
+     * @param from            시작 시간 (포함).
+     * @param to              종료 시간 (미포함).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId "
+            + "AND a.eventTime >= :from AND a.eventTime < :to ORDER BY a.eventTime ASC, a.id ASC")
+    Stream<AlertLog> streamByProtectedUserId(@Param("protectedUserId") Long protectedUserId,
+                                             @Param("from") ZonedDateTime from,
+                                             @Param("to") ZonedDateTime to);
+
+    /**
+     * 특정 피보호자의 마지막(가장 큰) 알림 기록 ID
+     * (protected_user_id, id) 인덱스의 마지막 항목만 읽음
+     * @return 알림 기록이 없으면 null.
+     */
+    @Query("SELECT MAX(a.id) FROM AlertLog a WHERE a.protectedUser.id = :protectedUserId")
+    Long findLastIdByProtectedUserId(@Param("protectedUserId") Long protectedUserId);
+
+    /**
+     * 기간 내 알림 기록 수를 종류별로 집계 (대시보드 카운터 정합성 보정용)
+     * (event_time) 인덱스를 사용
+     * @return 기록이 있는 종류만 포함
+     */
+    @Query("SELECT a.eventType AS eventType, COUNT(a) AS total FROM AlertLog a "
+            + "WHERE a.eventTime >= :from AND a.eventTime < :to GROUP BY a.eventType")
+    List<EventTypeCount> countByEventTypeBetween(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
 
     // SOS 전체 이력 조회
     List<AlertLog> findByEventType(EventType eventType, Pageable pageable);
-}
\ No newline at end of file
+}
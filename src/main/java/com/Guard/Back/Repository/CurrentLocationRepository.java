@@ -0,0 +1,32 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.CurrentLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+
+/*CurrentLocation(피보호자별 최신 위치) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface CurrentLocationRepository extends JpaRepository<CurrentLocation, Long> {
+
+    /**
+     * 피보호자의 최신 위치를 저장하거나 갱신
+     * 오프라인 기록이 늦게 올라와도 최신 위치가 과거로 되돌아가지 않도록, 기존보다 새로운 기록일 때만 덮어씀
+     * (recorded_at은 비교에 사용되므로 반드시 마지막에 갱신)
+     *
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO current_location (protected_user_id, latitude, longitude, recorded_at) "
+            + "VALUES (:protectedUserId, :latitude, :longitude, :recordedAt) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "latitude = IF(VALUES(recorded_at) >= recorded_at, VALUES(latitude), latitude), "
+            + "longitude = IF(VALUES(recorded_at) >= recorded_at, VALUES(longitude), longitude), "
+            + "recorded_at = GREATEST(recorded_at, VALUES(recorded_at))",
+            nativeQuery = true)
+    int upsert(@Param("protectedUserId") Long protectedUserId,
+               @Param("latitude") double latitude,
+               @Param("longitude") double longitude,
+               @Param("recordedAt") LocalDateTime recordedAt);
+}
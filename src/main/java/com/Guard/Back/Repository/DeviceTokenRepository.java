@@ -0,0 +1,68 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.DeviceToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/*DeviceToken(보호자 기기 토큰) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long> {
+
+    /*보호자 ID와 기기 토큰만 담는 조회 결과.*/
+    interface GuardianToken {
+        Long getGuardianId();
+        String getToken();
+    }
+
+    /**
+     * 여러 보호자의 기기 토큰을 한 번의 쿼리로 조회 (엔티티를 읽지 않음)
+     * @param guardianIds 보호자 ID 목록.
+     * @return 보호자 ID와 토큰 쌍 목록. 토큰이 없는 보호자는 포함되지 않음
+     */
+    @Query("SELECT d.guardianId AS guardianId, d.token AS token FROM DeviceToken d WHERE d.guardianId IN :guardianIds")
+    List<GuardianToken> findTokensByGuardianIds(@Param("guardianIds") Collection<Long> guardianIds);
+
+    /**
+     * 기기 토큰을 등록. 이미 있는 토큰이면 보호자/플랫폼/마지막 등록 시간만 갱신
+     * 기기를 다른 보호자 계정으로 다시 로그인한 경우 토큰은 새 보호자에게 옮겨짐
+     * @return 영향받은 행 수 (새로 등록 1, 갱신 2, 변경 없음 0).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO device_token (guardian_id, token, platform, last_seen_at, created_at) " +
+            "VALUES (:guardianId, :token, :platform, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE guardian_id = VALUES(guardian_id), platform = VALUES(platform), " +
+            "last_seen_at = VALUES(last_seen_at)", nativeQuery = true)
+    int upsert(@Param("guardianId") Long guardianId, @Param("token") String token,
+               @Param("platform") String platform, @Param("now") LocalDateTime now);
+
+    /*토큰의 현재 주인(보호자) ID 목록. 토큰을 지우기 전에 무효화할 캐시 항목을 찾는 데 사용*/
+    @Query("SELECT DISTINCT d.guardianId FROM DeviceToken d WHERE d.token IN :tokens")
+    List<Long> findGuardianIdsByTokens(@Param("tokens") Collection<String> tokens);
+
+    /**
+     * 마지막 등록 시간이 기준 시간보다 오래된 기기 토큰을 조회 (앱을 지웠거나 오래 쓰지 않은 기기)
+     * @param cutoff 이 시간보다 먼저 마지막으로 등록된 토큰만 조회.
+     * @param limit  최대 조회 개수.
+     */
+    @Query(value = "SELECT guardian_id AS guardianId, token AS token FROM device_token "
+            + "WHERE last_seen_at < :cutoff ORDER BY last_seen_at LIMIT :limit", nativeQuery = true)
+    List<GuardianToken> findStaleTokens(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * 기준 시간 이후에 다시 등록되지 않은 토큰만 삭제 (FCM이 거절한 토큰, 오래 쓰지 않은 토큰)
+     * 죽은 것으로 표시했거나 조회한 뒤에 같은 토큰이 다시 등록되었으면 (다른 서버에서 등록된 경우 포함) 지우지 않음
+     * @return 삭제된 행 수.
+     */
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.token IN :tokens AND d.lastSeenAt < :before")
+    int deleteByTokensSeenBefore(@Param("tokens") Collection<String> tokens, @Param("before") LocalDateTime before);
+
+    /*보호자의 모든 기기 토큰을 삭제 (회원 탈퇴).*/
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.guardianId = :guardianId")
+    int deleteAllByGuardianId(@Param("guardianId") Long guardianId);
+}
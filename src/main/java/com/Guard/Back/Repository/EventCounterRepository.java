@@ -0,0 +1,63 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.EventCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/*EventCounter(대시보드 집계 카운터) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface EventCounterRepository extends JpaRepository<EventCounter, Long> {
+
+    /*해당 날짜들의 모든 카운터. 대시보드는 전체 합계 날짜와 오늘 날짜의 몇 행만 읽음*/
+    List<EventCounter> findAllByDayIn(Collection<LocalDate> days);
+
+    /*카운터 하나. 정합성 보정 시 현재 값을 읽는 데 사용*/
+    Optional<EventCounter> findByNameAndDay(String name, LocalDate day);
+
+    /**
+     * 카운터에 증감분을 더함. 행이 없으면 증감분으로 새로 만듦
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_counter (name, day, total, updated_at) VALUES (:name, :day, :delta, :now) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total), updated_at = VALUES(updated_at)", nativeQuery = true)
+    int add(@Param("name") String name, @Param("day") LocalDate day, @Param("delta") long delta,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * 카운터를 원본 테이블에서 다시 센 값으로 덮어씀 (정합성 보정)
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_counter (name, day, total, updated_at) VALUES (:name, :day, :count, :now) "
+            + "ON DUPLICATE KEY UPDATE total = VALUES(total), updated_at = VALUES(updated_at)", nativeQuery = true)
+    int set(@Param("name") String name, @Param("day") LocalDate day, @Param("count") long count,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * lease 행이 없으면 만듦. updatedAt은 lease가 이미 만료된 것으로 보이도록 오래된 시간을 넘김
+     * @return 만들었으면 1, 이미 있으면 0.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO event_counter (name, day, total, updated_at) VALUES (:name, :day, 0, :updatedAt)",
+            nativeQuery = true)
+    int insertLeaseIfAbsent(@Param("name") String name, @Param("day") LocalDate day,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 여러 서버 중 한 서버만 작업하도록 lease 행을 가져감. 마지막으로 가져간 시간이 expiredBefore보다 이전일 때만 갱신
+     * 같은 행을 갱신하므로 동시에 시도해도 한 서버만 성공
+     * @return 가져갔으면 1, 다른 서버가 이미 가져갔으면 0.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_counter SET updated_at = :now "
+            + "WHERE name = :name AND day = :day AND updated_at < :expiredBefore", nativeQuery = true)
+    int acquireLease(@Param("name") String name, @Param("day") LocalDate day, @Param("now") LocalDateTime now,
+                     @Param("expiredBefore") LocalDateTime expiredBefore);
+}
@@ -0,0 +1,40 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.GeofenceZone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+import java.util.Optional;
+
+/*GeofenceZone(안심 구역) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface GeofenceZoneRepository extends JpaRepository<GeofenceZone, Long> {
+
+    /**
+     * 특정 피보호자의 모든 안심 구역을 조회
+     * @param protectedUserId 피보호자의 ID.
+     * @return 등록 순서대로 정렬된 안심 구역 목록.
+     */
+    @Query("SELECT z FROM GeofenceZone z WHERE z.protectedUser.id = :protectedUserId ORDER BY z.id")
+    List<GeofenceZone> findAllByProtectedUserId(@Param("protectedUserId") Long protectedUserId);
+
+    /**
+     * 특정 피보호자의 안심 구역 하나를 조회
+     * @return 해당 피보호자의 구역이 아니면 빈 Optional.
+     */
+    @Query("SELECT z FROM GeofenceZone z WHERE z.id = :id AND z.protectedUser.id = :protectedUserId")
+    Optional<GeofenceZone> findByIdAndProtectedUserId(@Param("id") Long id, @Param("protectedUserId") Long protectedUserId);
+
+    /*특정 피보호자의 안심 구역 개수.*/
+    @Query("SELECT COUNT(z) FROM GeofenceZone z WHERE z.protectedUser.id = :protectedUserId")
+    long countByProtectedUserId(@Param("protectedUserId") Long protectedUserId);
+
+    /**
+     * 안심 구역의 내부/외부 상태만 갱신 (엔티티를 읽지 않음)
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query("UPDATE GeofenceZone z SET z.insideZone = :inside WHERE z.id = :id")
+    int updateInside(@Param("id") Long id, @Param("inside") boolean inside);
+}
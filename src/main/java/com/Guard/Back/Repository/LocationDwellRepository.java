@@ -0,0 +1,45 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.LocationDwell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*LocationDwell(체류 구간) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface LocationDwellRepository extends JpaRepository<LocationDwell, Long> {
+
+    /**
+     * 진행 중인 체류 구간에 위치를 합침
+     * 엔티티를 읽지 않고 종료 시간과 개수만 바로 갱신
+     *
+     * @param id      갱신할 체류 구간의 ID.
+     * @param endedAt 마지막으로 합친 위치의 기록 시간.
+     * @param count   이번에 합친 위치 개수.
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query("UPDATE LocationDwell d SET d.endedAt = :endedAt, d.pointCount = d.pointCount + :count "
+            + "WHERE d.id = :id AND d.endedAt <= :endedAt")
+    int extend(@Param("id") Long id, @Param("endedAt") LocalDateTime endedAt, @Param("count") int count);
+
+    /**
+     * 특정 피보호자의 체류 구간 중 시작 시간이 [from, until) 범위인 구간을 시작 시간 순으로 조회
+     * (protected_user_id, started_at) 인덱스를 사용
+     */
+    @Query("SELECT d FROM LocationDwell d WHERE d.protectedUser.id = :protectedUserId "
+            + "AND d.startedAt >= :from AND d.startedAt < :until ORDER BY d.startedAt ASC, d.id ASC")
+    List<LocationDwell> findStartedBetween(@Param("protectedUserId") Long protectedUserId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("until") LocalDateTime until);
+
+    /**
+     * 보존 기간이 지난 체류 구간을 기본 키 순서로 최대 limit건만 삭제
+     * @return 삭제된 행 수. limit보다 작으면 남은 대상이 없음
+     */
+    @Modifying
+    @Query(value = "DELETE FROM location_dwell WHERE ended_at < :cutoff ORDER BY id LIMIT :limit", nativeQuery = true)
+    int deleteChunkEndedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,47 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.LocationHourlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+/*LocationHourlySummary(시간별 위치 요약) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
+public interface LocationHourlySummaryRepository extends JpaRepository<LocationHourlySummary, Long> {
+
+    /**
+     * 지정한 위치 기록들을 피보호자별, 1시간 단위로 요약하여 저장
+     * 같은 시간대의 요약이 이미 있으면(이전 청크에서 일부가 요약된 경우) 개수 가중 평균으로 합침
+     * (point_count는 중심점 계산에 사용되므로 반드시 마지막에 갱신)
+     * 기록 시간이 없는 행은 속할 시간대가 없으므로 요약하지 않고 삭제만 됨
+     *
+     * @param ids 요약할 위치 기록의 ID 목록.
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO location_hourly_summary "
+            + "(protected_user_id, hour_start, point_count, latitude, longitude, "
+            + "min_latitude, max_latitude, min_longitude, max_longitude) "
+            + "SELECT c.protected_user_id, c.hour_start, c.cnt, c.avg_lat, c.avg_lon, "
+            + "c.min_lat, c.max_lat, c.min_lon, c.max_lon FROM ("
+            + "  SELECT l.protected_user_id, DATE_FORMAT(l.recorded_at, '%Y-%m-%d %H:00:00') AS hour_start, "
+            + "  COUNT(*) AS cnt, AVG(l.latitude) AS avg_lat, AVG(l.longitude) AS avg_lon, "
+            + "  MIN(l.latitude) AS min_lat, MAX(l.latitude) AS max_lat, "
+            + "  MIN(l.longitude) AS min_lon, MAX(l.longitude) AS max_lon "
+            + "  FROM location_log l WHERE l.id IN (:ids) AND l.recorded_at IS NOT NULL "
+            + "  GROUP BY l.protected_user_id, DATE_FORMAT(l.recorded_at, '%Y-%m-%d %H:00:00')"
+            + ") c "
+            + "ON DUPLICATE KEY UPDATE "
+            + "latitude = (location_hourly_summary.latitude * location_hourly_summary.point_count "
+            + "  + VALUES(latitude) * VALUES(point_count)) / (location_hourly_summary.point_count + VALUES(point_count)), "
+            + "longitude = (location_hourly_summary.longitude * location_hourly_summary.point_count "
+            + "  + VALUES(longitude) * VALUES(point_count)) / (location_hourly_summary.point_count + VALUES(point_count)), "
+            + "min_latitude = LEAST(location_hourly_summary.min_latitude, VALUES(min_latitude)), "
+            + "max_latitude = GREATEST(location_hourly_summary.max_latitude, VALUES(max_latitude)), "
+            + "min_longitude = LEAST(location_hourly_summary.min_longitude, VALUES(min_longitude)), "
+            + "max_longitude = GREATEST(location_hourly_summary.max_longitude, VALUES(max_longitude)), "
+            + "point_count = location_hourly_summary.point_count + VALUES(point_count)",
+            nativeQuery = true)
+    int rollUp(@Param("ids") List<Long> ids);
+}
@@ -1,13 +1,17 @@
 package com.Guard.Back.Repository;
 
 import com.Guard.Back.Domain.LocationLog;
-import com.Guard.Back.Domain.ProtectedUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
-
-import java.util.Optional;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * LocationLog 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.
@@ -16,12 +20,94 @@ import java.util.Optional;
 public interface LocationLogRepository extends JpaRepository<LocationLog, Long> {
 
     /**
-     * 특정 피보호자의 가장 최신 위치 기록 1개를 ID 내림차순으로 조회
-     * @param protectedUser 위치 기록을 조회할 피보호자 엔티티.
-     * @return 가장 최신 위치 기록을 담은 Optional 객체. 기록이 없으면 Optional.empty()를 반환
+     * 특정 피보호자의 기간 내 위치 기록을 (recordedAt, id) 순으로 keyset 페이지네이션하여 조회
+     * OFFSET 없이 마지막으로 읽은 (recordedAt, id) 다음부터 읽으므로 페이지가 뒤로 가도 비용이 일정
+     * (protected_user_id, recorded_at, id) 인덱스를 사용
+     *
+     * @param protectedUserId 위치 기록을 조회할 피보호자의 ID.
+     * @param from            조회 시작 시간 (포함).
+     * @param to              조회 종료 시간 (미포함).
+     * @param afterTime       이전 페이지의 마지막 기록 시간. 첫 페이지는 from.
+     * @param afterId         이전 페이지의 마지막 기록 ID. 첫 페이지는 0.
+     * @param pageable        조회할 최대 개수 (정렬은 쿼리에 고정).
+     * @return 기록 시간 순으로 정렬된 위치 기록 목록.
+     */
+    @Query("SELECT l FROM LocationLog l WHERE l.protectedUser.id = :protectedUserId "
+            + "AND l.recordedAt >= :from AND l.recordedAt < :to "
+            + "AND (l.recordedAt > :afterTime OR (l.recordedAt = :afterTime AND l.id > :afterId)) "
+            + "ORDER BY l.recordedAt ASC, l.id ASC")
+    List<LocationLog> findHistoryPage(@Param("protectedUserId") Long protectedUserId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("afterTime") LocalDateTime afterTime,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    /**
+     * 특정 피보호자의 기간 내 위치 기록을 기록 시간 순으로 하나씩 읽는 Stream (내보내기용)
+     * 결과를 한 번에 메모리에 올리지 않고 fetch size만큼씩 DB에서 받아오며, 읽기 전용으로 조회하여 변경 감지용 사본을 만들지 않음
+     * (protected_user_id, recorded_at, id) 인덱스를 사용. 트랜잭션 안에서 사용하고, 다 읽은 뒤 반드시 닫아야 함 (try-with-resources)
+     *
+     * @param protectedUserId 위치 기록을 내보낼 피보호자의 ID.
+     * @param from            시작 시간 (포함).
+     * @param to              종료 시간 (미포함).
      */
-    Optional<LocationLog> findTopByProtectedUserOrderByIdDesc(ProtectedUser protectedUser);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LocationLog l WHERE l.protectedUser.id = :protectedUserId "
+            + "AND l.recordedAt >= :from AND l.recordedAt < :to ORDER BY l.recordedAt ASC, l.id ASC")
+    Stream<LocationLog> streamByProtectedUserId(@Param("protectedUserId") Long protectedUserId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
 
-    @Query("SELECT COUNT(DISTINCT l.protectedUser) FROM LocationLog l WHERE l.recordedAt >= :time")
-    long countActiveUsersSince(@Param("time") LocalDateTime time);
-}
\ No newline at end of file
+    /**
+     * 보존 기간이 지난 위치 기록 중 가장 큰 ID (정리 범위의 상한)
+     * (recorded_at) 인덱스만 읽으므로, 정리할 기록 수에 비례한 비용으로 끝남
+     * 기록 시간이 없는 행(recorded_at IS NULL)도 보존 기간을 알 수 없으므로 정리 대상에 포함
+     *
+     * @param cutoff 이 시간보다 먼저 기록된 위치만 대상.
+     * @return 가장 큰 ID. 정리할 기록이 없으면 null
+     */
+    @Query(value = "SELECT MAX(id) FROM location_log WHERE recorded_at < :cutoff OR recorded_at IS NULL",
+            nativeQuery = true)
+    Long findMaxExpiredId(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 보존 기간이 지난 위치 기록의 ID를 기본 키 순서로 한 청크만큼 조회
+     * 기본 키 범위를 (afterId, maxId]로 제한하므로, 마지막 청크 뒤에 남은 테이블 전체를 훑지 않음
+     *
+     * @param afterId 이전 청크의 마지막 ID. 처음에는 0.
+     * @param maxId   findMaxExpiredId로 구한 상한 (포함).
+     * @param cutoff  이 시간보다 먼저 기록된 위치(또는 기록 시간이 없는 위치)만 조회.
+     * @param limit   청크 크기.
+     * @return ID 오름차순 목록.
+     */
+    @Query(value = "SELECT id FROM location_log WHERE id > :afterId AND id <= :maxId "
+            + "AND (recorded_at < :cutoff OR recorded_at IS NULL) ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findExpiredIds(@Param("afterId") long afterId,
+                              @Param("maxId") long maxId,
+                              @Param("cutoff") LocalDateTime cutoff,
+                              @Param("limit") int limit);
+
+    /**
+     * 지정한 ID의 위치 기록을 삭제
+     * @return 삭제된 행 수.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM location_log WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 특정 피보호자의 위치 기록을 최대 limit건만 삭제 (탈퇴 시 청크 단위 삭제용).
+     * (protected_user_id, recorded_at, id) 인덱스 순서로 삭제하여 잠그는 범위를 청크로 제한
+     *
+     * @return 삭제된 행 수. limit보다 작으면 남은 기록이 없음
+     */
+    @Modifying
+    @Query(value = "DELETE FROM location_log WHERE protected_user_id = :protectedUserId "
+            + "ORDER BY recorded_at, id LIMIT :limit", nativeQuery = true)
+    int deleteChunkByProtectedUserId(@Param("protectedUserId") Long protectedUserId, @Param("limit") int limit);
+}
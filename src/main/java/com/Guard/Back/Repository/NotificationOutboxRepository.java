@@ -0,0 +1,96 @@
+package com.Guard.Back.Repository;
+
+import com.Guard.Back.Domain.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * NotificationOutbox(푸시 알림 발송 대기열)에 대한 데이터 접근을 처리하는 Repository 인터페이스.
+ * 상태 변경 쿼리는 모두 호출하는 쪽의 트랜잭션 안에서 실행해야 함
+ * 발송 결과 기록은 항목을 가져간 발송 작업(claimToken)이 아직 가지고 있을 때만 반영되며,
+ * 영향받은 행이 0이면 lease가 지나 다른 발송 작업이 다시 가져간 것(claim을 잃음)
+ */
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * 해당 우선순위에서 발송할 차례가 된 항목을 최대 limit건 가져가(claim) 발송 중으로 표시
+     * 한 UPDATE 문으로 표시하므로 여러 서버가 동시에 실행해도 같은 항목을 나눠 갖지 않음
+     * 발송 중 상태로 staleBefore 이전에 가져간 항목(발송 도중 서버가 종료된 경우)도 다시 가져감
+     *
+     * @param priority    가져갈 우선순위 (NotificationPriority 이름).
+     * @param claimToken  이번 발송 작업의 식별자.
+     * @param now         현재 시간.
+     * @param staleBefore 이 시간 이전에 가져간 발송 중 항목은 다시 가져감
+     * @param limit       가져갈 최대 개수.
+     * @return 가져간 항목 수.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_outbox SET status = 'SENDING', claim_token = :claimToken, claimed_at = :now "
+            + "WHERE priority = :priority "
+            + "AND ((status = 'PENDING' AND next_attempt_at <= :now) OR (status = 'SENDING' AND claimed_at < :staleBefore)) "
+            + "ORDER BY next_attempt_at, id LIMIT :limit", nativeQuery = true)
+    int claim(@Param("priority") String priority,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("limit") int limit);
+
+    /*발송 작업이 가져간 항목 목록.*/
+    List<NotificationOutbox> findAllByClaimToken(String claimToken);
+
+    /**
+     * 발송 완료로 표시 (멀티캐스트 한 번에 성공한 항목을 한 번에 갱신)
+     * @return 영향받은 행 수. 다른 발송 작업이 다시 가져간 항목은 갱신되지 않음
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = com.Guard.Back.Domain.NotificationStatus.SENT, "
+            + "n.attempts = n.attempts + 1, n.sentAt = :sentAt, n.claimToken = null "
+            + "WHERE n.id IN :ids AND n.claimToken = :claimToken")
+    int markSent(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * 발송 실패 후 nextAttemptAt에 다시 발송하도록 대기 상태로 되돌림
+     * @return 영향받은 행 수. 0이면 claim을 잃음
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = com.Guard.Back.Domain.NotificationStatus.PENDING, "
+            + "n.attempts = n.attempts + 1, n.nextAttemptAt = :nextAttemptAt, n.lastError = :error, n.claimToken = null "
+            + "WHERE n.id = :id AND n.claimToken = :claimToken")
+    int reschedule(@Param("id") Long id, @Param("claimToken") String claimToken,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * 더 이상 재시도하지 않도록 실패로 표시
+     * @return 영향받은 행 수. 0이면 claim을 잃음
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = com.Guard.Back.Domain.NotificationStatus.FAILED, "
+            + "n.attempts = n.attempts + 1, n.lastError = :error, n.claimToken = null "
+            + "WHERE n.id = :id AND n.claimToken = :claimToken")
+    int markFailed(@Param("id") Long id, @Param("claimToken") String claimToken, @Param("error") String error);
+
+    /**
+     * 발송 작업이 가져갔지만 결과를 기록하지 못한 항목을 바로 다시 가져갈 수 있도록 대기 상태로 되돌림 (서버 종료 시)
+     * 시도 횟수는 늘리지 않음
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = com.Guard.Back.Domain.NotificationStatus.PENDING, "
+            + "n.claimToken = null, n.claimedAt = null "
+            + "WHERE n.claimToken IN :claimTokens AND n.status = com.Guard.Back.Domain.NotificationStatus.SENDING")
+    int release(@Param("claimTokens") Collection<String> claimTokens);
+
+    /**
+     * 발송이 끝난(완료/실패) 오래된 항목을 최대 limit건 삭제
+     * @return 삭제된 행 수. limit보다 작으면 남은 항목이 없음
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification_outbox WHERE status IN ('SENT', 'FAILED') AND created_at < :cutoff "
+            + "ORDER BY id LIMIT :limit", nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
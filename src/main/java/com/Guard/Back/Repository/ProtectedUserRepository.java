@@ -2,6 +2,9 @@ package com.Guard.Back.Repository;
 
 import com.Guard.Back.Domain.ProtectedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 /*ProtectedUser(피보호자) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
@@ -21,4 +24,31 @@ public interface ProtectedUserRepository extends JpaRepository<ProtectedUser, Lo
      * @return 해당 연동 코드를 가진 피보호자 정보를 담은 Optional 객체.
      */
     Optional<ProtectedUser> findByLinkingCode(String linkingCode);
-}
\ No newline at end of file
+
+    /*위치 저장 시 필요한 기본 안심 구역 정보만 담는 프로젝션.*/
+    interface GeofenceColumns {
+        Double getHomeLatitude();
+        Double getHomeLongitude();
+        Integer getGeofenceRadius();
+        Boolean getInsideGeofence();
+    }
+
+    /**
+     * 피보호자의 기본 안심 구역 정보만 조회 (엔티티를 영속성 컨텍스트에 올리지 않음)
+     * @param id 조회할 피보호자의 ID.
+     * @return 안심 구역 정보. 피보호자가 없으면 빈 Optional.
+     */
+    @Query("SELECT p.homeLatitude AS homeLatitude, p.homeLongitude AS homeLongitude, "
+            + "p.geofenceRadius AS geofenceRadius, p.isInsideGeofence AS insideGeofence "
+            + "FROM ProtectedUser p WHERE p.id = :id")
+    Optional<GeofenceColumns> findGeofenceColumnsById(@Param("id") Long id);
+
+    /**
+     * 기본 안심 구역의 내부/외부 상태를 값이 다를 때만 갱신 (엔티티를 읽지 않음)
+     * 여러 서버가 같은 상태 변화를 동시에 확정해도 한 곳에서만 1이 반환되므로, 반환값으로 알림 중복을 막을 수 있음
+     * @return 영향받은 행 수 (이미 같은 상태이면 0).
+     */
+    @Modifying
+    @Query("UPDATE ProtectedUser p SET p.isInsideGeofence = :inside WHERE p.id = :id AND p.isInsideGeofence <> :inside")
+    int updateInsideGeofence(@Param("id") Long id, @Param("inside") boolean inside);
+}
@@ -3,8 +3,11 @@ package com.Guard.Back.Repository;
 import com.Guard.Back.Domain.ProtectedUser;
 import com.Guard.Back.Domain.Relationship;
 import com.Guard.Back.Domain.User;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /*Relationship(관계) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
 public interface RelationshipRepository extends JpaRepository<Relationship, Long> {
@@ -57,4 +60,19 @@ public interface RelationshipRepository extends JpaRepository<Relationship, Long
     // 피보호자의 대표 보호자 찾기
     Optional<Relationship> findFirstByProtectedUser(ProtectedUser protectedUser);
 
-}
\ No newline at end of file
+    /**
+     * 특정 보호자와 연결된 모든 피보호자의 ID를 조회 (엔티티를 읽지 않음)
+     * @param guardianId 보호자의 ID.
+     * @return 연결된 피보호자 ID 목록.
+     */
+    @Query("SELECT r.protectedUser.id FROM Relationship r WHERE r.guardian.id = :guardianId")
+    List<Long> findProtectedUserIdsByGuardianId(@Param("guardianId") Long guardianId);
+
+    /**
+     * 특정 피보호자와 연결된 모든 보호자의 ID를 조회 (엔티티를 읽지 않음)
+     * @param protectedUserId 피보호자의 ID.
+     * @return 연결된 보호자 ID 목록.
+     */
+    @Query("SELECT r.guardian.id FROM Relationship r WHERE r.protectedUser.id = :protectedUserId")
+    List<Long> findGuardianIdsByProtectedUserId(@Param("protectedUserId") Long protectedUserId);
+}
@@ -3,6 +3,10 @@ package com.Guard.Back.Repository;
 import com.Guard.Back.Domain.OAuthProvider;
 import com.Guard.Back.Domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 /*User(보호자) 엔티티에 대한 데이터 접근을 처리하는 Repository 인터페이스.*/
@@ -14,4 +18,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return 해당 정보와 일치하는 사용자 정보를 담은 Optional 객체.
      */
     Optional<User> findByProviderAndProviderId(OAuthProvider provider, String providerId);
-}
\ No newline at end of file
+
+    /**
+     * FCM이 거절한(죽은) 토큰을 한 번에 지움
+     * 그 사이 새 토큰으로 바뀐 보호자는 값이 달라 영향을 받지 않음
+     * @param fcmTokens 지울 토큰 목록.
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.fcmToken = null WHERE u.fcmToken IN :fcmTokens")
+    int clearFcmTokens(@Param("fcmTokens") List<String> fcmTokens);
+
+    /**
+     * 다른 보호자의 예전 토큰 값(users.fcm_token)에 남아 있는 같은 토큰을 지움
+     * 기기를 다른 보호자 계정으로 다시 로그인한 경우, 새 보호자에게 토큰을 저장하기 전에 호출 (fcm_token은 유일 값)
+     * @return 영향받은 행 수.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.fcmToken = null WHERE u.fcmToken = :fcmToken AND u.id <> :guardianId")
+    int clearFcmTokenOfOthers(@Param("fcmToken") String fcmToken, @Param("guardianId") Long guardianId);
+}
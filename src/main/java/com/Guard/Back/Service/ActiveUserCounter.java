@@ -0,0 +1,233 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.ActiveUserSketch;
+import com.Guard.Back.Event.LocationSavedEvent;
+import com.Guard.Back.Repository.ActiveUserSketchRepository;
+import com.Guard.Back.Stats.HyperLogLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 최근 일정 시간 동안 위치를 보낸 피보호자 수(활성 사용자 수)를 HyperLogLog 스케치로 근사하는 컴포넌트.
+ * 위치가 저장될 때마다 해당 시간 구간(bucket-minutes)의 스케치에 피보호자 ID를 추가하고,
+ * 조회 시 구간 스케치들을 합쳐 개수를 추정하므로 위치 테이블을 세지 않고 고정된 비용으로 응답 (표준 오차 약 1.6%)
+ *
+ * 구간 스케치를 합치는 데 수 ms가 걸리므로, 같은 기간의 추정값은 cache-seconds 동안 재사용
+ *
+ * 구간 스케치는 flush-ms마다 서버(node-id)별로 active_user_sketch에 저장하여 재시작해도 집계 구간을 잃지 않고,
+ * 같은 주기로 다른 서버가 저장한 스케치의 변경분을 읽어 합침 (다른 서버의 위치는 최대 flush-ms 늦게 반영)
+ */
+@Component
+@Slf4j
+public class ActiveUserCounter {
+
+    private final ActiveUserSketchRepository activeUserSketchRepository;
+    private final TransactionTemplate sketchTransaction;
+    private final String node;
+    private final long bucketMinutes;
+    private final Duration retention;
+    private final long cacheMillis;
+
+    /*이 서버에서 기록한 구간별 스케치.*/
+    private final Map<LocalDateTime, HyperLogLog> localBuckets = new ConcurrentHashMap<>();
+
+    /*마지막 저장 이후 바뀐 이 서버의 구간.*/
+    private final Set<LocalDateTime> dirty = ConcurrentHashMap.newKeySet();
+
+    /*다른 서버들의 스케치를 구간별로 합친 것.*/
+    private final Map<LocalDateTime, HyperLogLog> remoteBuckets = new ConcurrentHashMap<>();
+
+    /*다른 서버의 변경분을 마지막으로 읽은 시간.*/
+    private volatile LocalDateTime lastRefreshedAt;
+
+    /*마지막으로 계산한 추정값.*/
+    private record CachedEstimate(Duration window, long computedAt, long value) {}
+
+    private volatile CachedEstimate cachedEstimate;
+
+    public ActiveUserCounter(ActiveUserSketchRepository activeUserSketchRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${dashboard.active-users.node-id:}") String nodeId,
+                             @Value("${dashboard.active-users.bucket-minutes:5}") long bucketMinutes,
+                             @Value("${dashboard.active-users.retention-hours:24}") long retentionHours,
+                             @Value("${dashboard.active-users.cache-seconds:10}") long cacheSeconds) {
+        this.activeUserSketchRepository = activeUserSketchRepository;
+        this.sketchTransaction = new TransactionTemplate(transactionManager);
+        this.sketchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.node = nodeId.isBlank() ? hostName() : nodeId;
+        this.bucketMinutes = bucketMinutes;
+        this.retention = Duration.ofHours(retentionHours);
+        this.cacheMillis = cacheSeconds * 1000;
+
+        Gauge.builder("dashboard.active-users.buckets", localBuckets, Map::size)
+                .description("이 서버가 메모리에 보관 중인 활성 사용자 구간 스케치 수").register(meterRegistry);
+    }
+
+    /**
+     * 시작할 때 집계 구간 안의 모든 서버의 스케치를 읽음
+     * 이 서버 이름으로 저장된 스케치는 이어서 기록하고, 나머지는 다른 서버의 스케치로 합침
+     * 실패해도 서버 시작은 막지 않으며, 다른 서버의 스케치는 다음 주기에 다시 읽음
+     */
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<ActiveUserSketch> sketches = sketchTransaction.execute(status ->
+                    activeUserSketchRepository.findAllByBucketStartGreaterThanEqual(oldestBucket(now)));
+            for (ActiveUserSketch sketch : sketches) {
+                Map<LocalDateTime, HyperLogLog> target = node.equals(sketch.getNode()) ? localBuckets : remoteBuckets;
+                mergeInto(target, sketch);
+            }
+            lastRefreshedAt = now;
+            log.info("[활성 사용자] 서버 {}: 저장된 구간 스케치 {}개를 읽었습니다.", node, sketches.size());
+        } catch (RuntimeException e) {
+            log.error("[활성 사용자] 저장된 구간 스케치를 읽지 못했습니다. 빈 상태로 시작합니다.", e);
+        }
+    }
+
+    /**
+     * 위치 저장이 커밋된 후, 최신 위치의 기록 시간 구간에 피보호자를 추가
+     * 집계 구간보다 오래된 위치는 무시하고, 서버 시간보다 미래의 위치는 현재 구간으로 기록
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime recordedAt = event.recordedAt().isAfter(now) ? now : event.recordedAt();
+        LocalDateTime bucket = bucketOf(recordedAt);
+        if (bucket.isBefore(oldestBucket(now))) {
+            return;
+        }
+        if (localBuckets.computeIfAbsent(bucket, b -> new HyperLogLog()).add(event.protectedUserId())) {
+            dirty.add(bucket);
+        }
+    }
+
+    /**
+     * 최근 window 동안 위치를 보낸 피보호자 수를 추정
+     * 구간 단위로 합치므로 window 시작 시간이 속한 구간 전체가 포함되며, retention-hours보다 긴 window는 보관된 구간까지만 셈
+     *
+     * @param window 집계할 기간 (e.g., 24시간).
+     * @return 모든 서버의 구간 스케치를 합쳐 추정한 피보호자 수. 최대 cache-seconds 전에 계산된 값일 수 있음
+     */
+    public long estimate(Duration window) {
+        long nowMillis = System.currentTimeMillis();
+        CachedEstimate cached = cachedEstimate;
+        if (cached != null && cached.window().equals(window) && nowMillis - cached.computedAt() < cacheMillis) {
+            return cached.value();
+        }
+        LocalDateTime from = bucketOf(LocalDateTime.now().minus(window));
+        HyperLogLog union = new HyperLogLog();
+        mergeBuckets(union, localBuckets, from);
+        mergeBuckets(union, remoteBuckets, from);
+        long value = union.estimate();
+        cachedEstimate = new CachedEstimate(window, nowMillis, value);
+        return value;
+    }
+
+    /**
+     * 바뀐 구간 스케치를 저장하고, 다른 서버의 변경분을 읽고, 집계 구간을 벗어난 스케치를 정리
+     * 저장에 실패한 구간은 다음 주기에 다시 저장
+     */
+    @Scheduled(fixedDelayString = "${dashboard.active-users.flush-ms:60000}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = oldestBucket(now);
+        localBuckets.keySet().removeIf(bucket -> bucket.isBefore(oldest));
+        remoteBuckets.keySet().removeIf(bucket -> bucket.isBefore(oldest));
+
+        List<LocalDateTime> batch = new ArrayList<>();
+        for (LocalDateTime bucket : dirty) {
+            dirty.remove(bucket);
+            if (localBuckets.containsKey(bucket)) {
+                batch.add(bucket);
+            }
+        }
+        try {
+            sketchTransaction.executeWithoutResult(status -> {
+                for (LocalDateTime bucket : batch) {
+                    HyperLogLog sketch = localBuckets.get(bucket);
+                    if (sketch != null) {
+                        activeUserSketchRepository.upsert(node, bucket, sketch.toBytes(), now);
+                    }
+                }
+                activeUserSketchRepository.deleteByBucketStartBefore(oldest);
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(batch);
+            log.error("[활성 사용자] 구간 스케치 {}개의 저장에 실패했습니다. 다음 주기에 다시 시도합니다.", batch.size(), e);
+        }
+
+        refreshRemote(now, oldest);
+    }
+
+    /*다른 서버가 마지막 확인 이후 저장한 스케치를 읽어 합치는 헬퍼 메소드.*/
+    private void refreshRemote(LocalDateTime now, LocalDateTime oldest) {
+        // 서버 간 시계 차이로 updated_at이 조금 앞서 기록된 행도 놓치지 않도록 한 구간만큼 겹쳐 읽음 (합치기는 여러 번 해도 결과가 같음)
+        LocalDateTime since = lastRefreshedAt == null ? oldest : lastRefreshedAt.minusMinutes(bucketMinutes);
+        try {
+            List<ActiveUserSketch> sketches = sketchTransaction.execute(status ->
+                    activeUserSketchRepository.findUpdatedSince(oldest, since));
+            for (ActiveUserSketch sketch : sketches) {
+                if (!node.equals(sketch.getNode())) {
+                    mergeInto(remoteBuckets, sketch);
+                }
+            }
+            lastRefreshedAt = now;
+        } catch (RuntimeException e) {
+            log.error("[활성 사용자] 다른 서버의 구간 스케치를 읽지 못했습니다.", e);
+        }
+    }
+
+    private static void mergeInto(Map<LocalDateTime, HyperLogLog> target, ActiveUserSketch sketch) {
+        HyperLogLog stored = HyperLogLog.fromBytes(sketch.getRegisters());
+        target.computeIfAbsent(sketch.getBucketStart(), b -> new HyperLogLog(stored.precision())).merge(stored);
+    }
+
+    private static void mergeBuckets(HyperLogLog union, Map<LocalDateTime, HyperLogLog> buckets, LocalDateTime from) {
+        buckets.forEach((bucket, sketch) -> {
+            if (!bucket.isBefore(from)) {
+                union.merge(sketch);
+            }
+        });
+    }
+
+    /*시간이 속한 구간의 시작 시간.*/
+    private LocalDateTime bucketOf(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        long minutes = ChronoUnit.MINUTES.between(hour, time);
+        return hour.plusMinutes(minutes - minutes % bucketMinutes);
+    }
+
+    /*보관하는 가장 오래된 구간의 시작 시간.*/
+    private LocalDateTime oldestBucket(LocalDateTime now) {
+        return bucketOf(now.minus(retention));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "local";
+        }
+    }
+}
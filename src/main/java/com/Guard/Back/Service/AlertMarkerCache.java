@@ -0,0 +1,55 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.AlertRecordedEvent;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+
+/**
+ * 피보호자별 마지막 알림 기록 ID를 서버 메모리에 보관하는 캐시.
+ * 알림 목록 조회의 ETag로 사용하여, 새 알림이 없으면 DB를 조회하지 않고 304로 응답하도록 함
+ *
+ * 이 서버에서 저장된 알림은 커밋 직후 바로 반영하고, 다른 서버에서 저장된 알림도 반영되도록 항목은 짧은 시간 후 만료
+ * 캐시에 없으면 (protected_user_id) 인덱스로 MAX(id) 한 건만 읽음
+ */
+@Component
+public class AlertMarkerCache {
+
+    private final AlertLogRepository alertLogRepository;
+    private final Cache<Long, Long> cache;
+
+    public AlertMarkerCache(AlertLogRepository alertLogRepository,
+                            @Value("${alert.marker-cache.max-size:100000}") long maxSize,
+                            @Value("${alert.marker-cache.ttl-seconds:10}") long ttlSeconds) {
+        this.alertLogRepository = alertLogRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 피보호자의 마지막 알림 기록 ID
+     * @return 알림 기록이 없으면 0.
+     */
+    public long lastAlertId(Long protectedUserId) {
+        return cache.get(protectedUserId, id -> {
+            Long lastId = alertLogRepository.findLastIdByProtectedUserId(id);
+            return lastId != null ? lastId : 0L;
+        });
+    }
+
+    /**
+     * 알림 기록이 커밋된 후 해당 피보호자의 마지막 알림 ID를 갱신
+     * 캐시에 없는 피보호자는 다음 조회 때 DB에서 읽으므로 건너뜀
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertRecorded(AlertRecordedEvent event) {
+        cache.asMap().computeIfPresent(event.protectedUserId(), (id, lastId) -> Math.max(lastId, event.alertLogId()));
+    }
+}
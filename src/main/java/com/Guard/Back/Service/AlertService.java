@@ -1,58 +1,157 @@
 package com.Guard.Back.Service;
 
 import com.Guard.Back.Domain.AlertLog;
-import com.Guard.Back.Domain.ProtectedUser;
-import com.Guard.Back.Domain.User;
+import com.Guard.Back.Domain.EventType;
 import com.Guard.Back.Dto.AlertLogDto;
+import com.Guard.Back.Dto.AlertLogPage;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
 import com.Guard.Back.Repository.AlertLogRepository;
-import com.Guard.Back.Repository.ProtectedUserRepository;
-import com.Guard.Back.Repository.RelationshipRepository;
-import com.Guard.Back.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * SOS, 지오펜스 등 주요 이벤트 기록을 조회하는 비즈니스 로직을 처리하는 서비스.
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AlertService {
+
+    /*한 페이지에서 조회할 수 있는 최대 알림 기록 수.*/
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /*페이지 정렬 순서. 쿼리의 ORDER BY event_time DESC, id DESC와 같음*/
+    private static final Comparator<AlertLog> NEWEST_FIRST =
+            Comparator.comparing((AlertLog alert) -> alert.getEventTime().toInstant()).thenComparing(AlertLog::getId).reversed();
+
     private final AlertLogRepository alertLogRepository;
-    private final ProtectedUserRepository protectedUserRepository;
-    private final UserRepository userRepository;
-    private final RelationshipRepository relationshipRepository;
+    private final GuardianAccessCache guardianAccessCache;
+    private final AlertMarkerCache alertMarkerCache;
+
+    /**
+     * 특정 피보호자의 마지막 알림 기록 ID를 조회 (알림 목록의 ETag)
+     * 서버 메모리의 값을 사용하므로 대부분 DB를 조회하지 않음
+     *
+     * @param protectedUserId 기록을 조회할 피보호자의 ID.
+     * @param guardianId      요청을 보낸 보호자의 ID (권한 검증용).
+     * @return 마지막 알림 기록 ID. 기록이 없으면 0
+     * @throws CustomException 피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     */
+    public long getLastAlertId(Long protectedUserId, Long guardianId) {
+        guardianAccessCache.verify(guardianId, protectedUserId);
+        return alertMarkerCache.lastAlertId(protectedUserId);
+    }
+
+    /**
+     * 알림 기록 조회 조건(limit, sinceId, before 커서)을 검증
+     * 컨트롤러가 ETag(304) 확인보다 먼저 호출하여, 잘못된 요청이 304로 응답되지 않도록 함
+     *
+     * @throws CustomException 조회 조건이 올바르지 않을 경우 발생.
+     */
+    public void validateAlertRequest(Long sinceId, String before, int limit) {
+        validateRequest(sinceId, before, limit);
+    }
 
     /**
-     * 특정 피보호자의 모든 알림 기록을 최신순으로 조회
+     * 특정 피보호자의 알림 기록을 최신순으로 한 페이지 조회
+     * OFFSET 대신 (eventTime, id) 커서로 더 오래된 페이지를 이어서 읽으므로, 기록이 늘어나도 페이지 하나의 비용이 일정
+     * sinceId를 지정하면 그보다 새로운 기록만 조회하므로, 앱은 마지막으로 받은 ID 이후의 기록만 이어 받을 수 있음
      * 요청한 보호자가 해당 피보호자와 관계를 맺고 있는지 확인
      *
      * @param protectedUserId 기록을 조회할 피보호자의 ID.
      * @param guardianId      요청을 보낸 보호자의 ID (권한 검증용).
-     * @return 알림 기록 DTO 리스트.
-     * @throws CustomException 보호자/피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     * @param sinceId         이 ID보다 새로운 기록만 조회 (선택). null이면 전체
+     * @param before          이전 응답의 nextCursor. 첫 페이지는 null.
+     * @param limit           한 페이지의 최대 기록 수 (1 ~ MAX_PAGE_SIZE).
+     * @param types           조회할 알림 종류 (선택). null이거나 비어 있으면 모든 종류
+     * @return 알림 기록 목록과 다음 페이지 커서.
+     * @throws CustomException 권한이 없거나 조회 조건이 올바르지 않을 경우 발생.
      */
     @Transactional(readOnly = true)
-    public List<AlertLogDto> getAlertLogs(Long protectedUserId, Long guardianId) { // 💡 guardianId 파라미터 추가
-        // 1. 요청자와 대상 사용자가 DB에 존재하는지 확인
-        User guardian = userRepository.findById(guardianId)
-                .orElseThrow(() -> new CustomException(ErrorCode.GUARDIAN_NOT_FOUND));
-        ProtectedUser pUser = protectedUserRepository.findById(protectedUserId)
-                .orElseThrow(() -> new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND));
-
-        // 2. 두 사용자 간의 관계가 유효한지 확인 (보안 검증)
-        if (!relationshipRepository.existsByGuardianAndProtectedUser(guardian, pUser)) {
-            throw new CustomException(ErrorCode.UNAUTHORIZED_ACCESS);
+    public AlertLogPage getAlertLogs(Long protectedUserId, Long guardianId, Long sinceId, String before, int limit,
+                                     Collection<EventType> types) {
+        Cursor cursor = validateRequest(sinceId, before, limit);
+        // 1. 두 사용자 간의 관계가 유효한지 확인 (보안 검증, 권한 캐시 사용)
+        guardianAccessCache.verify(guardianId, protectedUserId);
+
+        // 2. 커서 다음(더 오래된) 기록을 한 페이지 조회. 다음 페이지가 있는지 알기 위해 한 건 더 조회
+        long afterId = sinceId != null ? sinceId : 0L;
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        EnumSet<EventType> eventTypes = types == null || types.isEmpty() ? EnumSet.allOf(EventType.class) : EnumSet.copyOf(types);
+        List<AlertLog> page;
+        if (eventTypes.size() == EventType.values().length) {
+            page = cursor == null
+                    ? alertLogRepository.findLatestPage(protectedUserId, afterId, pageRequest)
+                    : alertLogRepository.findPageBefore(protectedUserId, afterId, cursor.eventTime(), cursor.id(), pageRequest);
+        } else {
+            // 종류별로 (protected_user_id, event_type, event_time, id) 인덱스에서 한 페이지씩 읽어 최신순으로 합침
+            List<AlertLog> merged = new ArrayList<>();
+            for (EventType type : eventTypes) {
+                merged.addAll(cursor == null
+                        ? alertLogRepository.findLatestPageByType(protectedUserId, type, afterId, pageRequest)
+                        : alertLogRepository.findPageBeforeByType(protectedUserId, type, afterId,
+                                cursor.eventTime(), cursor.id(), pageRequest));
+            }
+            merged.sort(NEWEST_FIRST);
+            page = merged.size() > limit + 1 ? merged.subList(0, limit + 1) : merged;
         }
 
-        // 3. 권한이 확인되면, 피보호자의 모든 알림 기록을 조회하여 반환
-        return alertLogRepository.findAllByProtectedUserOrderByEventTimeDesc(pUser)
-                .stream()
-                .map(log -> new AlertLogDto(log.getEventType(), log.getMessage(), log.getEventTime()))
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            AlertLog last = page.get(limit - 1);
+            nextCursor = encodeCursor(last.getEventTime(), last.getId());
+        }
+        return new AlertLogPage(
+                page.stream()
+                        .map(alert -> new AlertLogDto(alert.getId(), alert.getEventType(), alert.getMessage(), alert.getEventTime()))
+                        .toList(),
+                nextCursor);
+    }
+
+    /*조회 조건을 검증하고 before 커서를 해석하는 헬퍼 메소드. before가 없으면 null을 반환*/
+    private Cursor validateRequest(Long sinceId, String before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE || (sinceId != null && sinceId < 0)) {
+            log.warn("[알림 기록 조회] 잘못된 조회 조건입니다. (limit: {}, sinceId: {})", limit, sinceId);
+            throw new CustomException(ErrorCode.INVALID_ALERT_REQUEST);
+        }
+        return before == null ? null : decodeCursor(before);
+    }
+
+    /*알림 기록 페이지 커서의 내용.*/
+    private record Cursor(ZonedDateTime eventTime, Long id) {}
+
+    /*알림 기록 페이지 커서를 만드는 헬퍼 메소드. "기록시간(UTC),ID"를 URL-safe Base64로 인코딩*/
+    private String encodeCursor(ZonedDateTime eventTime, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((eventTime.toInstant() + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*알림 기록 페이지 커서를 해석하는 헬퍼 메소드.*/
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("커서 형식 오류");
+            }
+            return new Cursor(Instant.parse(parts[0]).atZone(ZoneOffset.UTC), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            log.warn("[알림 기록 조회] 잘못된 커서 값입니다: {}", cursor);
+            throw new CustomException(ErrorCode.INVALID_ALERT_REQUEST);
+        }
     }
 }
@@ -0,0 +1,65 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.CurrentLocation;
+import com.Guard.Back.Dto.LocationResponse;
+import com.Guard.Back.Event.LocationSavedEvent;
+import com.Guard.Back.Repository.CurrentLocationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 피보호자별 최신 위치를 서버 메모리에 보관하는 캐시.
+ * 캐시에 없으면 current_location 테이블의 한 행을 읽어 채우고(read-through),
+ * 이 서버에서 위치가 저장되면 커밋 직후 캐시를 갱신(write-through).
+ * 다른 서버에서 저장된 위치도 반영되도록 항목은 일정 시간 후 만료
+ */
+@Component
+@Slf4j
+public class CurrentLocationCache {
+
+    private final CurrentLocationRepository currentLocationRepository;
+    private final Cache<Long, Optional<LocationResponse>> cache;
+
+    public CurrentLocationCache(CurrentLocationRepository currentLocationRepository,
+                                @Value("${location.current-cache.max-size:100000}") long maxSize,
+                                @Value("${location.current-cache.ttl-seconds:10}") long ttlSeconds) {
+        this.currentLocationRepository = currentLocationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 피보호자의 최신 위치를 조회
+     * @param protectedUserId 조회할 피보호자의 ID.
+     * @return 최신 위치 DTO. 위치 기록이 없으면 null.
+     */
+    public LocationResponse get(Long protectedUserId) {
+        return cache.get(protectedUserId, id -> currentLocationRepository.findById(id).map(this::toResponse))
+                .orElse(null);
+    }
+
+    /**
+     * 위치 저장 트랜잭션이 커밋된 후 캐시를 갱신
+     * 캐시에 있는 값보다 새로운 위치일 때만 덮어쓰고, 캐시에 없는 경우에는 다음 조회 때 DB에서 읽어오도록 둠
+     * (늦게 올라온 오프라인 기록이 더 최신 위치를 덮어쓰지 않도록 하기 위함)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        LocationResponse saved = new LocationResponse(event.latitude(), event.longitude(), event.recordedAt());
+        cache.asMap().computeIfPresent(event.protectedUserId(), (id, cached) ->
+                cached.isEmpty() || !cached.get().recordedAt().isAfter(saved.recordedAt()) ? Optional.of(saved) : cached);
+    }
+
+    private LocationResponse toResponse(CurrentLocation location) {
+        return new LocationResponse(location.getLatitude(), location.getLongitude(), location.getRecordedAt());
+    }
+}
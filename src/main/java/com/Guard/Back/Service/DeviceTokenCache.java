@@ -0,0 +1,75 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.DeviceTokenChangedEvent;
+import com.Guard.Back.Repository.DeviceTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 보호자별 기기 토큰 목록을 서버 메모리에 보관하는 캐시.
+ * 알림을 보낼 때 여러 보호자의 토큰을 한 번에 꺼내며, 캐시에 없는 보호자들의 토큰만 한 번의 쿼리로 읽음
+ *
+ * 토큰이 등록/삭제되면 커밋 직후 해당 보호자의 항목을 무효화하고,
+ * 다른 서버에서 등록된 토큰도 반영되도록 항목은 일정 시간 후 만료
+ */
+@Component
+public class DeviceTokenCache {
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final Cache<Long, List<String>> cache;
+
+    public DeviceTokenCache(DeviceTokenRepository deviceTokenRepository,
+                            @Value("${notification.device-token-cache.max-size:100000}") long maxSize,
+                            @Value("${notification.device-token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 여러 보호자의 기기 토큰 목록을 조회
+     * @param guardianIds 보호자 ID 목록.
+     * @return 보호자 ID별 토큰 목록. 토큰이 없는 보호자는 빈 목록
+     */
+    public Map<Long, List<String>> getTokens(Collection<Long> guardianIds) {
+        return cache.getAll(guardianIds, this::load);
+    }
+
+    /**
+     * 토큰이 바뀐 트랜잭션이 커밋된 후 해당 보호자의 항목을 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeviceTokenChanged(DeviceTokenChangedEvent event) {
+        cache.invalidate(event.guardianId());
+    }
+
+    /*죽은 토큰을 DB에서 지운 뒤 그 토큰을 가졌던 보호자들의 항목을 무효화*/
+    public void invalidateAll(Collection<Long> guardianIds) {
+        cache.invalidateAll(guardianIds);
+    }
+
+    /*캐시에 없는 보호자들의 토큰을 한 번의 쿼리로 읽는 헬퍼 메소드.*/
+    private Map<Long, List<String>> load(Collection<? extends Long> guardianIds) {
+        Map<Long, List<String>> tokens = new HashMap<>();
+        for (Long guardianId : guardianIds) {
+            tokens.put(guardianId, new ArrayList<>());
+        }
+        for (DeviceTokenRepository.GuardianToken row : deviceTokenRepository.findTokensByGuardianIds(List.copyOf(guardianIds))) {
+            tokens.get(row.getGuardianId()).add(row.getToken());
+        }
+        tokens.replaceAll((guardianId, list) -> List.copyOf(list));
+        return tokens;
+    }
+}
@@ -0,0 +1,234 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.EventCounter;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Domain.UserRole;
+import com.Guard.Back.Event.AccountChangedEvent;
+import com.Guard.Back.Event.AlertRecordedEvent;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.EventCounterRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.Guard.Back.Repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 관리자 대시보드용 카운터(event_counter)를 관리하는 서비스.
+ * 대시보드를 열 때마다 원본 테이블을 세지 않도록, 알림 기록과 계정이 생성/삭제될 때 커밋 후 증감분을 서버 메모리에 모으고
+ * flush-ms마다 한 트랜잭션에서 카운터 행에 더함 (같은 카운터 행을 요청마다 갱신하여 잠금이 몰리지 않도록 함)
+ *
+ * 서버가 반영 전에 종료되거나 이벤트가 누락된 경우를 대비해, reconcile-cron마다 한 서버가 원본 테이블을 다시 세어 맞춤
+ * (전체 사용자 수와 지난 reconcile-days일의 알림 수. 다른 서버가 아직 반영하지 않은 증감분을 두 번 세지 않도록 오늘 카운터는 보정하지 않음)
+ */
+@Service
+@Slf4j
+public class EventCounterService {
+
+    /*날짜와 관계없는 전체 합계를 저장하는 날짜.*/
+    public static final LocalDate TOTAL_DAY = LocalDate.of(1970, 1, 1);
+
+    /*users 테이블의 계정 수 (보호자와 관리자).*/
+    public static final String GUARDIANS = "users.guardian";
+
+    /*피보호자 수.*/
+    public static final String PROTECTED_USERS = "users.protected";
+
+    /*정합성 보정을 한 서버만 하도록 가져가는 lease 행의 이름 (날짜는 TOTAL_DAY).*/
+    static final String RECONCILE_LEASE = "lease.reconcile";
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    private final EventCounterRepository eventCounterRepository;
+    private final AlertLogRepository alertLogRepository;
+    private final UserRepository userRepository;
+    private final ProtectedUserRepository protectedUserRepository;
+    private final TransactionTemplate counterTransaction;
+    private final int reconcileDays;
+    private final Duration reconcileLease;
+
+    /*카운터 이름과 날짜.*/
+    private record Key(String name, LocalDate day) {}
+
+    /*아직 DB에 더하지 않은 증감분.*/
+    private final Map<Key, Long> pending = new ConcurrentHashMap<>();
+
+    /*전체 합계 카운터별로 지난 보정에서 관측한 원본과의 차이.*/
+    private final Map<String, Long> lastDrift = new ConcurrentHashMap<>();
+
+    public EventCounterService(EventCounterRepository eventCounterRepository,
+                               AlertLogRepository alertLogRepository,
+                               UserRepository userRepository,
+                               ProtectedUserRepository protectedUserRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${dashboard.counter.reconcile-days:2}") int reconcileDays,
+                               @Value("${dashboard.counter.reconcile-lease-minutes:30}") long reconcileLeaseMinutes) {
+        this.eventCounterRepository = eventCounterRepository;
+        this.alertLogRepository = alertLogRepository;
+        this.userRepository = userRepository;
+        this.protectedUserRepository = protectedUserRepository;
+        this.counterTransaction = new TransactionTemplate(transactionManager);
+        this.counterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reconcileDays = reconcileDays;
+        this.reconcileLease = Duration.ofMinutes(reconcileLeaseMinutes);
+
+        Gauge.builder("dashboard.counter.pending", pending, Map::size)
+                .description("DB에 반영을 기다리는 대시보드 카운터 수").register(meterRegistry);
+    }
+
+    /*날짜별 알림 수 카운터 이름 (e.g., "alert.SOS").*/
+    public static String alertCounter(EventType eventType) {
+        return "alert." + eventType.name();
+    }
+
+    /**
+     * 알림 기록이 커밋된 후 해당 날짜의 알림 종류별 건수를 1 증가
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertRecorded(AlertRecordedEvent event) {
+        add(alertCounter(event.eventType()), event.eventTime().withZoneSameInstant(ZONE).toLocalDate(), 1);
+    }
+
+    /**
+     * 계정 생성/삭제가 커밋된 후 전체 사용자 수를 증감
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        add(event.role() == UserRole.PROTECTED ? PROTECTED_USERS : GUARDIANS, TOTAL_DAY, event.created() ? 1 : -1);
+    }
+
+    /**
+     * 전체 합계와 해당 날짜의 카운터를 한 번에 조회
+     * 아직 DB에 반영되지 않은 이 서버의 증감분(최대 flush-ms)은 포함되지 않음
+     *
+     * @param day 조회할 날짜 (Asia/Seoul).
+     * @return 카운터 이름별 값. 날짜별 카운터와 전체 합계 카운터의 이름은 겹치지 않음
+     */
+    public Map<String, Long> snapshot(LocalDate day) {
+        Map<String, Long> values = new HashMap<>();
+        for (EventCounter counter : eventCounterRepository.findAllByDayIn(List.of(TOTAL_DAY, day))) {
+            values.put(counter.getName(), counter.getTotal());
+        }
+        return values;
+    }
+
+    /*오늘 날짜 (Asia/Seoul).*/
+    public static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+    private void add(String name, LocalDate day, long delta) {
+        pending.merge(new Key(name, day), delta, Long::sum);
+    }
+
+    /**
+     * 모아 둔 증감분을 한 트랜잭션에서 카운터 행에 더함
+     * 실패하면 증감분을 되돌려 다음 주기에 다시 시도
+     */
+    @Scheduled(fixedDelayString = "${dashboard.counter.flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Key, Long> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            counterTransaction.executeWithoutResult(status -> batch.forEach((key, delta) ->
+                    eventCounterRepository.add(key.name(), key.day(), delta, now)));
+        } catch (RuntimeException e) {
+            batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+            log.error("[대시보드 카운터] 카운터 {}개의 반영에 실패했습니다. 다음 주기에 다시 시도합니다.", batch.size(), e);
+        }
+    }
+
+    /**
+     * 카운터를 원본 테이블에서 다시 센 값으로 맞춤. 모든 서버에서 같은 시각에 실행되므로 lease를 가져간 한 서버만 보정
+     *
+     * 원본 테이블에는 이미 커밋되었지만 다른 서버가 아직 카운터에 반영하지 않은 증감분(최대 flush-ms)은 알 수 없으므로,
+     * 그대로 덮어쓰면 그 증감분이 나중에 한 번 더 더해짐. 이를 피하기 위해
+     * - 날짜별 알림 수는 이미 끝난 날(어제부터 reconcile-days일 전까지)만 다시 센 값으로 덮어씀
+     * - 전체 사용자 수는 원본과의 차이가 두 번의 보정에서 연속으로 같을 때만 그 차이를 더함 (반영 대기 중인 증감분은 다음 보정 전에 사라짐)
+     * 이 서버에 남아 있는 증감분(반영 실패 등)은 원본에서 빼고 맞춤
+     */
+    @Scheduled(cron = "${dashboard.counter.reconcile-cron:0 10 * * * *}", zone = "Asia/Seoul")
+    public void reconcile() {
+        flush();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = today();
+        try {
+            Integer acquired = counterTransaction.execute(status -> {
+                eventCounterRepository.insertLeaseIfAbsent(RECONCILE_LEASE, TOTAL_DAY, TOTAL_DAY.atStartOfDay());
+                return eventCounterRepository.acquireLease(RECONCILE_LEASE, TOTAL_DAY, now, now.minus(reconcileLease));
+            });
+            if (acquired == null || acquired == 0) {
+                log.info("[대시보드 카운터] 다른 서버가 이미 카운터를 보정했으므로 건너뜁니다.");
+                return;
+            }
+            counterTransaction.executeWithoutResult(status -> {
+                reconcileTotal(GUARDIANS, userRepository.count(), now);
+                reconcileTotal(PROTECTED_USERS, protectedUserRepository.count(), now);
+                for (int i = 1; i <= reconcileDays; i++) {
+                    LocalDate day = today.minusDays(i);
+                    Map<EventType, Long> counts = new EnumMap<>(EventType.class);
+                    for (EventType eventType : EventType.values()) {
+                        counts.put(eventType, 0L);
+                    }
+                    alertLogRepository.countByEventTypeBetween(day.atStartOfDay(ZONE), day.plusDays(1).atStartOfDay(ZONE))
+                            .forEach(row -> counts.put(row.getEventType(), row.getTotal()));
+                    counts.forEach((eventType, count) -> {
+                        String name = alertCounter(eventType);
+                        eventCounterRepository.set(name, day, count - pendingDelta(name, day), now);
+                    });
+                }
+            });
+            log.info("[대시보드 카운터] 전체 사용자 수와 지난 {}일의 알림 수를 원본 테이블 기준으로 보정했습니다.", reconcileDays);
+        } catch (RuntimeException e) {
+            log.error("[대시보드 카운터] 카운터 보정에 실패했습니다.", e);
+        }
+    }
+
+    /*전체 합계 카운터 하나를 원본과 비교하여, 같은 차이가 연속으로 관측되면 그만큼 더하는 헬퍼 메소드.*/
+    private void reconcileTotal(String name, long count, LocalDateTime now) {
+        long current = eventCounterRepository.findByNameAndDay(name, TOTAL_DAY).map(EventCounter::getTotal).orElse(0L);
+        long drift = count - pendingDelta(name, TOTAL_DAY) - current;
+        Long previous = lastDrift.put(name, drift);
+        if (drift == 0 || previous == null || previous != drift) {
+            return;
+        }
+        eventCounterRepository.add(name, TOTAL_DAY, drift, now);
+        lastDrift.put(name, 0L);
+        log.warn("[대시보드 카운터] {} 카운터가 원본과 {}만큼 차이 나 보정했습니다.", name, drift);
+    }
+
+    /*이 서버에서 아직 반영하지 못한 증감분.*/
+    private long pendingDelta(String name, LocalDate day) {
+        return pending.getOrDefault(new Key(name, day), 0L);
+    }
+}
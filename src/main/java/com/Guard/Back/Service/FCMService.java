@@ -1,35 +1,116 @@
 package com.Guard.Back.Service;
 
+import com.google.firebase.messaging.AndroidConfig;
+import com.google.firebase.messaging.ApnsConfig;
+import com.google.firebase.messaging.Aps;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FCMService {
+
+    /*FCM 멀티캐스트 요청 하나에 담을 수 있는 최대 토큰 수.*/
+    public static final int MAX_MULTICAST_TOKENS = 500;
+
+    /**
+     * 토큰 하나에 대한 발송 결과.
+     * @param token        발송 대상 토큰.
+     * @param messageId    성공 시 FCM이 발급한 메시지 ID. 실패하면 null
+     * @param error        실패 시 원인. 성공하면 null
+     * @param requestError 토큰별 응답이 아니라 멀티캐스트 요청 전체가 실패한 경우 true (토큰 문제로 볼 수 없음)
+     */
+    public record SendResult(String token, String messageId, FirebaseMessagingException error, boolean requestError) {
+        public boolean success() {
+            return error == null;
+        }
+    }
+
     public void sendPushNotification(String fcmToken, String title, String body) {
         if (fcmToken == null || fcmToken.isEmpty()) {
             log.warn("[FCM] FCM 토큰이 비어있어 메시지를 발송할 수 없습니다.");
             return;
         }
 
+        try {
+            send(fcmToken, title, body);
+        } catch (Exception e) {
+            log.error("[FCM] 푸시 알림 발송에 실패했습니다. Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 푸시 알림 한 건을 발송하고, 실패하면 예외를 그대로 던짐 (재시도 여부는 호출하는 쪽에서 판단)
+     * @return FCM이 발급한 메시지 ID.
+     * @throws FirebaseMessagingException FCM 발송에 실패한 경우 발생.
+     */
+    public String send(String fcmToken, String title, String body) throws FirebaseMessagingException {
         Message message = Message.builder()
                 .setToken(fcmToken)
-                .setNotification(Notification.builder()
-                        .setTitle(title)
-                        .setBody(body)
-                        .build())
+                .setNotification(notification(title, body))
                 .build();
 
-        try {
-            String response = FirebaseMessaging.getInstance().send(message);
-            log.info("[FCM] 성공적으로 푸시 알림을 보냈습니다. {}", response);
-        } catch (Exception e) {
-            log.error("[FCM] 푸시 알림 발송에 실패했습니다. Error: {}", e.getMessage());
+        String response = FirebaseMessaging.getInstance().send(message);
+        log.info("[FCM] 성공적으로 푸시 알림을 보냈습니다. {}", response);
+        return response;
+    }
+
+    /**
+     * 같은 내용의 푸시 알림을 여러 토큰에 한 번의 멀티캐스트 요청으로 발송
+     * 토큰이 MAX_MULTICAST_TOKENS개를 넘으면 그 단위로 나누어 요청하며, 토큰마다 결과를 돌려줌
+     * (FCM이 토큰별 요청을 동시에 보내므로 보호자 수와 관계없이 대략 한 번의 왕복 시간이 걸림)
+     *
+     * @param fcmTokens    발송 대상 토큰 목록 (비어 있지 않은 값).
+     * @param highPriority true면 기기가 절전 상태여도 바로 표시되도록 Android/APNs 높은 우선순위로 발송 (SOS 등)
+     * @return 입력과 같은 순서의 토큰별 발송 결과.
+     */
+    public List<SendResult> sendMulticast(List<String> fcmTokens, String title, String body, boolean highPriority) {
+        List<SendResult> results = new ArrayList<>(fcmTokens.size());
+        for (int from = 0; from < fcmTokens.size(); from += MAX_MULTICAST_TOKENS) {
+            List<String> chunk = fcmTokens.subList(from, Math.min(from + MAX_MULTICAST_TOKENS, fcmTokens.size()));
+            MulticastMessage.Builder builder = MulticastMessage.builder()
+                    .addAllTokens(chunk)
+                    .setNotification(notification(title, body));
+            if (highPriority) {
+                builder.setAndroidConfig(AndroidConfig.builder().setPriority(AndroidConfig.Priority.HIGH).build())
+                        .setApnsConfig(ApnsConfig.builder()
+                                .putHeader("apns-priority", "10")
+                                .setAps(Aps.builder().setSound("default").build())
+                                .build());
+            }
+            MulticastMessage message = builder.build();
+            try {
+                BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
+                List<SendResponse> responses = response.getResponses();
+                for (int i = 0; i < chunk.size(); i++) {
+                    SendResponse each = responses.get(i);
+                    results.add(new SendResult(chunk.get(i), each.getMessageId(), each.isSuccessful() ? null : each.getException(), false));
+                }
+                log.info("[FCM] 멀티캐스트 발송 완료. (성공: {}건, 실패: {}건)", response.getSuccessCount(), response.getFailureCount());
+            } catch (FirebaseMessagingException e) {
+                // 요청 전체가 실패하면 묶음의 모든 토큰을 같은 원인으로 실패 처리 (토큰을 죽은 것으로 보지 않도록 표시)
+                log.error("[FCM] 멀티캐스트 발송에 실패했습니다. ({}건) Error: {}", chunk.size(), e.getMessage());
+                chunk.forEach(token -> results.add(new SendResult(token, null, e, true)));
+            }
         }
+        return results;
+    }
+
+    private Notification notification(String title, String body) {
+        return Notification.builder()
+                .setTitle(title)
+                .setBody(body)
+                .build();
     }
-}
\ No newline at end of file
+}
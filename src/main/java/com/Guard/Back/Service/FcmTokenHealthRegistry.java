@@ -0,0 +1,235 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Repository.DeviceTokenRepository;
+import com.Guard.Back.Repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 더 이상 사용할 수 없는(FCM이 UNREGISTERED 등으로 거절한) 토큰을 기억하는 레지스트리.
+ * DB의 토큰(device_token 행과 예전 users.fcm_token 값)은 발송 경로와 분리하여 주기적으로 모아서 지우며,
+ * 죽은 것으로 표시한 시간 이후에 다시 등록된 토큰은 지우지 않음 (다른 서버에서 다시 등록된 경우 포함)
+ *
+ * 서버 메모리의 기록은 DB에서 지운 결과가 기기 토큰 캐시에 반영될 때까지만 발송에서 건너뛰는 용도이며,
+ * 기준은 DB이므로 ttl-minutes 후에는 만료됨
+ * 이 서버에서 토큰이 다시 등록되면(UserService.updateFcmToken) 바로 정상으로 되돌림
+ *
+ * FCM이 거절하지 않더라도 stale-days 동안 다시 등록되지 않은 기기 토큰(앱을 지운 기기 등)은 prune-cron마다 지움
+ */
+@Component
+@Slf4j
+public class FcmTokenHealthRegistry {
+
+    /*한 번의 쿼리로 지울 최대 토큰 수.*/
+    private static final int MAX_CLEAR_BATCH = 500;
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final UserRepository userRepository;
+    private final DeviceTokenCache deviceTokenCache;
+    private final TransactionTemplate clearTransaction;
+    private final Cache<String, Boolean> deadTokens;
+    /*DB에서 아직 지우지 않은 죽은 토큰과 죽은 것으로 표시한 시간.*/
+    private final Map<String, LocalDateTime> pendingClear = new ConcurrentHashMap<>();
+    private final Counter deadCounter;
+    private final Counter clearedCounter;
+    private final Counter prunedCounter;
+    private final long staleDays;
+
+    /**
+     * 발송 실패의 종류.
+     * - DEAD_TOKEN: 토큰이 만료/삭제되었거나 다른 프로젝트의 토큰임. 같은 토큰으로 재시도해도 실패
+     * - REJECTED  : 요청이 잘못됨(메시지가 너무 크거나 형식이 잘못됨 등). 재시도해도 실패하지만 토큰은 지우지 않음
+     * - RETRYABLE : 일시적인 장애(할당량 초과, 서버 오류 등). 잠시 후 재시도
+     */
+    public enum Failure {
+        DEAD_TOKEN,
+        REJECTED,
+        RETRYABLE
+    }
+
+    public FcmTokenHealthRegistry(DeviceTokenRepository deviceTokenRepository,
+                                  UserRepository userRepository,
+                                  DeviceTokenCache deviceTokenCache,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.token-health.max-size:100000}") long maxSize,
+                                  @Value("${notification.token-health.ttl-minutes:10}") long ttlMinutes,
+                                  @Value("${notification.device-token.stale-days:90}") long staleDays) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.userRepository = userRepository;
+        this.deviceTokenCache = deviceTokenCache;
+        this.clearTransaction = new TransactionTemplate(transactionManager);
+        this.staleDays = staleDays;
+        // DB에서 지운 뒤에는 조회되지 않으므로, 메모리 기록은 지우기와 기기 토큰 캐시 만료를 기다리는 동안만 유지
+        this.deadTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+
+        this.deadCounter = Counter.builder("notification.token.dead")
+                .description("FCM이 거절하여 죽은 토큰으로 표시한 수").register(meterRegistry);
+        this.clearedCounter = Counter.builder("notification.token.cleared")
+                .description("DB에서 지운 죽은 토큰 수").register(meterRegistry);
+        this.prunedCounter = Counter.builder("notification.token.pruned")
+                .description("오래 다시 등록되지 않아 DB에서 지운 기기 토큰 수").register(meterRegistry);
+        Gauge.builder("notification.token.pending.clear", pendingClear, Map::size)
+                .description("DB에서 지우기를 기다리는 죽은 토큰 수").register(meterRegistry);
+    }
+
+    /**
+     * 토큰 하나의 발송 결과를 분류
+     * 멀티캐스트 요청 전체가 실패한 경우는 토큰 문제가 아니므로 DEAD_TOKEN으로 분류하지 않음
+     */
+    public static Failure classify(FCMService.SendResult result) {
+        Failure failure = classify(result.error());
+        return result.requestError() && failure == Failure.DEAD_TOKEN ? Failure.RETRYABLE : failure;
+    }
+
+    /**
+     * FCM 발송 예외를 토큰 문제인지, 요청 문제인지, 재시도하면 되는 일시적인 문제인지 분류
+     * INVALID_ARGUMENT는 토큰 형식 오류뿐 아니라 메시지 자체의 오류에도 쓰이므로 토큰을 지우지 않음
+     * 오류 코드가 없는 예외(네트워크 오류 등)는 재시도 대상으로 봄
+     */
+    public static Failure classify(Exception e) {
+        if (!(e instanceof FirebaseMessagingException messagingException)) {
+            return Failure.RETRYABLE;
+        }
+        MessagingErrorCode code = messagingException.getMessagingErrorCode();
+        if (code == null) {
+            return Failure.RETRYABLE;
+        }
+        return switch (code) {
+            case UNREGISTERED, SENDER_ID_MISMATCH -> Failure.DEAD_TOKEN;
+            case INVALID_ARGUMENT -> Failure.REJECTED;
+            default -> Failure.RETRYABLE;
+        };
+    }
+
+    /*이미 죽은 것으로 확인된 토큰인지 확인*/
+    public boolean isDead(String fcmToken) {
+        return deadTokens.getIfPresent(fcmToken) != null;
+    }
+
+    /**
+     * 토큰을 죽은 토큰으로 기록하고, 다음 정리 주기에 DB에서 지우도록 예약
+     * 지우기는 지금 이후에 다시 등록되지 않은 경우에만 적용됨
+     */
+    public void markDead(String fcmToken) {
+        if (deadTokens.asMap().putIfAbsent(fcmToken, Boolean.TRUE) == null) {
+            pendingClear.putIfAbsent(fcmToken, LocalDateTime.now());
+            deadCounter.increment();
+            log.warn("[FCM 토큰] 사용할 수 없는 토큰을 발견했습니다. 이후 발송에서 제외합니다. (토큰 앞부분: {})", abbreviate(fcmToken));
+        }
+    }
+
+    /**
+     * 보호자가 토큰을 새로 등록했을 때 호출. 같은 토큰이 다시 등록되었으면 정상으로 되돌리고 지우기 예약도 취소
+     */
+    public void markHealthy(String fcmToken) {
+        if (fcmToken == null) {
+            return;
+        }
+        deadTokens.invalidate(fcmToken);
+        pendingClear.remove(fcmToken);
+    }
+
+    /**
+     * 지우기를 기다리는 죽은 토큰을 모아 DB에서 지움 (한 트랜잭션에 MAX_CLEAR_BATCH개씩)
+     * 토큰마다 죽은 것으로 표시한 시간보다 먼저 등록된 행만 지우고(last_seen_at 조건),
+     * 지운 뒤에는 그 토큰을 가졌던 보호자들의 기기 토큰 캐시를 무효화
+     */
+    @Scheduled(fixedDelayString = "${notification.token-health.flush-ms:5000}")
+    public void flush() {
+        while (!pendingClear.isEmpty()) {
+            Map<String, LocalDateTime> batch = new HashMap<>();
+            Iterator<Map.Entry<String, LocalDateTime>> iterator = pendingClear.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < MAX_CLEAR_BATCH) {
+                Map.Entry<String, LocalDateTime> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            try {
+                List<Long> owners = new ArrayList<>();
+                Integer cleared = clearTransaction.execute(status -> {
+                    owners.addAll(deviceTokenRepository.findGuardianIdsByTokens(batch.keySet()));
+                    List<String> deleted = new ArrayList<>();
+                    batch.forEach((token, markedAt) -> {
+                        if (deviceTokenRepository.deleteByTokensSeenBefore(List.of(token), markedAt) > 0) {
+                            deleted.add(token);
+                        }
+                    });
+                    if (!deleted.isEmpty()) {
+                        userRepository.clearFcmTokens(deleted);
+                    }
+                    return deleted.size();
+                });
+                deviceTokenCache.invalidateAll(owners);
+                clearedCounter.increment(cleared == null ? 0 : cleared);
+                log.info("[FCM 토큰] 죽은 토큰 {}건을 정리했습니다. (기기 토큰 삭제: {}건, 그 사이 다시 등록되었거나 이미 없음: {}건)",
+                        batch.size(), cleared, batch.size() - (cleared == null ? 0 : cleared));
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 시도 (그 사이 다시 표시된 토큰은 먼저 표시한 시간을 유지)
+                batch.forEach(pendingClear::putIfAbsent);
+                log.error("[FCM 토큰] 죽은 토큰 정리에 실패했습니다. ({}건)", batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * stale-days 동안 다시 등록되지 않은 기기 토큰을 MAX_CLEAR_BATCH개씩 지움
+     * 조회와 삭제 사이에 다시 등록된 토큰은 마지막 등록 시간이 바뀌어 지워지지 않음
+     */
+    @Scheduled(cron = "${notification.device-token.prune-cron:0 30 4 * * *}", zone = "Asia/Seoul")
+    public void pruneStaleTokens() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(staleDays);
+        int total = 0;
+        try {
+            while (true) {
+                List<Long> owners = new ArrayList<>();
+                Integer pruned = clearTransaction.execute(status -> {
+                    List<DeviceTokenRepository.GuardianToken> stale = deviceTokenRepository.findStaleTokens(cutoff, MAX_CLEAR_BATCH);
+                    if (stale.isEmpty()) {
+                        return 0;
+                    }
+                    List<String> tokens = stale.stream().map(DeviceTokenRepository.GuardianToken::getToken).toList();
+                    stale.forEach(row -> owners.add(row.getGuardianId()));
+                    userRepository.clearFcmTokens(tokens);
+                    return deviceTokenRepository.deleteByTokensSeenBefore(tokens, cutoff);
+                });
+                deviceTokenCache.invalidateAll(owners);
+                if (pruned == null || pruned == 0) {
+                    break;
+                }
+                total += pruned;
+                prunedCounter.increment(pruned);
+            }
+            log.info("[FCM 토큰] {}일 동안 다시 등록되지 않은 기기 토큰 {}건을 정리했습니다.", staleDays, total);
+        } catch (RuntimeException e) {
+            log.error("[FCM 토큰] 오래된 기기 토큰 정리에 실패했습니다. (정리된 토큰: {}건)", total, e);
+        }
+    }
+
+    private static String abbreviate(String fcmToken) {
+        return fcmToken.length() <= 12 ? fcmToken : fcmToken.substring(0, 12) + "...";
+    }
+}
@@ -0,0 +1,370 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Event.AlertRecordedEvent;
+import com.Guard.Back.Event.LocationsRecordedEvent;
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.GeofenceZoneRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 위치 저장 트랜잭션이 커밋된 후, 별도의 worker 스레드에서 지오펜스 진입/이탈을 판정하는 서비스.
+ * 위치 저장 요청은 INSERT만 하고 바로 끝나며, 판정/기록(AlertLog)과 보호자 알림의 발송 대기열 저장은 worker의 트랜잭션에서,
+ * 실제 푸시 발송은 NotificationDispatcher가 처리
+ *
+ * 피보호자 ID로 큐를 나누어 같은 피보호자의 위치는 항상 같은 worker가 순서대로 판정
+ * 큐가 가득 차면 커밋한 요청 스레드를 막지 않고 피보호자별 대기 목록에 미뤘다가 자리가 나면 다시 적재
+ * (대기 목록이 있는 동안 들어온 같은 피보호자의 위치는 큐가 아니라 대기 목록에 합쳐 기록 시간 순서를 지킴)
+ * 판정에 실패한 작업은 같은 worker에서 retry-backoff-ms부터 간격을 두 배씩 늘려 max-attempts번까지 다시 시도
+ * 큐 길이와 지연, 미룬/재시도/실패한 작업 수는 geofence.evaluation.* 메트릭(/actuator/metrics)으로 확인
+ */
+@Service
+@Slf4j
+public class GeofenceEvaluationService {
+
+    /*worker가 큐에서 다음 작업을 기다리는 최대 시간 (밀리초).*/
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    /*종료 시 남은 작업을 모두 처리할 때까지 기다리는 최대 시간 (초).*/
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /*피보호자 한 명당 미뤄 둘 수 있는 최대 위치 수. 넘으면 오래된 위치부터 버림 (판정 상태는 최근 위치로 정해지므로)*/
+    private static final int MAX_DEFERRED_POINTS = 1000;
+
+    private final ProtectedUserRepository protectedUserRepository;
+    private final AlertLogRepository alertLogRepository;
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final NotificationOutboxService notificationOutboxService;
+    private final GeofenceZoneRegistry geofenceZoneRegistry;
+    private final GeofenceTransitionDebouncer transitionDebouncer;
+    private final GeofenceSnapshotCache geofenceSnapshotCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate evaluationTransaction;
+
+    private final List<BlockingQueue<EvaluationTask>> partitions = new ArrayList<>();
+    private final ExecutorService workers;
+    private volatile boolean running = true;
+
+    /*큐가 가득 차 적재하지 못한 피보호자별 위치 묶음. 미룬 동안 들어온 같은 피보호자의 위치도 여기에 합쳐 순서를 지킴*/
+    private final Map<Long, EvaluationTask> deferred = new ConcurrentHashMap<>();
+
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    private final Timer lagTimer;
+    private final Timer evaluationTimer;
+    private final Counter deferredTasks;
+    private final Counter droppedPoints;
+    private final Counter retriedTasks;
+    private final Counter failedTasks;
+
+    /*판정을 기다리는 위치 묶음. enqueuedAt은 지연 측정용 (System.nanoTime).*/
+    private record EvaluationTask(Long protectedUserId, List<LocationsRecordedEvent.Point> points, long enqueuedAt) {}
+
+
+    public GeofenceEvaluationService(ProtectedUserRepository protectedUserRepository,
+                                     AlertLogRepository alertLogRepository,
+                                     GeofenceZoneRepository geofenceZoneRepository,
+                                     NotificationOutboxService notificationOutboxService,
+                                     GeofenceZoneRegistry geofenceZoneRegistry,
+                                     GeofenceTransitionDebouncer transitionDebouncer,
+                                     GeofenceSnapshotCache geofenceSnapshotCache,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${geofence.evaluation.workers:4}") int workerCount,
+                                     @Value("${geofence.evaluation.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${geofence.evaluation.max-attempts:3}") int maxAttempts,
+                                     @Value("${geofence.evaluation.retry-backoff-ms:200}") long retryBackoffMillis) {
+        this.protectedUserRepository = protectedUserRepository;
+        this.alertLogRepository = alertLogRepository;
+        this.geofenceZoneRepository = geofenceZoneRepository;
+        this.notificationOutboxService = notificationOutboxService;
+        this.geofenceZoneRegistry = geofenceZoneRegistry;
+        this.transitionDebouncer = transitionDebouncer;
+        this.geofenceSnapshotCache = geofenceSnapshotCache;
+        this.eventPublisher = eventPublisher;
+        this.evaluationTransaction = new TransactionTemplate(transactionManager);
+        this.evaluationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> new Thread(runnable, "geofence-worker-" + threadNumber.incrementAndGet()));
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<EvaluationTask> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workerCount));
+            partitions.add(queue);
+            workers.submit(() -> runWorker(queue));
+        }
+
+        Gauge.builder("geofence.evaluation.queue.depth", partitions,
+                        queues -> queues.stream().mapToInt(BlockingQueue::size).sum())
+                .description("판정을 기다리는 위치 묶음 수").register(meterRegistry);
+        Gauge.builder("geofence.evaluation.deferred.users", deferred, Map::size)
+                .description("큐가 가득 차 판정이 미뤄진 피보호자 수").register(meterRegistry);
+        this.lagTimer = Timer.builder("geofence.evaluation.lag")
+                .description("위치 저장 커밋부터 판정 시작까지 걸린 시간").register(meterRegistry);
+        this.evaluationTimer = Timer.builder("geofence.evaluation.duration")
+                .description("위치 묶음 하나를 판정하고 기록하는 데 걸린 시간").register(meterRegistry);
+        this.deferredTasks = Counter.builder("geofence.evaluation.deferred")
+                .description("큐가 가득 차 나중에 적재하도록 미룬 위치 묶음 수").register(meterRegistry);
+        this.droppedPoints = Counter.builder("geofence.evaluation.dropped")
+                .description("미뤄 둔 위치가 너무 많아 판정하지 않고 버린 위치 수").register(meterRegistry);
+        this.retriedTasks = Counter.builder("geofence.evaluation.retried")
+                .description("판정에 실패하여 다시 시도한 횟수").register(meterRegistry);
+        this.failedTasks = Counter.builder("geofence.evaluation.failed")
+                .description("재시도까지 모두 실패하여 판정하지 못한 위치 묶음 수").register(meterRegistry);
+    }
+
+    /**
+     * 위치 저장 트랜잭션이 커밋된 후 판정 작업을 피보호자의 큐에 적재
+     * 큐가 가득 차면 기다리지 않고 대기 목록에 미뤄 요청 스레드를 막지 않음
+     * 이미 미뤄진 피보호자의 위치는 순서를 지키도록 큐 대신 대기 목록에 합침
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationsRecorded(LocationsRecordedEvent event) {
+        if (!running) {
+            log.warn("[지오펜스] 종료 중이므로 피보호자 ID: {}의 위치 {}건을 판정하지 않습니다.",
+                    event.protectedUserId(), event.points().size());
+            return;
+        }
+        EvaluationTask task = new EvaluationTask(event.protectedUserId(), event.points(), System.nanoTime());
+        // 대기 목록 확인, 적재, 미루기를 피보호자별로 한 번에 처리하여, 미뤄진 묶음보다 나중 묶음이 먼저 큐에 들어가지 않도록 함
+        // (같은 키의 compute 안에서는 기다리지 않는 offer만 사용)
+        deferred.compute(task.protectedUserId(), (id, pending) -> {
+            if (pending != null) {
+                return merge(pending, task);
+            }
+            return partitionOf(id).offer(task) ? null : defer(task);
+        });
+    }
+
+    /**
+     * 미뤄 둔 위치 묶음을 큐에 자리가 나는 대로 다시 적재
+     * 적재하지 못한 피보호자는 다음 주기에 다시 시도
+     */
+    @Scheduled(fixedDelayString = "${geofence.evaluation.deferred-retry-ms:1000}")
+    public void requeueDeferred() {
+        for (Long protectedUserId : deferred.keySet()) {
+            deferred.computeIfPresent(protectedUserId,
+                    (id, pending) -> partitionOf(id).offer(pending) ? null : pending);
+        }
+    }
+
+    /*큐에 적재하지 못한 위치 묶음을 대기 목록에 넣을 작업으로 집계하는 헬퍼 메소드.*/
+    private EvaluationTask defer(EvaluationTask task) {
+        deferredTasks.increment();
+        log.warn("[지오펜스] 판정 큐가 가득 차 피보호자 ID: {}의 위치 {}건의 판정을 미룹니다.",
+                task.protectedUserId(), task.points().size());
+        return task;
+    }
+
+    /*같은 피보호자의 두 위치 묶음을 기록 시간 순으로 합침. 너무 많으면 오래된 위치부터 버림*/
+    private EvaluationTask merge(EvaluationTask older, EvaluationTask newer) {
+        List<LocationsRecordedEvent.Point> points = new ArrayList<>(older.points().size() + newer.points().size());
+        points.addAll(older.points());
+        points.addAll(newer.points());
+        points.sort(Comparator.comparing(LocationsRecordedEvent.Point::recordedAt));
+        if (points.size() > MAX_DEFERRED_POINTS) {
+            int dropped = points.size() - MAX_DEFERRED_POINTS;
+            droppedPoints.increment(dropped);
+            log.warn("[지오펜스] 피보호자 ID: {}의 미뤄 둔 위치가 너무 많아 오래된 위치 {}건을 버립니다.", older.protectedUserId(), dropped);
+            points = new ArrayList<>(points.subList(dropped, points.size()));
+        }
+        return new EvaluationTask(older.protectedUserId(), points, older.enqueuedAt());
+    }
+
+    private BlockingQueue<EvaluationTask> partitionOf(Long protectedUserId) {
+        return partitions.get(Math.floorMod(protectedUserId, partitions.size()));
+    }
+
+    /*worker 스레드의 본체. 종료 요청 후에도 큐가 빌 때까지 계속 처리*/
+    private void runWorker(BlockingQueue<EvaluationTask> queue) {
+        while (running || !queue.isEmpty()) {
+            try {
+                EvaluationTask task = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    process(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("[지오펜스] worker 스레드가 중단되었습니다. 남은 작업: {}건", queue.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 작업 하나를 한 트랜잭션에서 판정하고, 알림 기록과 발송 대기열 항목을 저장하는 헬퍼 메소드.
+     * 실패하면 트랜잭션과 함께 캐시된 안/밖 상태도 되돌려지므로(롤백 시 무효화), 같은 worker에서 DB 상태부터 다시 판정
+     * 다시 시도하는 동안 같은 피보호자의 다음 작업은 뒤에서 기다리므로 기록 시간 순서가 유지됨
+     */
+    private void process(EvaluationTask task) throws InterruptedException {
+        lagTimer.record(System.nanoTime() - task.enqueuedAt(), TimeUnit.NANOSECONDS);
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                evaluationTimer.record(() -> evaluate(task.protectedUserId(), task.points()));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    failedTasks.increment();
+                    log.error("[지오펜스] 피보호자 ID: {}의 위치 {}건 판정에 {}번 모두 실패했습니다.",
+                            task.protectedUserId(), task.points().size(), attempt, e);
+                    return;
+                }
+                retriedTasks.increment();
+                log.warn("[지오펜스] 피보호자 ID: {}의 위치 판정에 실패했습니다. {}ms 후 다시 시도합니다. ({}/{})",
+                        task.protectedUserId(), backoff, attempt, maxAttempts, e);
+            }
+            Thread.sleep(backoff);
+            backoff *= 2;
+        }
+    }
+
+    /*피보호자의 위치 묶음을 기록 시간 순으로 한 트랜잭션에서 판정.*/
+    void evaluate(Long protectedUserId, List<LocationsRecordedEvent.Point> points) {
+        evaluationTransaction.executeWithoutResult(status -> {
+            ProtectedUser pUser = protectedUserRepository.getReferenceById(protectedUserId);
+            for (LocationsRecordedEvent.Point point : points) {
+                checkGeofenceZones(pUser, point.latitude(), point.longitude(), point.recordedAt());
+                checkGeofence(pUser, point.latitude(), point.longitude(), point.recordedAt());
+            }
+        });
+    }
+
+    /**
+     * 피보호자의 위치를 기반으로 기본 안심 구역(ProtectedUser)의 진입/이탈을 확인하고,
+     * 상태 변경 시 기록을 저장하고, 이탈이면 보호자 알림을 발송 대기열에 저장
+     *
+     * @param pUser         검사할 피보호자 (참조).
+     * @param newLat        새로운 위치의 위도.
+     * @param newLon        새로운 위치의 경도.
+     * @param recordedAt    새로운 위치의 기록 시간.
+     */
+    private void checkGeofence(ProtectedUser pUser, double newLat, double newLon, LocalDateTime recordedAt) {
+        // 지오펜스가 설정되지 않았으면 검사하지 않고 종료합니다.
+        GeofenceSnapshotCache.GeofenceSnapshot snapshot = geofenceSnapshotCache.get(pUser.getId());
+        if (snapshot == null || snapshot.homeFence() == null) {
+            return;
+        }
+
+        // 대부분의 위치는 경계에서 멀리 떨어져 있으므로 근사 거리로 판정하고, 경계 근처에서만 정확한 거리를 계산
+        CircleFence home = snapshot.homeFence();
+        boolean wasInside = snapshot.insideGeofence();
+        // 경계 근처의 흔들림은 무시하고, 반대쪽 위치가 충분히 이어졌을 때만 상태 변화를 확정
+        if (!transitionDebouncer.observe(pUser.getId(), GeofenceTransitionDebouncer.HOME_FENCE_ID, home, wasInside,
+                newLat, newLon, recordedAt)) {
+            return;
+        }
+        boolean isNowInside = !wasInside;
+
+        // 상태가 바뀔 때만 ProtectedUser 행을 갱신. 다른 서버가 이미 같은 변화를 반영했으면 기록/알림은 생략
+        int updated = protectedUserRepository.updateInsideGeofence(pUser.getId(), isNowInside);
+        geofenceSnapshotCache.markInside(pUser.getId(), isNowInside);
+        if (updated == 0) {
+            return;
+        }
+
+        if (!isNowInside) { // 안 -> 밖 (이탈)
+            log.warn("[지오펜스] 피보호자 ID: {}가 안심 구역을 벗어났습니다! (거리: {}m)", pUser.getId(), String.format("%.2f", home.distanceToCenter(newLat, newLon)));
+            AlertLog alertLog = saveAlert(pUser, EventType.GEOFENCE_EXIT, "안심 구역을 벗어났습니다.", newLat, newLon);
+            notificationOutboxService.enqueue(alertLog, "🚨 안심구역 이탈!", "연결된 사용자가 설정된 안심 구역을 벗어났습니다.");
+        } else { // 밖 -> 안 (진입)
+            log.info("[지오펜스] 피보호자 ID: {}가 안심 구역으로 돌아왔습니다.", pUser.getId());
+            saveAlert(pUser, EventType.GEOFENCE_ENTER, "안심 구역으로 돌아왔습니다.", newLat, newLon);
+        }
+    }
+
+    /**
+     * 추가로 등록된 안심 구역(GeofenceZone)의 진입/이탈을 확인하는 헬퍼 메소드.
+     * 근처 구역만 검사하며, 상태가 바뀐 구역만 DB 갱신, 기록 저장, 알림 대기열 저장
+     */
+    private void checkGeofenceZones(ProtectedUser pUser, double newLat, double newLon, LocalDateTime recordedAt) {
+        for (GeofenceZoneRegistry.ZoneTransition transition
+                : geofenceZoneRegistry.evaluate(pUser.getId(), newLat, newLon, recordedAt)) {
+            geofenceZoneRepository.updateInside(transition.zoneId(), transition.entered());
+
+            if (!transition.entered()) {
+                log.warn("[지오펜스] 피보호자 ID: {}가 안심 구역 '{}'(ID: {})을 벗어났습니다!",
+                        pUser.getId(), transition.name(), transition.zoneId());
+                AlertLog alertLog = saveAlert(pUser, EventType.GEOFENCE_EXIT,
+                        "안심 구역 '" + transition.name() + "'을(를) 벗어났습니다.", newLat, newLon);
+                notificationOutboxService.enqueue(alertLog, "🚨 안심구역 이탈!",
+                        "연결된 사용자가 안심 구역 '" + transition.name() + "'을(를) 벗어났습니다.");
+            } else {
+                log.info("[지오펜스] 피보호자 ID: {}가 안심 구역 '{}'(ID: {})에 들어왔습니다.",
+                        pUser.getId(), transition.name(), transition.zoneId());
+                saveAlert(pUser, EventType.GEOFENCE_ENTER, "안심 구역 '" + transition.name() + "'에 들어왔습니다.", newLat, newLon);
+            }
+        }
+    }
+
+    private AlertLog saveAlert(ProtectedUser pUser, EventType eventType, String message, double latitude, double longitude) {
+        AlertLog alertLog = alertLogRepository.save(AlertLog.builder()
+                .protectedUser(pUser)
+                .eventType(eventType)
+                .message(message)
+                .latitude(latitude).longitude(longitude)
+                .eventTime(ZonedDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new AlertRecordedEvent(pUser.getId(), alertLog.getId(), eventType, alertLog.getEventTime()));
+        return alertLog;
+    }
+
+    /**
+     * 애플리케이션 종료 시 새 적재를 막고, 큐에 남은 작업을 모두 처리한 뒤 worker를 종료
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // worker가 아직 돌고 있을 때 미뤄 둔 작업을 먼저 큐에 넣음 (running이 false가 되면 큐가 비는 즉시 worker가 끝남)
+        for (EvaluationTask task : deferred.values()) {
+            if (!partitionOf(task.protectedUserId()).offer(task, SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.error("[지오펜스] 종료 중 피보호자 ID: {}의 미뤄 둔 위치 {}건을 적재하지 못했습니다.",
+                        task.protectedUserId(), task.points().size());
+            }
+        }
+        deferred.clear();
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            int remaining = partitions.stream().mapToInt(BlockingQueue::size).sum();
+            log.error("[지오펜스] 종료 대기 시간을 초과했습니다. 판정되지 못한 작업: {}건", remaining);
+            workers.shutdownNow();
+        } else {
+            log.info("[지오펜스] 큐에 남은 판정 작업을 모두 처리하고 종료했습니다.");
+        }
+    }
+}
@@ -1,31 +1,43 @@
 package com.Guard.Back.Service;
 
+import com.Guard.Back.Domain.GeofenceZone;
+import com.Guard.Back.Domain.GeofenceZoneType;
 import com.Guard.Back.Domain.ProtectedUser;
-import com.Guard.Back.Domain.User;
 import com.Guard.Back.Dto.GeofenceDto;
+import com.Guard.Back.Dto.GeofenceZoneDto;
+import com.Guard.Back.Event.GeofenceChangedEvent;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Geo.FenceShape;
+import com.Guard.Back.Geo.PolygonFence;
+import com.Guard.Back.Repository.CurrentLocationRepository;
+import com.Guard.Back.Repository.GeofenceZoneRepository;
 import com.Guard.Back.Repository.ProtectedUserRepository;
-import com.Guard.Back.Repository.RelationshipRepository;
-import com.Guard.Back.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class GeofenceService {
-    private final UserRepository userRepository;
     private final ProtectedUserRepository protectedUserRepository;
-    private final RelationshipRepository relationshipRepository;
+    private final GuardianAccessCache guardianAccessCache;
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final CurrentLocationRepository currentLocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // 권한 확인 (보호자와 피보호자가 연결되어 있는지)
+    // 피보호자당 등록 가능한 안심 구역 수와 다각형 꼭짓점 수
+    private static final int MAX_ZONES_PER_USER = 20;
+    private static final int MAX_POLYGON_VERTICES = 100;
+
+    // 권한 확인 (보호자와 피보호자가 연결되어 있는지, 권한 캐시 사용)
     private void validateRelationship(Long guardianId, ProtectedUser protectedUser) {
-        User guardian = userRepository.findById(guardianId)
-                .orElseThrow(() -> new CustomException(ErrorCode.GUARDIAN_NOT_FOUND));
-        if (!relationshipRepository.existsByGuardianAndProtectedUser(guardian, protectedUser)) {
-            throw new CustomException(ErrorCode.UNAUTHORIZED_ACCESS);
-        }
+        guardianAccessCache.verify(guardianId, protectedUser.getId());
     }
 
     @Transactional
@@ -37,6 +49,9 @@ public class GeofenceService {
         protectedUser.setHomeLatitude(dto.latitude());
         protectedUser.setHomeLongitude(dto.longitude());
         protectedUser.setGeofenceRadius(dto.radius());
+
+        // 위치 저장 시 사용하는 안심 구역 정보(GeofenceSnapshotCache)를 커밋 후 갱신
+        eventPublisher.publishEvent(new GeofenceChangedEvent(protectedUserId));
     }
 
     @Transactional
@@ -48,6 +63,8 @@ public class GeofenceService {
         protectedUser.setHomeLatitude(null);
         protectedUser.setHomeLongitude(null);
         protectedUser.setGeofenceRadius(null);
+
+        eventPublisher.publishEvent(new GeofenceChangedEvent(protectedUserId));
     }
 
     // 맵 다시 켰을 때 안전 반경 위치 불러오는 메소드
@@ -68,4 +85,101 @@ public class GeofenceService {
                 protectedUser.getHomeLongitude(),
                 protectedUser.getGeofenceRadius()
         );
-    }}
\ No newline at end of file
+    }
+
+    // 안심 구역 추가 (집, 어린이집, 병원 등 여러 개, 원형 또는 다각형)
+    @Transactional
+    public GeofenceZoneDto createZone(Long guardianId, Long protectedUserId, GeofenceZoneDto dto) {
+        guardianAccessCache.verify(guardianId, protectedUserId);
+        FenceShape shape = toValidShape(dto);
+        if (geofenceZoneRepository.countByProtectedUserId(protectedUserId) >= MAX_ZONES_PER_USER) {
+            throw new CustomException(ErrorCode.MAX_GEOFENCE_ZONES_REACHED);
+        }
+
+        boolean circle = dto.type() == GeofenceZoneType.CIRCLE;
+        String vertices = circle ? null : ((PolygonFence) shape).encode();
+
+        // 등록 직후 '진입' 알림이 잘못 가지 않도록, 현재 위치로 초기 내부/외부 상태를 정함
+        boolean inside = currentLocationRepository.findById(protectedUserId)
+                .map(current -> shape.contains(current.getLatitude(), current.getLongitude()))
+                .orElse(false);
+
+        GeofenceZone zone = geofenceZoneRepository.save(GeofenceZone.builder()
+                .protectedUser(protectedUserRepository.getReferenceById(protectedUserId))
+                .name(dto.name())
+                .type(dto.type())
+                .latitude(circle ? dto.latitude() : null)
+                .longitude(circle ? dto.longitude() : null)
+                .radius(circle ? dto.radius() : null)
+                .vertices(vertices)
+                .insideZone(inside)
+                .build());
+
+        eventPublisher.publishEvent(new GeofenceChangedEvent(protectedUserId));
+        return toZoneDto(zone);
+    }
+
+    // 등록된 안심 구역 목록 조회
+    @Transactional(readOnly = true)
+    public List<GeofenceZoneDto> getZones(Long guardianId, Long protectedUserId) {
+        guardianAccessCache.verify(guardianId, protectedUserId);
+        return geofenceZoneRepository.findAllByProtectedUserId(protectedUserId).stream()
+                .map(this::toZoneDto)
+                .collect(Collectors.toList());
+    }
+
+    // 안심 구역 삭제
+    @Transactional
+    public void deleteZone(Long guardianId, Long protectedUserId, Long zoneId) {
+        guardianAccessCache.verify(guardianId, protectedUserId);
+        GeofenceZone zone = geofenceZoneRepository.findByIdAndProtectedUserId(zoneId, protectedUserId)
+                .orElseThrow(() -> new CustomException(ErrorCode.GEOFENCE_ZONE_NOT_FOUND));
+        geofenceZoneRepository.delete(zone);
+        eventPublisher.publishEvent(new GeofenceChangedEvent(protectedUserId));
+    }
+
+    // 안심 구역 입력값 검증 후 판정용 모양으로 변환 (원형: 중심/반경, 다각형: 꼭짓점 3~100개, 좌표 범위, 자기 교차 없음)
+    private FenceShape toValidShape(GeofenceZoneDto dto) {
+        if (dto.type() == GeofenceZoneType.CIRCLE) {
+            if (!isValidCoordinate(dto.latitude(), dto.longitude()) || dto.radius() == null || dto.radius() <= 0) {
+                throw new CustomException(ErrorCode.INVALID_GEOFENCE_ZONE);
+            }
+            return new CircleFence(dto.latitude(), dto.longitude(), dto.radius());
+        }
+        List<GeofenceZoneDto.Vertex> vertices = dto.vertices();
+        if (vertices == null || vertices.size() < 3 || vertices.size() > MAX_POLYGON_VERTICES
+                || !vertices.stream().allMatch(v -> v != null && isValidCoordinate(v.latitude(), v.longitude()))) {
+            throw new CustomException(ErrorCode.INVALID_GEOFENCE_ZONE);
+        }
+        double[] latitudes = new double[vertices.size()];
+        double[] longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            latitudes[i] = vertices.get(i).latitude();
+            longitudes[i] = vertices.get(i).longitude();
+        }
+        try {
+            return new PolygonFence(latitudes, longitudes);
+        } catch (IllegalArgumentException e) {
+            // 꼭짓점 중복, 일직선, 자기 교차
+            throw new CustomException(ErrorCode.INVALID_GEOFENCE_ZONE);
+        }
+    }
+
+    private boolean isValidCoordinate(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180;
+    }
+
+    private GeofenceZoneDto toZoneDto(GeofenceZone zone) {
+        List<GeofenceZoneDto.Vertex> vertices = null;
+        if (zone.getVertices() != null) {
+            double[][] decoded = PolygonFence.decode(zone.getVertices());
+            vertices = new ArrayList<>(decoded[0].length);
+            for (int i = 0; i < decoded[0].length; i++) {
+                vertices.add(new GeofenceZoneDto.Vertex(decoded[0][i], decoded[1][i]));
+            }
+        }
+        return new GeofenceZoneDto(zone.getId(), zone.getName(), zone.getType(),
+                zone.getLatitude(), zone.getLongitude(), zone.getRadius(), vertices);
+    }
+}
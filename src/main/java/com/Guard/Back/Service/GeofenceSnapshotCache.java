@@ -0,0 +1,97 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.GeofenceChangedEvent;
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+
+/**
+ * 위치 저장 시 필요한 피보호자의 기본 안심 구역 정보(구역 모양, 내부/외부 상태)를 서버 메모리에 보관하는 캐시.
+ * 위치를 저장할 때마다 ProtectedUser 엔티티를 읽지 않도록, 캐시에 없을 때만 필요한 컬럼을 조회
+ *
+ * 안심 구역 설정이 바뀌면 커밋 직후 무효화하고, 다른 서버에서 바뀐 설정은 TTL 이후 반영
+ * 내부/외부 상태는 이 서버에서 확정한 상태 변화를 바로 반영하며, 트랜잭션이 롤백되면 항목을 버림
+ */
+@Component
+public class GeofenceSnapshotCache {
+
+    private final ProtectedUserRepository protectedUserRepository;
+    private final Cache<Long, GeofenceSnapshot> cache;
+
+    /**
+     * 피보호자의 기본 안심 구역 정보 (변경되지 않는 값 객체).
+     * @param homeFence      기본 안심 구역. 설정되지 않았으면 null.
+     * @param insideGeofence 현재 확정된 내부/외부 상태 (안이면 true).
+     */
+    public record GeofenceSnapshot(CircleFence homeFence, boolean insideGeofence) {
+
+        GeofenceSnapshot withInside(boolean inside) {
+            return new GeofenceSnapshot(homeFence, inside);
+        }
+    }
+
+    public GeofenceSnapshotCache(ProtectedUserRepository protectedUserRepository,
+                                 @Value("${geofence.snapshot-cache.max-size:100000}") long maxSize,
+                                 @Value("${geofence.snapshot-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.protectedUserRepository = protectedUserRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 피보호자의 기본 안심 구역 정보를 조회
+     * @param protectedUserId 조회할 피보호자의 ID.
+     * @return 안심 구역 정보. 피보호자가 존재하지 않으면 null (캐시하지 않음).
+     */
+    public GeofenceSnapshot get(Long protectedUserId) {
+        return cache.get(protectedUserId, id -> protectedUserRepository.findGeofenceColumnsById(id)
+                .map(columns -> new GeofenceSnapshot(
+                        columns.getHomeLatitude() == null || columns.getHomeLongitude() == null || columns.getGeofenceRadius() == null
+                                ? null
+                                : new CircleFence(columns.getHomeLatitude(), columns.getHomeLongitude(), columns.getGeofenceRadius()),
+                        Boolean.TRUE.equals(columns.getInsideGeofence())))
+                .orElse(null));
+    }
+
+    /**
+     * 확정된 내부/외부 상태 변화를 캐시에 반영
+     * DB 갱신과 같은 트랜잭션 안에서 호출해야 하며, 롤백되면 항목을 버리고 다음 위치 때 DB에서 다시 읽음
+     */
+    public void markInside(Long protectedUserId, boolean inside) {
+        cache.asMap().computeIfPresent(protectedUserId, (id, snapshot) -> snapshot.withInside(inside));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cache.invalidate(protectedUserId);
+                }
+            }
+        });
+    }
+
+    /*항목을 버려 다음 조회 때 DB에서 다시 읽도록 함 (탈퇴한 피보호자가 캐시에 남은 경우 등).*/
+    public void invalidate(Long protectedUserId) {
+        cache.invalidate(protectedUserId);
+    }
+
+    /**
+     * 안심 구역 설정이 바뀌거나 피보호자가 삭제된 트랜잭션이 커밋된 후 해당 항목을 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        cache.invalidate(event.protectedUserId());
+    }
+}
@@ -0,0 +1,127 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.GeofenceChangedEvent;
+import com.Guard.Back.Geo.FenceRegion;
+import com.Guard.Back.Geo.FenceShape;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 경계 근처의 GPS 오차 때문에 안심 구역 진입/이탈이 반복해서 기록되지 않도록 하는 상태 기계.
+ * - 경계 양쪽 hysteresis-meters 폭의 띠 안에 들어온 위치는 판정에 사용하지 않음
+ * - 확정된 상태와 반대쪽 위치가 confirm-points번 연속으로 들어오거나,
+ *   반대쪽에 머문 시간(기록 시간 기준)이 confirm-seconds 이상이면 상태 변화를 확정
+ *
+ * 확정된 상태는 DB(ProtectedUser.isInsideGeofence, GeofenceZone.insideZone)에 있고,
+ * 여기서는 확정 전의 대기 상태만 서버 메모리에 보관. 재시작하면 대기 상태는 처음부터 다시 셈
+ */
+@Component
+public class GeofenceTransitionDebouncer {
+
+    /*기본 안심 구역(ProtectedUser의 집 주변 구역)을 나타내는 구역 ID. GeofenceZone ID는 1부터 시작*/
+    public static final long HOME_FENCE_ID = 0L;
+
+    /*대기 상태를 보관할 최대 피보호자 수.*/
+    private static final long MAX_USERS = 100_000;
+
+    private final double hysteresisMeters;
+    private final int confirmPoints;
+    private final Duration confirmDuration;
+    private final Cache<Long, Map<Long, Pending>> pendings;
+
+    /**
+     * 확정된 상태와 반대쪽에서 관측된, 아직 확정되지 않은 상태 변화.
+     * @param inside 관측된 쪽 (안이면 true).
+     * @param count  연속으로 관측된 횟수.
+     * @param since  처음 관측된 위치의 기록 시간.
+     */
+    private record Pending(boolean inside, int count, LocalDateTime since) {}
+
+    public GeofenceTransitionDebouncer(@Value("${geofence.hysteresis-meters:20}") double hysteresisMeters,
+                                       @Value("${geofence.confirm-points:3}") int confirmPoints,
+                                       @Value("${geofence.confirm-seconds:60}") long confirmSeconds) {
+        this.hysteresisMeters = hysteresisMeters;
+        this.confirmPoints = Math.max(1, confirmPoints);
+        this.confirmDuration = Duration.ofSeconds(confirmSeconds);
+        this.pendings = Caffeine.newBuilder()
+                .maximumSize(MAX_USERS)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+
+    /**
+     * 새 위치를 관측하고, 구역의 확정 상태를 바꿔야 하는지 판단
+     * 같은 피보호자의 위치는 기록 시간 순으로 전달해야 함
+     *
+     * @param protectedUserId 피보호자의 ID.
+     * @param fenceId         구역 ID (기본 안심 구역은 HOME_FENCE_ID).
+     * @param shape           구역의 모양.
+     * @param confirmedInside 현재 확정된 상태 (안이면 true).
+     * @param latitude        새 위치의 위도.
+     * @param longitude       새 위치의 경도.
+     * @param recordedAt      새 위치의 기록 시간.
+     * @return 상태 변화가 확정되었으면 true. 호출하는 쪽에서 확정 상태를 반대로 바꾸고 DB에 반영해야 함
+     */
+    public boolean observe(Long protectedUserId, long fenceId, FenceShape shape, boolean confirmedInside,
+                           double latitude, double longitude, LocalDateTime recordedAt) {
+        FenceRegion region = shape.classify(latitude, longitude, hysteresisMeters);
+        if (region == FenceRegion.BOUNDARY) {
+            return false;
+        }
+
+        boolean observedInside = region == FenceRegion.INSIDE;
+        if (observedInside == confirmedInside) {
+            // 확정된 쪽으로 돌아왔으면 대기 중이던 상태 변화는 취소
+            Map<Long, Pending> userPendings = pendings.getIfPresent(protectedUserId);
+            if (userPendings != null) {
+                userPendings.remove(fenceId);
+            }
+            return false;
+        }
+        if (confirmPoints == 1) {
+            return true;
+        }
+
+        Map<Long, Pending> userPendings = pendings.get(protectedUserId, id -> new ConcurrentHashMap<>());
+        Pending previous = userPendings.get(fenceId);
+        Pending next = previous == null || previous.inside() != observedInside
+                ? new Pending(observedInside, 1, recordedAt)
+                : new Pending(observedInside, previous.count() + 1, previous.since());
+
+        boolean confirmed = next.count() >= confirmPoints
+                || (next.count() > 1 && !confirmDuration.isZero()
+                    && !recordedAt.isBefore(next.since().plus(confirmDuration)));
+        if (confirmed) {
+            userPendings.remove(fenceId);
+            return true;
+        }
+        userPendings.put(fenceId, next);
+        return false;
+    }
+
+    /**
+     * 상태 변화를 기다리고 있는 구역 ID 목록
+     * 근처에 없어 검사 후보에서 빠진 구역도 대기 상태를 취소할 수 있도록 함께 검사하기 위해 사용
+     */
+    public Set<Long> pendingFenceIds(Long protectedUserId) {
+        Map<Long, Pending> userPendings = pendings.getIfPresent(protectedUserId);
+        return userPendings == null ? Set.of() : Set.copyOf(userPendings.keySet());
+    }
+
+    /**
+     * 안심 구역 설정이 바뀐 트랜잭션이 커밋된 후, 이전 구역 기준으로 쌓인 대기 상태를 버림
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        pendings.invalidate(event.protectedUserId());
+    }
+}
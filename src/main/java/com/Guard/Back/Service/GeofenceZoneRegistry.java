@@ -0,0 +1,176 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.GeofenceZone;
+import com.Guard.Back.Domain.GeofenceZoneType;
+import com.Guard.Back.Event.GeofenceChangedEvent;
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Geo.FenceIndex;
+import com.Guard.Back.Geo.FenceShape;
+import com.Guard.Back.Geo.PolygonFence;
+import com.Guard.Back.Repository.GeofenceZoneRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 피보호자별 안심 구역(GeofenceZone)을 서버 메모리의 공간 인덱스로 보관하고, 위치마다 진입/이탈을 판정하는 컴포넌트.
+ * 위치 하나를 판정할 때는 그 지점 근처 격자 칸의 구역과, 직전에 안에 있거나 상태 변화를 기다리는 구역만 검사하므로
+ * 구역 수가 늘어나도 판정 비용이 거의 일정함
+ *
+ * 구역이 추가/삭제되면 커밋 직후 해당 피보호자의 항목을 무효화하고, 다음 위치 때 DB에서 다시 읽음
+ */
+@Component
+@Slf4j
+public class GeofenceZoneRegistry {
+
+    private final GeofenceZoneRepository geofenceZoneRepository;
+    private final GeofenceTransitionDebouncer transitionDebouncer;
+    private final Cache<Long, UserZones> cache;
+
+    /**
+     * 안심 구역 진입/이탈 결과.
+     * @param zoneId  상태가 바뀐 구역의 ID.
+     * @param name    구역 이름.
+     * @param entered 진입이면 true, 이탈이면 false.
+     */
+    public record ZoneTransition(Long zoneId, String name, boolean entered) {}
+
+    /*한 피보호자의 안심 구역 인덱스와, 현재 안에 있는 구역 ID 목록.*/
+    private record UserZones(FenceIndex<Long> index, Map<Long, FenceShape> shapes, Map<Long, String> names,
+                             Set<Long> inside) {}
+
+    public GeofenceZoneRegistry(GeofenceZoneRepository geofenceZoneRepository,
+                                GeofenceTransitionDebouncer transitionDebouncer,
+                                @Value("${geofence.zone-cache.max-size:100000}") long maxSize,
+                                @Value("${geofence.zone-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.geofenceZoneRepository = geofenceZoneRepository;
+        this.transitionDebouncer = transitionDebouncer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * 새 위치로 피보호자의 안심 구역 진입/이탈을 판정
+     * 경계 근처의 흔들림은 GeofenceTransitionDebouncer가 걸러내고, 확정된 상태 변화만 반환
+     * 반환된 상태 변화는 호출하는 쪽에서 같은 트랜잭션 안에 DB에 반영해야 하며,
+     * 트랜잭션이 롤백되면 메모리의 상태도 버리고 다음 위치 때 DB에서 다시 읽음
+     *
+     * @param protectedUserId 피보호자의 ID.
+     * @param latitude        새 위치의 위도.
+     * @param longitude       새 위치의 경도.
+     * @param recordedAt      새 위치의 기록 시간.
+     * @return 상태가 바뀐 구역 목록. 등록된 구역이 없거나 바뀐 구역이 없으면 빈 목록.
+     */
+    public List<ZoneTransition> evaluate(Long protectedUserId, double latitude, double longitude, LocalDateTime recordedAt) {
+        UserZones zones = cache.get(protectedUserId, this::load);
+        if (zones.index().size() == 0) {
+            return List.of();
+        }
+
+        // 근처 격자의 구역, 직전에 안에 있던 구역, 상태 변화를 기다리는 구역만 검사
+        Set<Long> targets = new LinkedHashSet<>();
+        for (FenceIndex.Entry<Long> entry : zones.index().candidates(latitude, longitude)) {
+            targets.add(entry.value());
+        }
+        targets.addAll(zones.inside());
+        targets.addAll(transitionDebouncer.pendingFenceIds(protectedUserId));
+
+        List<ZoneTransition> transitions = new ArrayList<>();
+        for (Long zoneId : targets) {
+            FenceShape shape = zones.shapes().get(zoneId);
+            if (shape == null) {
+                continue;
+            }
+            boolean wasInside = zones.inside().contains(zoneId);
+            if (!transitionDebouncer.observe(protectedUserId, zoneId, shape, wasInside, latitude, longitude, recordedAt)) {
+                continue;
+            }
+            if (wasInside) {
+                zones.inside().remove(zoneId);
+            } else {
+                zones.inside().add(zoneId);
+            }
+            transitions.add(new ZoneTransition(zoneId, zones.names().get(zoneId), !wasInside));
+        }
+
+        if (!transitions.isEmpty()) {
+            invalidateOnRollback(protectedUserId);
+        }
+        return transitions;
+    }
+
+    /**
+     * 안심 구역 설정이 바뀐 트랜잭션이 커밋된 후 해당 피보호자의 항목을 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        cache.invalidate(event.protectedUserId());
+    }
+
+    /**
+     * 안심 구역 엔티티를 판정용 모양 객체로 변환
+     * @throws IllegalArgumentException 저장된 꼭짓점 형식이 올바르지 않거나 올바른 다각형이 아닌 경우 발생.
+     */
+    static FenceShape toShape(GeofenceZone zone) {
+        if (zone.getType() == GeofenceZoneType.CIRCLE) {
+            return new CircleFence(zone.getLatitude(), zone.getLongitude(), zone.getRadius());
+        }
+        return PolygonFence.parse(zone.getVertices());
+    }
+
+    /*DB에서 피보호자의 안심 구역을 읽어 인덱스를 만드는 헬퍼 메소드.*/
+    private UserZones load(Long protectedUserId) {
+        List<GeofenceZone> zones = geofenceZoneRepository.findAllByProtectedUserId(protectedUserId);
+        List<FenceIndex.Entry<Long>> entries = new ArrayList<>(zones.size());
+        Map<Long, FenceShape> shapes = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        Set<Long> inside = ConcurrentHashMap.newKeySet();
+        for (GeofenceZone zone : zones) {
+            try {
+                FenceShape shape = toShape(zone);
+                entries.add(new FenceIndex.Entry<>(zone.getId(), shape));
+                shapes.put(zone.getId(), shape);
+            } catch (RuntimeException e) {
+                log.error("[안심 구역] 피보호자 ID: {}의 구역 ID: {} 정보가 올바르지 않아 제외합니다.", protectedUserId, zone.getId(), e);
+                continue;
+            }
+            names.put(zone.getId(), zone.getName());
+            if (zone.isInsideZone()) {
+                inside.add(zone.getId());
+            }
+        }
+        return new UserZones(new FenceIndex<>(entries), shapes, names, inside);
+    }
+
+    /*트랜잭션이 롤백되면 DB에 반영되지 않은 메모리 상태를 버리는 헬퍼 메소드.*/
+    private void invalidateOnRollback(Long protectedUserId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cache.invalidate(protectedUserId);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.RelationshipChangedEvent;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.Guard.Back.Repository.RelationshipRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 보호자별로 접근 가능한 피보호자 ID 목록을 서버 메모리에 보관하는 권한 캐시.
+ * 보호자의 조회 요청마다 보호자/피보호자 엔티티 조회와 관계 확인 쿼리를 반복하지 않도록 함
+ *
+ * 관계가 생성/삭제되면 커밋 직후 해당 보호자의 항목을 바로 무효화하고,
+ * 다른 서버에서 바뀐 관계도 반영되도록 항목은 일정 시간 후 만료
+ */
+@Component
+@Slf4j
+public class GuardianAccessCache {
+
+    private final RelationshipRepository relationshipRepository;
+    private final ProtectedUserRepository protectedUserRepository;
+    private final Cache<Long, Set<Long>> cache;
+
+    public GuardianAccessCache(RelationshipRepository relationshipRepository,
+                               ProtectedUserRepository protectedUserRepository,
+                               @Value("${guardian.access-cache.max-size:100000}") long maxSize,
+                               @Value("${guardian.access-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.relationshipRepository = relationshipRepository;
+        this.protectedUserRepository = protectedUserRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * 보호자가 해당 피보호자와 관계를 맺고 있는지 확인
+     * 관계가 없을 때만 피보호자 존재 여부를 추가로 확인하여 오류 코드를 구분
+     *
+     * @param guardianId      요청을 보낸 보호자의 ID.
+     * @param protectedUserId 접근하려는 피보호자의 ID.
+     * @throws CustomException 피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     */
+    public void verify(Long guardianId, Long protectedUserId) {
+        if (canAccess(guardianId, protectedUserId)) {
+            return;
+        }
+        if (!protectedUserRepository.existsById(protectedUserId)) {
+            log.error("[권한 확인] 보호자 ID: {}가 존재하지 않는 피보호자 ID({})에 접근을 시도했습니다.", guardianId, protectedUserId);
+            throw new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
+        }
+        log.warn("[권한 확인] 권한 없음! 보호자 ID: {}가 관계없는 피보호자 ID: {}에 접근을 시도했습니다.", guardianId, protectedUserId);
+        throw new CustomException(ErrorCode.UNAUTHORIZED_ACCESS);
+    }
+
+    /**
+     * 보호자가 해당 피보호자와 관계를 맺고 있는지 여부를 반환
+     * 캐시에 없으면 보호자의 관계 목록을 한 번의 쿼리로 읽어 채움
+     */
+    public boolean canAccess(Long guardianId, Long protectedUserId) {
+        return cache.get(guardianId, id -> Set.copyOf(relationshipRepository.findProtectedUserIdsByGuardianId(id)))
+                .contains(protectedUserId);
+    }
+
+    /**
+     * 관계 변경 트랜잭션이 커밋된 후 해당 보호자의 항목을 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        cache.invalidate(event.guardianId());
+        log.debug("[권한 확인] 보호자 ID: {}의 권한 캐시를 무효화했습니다.", event.guardianId());
+    }
+}
@@ -0,0 +1,249 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.LocationLog;
+import com.Guard.Back.Dto.AlertExportRow;
+import com.Guard.Back.Dto.LocationExportRow;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.LocationLogRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 관리자용 알림/위치 기록 내보내기(NDJSON, CSV)를 처리하는 서비스.
+ * 기록을 목록으로 모으지 않고 DB에서 fetch size만큼씩 읽는 즉시 응답으로 쓰며, 쓴 엔티티는 영속성 컨텍스트에서 바로 분리하므로
+ * 내보내는 기록이 아무리 많아도 메모리 사용량이 일정
+ *
+ * 응답을 쓰기 시작한 뒤 DB 오류가 나면 마지막 줄에 중단 표시(EXPORT_ABORTED)를 남기고 응답을 끊으므로,
+ * 클라이언트는 잘린 파일을 완전한 내보내기로 오인하지 않음
+ */
+@Service
+@Slf4j
+public class HistoryExportService {
+
+    /*응답 버퍼 크기. 버퍼가 찰 때마다 클라이언트로 전송*/
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String ALERT_CSV_HEADER = "id,eventType,message,eventTime,latitude,longitude";
+    private static final String LOCATION_CSV_HEADER = "id,latitude,longitude,recordedAt";
+
+    /*도중에 실패한 내보내기의 마지막 줄에 남기는 표시. 이 줄이 있으면 기록이 모두 내보내지지 않은 것*/
+    static final String EXPORT_ABORTED = "EXPORT_ABORTED";
+
+    private final AlertLogRepository alertLogRepository;
+    private final LocationLogRepository locationLogRepository;
+    private final ProtectedUserRepository protectedUserRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate exportTransaction;
+
+    /**
+     * 내보내기 형식.
+     * - NDJSON: 한 줄에 JSON 객체 하나
+     * - CSV   : 첫 줄은 헤더, RFC 4180 방식으로 따옴표 처리
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * 요청 파라미터의 형식 이름을 변환 (대소문자 무시)
+         * @throws CustomException 지원하지 않는 형식인 경우 발생.
+         */
+        public static Format from(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new CustomException(ErrorCode.INVALID_EXPORT_REQUEST);
+        }
+    }
+
+    public HistoryExportService(AlertLogRepository alertLogRepository,
+                                LocationLogRepository locationLogRepository,
+                                ProtectedUserRepository protectedUserRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.alertLogRepository = alertLogRepository;
+        this.locationLogRepository = locationLogRepository;
+        this.protectedUserRepository = protectedUserRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // 응답을 쓰는 스레드(StreamingResponseBody)에서 Stream을 여는 동안만 유지하는 읽기 전용 트랜잭션
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 내보내기를 시작하기 전에 조회 조건을 확인 (응답을 쓰기 시작한 뒤에는 오류 응답을 보낼 수 없으므로 미리 확인)
+     * @throws CustomException 피보호자가 존재하지 않거나 기간이 올바르지 않은 경우 발생.
+     */
+    public void validate(Long protectedUserId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new CustomException(ErrorCode.INVALID_EXPORT_REQUEST);
+        }
+        if (!protectedUserRepository.existsById(protectedUserId)) {
+            throw new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 피보호자의 기간 내 알림 기록을 오래된 순으로 내보냄
+     * @param gzip true면 gzip으로 압축하여 씀
+     * @return 내보낸 기록 수.
+     */
+    public long exportAlerts(Long protectedUserId, ZonedDateTime from, ZonedDateTime to, Format format, boolean gzip,
+                             OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long count = export(out, gzip, format, ALERT_CSV_HEADER,
+                () -> alertLogRepository.streamByProtectedUserId(protectedUserId, from, to),
+                alert -> new AlertExportRow(alert.getId(), alert.getEventType(), alert.getMessage(), alert.getEventTime(),
+                        alert.getLatitude(), alert.getLongitude()),
+                row -> String.join(",", String.valueOf(row.id()), row.eventType().name(), csvText(row.message()),
+                        String.valueOf(row.eventTime()), csvNumber(row.latitude()), csvNumber(row.longitude())));
+        log.info("[기록 내보내기] 피보호자 ID: {}의 알림 기록 {}건을 {}로 내보냈습니다. ({}ms)",
+                protectedUserId, count, format, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    /**
+     * 피보호자의 기간 내 위치 기록을 기록 시간 순으로 내보냄
+     * @param gzip true면 gzip으로 압축하여 씀
+     * @return 내보낸 기록 수.
+     */
+    public long exportLocations(Long protectedUserId, LocalDateTime from, LocalDateTime to, Format format, boolean gzip,
+                                OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long count = export(out, gzip, format, LOCATION_CSV_HEADER,
+                () -> locationLogRepository.streamByProtectedUserId(protectedUserId, from, to),
+                location -> new LocationExportRow(location.getId(), location.getLatitude(), location.getLongitude(),
+                        location.getRecordedAt()),
+                row -> String.join(",", String.valueOf(row.id()), String.valueOf(row.latitude()),
+                        String.valueOf(row.longitude()), String.valueOf(row.recordedAt())));
+        log.info("[기록 내보내기] 피보호자 ID: {}의 위치 기록 {}건을 {}로 내보냈습니다. ({}ms)",
+                protectedUserId, count, format, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    /*Stream으로 읽은 엔티티를 한 행씩 변환해 쓰고 바로 분리하는 헬퍼 메소드.*/
+    private <E, R> long export(OutputStream out, boolean gzip, Format format, String csvHeader,
+                               Supplier<Stream<E>> query, Function<E, R> toRow, Function<R, String> toCsv) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+
+        // 도중에 실패하면 그때까지 쓴 기록 수를 중단 표시에 남기기 위해 트랜잭션 밖에서 셈
+        long[] written = {0};
+        try {
+            exportTransaction.executeWithoutResult(status -> {
+                try (Stream<E> rows = query.get()) {
+                    Iterator<E> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        E entity = iterator.next();
+                        R row = toRow.apply(entity);
+                        // 영속성 컨텍스트에 쌓이지 않도록 쓰기 전에 바로 분리
+                        entityManager.detach(entity);
+                        writer.write(format == Format.NDJSON ? objectMapper.writeValueAsString(row) : toCsv.apply(row));
+                        writer.write('\n');
+                        written[0]++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 대부분 클라이언트가 다운로드를 중단한 경우
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // 이미 200 응답을 보내기 시작했으므로 오류 응답 대신 중단 표시를 마지막 줄로 남기고 응답을 끊음
+            log.error("[기록 내보내기] {}건을 쓴 뒤 기록을 읽지 못해 내보내기를 중단합니다.", written[0], e);
+            try {
+                writer.write(abortedTrailer(format, written[0]));
+                writer.write('\n');
+                writer.flush();
+                if (compressed != null) {
+                    compressed.finish();
+                }
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        return written[0];
+    }
+
+    /**
+     * 내보내기가 도중에 중단되었음을 알리는 마지막 줄
+     * - NDJSON: {"error":"EXPORT_ABORTED","written":쓴 기록 수}
+     * - CSV   : #EXPORT_ABORTED,쓴 기록 수
+     */
+    static String abortedTrailer(Format format, long written) {
+        return format == Format.NDJSON
+                ? "{\"error\":\"" + EXPORT_ABORTED + "\",\"written\":" + written + "}"
+                : "#" + EXPORT_ABORTED + "," + written;
+    }
+
+    /*CSV 문자열 칸. 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고, 스프레드시트가 수식으로 해석하지 않도록 처리*/
+    static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        String text = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static String csvNumber(Double value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,242 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Dto.LocationRequest;
+import com.Guard.Back.Exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 위치 업로드를 메모리 큐에 적재한 뒤 즉시 응답하고, 별도의 writer 스레드가 모아서 저장하는 비동기 수집 서비스.
+ * 피보호자 ID로 큐를 나누어 같은 피보호자의 위치는 항상 같은 writer가 순서대로 저장
+ * location.ingest.async=true 일 때만 writer 스레드가 동작
+ *
+ * 이미 202로 응답한 위치이므로, 저장이 일시적인 오류(DB 연결 등)로 실패하면 같은 writer에서 간격을 늘려 가며
+ * max-attempts번까지 다시 저장 (같은 피보호자의 순서를 지키기 위해 다음 묶음은 그동안 기다림)
+ * 요청 자체가 잘못된 경우(CustomException, e.g., 탈퇴한 피보호자)와 재시도를 모두 실패한 경우는
+ * location.ingest.dropped 메트릭으로 집계
+ */
+@Service
+@Slf4j
+public class LocationIngestService {
+
+    /*writer가 큐에서 다음 위치를 기다리는 최대 시간 (밀리초).*/
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    /*종료 시 남은 위치를 모두 저장할 때까지 기다리는 최대 시간 (초).*/
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final LocationService locationService;
+    private final boolean asyncEnabled;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Counter retriedBatches;
+    private final Counter droppedLocations;
+    private final List<BlockingQueue<PendingLocation>> partitions = new ArrayList<>();
+    private final ExecutorService writers;
+    private volatile boolean running = true;
+
+    /*큐에 적재된, 아직 저장되지 않은 위치 정보.*/
+    private record PendingLocation(Long protectedUserId, LocationRequest request) {}
+
+    public LocationIngestService(LocationService locationService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${location.ingest.async:false}") boolean asyncEnabled,
+                                 @Value("${location.ingest.writers:4}") int writerCount,
+                                 @Value("${location.ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${location.ingest.max-batch:500}") int maxBatchSize,
+                                 @Value("${location.ingest.max-attempts:3}") int maxAttempts,
+                                 @Value("${location.ingest.retry-backoff-ms:500}") long retryBackoffMillis) {
+        this.locationService = locationService;
+        this.asyncEnabled = asyncEnabled;
+        this.maxBatchSize = Math.min(maxBatchSize, LocationService.MAX_BATCH_SIZE);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retriedBatches = Counter.builder("location.ingest.retried")
+                .description("저장에 실패해 다시 시도한 위치 묶음 수").register(meterRegistry);
+        this.droppedLocations = Counter.builder("location.ingest.dropped")
+                .description("큐에 적재되었지만 끝내 저장하지 못한 위치 수").register(meterRegistry);
+
+        if (!asyncEnabled) {
+            this.writers = null;
+            return;
+        }
+
+        // 한 요청의 위치는 한 큐에 모두 적재되어야 하므로, 큐 하나가 최대 크기의 일괄 업로드를 담지 못하면 그 요청은 항상 거절됨
+        int partitionCapacity = queueCapacity / Math.max(1, writerCount);
+        if (writerCount < 1 || partitionCapacity < LocationService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("location.ingest.queue-capacity / writers(" + partitionCapacity
+                    + ")는 일괄 업로드 최대 개수(" + LocationService.MAX_BATCH_SIZE + ") 이상이어야 합니다.");
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerCount,
+                runnable -> new Thread(runnable, "location-writer-" + threadNumber.incrementAndGet()));
+        for (int i = 0; i < writerCount; i++) {
+            BlockingQueue<PendingLocation> queue = new ArrayBlockingQueue<>(partitionCapacity);
+            partitions.add(queue);
+            writers.submit(() -> runWriter(queue));
+        }
+        log.info("[위치 수집] 비동기 수집 모드로 시작합니다. (writer: {}개, 큐 용량: {})", writerCount, queueCapacity);
+    }
+
+    /**
+     * 비동기 수집 모드가 켜져 있는지 확인
+     * @return 켜져 있으면 true, 아니면 false (요청 스레드에서 바로 저장).
+     */
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    /**
+     * 위치 정보를 저장 큐에 적재
+     * 한 요청의 위치는 모두 적재되거나 하나도 적재되지 않음
+     *
+     * @param protectedUserId 위치를 저장할 피보호자의 ID.
+     * @param requests        저장할 위치 정보 목록.
+     * @return 적재에 성공하면 true, 큐가 가득 찼거나 종료 중이면 false.
+     * @throws com.Guard.Back.Exception.CustomException 요청 목록이 올바르지 않을 경우 발생.
+     */
+    public boolean enqueue(Long protectedUserId, List<LocationRequest> requests) {
+        locationService.validateBatch(protectedUserId, requests);
+        if (!running || writers == null) {
+            return false;
+        }
+
+        // 나중에 저장되더라도 기록 시간이 밀리지 않도록, 시간이 없는 위치는 수신 시각으로 고정
+        LocalDateTime receivedAt = LocalDateTime.now();
+        BlockingQueue<PendingLocation> queue = partitions.get(Math.floorMod(protectedUserId, partitions.size()));
+        // 종료 확인과 적재를 writer의 종료 확인과 같은 잠금 안에서 처리하여, writer가 끝난 뒤 적재된 위치가 버려지지 않도록 함
+        synchronized (queue) {
+            if (!running) {
+                return false;
+            }
+            if (queue.remainingCapacity() < requests.size()) {
+                log.warn("[위치 수집] 큐가 가득 차 피보호자 ID: {}의 위치 {}건을 거절합니다.", protectedUserId, requests.size());
+                return false;
+            }
+            for (LocationRequest request : requests) {
+                LocationRequest stamped = request.recordedAt() != null ? request
+                        : new LocationRequest(request.latitude(), request.longitude(), receivedAt);
+                queue.offer(new PendingLocation(protectedUserId, stamped));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * writer 스레드의 본체. 큐에서 최대 maxBatchSize건을 꺼내 피보호자별로 묶어 저장
+     * 종료 요청 후에도 큐가 빌 때까지 계속 저장
+     */
+    private void runWriter(BlockingQueue<PendingLocation> queue) {
+        List<PendingLocation> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                PendingLocation first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (isDrained(queue)) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("[위치 수집] writer 스레드가 중단되었습니다. 남은 위치: {}건", queue.size());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /*종료 요청 후 큐가 비었는지 확인하는 헬퍼 메소드. enqueue와 같은 잠금으로 확인하므로, 확인 뒤에는 더 적재되지 않음*/
+    private boolean isDrained(BlockingQueue<PendingLocation> queue) {
+        synchronized (queue) {
+            return !running && queue.isEmpty();
+        }
+    }
+
+    /*꺼낸 위치들을 피보호자별로 묶어 한 트랜잭션씩 저장하는 헬퍼 메소드.*/
+    private void flush(List<PendingLocation> batch) throws InterruptedException {
+        Map<Long, List<LocationRequest>> byUser = new LinkedHashMap<>();
+        for (PendingLocation pending : batch) {
+            byUser.computeIfAbsent(pending.protectedUserId(), id -> new ArrayList<>()).add(pending.request());
+        }
+        for (Map.Entry<Long, List<LocationRequest>> entry : byUser.entrySet()) {
+            saveWithRetry(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /*한 피보호자의 위치 묶음을 저장하고, 일시적인 오류면 간격을 두 배씩 늘려 가며 다시 시도하는 헬퍼 메소드.*/
+    private void saveWithRetry(Long protectedUserId, List<LocationRequest> requests) throws InterruptedException {
+        long backoff = retryBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                locationService.saveLocations(protectedUserId, requests);
+                return;
+            } catch (CustomException e) {
+                // 다시 시도해도 결과가 같은 요청 오류
+                droppedLocations.increment(requests.size());
+                log.error("[위치 수집] 피보호자 ID: {}의 위치 {}건을 저장할 수 없어 버립니다. ({})",
+                        protectedUserId, requests.size(), e.getErrorCode());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    droppedLocations.increment(requests.size());
+                    log.error("[위치 수집] 피보호자 ID: {}의 위치 {}건 저장에 {}번 실패하여 버립니다.",
+                            protectedUserId, requests.size(), attempt, e);
+                    return;
+                }
+                retriedBatches.increment();
+                log.warn("[위치 수집] 피보호자 ID: {}의 위치 {}건 저장에 실패했습니다. {}ms 후 다시 시도합니다. ({}/{})",
+                        protectedUserId, requests.size(), backoff, attempt, maxAttempts, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                droppedLocations.increment(requests.size());
+                log.error("[위치 수집] 재시도 대기 중 중단되어 피보호자 ID: {}의 위치 {}건을 저장하지 못했습니다.",
+                        protectedUserId, requests.size());
+                throw e;
+            }
+            backoff *= 2;
+        }
+    }
+
+    /**
+     * 애플리케이션 종료 시 새 적재를 막고, 큐에 남은 위치를 모두 저장한 뒤 writer를 종료
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writers == null) {
+            return;
+        }
+        writers.shutdown();
+        if (!writers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            int remaining = partitions.stream().mapToInt(BlockingQueue::size).sum();
+            log.error("[위치 수집] 종료 대기 시간을 초과했습니다. 저장되지 못한 위치: {}건", remaining);
+            writers.shutdownNow();
+        } else {
+            log.info("[위치 수집] 큐에 남은 위치를 모두 저장하고 종료했습니다.");
+        }
+    }
+}
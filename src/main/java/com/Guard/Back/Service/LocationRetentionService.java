@@ -0,0 +1,205 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Repository.LocationDwellRepository;
+import com.Guard.Back.Repository.LocationHourlySummaryRepository;
+import com.Guard.Back.Repository.LocationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * location_log 보존 기간 관리 서비스.
+ * 보존 기간이 지난 위치 기록 중 가장 큰 ID를 먼저 구하고, 그 ID까지를 기본 키 순서의 작은 청크로 나누어, 청크마다 한 트랜잭션에서
+ * 1시간 단위 요약(location_hourly_summary)으로 합친 뒤 원본 행을 삭제하고, 청크 사이에는 잠시 쉼
+ * 한 번에 잠그는 행 수와 복제 지연을 청크 크기로 제한하기 위함
+ *
+ * 정리는 청크 사이의 대기 때문에 몇 시간이 걸릴 수 있으므로, 스케줄러 스레드를 붙잡지 않도록 전용 스레드(location-retention)에서 실행
+ *
+ * 진행 상황은 location.retention.* 메트릭(/actuator/metrics)으로 확인
+ */
+@Service
+@Slf4j
+public class LocationRetentionService {
+
+    private final LocationLogRepository locationLogRepository;
+    private final LocationHourlySummaryRepository locationHourlySummaryRepository;
+    private final LocationDwellRepository locationDwellRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final ExecutorService purger;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong lastProcessedId = new AtomicLong();
+    private final AtomicLong lastCompletedAt = new AtomicLong();
+    private final Counter deletedRows;
+    private final Counter deletedDwells;
+    private final Timer chunkTimer;
+
+    public LocationRetentionService(LocationLogRepository locationLogRepository,
+                                    LocationHourlySummaryRepository locationHourlySummaryRepository,
+                                    LocationDwellRepository locationDwellRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${location.retention.enabled:true}") boolean enabled,
+                                    @Value("${location.retention.days:90}") int retentionDays,
+                                    @Value("${location.retention.chunk-size:1000}") int chunkSize,
+                                    @Value("${location.retention.pause-ms:200}") long pauseMillis) {
+        this.locationLogRepository = locationLogRepository;
+        this.locationHourlySummaryRepository = locationHourlySummaryRepository;
+        this.locationDwellRepository = locationDwellRepository;
+        // 호출한 쪽에 트랜잭션이 있더라도 청크마다 바로 커밋하여 잠금을 풀어야 함
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.purger = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "location-retention"));
+
+        this.deletedRows = Counter.builder("location.retention.deleted.rows")
+                .description("시간별 요약으로 합친 뒤 삭제된 위치 기록 수").register(meterRegistry);
+        this.deletedDwells = Counter.builder("location.retention.deleted.dwells")
+                .description("보존 기간이 지나 삭제된 체류 구간 수").register(meterRegistry);
+        this.chunkTimer = Timer.builder("location.retention.chunk")
+                .description("청크 하나를 요약/삭제하는 데 걸린 시간").register(meterRegistry);
+        Gauge.builder("location.retention.running", running, r -> r.get() ? 1 : 0)
+                .description("보존 정리 작업 실행 중 여부").register(meterRegistry);
+        Gauge.builder("location.retention.last.processed.id", lastProcessedId, AtomicLong::get)
+                .description("마지막으로 정리한 위치 기록 ID").register(meterRegistry);
+        Gauge.builder("location.retention.last.completed", lastCompletedAt, AtomicLong::get)
+                .description("마지막으로 정리 작업을 끝낸 시각 (epoch 초)").register(meterRegistry);
+    }
+
+    /**
+     * 매일 정해진 시각에 보존 기간이 지난 위치 기록과 체류 구간을 정리
+     * 여러 서버로 운영하는 경우 한 서버에서만 location.retention.enabled=true로 둠
+     * 다른 주기 작업(SSE heartbeat, 카운터 반영 등)이 밀리지 않도록 정리는 전용 스레드에 넘기고 바로 반환
+     */
+    @Scheduled(cron = "${location.retention.cron:0 30 3 * * *}", zone = "Asia/Seoul")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        purger.execute(this::purgeExpired);
+    }
+
+    /**
+     * 보존 기간이 지난 위치 기록을 요약 후 삭제하고, 지난 체류 구간도 삭제
+     * 이미 실행 중이면 아무것도 하지 않음
+     */
+    public void purgeExpired() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("[보존 정리] 이전 정리 작업이 아직 실행 중이므로 건너뜁니다.");
+            return;
+        }
+        try {
+            // 같은 시간대 요약이 여러 번에 나뉘어 갱신되지 않도록 기준 시간을 정시로 맞춤
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS);
+            log.info("[보존 정리] {} 이전의 위치 기록 정리를 시작합니다. (청크: {}건)", cutoff, chunkSize);
+
+            long rows = purgeLocationLogs(cutoff);
+            long dwells = purgeDwells(cutoff);
+
+            lastCompletedAt.set(System.currentTimeMillis() / 1000);
+            log.info("[보존 정리] 위치 기록 {}건, 체류 구간 {}건의 정리를 완료했습니다.", rows, dwells);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[보존 정리] 정리 작업이 중단되었습니다. 마지막 처리 ID: {}", lastProcessedId.get());
+        } catch (RuntimeException e) {
+            // 전용 스레드에서 실행되므로 스케줄러의 오류 로그에 남지 않음
+            log.error("[보존 정리] 정리 작업이 실패했습니다. 마지막 처리 ID: {}", lastProcessedId.get(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 피보호자 탈퇴 시 위치 기록을 청크 단위로 나누어 삭제
+     * 피보호자 행을 삭제할 때 외래 키 cascade가 한 트랜잭션에서 모든 위치 기록을 잠그지 않도록, 먼저 호출해야 함
+     * 청크마다 바로 커밋되므로, 롤백될 수 있는 트랜잭션 안에서 호출하면 안 됨 (바깥 트랜잭션이 롤백되어도 삭제된 기록은 돌아오지 않음)
+     *
+     * @param protectedUserId 위치 기록을 삭제할 피보호자의 ID.
+     * @return 삭제된 위치 기록 수.
+     */
+    public long purgeProtectedUser(Long protectedUserId) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = chunkTransaction.execute(
+                    status -> locationLogRepository.deleteChunkByProtectedUserId(protectedUserId, chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+        log.info("[보존 정리] 피보호자 ID: {}의 위치 기록 {}건을 삭제했습니다.", protectedUserId, total);
+        return total;
+    }
+
+    /*정리 범위의 상한까지 기본 키 순서로 청크를 읽어 요약 후 삭제하는 헬퍼 메소드.*/
+    private long purgeLocationLogs(LocalDateTime cutoff) throws InterruptedException {
+        Long maxId = locationLogRepository.findMaxExpiredId(cutoff);
+        if (maxId == null) {
+            return 0;
+        }
+        long afterId = 0;
+        long total = 0;
+        // 상한 ID가 담긴 청크를 처리하면 끝나므로, 상한 뒤의 (보존 기간이 지나지 않은) 기록을 훑는 빈 조회가 없음
+        while (afterId < maxId) {
+            List<Long> ids = locationLogRepository.findExpiredIds(afterId, maxId, cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            // 요약과 삭제를 같은 ID 목록으로 한 트랜잭션에서 처리하여, 요약되지 않은 행이 삭제되지 않도록 함
+            int deleted = chunkTimer.record(() -> chunkTransaction.execute(status -> {
+                locationHourlySummaryRepository.rollUp(ids);
+                return locationLogRepository.deleteByIds(ids);
+            }));
+            deletedRows.increment(deleted);
+            total += deleted;
+            afterId = ids.get(ids.size() - 1);
+            lastProcessedId.set(afterId);
+
+            Thread.sleep(pauseMillis);
+        }
+        return total;
+    }
+
+    /*보존 기간이 지난 체류 구간을 청크 단위로 삭제하는 헬퍼 메소드.*/
+    private long purgeDwells(LocalDateTime cutoff) throws InterruptedException {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = chunkTransaction.execute(status -> locationDwellRepository.deleteChunkEndedBefore(cutoff, chunkSize));
+            deletedDwells.increment(deleted);
+            total += deleted;
+            Thread.sleep(pauseMillis);
+        } while (deleted == chunkSize);
+        return total;
+    }
+
+    /**
+     * 애플리케이션 종료 시 실행 중인 정리 작업을 중단 (청크 단위로 커밋되므로 다음 실행에서 이어서 정리)
+     */
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+}
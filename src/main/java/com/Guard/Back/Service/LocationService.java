@@ -1,17 +1,32 @@
 package com.Guard.Back.Service;
 
+import com.Guard.Back.Codec.LocationPacketCodec;
 import com.Guard.Back.Domain.*;
+import com.Guard.Back.Dto.DwellResponse;
+import com.Guard.Back.Dto.LocationHistoryResponse;
 import com.Guard.Back.Dto.LocationRequest;
 import com.Guard.Back.Dto.LocationResponse;
+import com.Guard.Back.Event.LocationSavedEvent;
+import com.Guard.Back.Event.LocationsRecordedEvent;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Geo.TrackSimplifier;
 import com.Guard.Back.Repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -24,13 +39,34 @@ public class LocationService {
 
     private final LocationLogRepository locationLogRepository;
     private final ProtectedUserRepository protectedUserRepository;
-    private final UserRepository userRepository;
-    private final RelationshipRepository relationshipRepository;
-    private final AlertLogRepository alertLogRepository;
-    private final FCMService fcmService;
+    private final CurrentLocationRepository currentLocationRepository;
+    private final CurrentLocationCache currentLocationCache;
+    private final GuardianAccessCache guardianAccessCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StationaryPointFilter stationaryPointFilter;
+    private final GeofenceSnapshotCache geofenceSnapshotCache;
+    private final LocationStreamHub locationStreamHub;
+    private final LocationDwellRepository locationDwellRepository;
+
+    /*한 번의 일괄 업로드 요청으로 받을 수 있는 최대 위치 개수.*/
+    static final int MAX_BATCH_SIZE = 500;
+
+    /*바이너리 업로드의 기록 시간(epoch 밀리초)을 LocalDateTime으로 바꿀 때 사용하는 시간대.*/
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    /*MariaDB 외래 키 위반 오류 코드 (Cannot add or update a child row).*/
+    private static final int ER_NO_REFERENCED_ROW_2 = 1452;
+    private static final int ER_NO_REFERENCED_ROW = 1216;
+
+    /*피보호자 외래 키 위반 메시지에 포함되는 참조 대상.*/
+    private static final String PROTECTED_USER_REFERENCE = "REFERENCES `protected_user`";
+
+    /*위치 기록 조회 시 한 페이지에서 읽을 수 있는 최대 위치 개수.*/
+    private static final int MAX_HISTORY_PAGE_SIZE = 20000;
 
     /**
-     * 피보호자의 위치 정보를 데이터베이스에 저장하고, 지오펜스 이탈 여부를 검사
+     * 피보호자의 위치 정보를 데이터베이스에 저장하고, 커밋 후 지오펜스 이탈 여부를 검사하도록 이벤트를 발행
+     * 직전에 저장된 위치 근처에 머무는 중이면 location_log 대신 체류 구간에 합침
      *
      * @param protectedUserId 위치를 저장할 피보호자의 ID.
      * @param request         저장할 위치 정보(위도, 경도)를 담은 DTO.
@@ -39,135 +75,323 @@ public class LocationService {
     @Transactional
     public void saveLocation(Long protectedUserId, LocationRequest request) {
         log.info("[위치저장] 피보호자 ID: {}의 위치 정보 저장을 시작합니다.", protectedUserId);
-        ProtectedUser protectedUser = protectedUserRepository.findById(protectedUserId)
-                .orElseThrow(() -> {
-                    log.error("[위치저장] 존재하지 않는 피보호자 ID({})에 대한 위치 저장 시도.", protectedUserId);
-                    return new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
-                });
-
-        LocationLog newLog = LocationLog.builder()
-                .protectedUser(protectedUser)
-                .latitude(request.latitude())
-                .longitude(request.longitude())
-                .recordedAt(request.recordedAt() != null ? request.recordedAt() : LocalDateTime.now())
-                .build();
+        if (geofenceSnapshotCache.get(protectedUserId) == null) {
+            log.error("[위치저장] 존재하지 않는 피보호자 ID({})에 대한 위치 저장 시도.", protectedUserId);
+            throw new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
+        }
+        // 외래 키로만 쓰이므로 엔티티를 읽지 않고 참조(프록시)만 사용
+        ProtectedUser protectedUser = protectedUserRepository.getReferenceById(protectedUserId);
 
-        locationLogRepository.save(newLog);
+        LocationLog newLog = toLocationLog(protectedUser, request);
+        try {
+            locationLogRepository.saveAll(stationaryPointFilter.filter(protectedUser, List.of(newLog)));
+            updateCurrentLocation(protectedUserId, newLog);
+            locationLogRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(protectedUserId, e);
+        }
 
-        // 위치 저장 후, 지오펜스 검사 로직을 호출
-        checkGeofence(protectedUser, request.latitude(), request.longitude());
+        // 지오펜스 검사는 커밋 후 GeofenceEvaluationService가 별도 스레드에서 수행
+        publishForGeofence(protectedUserId, List.of(newLog));
 
         log.info("[위치저장] 피보호자 ID: {}의 위치 정보 저장을 성공적으로 완료했습니다.", protectedUserId);
     }
 
     /**
-     * 피보호자의 현재 위치를 기반으로 지오펜스 상태(진입/이탈)를 확인하고,
-     * 상태 변경 시 알림 발송 및 기록을 저장
+     * 오프라인 동안 기기에 쌓인 여러 위치 정보를 한 번에 저장
+     * 피보호자 엔티티는 읽지 않고, 제자리에 머문 위치를 체류 구간으로 합친 뒤
+     * 나머지 위치 기록은 saveAll로 묶어서 저장(JDBC 배치)하고
+     * 커밋 후 recordedAt 순서대로 지오펜스 검사를 수행
      *
-     * @param pUser  검사할 피보호자 엔티티.
-     * @param newLat 새로운 위치의 위도.
-     * @param newLon 새로운 위치의 경도.
+     * @param protectedUserId 위치를 저장할 피보호자의 ID.
+     * @param requests        저장할 위치 정보 목록.
+     * @throws CustomException 목록이 비어 있거나 너무 크거나, 피보호자가 존재하지 않을 경우 발생.
      */
-    private void checkGeofence(ProtectedUser pUser, double newLat, double newLon) {
-        // 지오펜스가 설정되지 않았으면 검사하지 않고 종료합니다.
-        if (pUser.getHomeLatitude() == null || pUser.getGeofenceRadius() == null) {
-            return;
+    @Transactional
+    public void saveLocations(Long protectedUserId, List<LocationRequest> requests) {
+        validateBatch(protectedUserId, requests);
+        log.info("[위치일괄저장] 피보호자 ID: {}의 위치 {}건 저장을 시작합니다.", protectedUserId, requests.size());
+        if (geofenceSnapshotCache.get(protectedUserId) == null) {
+            log.error("[위치일괄저장] 존재하지 않는 피보호자 ID({})에 대한 위치 저장 시도.", protectedUserId);
+            throw new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
         }
+        ProtectedUser protectedUser = protectedUserRepository.getReferenceById(protectedUserId);
+
+        // 기록 시간 순으로 정렬해야 지오펜스 진입/이탈 판정이 실제 이동 순서와 일치
+        List<LocationLog> newLogs = requests.stream()
+                .map(request -> toLocationLog(protectedUser, request))
+                .sorted(Comparator.comparing(LocationLog::getRecordedAt))
+                .toList();
 
-        double distance = haversine(pUser.getHomeLatitude(), pUser.getHomeLongitude(), newLat, newLon);
-        boolean wasInside = pUser.isInsideGeofence();
-        boolean isNowInside = distance <= pUser.getGeofenceRadius();
-
-        // 상태가 변경되었을 때만(안->밖 또는 밖->안) 알림/기록을 처리
-        if (wasInside && !isNowInside) { // 안 -> 밖 (이탈)
-            pUser.setInsideGeofence(false); // 현재 상태를 '외부'로 갱신
-            log.warn("[지오펜스] 피보호자 ID: {}가 안심 구역을 벗어났습니다! (거리: {}m)", pUser.getId(), String.format("%.2f", distance));
-
-            // 1. 이탈 기록을 DB에 저장합니다.
-            alertLogRepository.save(AlertLog.builder()
-                    .protectedUser(pUser)
-                    .eventType(EventType.GEOFENCE_EXIT)
-                    .message("안심 구역을 벗어났습니다.")
-                    .latitude(newLat).longitude(newLon)
-                    .eventTime(ZonedDateTime.now())
-                    .build());
-
-            // 2. 모든 보호자에게 푸시 알림을 발송
-            notifyGuardians(pUser, "🚨 안심구역 이탈!", "연결된 사용자가 설정된 안심 구역을 벗어났습니다.");
-
-        } else if (!wasInside && isNowInside) { // 밖 -> 안 (진입)
-            pUser.setInsideGeofence(true); // 현재 상태를 '내부'로 갱신
-            log.info("[지오펜스] 피보호자 ID: {}가 안심 구역으로 돌아왔습니다.", pUser.getId());
-
-            // 1. 진입 기록을 DB에 저장합니다.
-            alertLogRepository.save(AlertLog.builder()
-                    .protectedUser(pUser)
-                    .eventType(EventType.GEOFENCE_ENTER)
-                    .message("안심 구역으로 돌아왔습니다.")
-                    .latitude(newLat).longitude(newLon)
-                    .eventTime(ZonedDateTime.now())
-                    .build());
+        // 제자리에 머무는 동안의 위치는 체류 구간으로 합치고, 최신 위치와 지오펜스는 모든 위치로 처리
+        List<LocationLog> storedLogs;
+        try {
+            storedLogs = stationaryPointFilter.filter(protectedUser, newLogs);
+            locationLogRepository.saveAll(storedLogs);
+            updateCurrentLocation(protectedUserId, newLogs.get(newLogs.size() - 1));
+            locationLogRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(protectedUserId, e);
+        }
+
+        publishForGeofence(protectedUserId, newLogs);
+
+        log.info("[위치일괄저장] 피보호자 ID: {}의 위치 {}건 저장을 성공적으로 완료했습니다. (위치 기록 {}건, 체류 병합 {}건)",
+                protectedUserId, newLogs.size(), storedLogs.size(), newLogs.size() - storedLogs.size());
+    }
+
+    /**
+     * 바이너리 위치 묶음(application/x-guard-location)을 디코딩하여 일괄 업로드와 같은 요청 DTO 목록으로 변환
+     * 위치 개수는 MAX_BATCH_SIZE로 제한하고, 기록 시간은 Asia/Seoul 기준으로 변환
+     *
+     * @param protectedUserId 업로드한 피보호자의 ID (로그용).
+     * @param body            요청 본문.
+     * @return 패킷 순서대로 변환된 요청 DTO 목록.
+     * @throws CustomException 바이너리 형식이 올바르지 않거나 위치 개수가 너무 많은 경우 발생.
+     */
+    public List<LocationRequest> decodePacket(Long protectedUserId, byte[] body) {
+        try {
+            return LocationPacketCodec.decode(body, MAX_BATCH_SIZE).toRequests(ZONE);
+        } catch (IllegalArgumentException e) {
+            log.warn("[위치일괄저장] 피보호자 ID: {}의 잘못된 위치 바이너리입니다. ({}바이트, 사유: {})",
+                    protectedUserId, body == null ? 0 : body.length, e.getMessage());
+            throw new CustomException(ErrorCode.INVALID_LOCATION_PACKET);
+        }
+    }
 
+    /**
+     * 일괄 저장 요청의 크기와 필수 값(위도, 경도)을 검증
+     * 비동기 수집 시에는 큐에 적재하기 전에 호출되어, 잘못된 요청을 즉시 400으로 응답
+     *
+     * @throws CustomException 목록이 비어 있거나 최대 개수를 넘거나, 위도/경도가 없는 항목이 있을 경우 발생.
+     */
+    void validateBatch(Long protectedUserId, List<LocationRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE
+                || requests.stream().anyMatch(r -> r == null || r.latitude() == null || r.longitude() == null)) {
+            log.warn("[위치일괄저장] 피보호자 ID: {}의 잘못된 일괄 업로드 요청입니다.", protectedUserId);
+            throw new CustomException(ErrorCode.INVALID_LOCATION_BATCH);
         }
     }
 
     /**
-     * 특정 피보호자와 연결된 모든 보호자에게 FCM 푸시 알림을 발송하는 헬퍼 메소드.
+     * 위치 저장 중 피보호자(protected_user) 외래 키 위반이 나면, 존재 확인에 쓴 캐시가 오래되어 이미 탈퇴한 피보호자의 위치를
+     * 저장하려 한 것이므로 캐시 항목을 버리고 500 대신 PROTECTED_USER_NOT_FOUND로 응답하는 헬퍼 메소드.
+     * (캐시는 다른 서버의 탈퇴를 바로 알 수 없으므로, 위반은 커밋 시점이 아니라 flush 시점에 드러나도록 함)
+     * 그 밖의 위반(중복 ID, 잘못된 시간 값 등)은 원인을 숨기지 않도록 그대로 던짐
      */
-    private void notifyGuardians(ProtectedUser pUser, String title, String body) {
-        List<Relationship> relationships = relationshipRepository.findAllByProtectedUser(pUser);
-        for (Relationship rel : relationships) {
-            User guardian = rel.getGuardian();
-            fcmService.sendPushNotification(guardian.getFcmToken(), title, body);
+    private RuntimeException translateIntegrityViolation(Long protectedUserId, DataIntegrityViolationException e) {
+        if (!isMissingProtectedUser(e)) {
+            return e;
         }
+        geofenceSnapshotCache.invalidate(protectedUserId);
+        log.warn("[위치저장] 피보호자 ID({})가 존재하지 않아 위치를 저장하지 못했습니다. ({})",
+                protectedUserId, e.getMostSpecificCause().getMessage());
+        return new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
+    }
+
+    /*MariaDB의 자식 행 외래 키 위반(1452, 1216) 중 protected_user를 참조하는 위반인지 확인하는 헬퍼 메소드.*/
+    private static boolean isMissingProtectedUser(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                int errorCode = sqlException.getErrorCode();
+                String message = sqlException.getMessage();
+                return (errorCode == ER_NO_REFERENCED_ROW_2 || errorCode == ER_NO_REFERENCED_ROW)
+                        && message != null && message.contains(PROTECTED_USER_REFERENCE);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 피보호자별 최신 위치(current_location)를 갱신하고, 커밋 후 캐시 갱신을 위한 이벤트를 발행하는 헬퍼 메소드.
+     */
+    private void updateCurrentLocation(Long protectedUserId, LocationLog latest) {
+        currentLocationRepository.upsert(protectedUserId, latest.getLatitude(), latest.getLongitude(), latest.getRecordedAt());
+        eventPublisher.publishEvent(new LocationSavedEvent(
+                protectedUserId, latest.getLatitude(), latest.getLongitude(), latest.getRecordedAt()));
     }
 
     /**
-     * 두 지점의 위도, 경도 좌표를 사용하여 거리를 계산하는 Haversine 공식 구현체.
-     * @return 두 지점 간의 거리 (미터 단위).
+     * 커밋 후 지오펜스 진입/이탈을 판정하도록, 저장된 모든 위치를 기록 시간 순으로 담아 이벤트를 발행하는 헬퍼 메소드.
      */
-    private double haversine(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371 * 1000; // 지구 반지름 (미터)
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    private void publishForGeofence(Long protectedUserId, List<LocationLog> logs) {
+        eventPublisher.publishEvent(new LocationsRecordedEvent(protectedUserId, logs.stream()
+                .map(saved -> new LocationsRecordedEvent.Point(saved.getLatitude(), saved.getLongitude(), saved.getRecordedAt()))
+                .toList()));
+    }
+
+    /**
+     * 요청 DTO를 위치 기록 엔티티로 변환하는 헬퍼 메소드.
+     * 기록 시간이 없으면 서버의 현재 시간을 사용
+     */
+    private LocationLog toLocationLog(ProtectedUser protectedUser, LocationRequest request) {
+        return LocationLog.builder()
+                .protectedUser(protectedUser)
+                .latitude(request.latitude())
+                .longitude(request.longitude())
+                .recordedAt(request.recordedAt() != null ? request.recordedAt() : LocalDateTime.now())
+                .build();
     }
 
     /**
      * 특정 피보호자의 가장 최신 위치 정보를 조회
      * 요청한 보호자가 해당 피보호자와 관계를 맺고 있는지 확인
+     * 위치는 location_log가 아닌 최신 위치 캐시(없으면 current_location 한 행)에서 읽음
      *
      * @param protectedUserId 조회 대상 피보호자의 ID.
      * @param guardianId      요청을 보낸 보호자의 ID (권한 검증용).
      * @return 최신 위치 정보 DTO. 위치 기록이 없으면 null을 반환합니다.
-     * @throws CustomException 보호자/피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     * @throws CustomException 피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
      */
     @Transactional(readOnly = true)
     public LocationResponse getLatestLocation(Long protectedUserId, Long guardianId) {
         log.info("[위치조회] 보호자 ID: {}가 피보호자 ID: {}의 최신 위치 조회를 시작합니다.", guardianId, protectedUserId);
-        User guardian = userRepository.findById(guardianId)
-                .orElseThrow(() -> {
-                    log.error("[위치조회] 존재하지 않는 보호자 ID({})가 위치 조회를 시도했습니다.", guardianId);
-                    return new CustomException(ErrorCode.GUARDIAN_NOT_FOUND);
-                });
-        ProtectedUser protectedUser = protectedUserRepository.findById(protectedUserId)
-                .orElseThrow(() -> {
-                    log.error("[위치조회] 보호자 ID: {}가 존재하지 않는 피보호자 ID({})의 위치 조회를 시도했습니다.", guardianId, protectedUserId);
-                    return new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
-                });
-
-        if (!relationshipRepository.existsByGuardianAndProtectedUser(guardian, protectedUser)) {
-            log.warn("[위치조회] 권한 없음! 보호자 ID: {}가 관계없는 피보호자 ID: {}의 위치 조회를 시도했습니다.", guardianId, protectedUserId);
-            throw new CustomException(ErrorCode.UNAUTHORIZED_ACCESS);
-        }
+        verifyGuardianAccess(protectedUserId, guardianId);
 
         log.info("[위치조회] 보호자 ID: {}가 요청한 피보호자 ID: {}의 위치 조회가 성공적으로 완료되었습니다.", guardianId, protectedUserId);
-        return locationLogRepository.findTopByProtectedUserOrderByIdDesc(protectedUser)
+        return currentLocationCache.get(protectedUserId);
+    }
+
+    /**
+     * 특정 피보호자의 위치 스트림(SSE)을 구독
+     * 권한은 구독 시점에 한 번만 확인하고, 이후 새 위치는 저장될 때마다 LocationStreamHub가 전달
+     * 구독 직후에는 현재 최신 위치를 먼저 전송
+     * 연결이 최대 location.stream.timeout-minutes 동안 유지되므로 트랜잭션을 열지 않음 (권한 확인과 최신 위치는 캐시에서 조회)
+     *
+     * @param protectedUserId 구독 대상 피보호자의 ID.
+     * @param guardianId      요청을 보낸 보호자의 ID (권한 검증용).
+     * @return 응답으로 반환할 SseEmitter.
+     * @throws CustomException 피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     */
+    public SseEmitter subscribeLocation(Long protectedUserId, Long guardianId) {
+        verifyGuardianAccess(protectedUserId, guardianId);
+        return locationStreamHub.subscribe(protectedUserId, guardianId, currentLocationCache.get(protectedUserId));
+    }
+
+    /**
+     * 특정 피보호자의 기간 내 위치 기록(이동 경로)을 기록 시간 순으로 조회
+     * OFFSET 대신 (recordedAt, id) 커서로 다음 페이지를 이어서 읽고,
+     * maxPoints를 지정하면 페이지를 나누지 않고 기간 전체의 경로를 Douglas–Peucker 방식으로 단순화하여 한 번에 반환
+     * (페이지마다 단순화하면 페이지 경계의 점이 남아 전체 개수가 maxPoints를 넘으므로 커서와 함께 쓸 수 없음)
+     * 제자리에 머무는 동안 저장하지 않은 위치는 체류 구간(dwells)으로 함께 반환
+     *
+     * @param protectedUserId 조회 대상 피보호자의 ID.
+     * @param guardianId      요청을 보낸 보호자의 ID (권한 검증용).
+     * @param from            조회 시작 시간 (포함). null이면 to의 24시간 전.
+     * @param to              조회 종료 시간 (미포함). null이면 현재 시간.
+     * @param cursor          이전 응답의 nextCursor. 첫 페이지는 null. maxPoints와 함께 쓸 수 없음
+     * @param limit           한 페이지에서 읽을 최대 위치 개수 (1 ~ 20000). maxPoints를 지정하면 사용하지 않음
+     * @param maxPoints       응답에 담을 최대 위치 개수 (선택, 2 이상). 기간 내 위치가 20000건 이하여야 함
+     * @return 위치 목록과 다음 페이지 커서를 담은 DTO. 단순화한 경우 커서는 null
+     * @throws CustomException 권한이 없거나 조회 조건이 올바르지 않을 경우(단순화할 위치가 너무 많은 경우 포함) 발생.
+     */
+    @Transactional(readOnly = true)
+    public LocationHistoryResponse getLocationHistory(Long protectedUserId, Long guardianId, LocalDateTime from,
+                                                      LocalDateTime to, String cursor, int limit, Integer maxPoints) {
+        log.info("[위치기록조회] 보호자 ID: {}가 피보호자 ID: {}의 위치 기록 조회를 시작합니다.", guardianId, protectedUserId);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end) || limit < 1 || limit > MAX_HISTORY_PAGE_SIZE
+                || (maxPoints != null && (maxPoints < 2 || cursor != null))) {
+            log.warn("[위치기록조회] 잘못된 조회 조건입니다. (from: {}, to: {}, limit: {}, maxPoints: {}, cursor: {})",
+                    start, end, limit, maxPoints, cursor != null);
+            throw new CustomException(ErrorCode.INVALID_HISTORY_REQUEST);
+        }
+        verifyGuardianAccess(protectedUserId, guardianId);
+        if (maxPoints != null) {
+            return getSimplifiedHistory(protectedUserId, start, end, maxPoints);
+        }
+
+        LocalDateTime afterTime = start;
+        long afterId = 0L;
+        if (cursor != null) {
+            String[] parts = decodeCursor(cursor);
+            afterTime = LocalDateTime.parse(parts[0]);
+            afterId = Long.parseLong(parts[1]);
+        }
+
+        // 다음 페이지가 있는지 알기 위해 한 건 더 조회
+        List<LocationLog> page = locationLogRepository.findHistoryPage(
+                protectedUserId, start, end, afterTime, afterId, PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        LocalDateTime pageEnd = end;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            LocationLog last = page.get(limit - 1);
+            nextCursor = encodeCursor(last.getRecordedAt(), last.getId());
+            pageEnd = last.getRecordedAt().plus(1, ChronoUnit.MICROS);
+        }
+
+        // 체류 구간은 시작점이 된 위치 기록과 같은 페이지에 담음 (이전 페이지의 마지막 기록 시간은 이전 페이지에 포함)
+        LocalDateTime pageStart = cursor != null ? afterTime.plus(1, ChronoUnit.MICROS) : start;
+        List<DwellResponse> dwells = findDwells(protectedUserId, pageStart, pageEnd);
+
+        log.info("[위치기록조회] 피보호자 ID: {}의 위치 {}건을 반환합니다.", protectedUserId, page.size());
+        return new LocationHistoryResponse(toLocationResponses(page), dwells, nextCursor);
+    }
+
+    /**
+     * 기간 전체의 경로를 한 번에 읽어 maxPoints개 이하로 단순화하는 헬퍼 메소드.
+     * 읽을 위치는 페이지 최대 크기(20000건)로 제한하고, 넘으면 기간을 좁히거나 페이지로 나누어 조회하도록 거절
+     * @throws CustomException 기간 내 위치가 너무 많은 경우 발생.
+     */
+    private LocationHistoryResponse getSimplifiedHistory(Long protectedUserId, LocalDateTime start, LocalDateTime end,
+                                                         int maxPoints) {
+        List<LocationLog> track = locationLogRepository.findHistoryPage(
+                protectedUserId, start, end, start, 0L, PageRequest.of(0, MAX_HISTORY_PAGE_SIZE + 1));
+        if (track.size() > MAX_HISTORY_PAGE_SIZE) {
+            log.warn("[경로단순화] 피보호자 ID: {}의 기간 내 위치가 {}건을 넘어 단순화할 수 없습니다. (from: {}, to: {})",
+                    protectedUserId, MAX_HISTORY_PAGE_SIZE, start, end);
+            throw new CustomException(ErrorCode.INVALID_HISTORY_REQUEST);
+        }
+
+        List<LocationLog> points = TrackSimplifier.simplify(track, LocationLog::getLatitude, LocationLog::getLongitude, maxPoints);
+        log.info("[경로단순화] 피보호자 ID: {}의 위치 {}건을 {}건으로 단순화하여 반환합니다.", protectedUserId, track.size(), points.size());
+        return new LocationHistoryResponse(toLocationResponses(points), findDwells(protectedUserId, start, end), null);
+    }
+
+    /*기간 안에서 시작한 체류 구간을 조회하는 헬퍼 메소드.*/
+    private List<DwellResponse> findDwells(Long protectedUserId, LocalDateTime from, LocalDateTime until) {
+        return locationDwellRepository.findStartedBetween(protectedUserId, from, until).stream()
+                .map(dwell -> new DwellResponse(dwell.getLatitude(), dwell.getLongitude(),
+                        dwell.getStartedAt(), dwell.getEndedAt(), dwell.getPointCount()))
+                .toList();
+    }
+
+    private static List<LocationResponse> toLocationResponses(List<LocationLog> logs) {
+        return logs.stream()
                 .map(log -> new LocationResponse(log.getLatitude(), log.getLongitude(), log.getRecordedAt()))
-                .orElse(null);
+                .toList();
+    }
+
+    /**
+     * 요청한 보호자가 해당 피보호자와 관계를 맺고 있는지 확인하는 헬퍼 메소드.
+     * 보호자별 권한 캐시를 사용하므로, 대부분의 요청은 DB 조회 없이 확인됨
+     * @throws CustomException 피보호자가 존재하지 않거나, 두 사용자 간의 관계가 없을 경우 발생.
+     */
+    private void verifyGuardianAccess(Long protectedUserId, Long guardianId) {
+        guardianAccessCache.verify(guardianId, protectedUserId);
+    }
+
+    /*위치 기록 페이지 커서를 만드는 헬퍼 메소드. "기록시간,ID"를 URL-safe Base64로 인코딩*/
+    private String encodeCursor(LocalDateTime recordedAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((recordedAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*위치 기록 페이지 커서를 [기록시간, ID]로 해석하는 헬퍼 메소드.*/
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("커서 형식 오류");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            log.warn("[위치기록조회] 잘못된 커서 값입니다: {}", cursor);
+            throw new CustomException(ErrorCode.INVALID_HISTORY_REQUEST);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Dto.LocationResponse;
+import com.Guard.Back.Event.LocationSavedEvent;
+import com.Guard.Back.Event.RelationshipChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 보호자에게 피보호자의 새 위치를 SSE(Server-Sent Events)로 실시간 전달하는 허브.
+ * 피보호자별 구독자 목록을 두고, 위치 저장 트랜잭션이 커밋되면 모든 구독자에게 전달(fan-out)
+ *
+ * 구독자마다 전송 대기 위치를 한 칸만 두고(새 위치가 오면 덮어씀) 별도 스레드에서 전송하므로,
+ * 느린 구독자가 위치 저장을 막지 않고 밀린 위치가 쌓이지도 않음 (보호자에게는 최신 위치가 중요하므로)
+ * 한 번의 전송이 write-timeout-ms 넘게 끝나지 않는 구독자는 연결을 닫고 전송 스레드를 풀어 다른 구독자를 막지 않도록 함
+ * 이 서버에서 저장된 위치만 전달되므로, 여러 서버로 운영하는 경우 클라이언트는 재연결 시 최신 위치를 다시 받음
+ */
+@Component
+@Slf4j
+public class LocationStreamHub {
+
+    /*SSE 이벤트 이름.*/
+    private static final String EVENT_NAME = "location";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+
+    public LocationStreamHub(@Value("${location.stream.senders:4}") int senderThreads,
+                             @Value("${location.stream.timeout-minutes:30}") long timeoutMinutes,
+                             @Value("${location.stream.write-timeout-ms:5000}") long writeTimeoutMillis) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads,
+                runnable -> new Thread(runnable, "location-stream-" + threadNumber.incrementAndGet()));
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+        this.writeTimeoutNanos = Duration.ofMillis(writeTimeoutMillis).toNanos();
+    }
+
+    /**
+     * 피보호자의 위치 스트림을 구독
+     * 권한 검증은 호출하는 쪽(LocationService)에서 구독 시점에 한 번만 수행
+     *
+     * @param protectedUserId 구독할 피보호자의 ID.
+     * @param guardianId      구독하는 보호자의 ID (로그용).
+     * @param current         구독 직후 바로 보낼 현재 위치. 없으면 null.
+     * @return 응답으로 반환할 SseEmitter.
+     */
+    public SseEmitter subscribe(Long protectedUserId, Long guardianId, LocationResponse current) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(protectedUserId, guardianId, emitter);
+        subscribers.computeIfAbsent(protectedUserId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        if (current != null) {
+            subscriber.offer(current);
+        } else {
+            // 응답 헤더를 바로 내보내 클라이언트가 연결 성공을 알 수 있도록 함
+            subscriber.offerHeartbeat();
+        }
+        log.info("[위치 스트림] 보호자 ID: {}가 피보호자 ID: {}의 위치 스트림을 구독했습니다.", guardianId, protectedUserId);
+        return emitter;
+    }
+
+    /**
+     * 위치 저장 트랜잭션이 커밋된 후 해당 피보호자의 모든 구독자에게 새 위치를 전달
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLocationSaved(LocationSavedEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.protectedUserId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        LocationResponse location = new LocationResponse(event.latitude(), event.longitude(), event.recordedAt());
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(location);
+        }
+    }
+
+    /**
+     * 관계가 삭제되면 해당 보호자의 구독을 커밋 직후 닫아, 권한이 없어진 뒤에도 위치가 전달되지 않도록 함
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        if (event.linked()) {
+            return;
+        }
+        Set<Subscriber> targets = subscribers.get(event.protectedUserId());
+        if (targets == null) {
+            return;
+        }
+        targets.stream()
+                .filter(subscriber -> subscriber.guardianId.equals(event.guardianId()))
+                .forEach(subscriber -> {
+                    subscriber.emitter.complete();
+                    remove(subscriber);
+                });
+    }
+
+    /**
+     * 프록시나 로드밸런서가 유휴 연결을 끊지 않도록 주기적으로 하트비트(주석 이벤트)를 전송
+     * 끊어진 연결은 이때 전송 실패로 정리됨
+     */
+    @Scheduled(fixedRateString = "${location.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(targets -> targets.forEach(Subscriber::offerHeartbeat));
+    }
+
+    /**
+     * 한 번의 전송이 write-timeout-ms 넘게 끝나지 않는 구독자의 연결을 닫고, 막혀 있는 전송 스레드를 깨움
+     * 응답을 읽지 않는 클라이언트 때문에 전송 스레드가 모두 묶여 다른 보호자에게 위치가 가지 않는 것을 막기 위함
+     */
+    @Scheduled(fixedDelayString = "${location.stream.write-timeout-check-ms:1000}")
+    public void evictSlowSubscribers() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(targets -> targets.forEach(subscriber -> {
+            if (subscriber.abortIfStuck(now)) {
+                log.warn("[위치 스트림] 보호자 ID: {}에게 보내는 전송이 지연되어 피보호자 ID: {}의 구독을 종료합니다.",
+                        subscriber.guardianId, subscriber.protectedUserId);
+                subscriber.emitter.completeWithError(new IOException("write timeout"));
+                remove(subscriber);
+            }
+        }));
+    }
+
+    /*피보호자의 현재 구독자 수.*/
+    int subscriberCount(Long protectedUserId) {
+        Set<Subscriber> targets = subscribers.get(protectedUserId);
+        return targets == null ? 0 : targets.size();
+    }
+
+    /*구독 응답으로 쓸 SseEmitter를 만드는 메소드.*/
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /*구독자를 목록에서 제거하는 헬퍼 메소드. 마지막 구독자이면 피보호자 항목도 제거*/
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.protectedUserId, (id, targets) -> {
+            targets.remove(subscriber);
+            return targets.isEmpty() ? null : targets;
+        });
+        log.debug("[위치 스트림] 보호자 ID: {}의 피보호자 ID: {} 위치 스트림 구독이 종료되었습니다.",
+                subscriber.guardianId, subscriber.protectedUserId);
+    }
+
+    /**
+     * 애플리케이션 종료 시 모든 스트림을 닫아 클라이언트가 다른 서버로 재연결하도록 함
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(targets -> targets.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    /**
+     * 구독자 한 명의 전송 대기 칸.
+     * 칸에 넣는 쪽(이벤트/스케줄러 스레드)은 기다리지 않고, 전송은 구독자당 동시에 하나의 작업만 수행
+     */
+    private final class Subscriber {
+
+        private final Long protectedUserId;
+        private final Long guardianId;
+        private final SseEmitter emitter;
+        /*다음에 보낼 위치. 보내기 전에 더 새로운 위치가 오면 덮어씀*/
+        private LocationResponse pending;
+        /*보낼 위치가 없을 때 하트비트를 보내야 하는지 여부.*/
+        private boolean heartbeatPending;
+        private boolean draining;
+        private boolean closed;
+        private LocationResponse lastSent;
+        /*진행 중인 전송을 시작한 시각 (System.nanoTime)과 전송 중인 스레드. 전송 중이 아니면 null*/
+        private long sendStartedAt;
+        private Thread sendingThread;
+
+        private Subscriber(Long protectedUserId, Long guardianId, SseEmitter emitter) {
+            this.protectedUserId = protectedUserId;
+            this.guardianId = guardianId;
+            this.emitter = emitter;
+        }
+
+        private void offer(LocationResponse location) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // 늦게 올라온 오프라인 기록이 대기 중인 더 새로운 위치를 덮어쓰지 않도록 함
+                if (pending == null || !location.recordedAt().isBefore(pending.recordedAt())) {
+                    pending = location;
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void offerHeartbeat() {
+            synchronized (this) {
+                if (closed || pending != null) {
+                    return;
+                }
+                heartbeatPending = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RuntimeException e) {
+                // 종료 중이라 전송 스레드를 쓸 수 없는 경우
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        /**
+         * 전송이 제한 시간을 넘겼으면 구독을 닫힌 상태로 바꾸고 전송 중인 스레드를 깨움
+         * @return 이번에 닫았으면 true.
+         */
+        private synchronized boolean abortIfStuck(long now) {
+            if (closed || sendingThread == null || now - sendStartedAt < writeTimeoutNanos) {
+                return false;
+            }
+            closed = true;
+            pending = null;
+            // 잠금 안에서 깨워야, 전송을 끝낸 스레드가 다른 구독자의 작업을 하다가 깨워지는 일이 없음
+            sendingThread.interrupt();
+            return true;
+        }
+
+        /*대기 칸이 빌 때까지 전송. 전송에 실패하면 연결을 닫고 구독을 정리*/
+        private void drain() {
+            while (true) {
+                LocationResponse next;
+                boolean heartbeat;
+                synchronized (this) {
+                    next = closed ? null : pending;
+                    heartbeat = !closed && next == null && heartbeatPending;
+                    pending = null;
+                    heartbeatPending = false;
+                    if (next == null && !heartbeat) {
+                        draining = false;
+                        return;
+                    }
+                    sendStartedAt = System.nanoTime();
+                    sendingThread = Thread.currentThread();
+                }
+                try {
+                    if (next != null) {
+                        if (lastSent == null || !next.recordedAt().isBefore(lastSent.recordedAt())) {
+                            emitter.send(SseEmitter.event().name(EVENT_NAME).data(next));
+                            lastSent = next;
+                        }
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (Exception e) {
+                    boolean evicted;
+                    synchronized (this) {
+                        evicted = closed;
+                        closed = true;
+                        pending = null;
+                        draining = false;
+                        sendingThread = null;
+                    }
+                    // 제한 시간 초과로 깨운 경우의 인터럽트 표시가 전송 스레드에 남지 않도록 지움
+                    Thread.interrupted();
+                    if (!evicted) {
+                        log.debug("[위치 스트림] 보호자 ID: {}에게 전송하지 못해 구독을 종료합니다. ({})", guardianId, e.getMessage());
+                        emitter.completeWithError(e);
+                        remove(this);
+                    }
+                    return;
+                }
+                synchronized (this) {
+                    sendingThread = null;
+                }
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.NotificationOutbox;
+import com.Guard.Back.Domain.NotificationPriority;
+import com.Guard.Back.Repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 발송 대기열(notification_outbox)의 푸시 알림을 가져가 발송하는 서비스.
+ * 전용 스레드가 대기열을 비울 때까지 batch-size건씩 가져가고(UPDATE ... LIMIT), 같은 알림의 항목은
+ * 모든 보호자의 모든 기기 토큰을 모아 FCM 멀티캐스트 한 번으로 묶어 정해진 수의 발송 스레드로 동시에 발송
+ * 보호자의 기기 중 하나라도 받으면 그 보호자의 항목은 발송 성공으로 봄
+ * 새 알림이 커밋되면 바로 깨어나며, 그 외에는 poll-ms마다 재시도할 항목을 확인
+ *
+ * 발송 스레드와 발송 스레드 풀은 우선순위(NotificationPriority)마다 따로 있어, 안심 구역 알림이 많이 쌓여도
+ * SOS(HIGH) 알림은 그 뒤에서 기다리지 않음. HIGH 알림은 FCM에도 높은 우선순위로 발송
+ *
+ * 발송에 실패하면 지수 백오프(기본 간격 x 2^(시도 횟수-1), 최대 간격 제한)에 무작위 지연(jitter)을 더해 재시도하고,
+ * max-attempts번 실패하면 포기. 토큰 문제(UNREGISTERED 등)는 재시도하지 않고 FcmTokenHealthRegistry에 알림
+ * 발송 결과는 항목을 가져간 발송 작업(claimToken)이 아직 가지고 있을 때만 기록하므로, lease가 지나 다른 서버가 다시 가져간 항목의
+ * 결과를 덮어쓰지 않음. 서버가 정상 종료될 때는 결과를 기록하지 못한 항목을 바로 대기 상태로 되돌리고,
+ * 비정상 종료된 경우에는 lease 시간이 지난 뒤 다른 서버가 다시 가져가므로 드물게 같은 알림이 두 번 발송될 수 있음 (at-least-once)
+ *
+ * 처리량, 지연, 재시도 횟수는 notification.outbox.* 메트릭(/actuator/metrics)으로 확인
+ * 지연(notification.outbox.latency)은 우선순위별로, 원인이 된 요청(SOS 호출 등)을 받은 시간부터 FCM이 접수할 때까지를 측정
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    /*저장하는 실패 사유의 최대 길이 (컬럼 길이).*/
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /*종료 시 발송 중인 알림을 기다리는 최대 시간 (초).*/
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final DeviceTokenCache deviceTokenCache;
+    private final FCMService fcmService;
+    private final FcmTokenHealthRegistry tokenHealthRegistry;
+    private final TransactionTemplate outboxTransaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMillis;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final Duration lease;
+    private final int retentionDays;
+
+    private final Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+    private volatile boolean running = true;
+
+    /*이 서버의 발송 작업이 가져가서 아직 처리 중인 claimToken 목록.*/
+    private final Set<String> activeClaims = ConcurrentHashMap.newKeySet();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter claimLostCounter;
+
+    /*우선순위 하나의 발송 스레드, 발송 스레드 풀, 메트릭.*/
+    private static final class Lane {
+        private final NotificationPriority priority;
+        private final Semaphore wakeups = new Semaphore(0);
+        private final ExecutorService senders;
+        private final Timer sendTimer;
+        private final Timer deliveryLatency;
+        private Thread thread;
+
+        private Lane(NotificationPriority priority, int concurrency, MeterRegistry meterRegistry) {
+            this.priority = priority;
+            String name = priority.name().toLowerCase();
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.senders = Executors.newFixedThreadPool(concurrency,
+                    runnable -> new Thread(runnable, "notification-sender-" + name + "-" + threadNumber.incrementAndGet()));
+            this.sendTimer = Timer.builder("notification.outbox.send")
+                    .tag("priority", priority.name())
+                    .description("FCM 멀티캐스트 발송 호출 한 번에 걸린 시간").register(meterRegistry);
+            this.deliveryLatency = Timer.builder("notification.outbox.latency")
+                    .tag("priority", priority.name())
+                    .description("알림의 원인이 된 요청을 받은 시간부터 FCM이 접수할 때까지 걸린 시간").register(meterRegistry);
+        }
+    }
+
+    public NotificationDispatcher(NotificationOutboxRepository notificationOutboxRepository,
+                                  DeviceTokenCache deviceTokenCache,
+                                  FCMService fcmService,
+                                  FcmTokenHealthRegistry tokenHealthRegistry,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.outbox.enabled:true}") boolean enabled,
+                                  @Value("${notification.outbox.batch-size:100}") int batchSize,
+                                  @Value("${notification.outbox.concurrency:8}") int concurrency,
+                                  @Value("${notification.outbox.high-priority.concurrency:4}") int highPriorityConcurrency,
+                                  @Value("${notification.outbox.poll-ms:1000}") long pollMillis,
+                                  @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+                                  @Value("${notification.outbox.backoff-base-ms:1000}") long backoffBaseMillis,
+                                  @Value("${notification.outbox.backoff-max-ms:300000}") long backoffMaxMillis,
+                                  @Value("${notification.outbox.lease-seconds:300}") long leaseSeconds,
+                                  @Value("${notification.outbox.retention-days:7}") int retentionDays) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.deviceTokenCache = deviceTokenCache;
+        this.fcmService = fcmService;
+        this.tokenHealthRegistry = tokenHealthRegistry;
+        // 발송 결과는 항목마다 바로 커밋 (한 항목의 실패가 다른 항목의 결과를 되돌리지 않도록)
+        this.outboxTransaction = new TransactionTemplate(transactionManager);
+        this.outboxTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollMillis = pollMillis;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retentionDays = retentionDays;
+
+        lanes.put(NotificationPriority.HIGH, new Lane(NotificationPriority.HIGH, highPriorityConcurrency, meterRegistry));
+        lanes.put(NotificationPriority.NORMAL, new Lane(NotificationPriority.NORMAL, concurrency, meterRegistry));
+
+        this.sentCounter = Counter.builder("notification.outbox.sent")
+                .description("발송에 성공한 푸시 알림 수").register(meterRegistry);
+        this.retriedCounter = Counter.builder("notification.outbox.retried")
+                .description("발송에 실패해 재시도를 예약한 횟수").register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.outbox.failed")
+                .description("재시도를 포기한 푸시 알림 수").register(meterRegistry);
+        this.claimLostCounter = Counter.builder("notification.outbox.claim.lost")
+                .description("lease가 지나 다른 발송 작업이 다시 가져가 결과를 기록하지 못한 항목 수").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("[알림 발송] notification.outbox.enabled=false 이므로 이 서버에서는 발송하지 않습니다.");
+            return;
+        }
+        for (Lane lane : lanes.values()) {
+            lane.thread = new Thread(() -> runDispatcher(lane), "notification-dispatcher-" + lane.priority.name().toLowerCase());
+            lane.thread.start();
+        }
+    }
+
+    /**
+     * 새 알림이 커밋되었음을 알려 해당 우선순위의 발송 스레드가 다음 주기를 기다리지 않고 바로 발송하도록 함
+     */
+    public void wakeUp(NotificationPriority priority) {
+        lanes.get(priority).wakeups.release();
+    }
+
+    /*우선순위 하나의 발송 스레드 본체. 깨어날 때마다 가져갈 항목이 없을 때까지 반복*/
+    private void runDispatcher(Lane lane) {
+        while (running) {
+            try {
+                lane.wakeups.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                lane.wakeups.drainPermits();
+                while (running && dispatchBatch(lane) == batchSize) {
+                    // 한 번에 가져간 만큼 가득 찼으면 남은 항목이 더 있을 수 있으므로 바로 다시 가져감
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("[알림 발송] {} 발송 대기열 처리 중 오류가 발생했습니다.", lane.priority, e);
+            }
+        }
+    }
+
+    /**
+     * 해당 우선순위에서 발송할 차례가 된 항목을 최대 batchSize건 가져가,
+     * 같은 알림(AlertLog)끼리 묶어 멀티캐스트로 발송하고 모두 끝날 때까지 기다림
+     * @return 가져간 항목 수.
+     */
+    private int dispatchBatch(Lane lane) {
+        String claimToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        activeClaims.add(claimToken);
+        try {
+            Integer claimed = outboxTransaction.execute(status ->
+                    notificationOutboxRepository.claim(lane.priority.name(), claimToken, now, now.minus(lease), batchSize));
+            if (claimed == null || claimed == 0) {
+                return 0;
+            }
+            sendClaimed(lane, claimToken);
+            return claimed;
+        } finally {
+            activeClaims.remove(claimToken);
+        }
+    }
+
+    /**
+     * 해당 우선순위의 대기열을 한 번 가져가 발송
+     * @return 가져간 항목 수.
+     */
+    int dispatchOnce(NotificationPriority priority) {
+        return dispatchBatch(lanes.get(priority));
+    }
+
+    /*발송 작업이 가져간 항목을 같은 알림끼리 묶어 발송하고 모두 끝날 때까지 기다리는 헬퍼 메소드.*/
+    private void sendClaimed(Lane lane, String claimToken) {
+        List<NotificationOutbox> items = notificationOutboxRepository.findAllByClaimToken(claimToken);
+        // 이번에 가져간 모든 보호자의 기기 토큰을 한 번에 조회 (캐시에 없는 보호자만 한 번의 쿼리)
+        Map<Long, List<String>> deviceTokens = deviceTokenCache.getTokens(
+                items.stream().map(NotificationOutbox::getGuardianId).distinct().toList());
+
+        // 같은 알림의 항목은 제목/내용이 같으므로 한 번의 멀티캐스트 요청으로 발송
+        Map<Long, List<NotificationOutbox>> byAlert = items.stream()
+                .collect(Collectors.groupingBy(NotificationOutbox::getAlertLogId, LinkedHashMap::new, Collectors.toList()));
+        CompletableFuture.allOf(byAlert.values().stream()
+                .map(group -> CompletableFuture.runAsync(() -> sendGroup(lane, group, deviceTokens), lane.senders))
+                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    /*같은 알림의 항목들을 모든 기기 토큰으로 멀티캐스트 발송하고, 토큰별 결과를 보호자(항목)마다 모아 기록하는 헬퍼 메소드.*/
+    private void sendGroup(Lane lane, List<NotificationOutbox> group, Map<Long, List<String>> deviceTokens) {
+        List<NotificationOutbox> sendable = new ArrayList<>(group.size());
+        List<String> tokens = new ArrayList<>();
+        // tokens[i]가 속한 항목의 sendable 내 위치
+        List<Integer> owners = new ArrayList<>();
+        for (NotificationOutbox item : group) {
+            List<String> liveTokens = deviceTokens.getOrDefault(item.getGuardianId(), List.of()).stream()
+                    .filter(token -> !tokenHealthRegistry.isDead(token))
+                    .toList();
+            if (liveTokens.isEmpty()) {
+                // 토큰이 없거나 모두 이미 죽은 토큰이면 재시도해도 발송할 수 없음
+                if (record(item, () -> notificationOutboxRepository.markFailed(item.getId(), item.getClaimToken(), "사용 가능한 FCM 토큰 없음"))) {
+                    failedCounter.increment();
+                }
+                log.warn("[알림 발송] 보호자 ID: {}의 사용 가능한 FCM 토큰이 없어 알림 ID: {}를 발송하지 않습니다.", item.getGuardianId(), item.getId());
+                continue;
+            }
+            for (String token : liveTokens) {
+                tokens.add(token);
+                owners.add(sendable.size());
+            }
+            sendable.add(item);
+        }
+        if (sendable.isEmpty()) {
+            return;
+        }
+
+        NotificationOutbox first = sendable.get(0);
+        List<FCMService.SendResult> results;
+        try {
+            boolean highPriority = lane.priority == NotificationPriority.HIGH;
+            results = lane.sendTimer.recordCallable(() ->
+                    fcmService.sendMulticast(tokens, first.getTitle(), first.getBody(), highPriority));
+        } catch (Exception e) {
+            sendable.forEach(item -> handleFailure(item, e));
+            return;
+        }
+
+        // 항목마다 한 기기라도 받았는지, 재시도할 만한 실패가 있었는지를 모음
+        boolean[] delivered = new boolean[sendable.size()];
+        Exception[] retryableErrors = new Exception[sendable.size()];
+        Exception[] permanentErrors = new Exception[sendable.size()];
+        for (int i = 0; i < results.size(); i++) {
+            FCMService.SendResult result = results.get(i);
+            int owner = owners.get(i);
+            if (result.success()) {
+                delivered[owner] = true;
+                continue;
+            }
+            switch (FcmTokenHealthRegistry.classify(result)) {
+                case DEAD_TOKEN -> {
+                    // 토큰 문제는 재시도하지 않고, 토큰은 이후 발송에서 제외한 뒤 DB에서 지우도록 예약
+                    tokenHealthRegistry.markDead(result.token());
+                    permanentErrors[owner] = result.error();
+                }
+                // 메시지 자체가 거절되면 재시도해도 실패하지만, 토큰은 정상일 수 있으므로 지우지 않음
+                case REJECTED -> permanentErrors[owner] = result.error();
+                default -> retryableErrors[owner] = result.error();
+            }
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(sendable.size());
+        for (int i = 0; i < sendable.size(); i++) {
+            NotificationOutbox item = sendable.get(i);
+            if (delivered[i]) {
+                sentIds.add(item.getId());
+                LocalDateTime requestedAt = item.getRequestedAt() != null ? item.getRequestedAt() : item.getCreatedAt();
+                lane.deliveryLatency.record(Duration.between(requestedAt, sentAt));
+            } else if (retryableErrors[i] != null) {
+                // 일시적인 장애로 받지 못한 기기가 있으면 재시도 (그 사이 죽은 토큰은 다음 발송에서 제외됨)
+                handleFailure(item, retryableErrors[i]);
+            } else {
+                Exception cause = permanentErrors[i];
+                String error = truncate(FcmTokenHealthRegistry.classify(cause).name() + ": " + cause.getMessage());
+                if (record(item, () -> notificationOutboxRepository.markFailed(item.getId(), item.getClaimToken(), error))) {
+                    failedCounter.increment();
+                }
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            // 같은 묶음의 항목은 모두 같은 발송 작업이 가져간 것
+            String claimToken = first.getClaimToken();
+            Integer updated = outboxTransaction.execute(status -> notificationOutboxRepository.markSent(sentIds, claimToken, sentAt));
+            int marked = updated == null ? 0 : updated;
+            sentCounter.increment(sentIds.size());
+            if (marked < sentIds.size()) {
+                claimLostCounter.increment(sentIds.size() - marked);
+                log.warn("[알림 발송] 발송한 알림 {}건 중 {}건은 다른 발송 작업이 다시 가져가 발송 완료로 기록하지 못했습니다.",
+                        sentIds.size(), sentIds.size() - marked);
+            }
+        }
+    }
+
+    /*발송 실패 시 재시도를 예약하거나, 최대 횟수를 넘었으면 포기하는 헬퍼 메소드.*/
+    private void handleFailure(NotificationOutbox item, Exception e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        int attempts = item.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            if (!record(item, () -> notificationOutboxRepository.markFailed(item.getId(), item.getClaimToken(), error))) {
+                return;
+            }
+            failedCounter.increment();
+            log.error("[알림 발송] 알림 ID: {}의 발송이 {}번 실패하여 포기합니다. 사유: {}", item.getId(), attempts, error);
+            return;
+        }
+
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+        if (!record(item, () -> notificationOutboxRepository.reschedule(item.getId(), item.getClaimToken(), nextAttemptAt, error))) {
+            return;
+        }
+        retriedCounter.increment();
+        log.warn("[알림 발송] 알림 ID: {}의 발송에 실패했습니다. ({}번째, 다음 시도: {}) 사유: {}",
+                item.getId(), attempts, nextAttemptAt, error);
+    }
+
+    /**
+     * 항목 하나의 발송 결과를 별도 트랜잭션으로 기록하는 헬퍼 메소드.
+     * @return 기록했으면 true. 다른 발송 작업이 다시 가져가 기록하지 못했으면(영향받은 행 0) false
+     */
+    private boolean record(NotificationOutbox item, Supplier<Integer> update) {
+        Integer updated = outboxTransaction.execute(status -> update.get());
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        claimLostCounter.increment();
+        log.warn("[알림 발송] 알림 ID: {}는 다른 발송 작업이 다시 가져가 이번 결과를 기록하지 않습니다.", item.getId());
+        return false;
+    }
+
+    /**
+     * 재시도 간격. 기본 간격 x 2^(시도 횟수-1)을 최대 간격으로 제한한 뒤, 그 절반 이상에서 무작위로 고름 (equal jitter)
+     * 같은 장애로 한꺼번에 실패한 알림들이 동시에 다시 몰리지 않도록 하기 위함
+     */
+    Duration backoff(int attempts) {
+        long exponential = backoffBaseMillis << Math.min(attempts - 1, 30);
+        long capped = Math.min(backoffMaxMillis, exponential < 0 ? backoffMaxMillis : exponential);
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * 발송이 끝난 지 retention-days일이 지난 대기열 항목을 매일 청크 단위로 삭제
+     */
+    @Scheduled(cron = "${notification.outbox.cleanup-cron:0 0 4 * * *}", zone = "Asia/Seoul")
+    public void cleanUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = outboxTransaction.execute(status ->
+                    notificationOutboxRepository.deleteFinishedBefore(cutoff, batchSize * 10));
+            total += deleted;
+        } while (deleted == batchSize * 10);
+        log.info("[알림 발송] {} 이전에 발송이 끝난 대기열 항목 {}건을 삭제했습니다.", cutoff, total);
+    }
+
+    /**
+     * 애플리케이션 종료 시 새로 가져가는 것을 멈추고, 발송 중인 알림이 끝날 때까지 잠시 기다림
+     * 끝나지 못한 항목은 lease 시간을 기다리지 않고 다른 서버가 바로 가져가도록 대기 상태로 되돌림
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes.values()) {
+            if (lane.thread != null) {
+                lane.wakeups.release();
+                lane.thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            }
+        }
+        for (Lane lane : lanes.values()) {
+            lane.senders.shutdown();
+            if (!lane.senders.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                lane.senders.shutdownNow();
+            }
+        }
+        releaseClaims();
+    }
+
+    /**
+     * 이 서버가 가져갔지만 아직 결과를 기록하지 못한 항목을 대기 상태로 되돌림
+     * 이미 FCM에 접수된 항목이 되돌려지면 다시 발송될 수 있음 (at-least-once)
+     */
+    void releaseClaims() {
+        if (activeClaims.isEmpty()) {
+            return;
+        }
+        List<String> claimTokens = List.copyOf(activeClaims);
+        try {
+            Integer released = outboxTransaction.execute(status -> notificationOutboxRepository.release(claimTokens));
+            log.info("[알림 발송] 종료 전에 발송하지 못한 알림 {}건을 대기 상태로 되돌렸습니다.", released);
+        } catch (RuntimeException e) {
+            log.error("[알림 발송] 발송하지 못한 알림을 되돌리지 못했습니다. lease 시간이 지난 뒤 다시 발송됩니다.", e);
+        }
+    }
+}
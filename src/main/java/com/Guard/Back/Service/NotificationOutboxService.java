@@ -0,0 +1,89 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.NotificationOutbox;
+import com.Guard.Back.Domain.NotificationPriority;
+import com.Guard.Back.Domain.NotificationStatus;
+import com.Guard.Back.Repository.NotificationOutboxRepository;
+import com.Guard.Back.Repository.RelationshipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 보호자 푸시 알림을 발송 대기열(notification_outbox)에 저장하는 서비스.
+ * 알림 기록(AlertLog)을 저장하는 트랜잭션 안에서 호출하므로, 기록이 커밋되면 알림도 반드시 발송 대상이 되고
+ * 롤백되면 알림도 발송되지 않음. 실제 발송은 커밋 후 NotificationDispatcher가 처리
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final NotificationDispatcher notificationDispatcher;
+
+    /**
+     * 피보호자와 연결된 모든 보호자에게 보낼 알림을 대기열에 저장 (요청 시간은 지금)
+     * @see #enqueue(AlertLog, String, String, LocalDateTime)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueue(AlertLog alertLog, String title, String body) {
+        return enqueue(alertLog, title, body, LocalDateTime.now());
+    }
+
+    /**
+     * 피보호자와 연결된 모든 보호자에게 보낼 알림을 대기열에 저장
+     * 우선순위는 알림 종류로 정해지며(SOS는 HIGH), 해당 우선순위의 발송 스레드만 깨움
+     *
+     * @param alertLog    알림의 원인이 된 알림 기록 (저장된 상태여야 함).
+     * @param title       알림 제목.
+     * @param body        알림 내용.
+     * @param requestedAt 알림의 원인이 된 요청을 받은 시간. 발송 지연 측정의 기준
+     * @return 저장된 대기열 항목 수 (연결된 보호자 수).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueue(AlertLog alertLog, String title, String body, LocalDateTime requestedAt) {
+        Long protectedUserId = alertLog.getProtectedUser().getId();
+        List<Long> guardianIds = relationshipRepository.findGuardianIdsByProtectedUserId(protectedUserId);
+        if (guardianIds.isEmpty()) {
+            log.warn("[알림 대기열] 피보호자 ID: {}는 연결된 보호자가 없어 알림을 저장하지 않습니다.", protectedUserId);
+            return 0;
+        }
+
+        NotificationPriority priority = NotificationPriority.of(alertLog.getEventType());
+        LocalDateTime now = LocalDateTime.now();
+        notificationOutboxRepository.saveAll(guardianIds.stream()
+                .map(guardianId -> NotificationOutbox.builder()
+                        .alertLogId(alertLog.getId())
+                        .protectedUserId(protectedUserId)
+                        .guardianId(guardianId)
+                        .eventType(alertLog.getEventType())
+                        .priority(priority)
+                        .title(title)
+                        .body(body)
+                        .status(NotificationStatus.PENDING)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .requestedAt(requestedAt)
+                        .build())
+                .toList());
+
+        // 다음 주기를 기다리지 않고 커밋 직후 바로 발송하도록 깨움
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationDispatcher.wakeUp(priority);
+            }
+        });
+        log.info("[알림 대기열] 피보호자 ID: {}의 {} 알림 {}건을 저장했습니다.", protectedUserId, alertLog.getEventType(), guardianIds.size());
+        return guardianIds.size();
+    }
+}
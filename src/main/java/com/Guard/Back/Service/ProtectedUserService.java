@@ -1,9 +1,12 @@
 package com.Guard.Back.Service;
 
 import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Domain.UserRole;
+import com.Guard.Back.Event.AccountChangedEvent;
 import com.Guard.Back.Repository.ProtectedUserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
@@ -15,6 +18,7 @@ import java.util.UUID;
 public class ProtectedUserService {
 
     private final ProtectedUserRepository protectedUserRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 기기 ID를 기반으로 피보호자를 등록하거나 로그인 처리
@@ -36,6 +40,7 @@ public class ProtectedUserService {
                             .linkingCode(linkingCode)
                             .build();
                     protectedUserRepository.save(newUser);
+                    eventPublisher.publishEvent(new AccountChangedEvent(UserRole.PROTECTED, true));
                     log.info("[피보호자 등록/로그인] 새로운 피보호자(ID: {})가 성공적으로 등록되었습니다.", newUser.getId());
                     return newUser;
                 });
@@ -4,6 +4,7 @@ import com.Guard.Back.Domain.ProtectedUser;
 import com.Guard.Back.Domain.Relationship;
 import com.Guard.Back.Domain.User;
 import com.Guard.Back.Domain.UserRole;
+import com.Guard.Back.Event.RelationshipChangedEvent;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
 import com.Guard.Back.Repository.ProtectedUserRepository;
@@ -11,6 +12,7 @@ import com.Guard.Back.Repository.RelationshipRepository;
 import com.Guard.Back.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
@@ -24,6 +26,7 @@ public class RelationshipService {
     private final UserRepository userRepository;
     private final ProtectedUserRepository protectedUserRepository;
     private final RelationshipRepository relationshipRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 연동 코드를 사용하여 보호자와 피보호자 간의 관계를 생성
@@ -64,6 +67,9 @@ public class RelationshipService {
                         .build()
         );
 
+        // 커밋 후 보호자의 권한 캐시를 무효화
+        eventPublisher.publishEvent(new RelationshipChangedEvent(guardianId, protectedUser.getId(), true));
+
         // 2명의 보호자가 모두 연결되면, 연동 코드를 비활성화(null) 처리
         if (existingGuardians + 1 == 2) {
             log.info("[관계 생성] 피보호자 ID: {}의 보호자가 2명이 되어 연동 코드를 비활성화합니다.", protectedUser.getId());
@@ -99,6 +105,8 @@ public class RelationshipService {
         }
 
         relationshipRepository.delete(relationship);
+        eventPublisher.publishEvent(new RelationshipChangedEvent(
+                relationship.getGuardian().getId(), relationship.getProtectedUser().getId(), false));
 
         // 관계가 해제되어 보호자가 2명 미만이 되면, 새로운 연동 코드를 발급
         ProtectedUser protectedUser = relationship.getProtectedUser();
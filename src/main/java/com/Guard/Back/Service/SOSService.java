@@ -1,20 +1,19 @@
 package com.Guard.Back.Service;
 
 import com.Guard.Back.Domain.ProtectedUser;
-import com.Guard.Back.Domain.Relationship;
-import com.Guard.Back.Domain.User;
+import com.Guard.Back.Event.AlertRecordedEvent;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
 import com.Guard.Back.Repository.ProtectedUserRepository;
-import com.Guard.Back.Repository.RelationshipRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
 import com.Guard.Back.Domain.AlertLog;
 import com.Guard.Back.Domain.EventType;
 import com.Guard.Back.Repository.AlertLogRepository;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
 /**
@@ -26,42 +25,35 @@ import java.time.ZonedDateTime;
 public class SOSService {
 
     private final ProtectedUserRepository protectedUserRepository;
-    private final RelationshipRepository relationshipRepository;
-    private final FCMService fcmService;
+    private final NotificationOutboxService notificationOutboxService;
     private final AlertLogRepository alertLogRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * 특정 피보호자와 연결된 모든 보호자에게 SOS 푸시 알림을 발송
+     * 특정 피보호자와 연결된 모든 보호자에게 보낼 SOS 푸시 알림을 발송 대기열에 등록
+     * 알림 기록과 함께 보호자별 발송 대기열 항목을 저장하고, 실제 발송은 커밋 후 NotificationDispatcher의 HIGH 우선순위 스레드가 처리
      * @param protectedUserId SOS를 요청한 피보호자의 ID.
+     * @param requestedAt     SOS 요청을 받은 시간. 요청부터 FCM 접수까지의 지연 측정 기준
+     * @return 발송 대기열에 등록한 알림 수 (연결된 보호자 수). 연결된 보호자가 없으면 0 (알림 기록은 저장됨)
      */
     @Transactional
-    public void sendSOSToGuardians(Long protectedUserId) {
-        log.info("[SOS] 피보호자 ID: {}와 연결된 모든 보호자에게 푸시 알림 발송을 시작합니다.", protectedUserId);
+    public int sendSOSToGuardians(Long protectedUserId, LocalDateTime requestedAt) {
+        log.info("[SOS] 피보호자 ID: {}와 연결된 모든 보호자에게 보낼 푸시 알림 등록을 시작합니다.", protectedUserId);
         ProtectedUser protectedUser = protectedUserRepository.findById(protectedUserId)
                 .orElseThrow(() -> new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND));
 
-        alertLogRepository.save(AlertLog.builder()
+        AlertLog alertLog = alertLogRepository.save(AlertLog.builder()
                 .protectedUser(protectedUser)
                 .eventType(EventType.SOS)
                 .message("SOS 호출이 있었습니다.")
                 .eventTime(ZonedDateTime.now())
                 .build());
+        eventPublisher.publishEvent(new AlertRecordedEvent(protectedUserId, alertLog.getId(), EventType.SOS, alertLog.getEventTime()));
 
-        List<Relationship> relationships = relationshipRepository.findAllByProtectedUser(protectedUser);
-
-        if (relationships.isEmpty()) {
+        int queued = notificationOutboxService.enqueue(alertLog, "🚨 긴급 상황 발생!", "SOS 호출이 있었습니다. 앱을 확인해주세요.", requestedAt);
+        if (queued == 0) {
             log.warn("[SOS] 피보호자 ID: {}는 연결된 보호자가 없어 메시지를 발송할 수 없습니다.", protectedUserId);
-            return;
-        }
-
-        for (Relationship relationship : relationships) {
-            User guardian = relationship.getGuardian();
-            log.info("[SOS] 보호자 ID: {}에게 푸시 알림 발송을 시도합니다.", guardian.getId());
-            fcmService.sendPushNotification(
-                    guardian.getFcmToken(),
-                    "🚨 긴급 상황 발생!",
-                    "SOS 호출이 있었습니다. 앱을 확인해주세요."
-            );
         }
+        return queued;
     }
-}
\ No newline at end of file
+}
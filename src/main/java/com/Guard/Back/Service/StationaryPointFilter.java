@@ -0,0 +1,182 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.LocationDwell;
+import com.Guard.Back.Domain.LocationLog;
+import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Geo.GeoUtils;
+import com.Guard.Back.Repository.LocationDwellRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 위치 기록을 저장하기 전에, 제자리에 머무는 동안 들어온 위치를 걸러내는 컴포넌트.
+ * 마지막으로 저장된 위치(기준점)에서 일정 거리 이내이고 직전 위치와의 시간 간격이 짧으면
+ * location_log에 저장하지 않고 체류 구간(location_dwell)의 종료 시간과 개수만 갱신
+ *
+ * 기준점은 서버 메모리에만 보관하므로, 재시작하거나 다른 서버로 요청이 가면 첫 위치는 그대로 저장됨
+ * 최신 위치(current_location)와 지오펜스 검사는 걸러진 위치를 포함한 모든 위치로 처리해야 함
+ */
+@Component
+@Slf4j
+public class StationaryPointFilter {
+
+    /*기준점을 보관할 최대 피보호자 수.*/
+    private static final long MAX_ANCHORS = 100_000;
+
+    /*피보호자별 처리를 차례로 실행하기 위한 잠금 수. 같은 잠금을 쓰는 다른 피보호자끼리만 서로 기다림*/
+    private static final int LOCK_STRIPES = 256;
+
+    private final LocationDwellRepository locationDwellRepository;
+    private final boolean enabled;
+    private final double radiusMeters;
+    private final Duration maxGap;
+    private final Cache<Long, Anchor> anchors;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * 피보호자별 기준점.
+     * @param latitude   마지막으로 저장된 위치의 위도.
+     * @param longitude  마지막으로 저장된 위치의 경도.
+     * @param anchoredAt 마지막으로 저장된 위치의 기록 시간 (체류 시작 시간).
+     * @param lastSeenAt 기준점 근처에서 마지막으로 들어온 위치의 기록 시간.
+     * @param dwellId    진행 중인 체류 구간의 ID. 아직 걸러진 위치가 없으면 null.
+     */
+    private record Anchor(double latitude, double longitude, LocalDateTime anchoredAt,
+                          LocalDateTime lastSeenAt, Long dwellId) {}
+
+    public StationaryPointFilter(LocationDwellRepository locationDwellRepository,
+                                 @Value("${location.dwell.enabled:true}") boolean enabled,
+                                 @Value("${location.dwell.radius-meters:30}") double radiusMeters,
+                                 @Value("${location.dwell.max-gap-seconds:600}") long maxGapSeconds) {
+        this.locationDwellRepository = locationDwellRepository;
+        this.enabled = enabled;
+        this.radiusMeters = radiusMeters;
+        this.maxGap = Duration.ofSeconds(maxGapSeconds);
+        // 마지막 위치 이후 maxGap이 지나면 어차피 합칠 수 없으므로 그 뒤에는 기준점을 버림
+        this.anchors = Caffeine.newBuilder()
+                .maximumSize(MAX_ANCHORS)
+                .expireAfterWrite(this.maxGap)
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 기록 시간 순으로 정렬된 위치 기록 중 location_log에 저장할 기록만 골라 반환
+     * 걸러진 위치는 이 메소드 안에서 체류 구간에 반영되므로, 위치 저장 트랜잭션 안에서 호출해야 함
+     *
+     * 같은 피보호자의 요청이 동시에 들어와도 기준점을 읽고 바꾸는 과정이 섞이지 않도록, 피보호자별 잠금으로 차례로 처리
+     * (체류 구간 INSERT/UPDATE가 캐시의 compute 안에서 실행되면 같은 bin의 다른 피보호자까지 DB 응답을 기다리므로 캐시 밖의 잠금을 사용)
+     * 잠금은 커밋 전에 풀리므로, 다음 요청이 아직 커밋되지 않은 체류 구간을 갱신하면 그 UPDATE는 DB의 행 잠금에서 커밋을 기다림
+     * 기준점보다 먼저 기록된 위치(늦게 도착한 이전 배치)는 그대로 저장하되 기준점을 과거로 되돌리지 않음
+     *
+     * @param protectedUser 위치 기록의 주인인 피보호자.
+     * @param logs          기록 시간 순으로 정렬된, 아직 저장되지 않은 위치 기록 목록.
+     * @return location_log에 저장해야 하는 위치 기록 목록 (순서 유지).
+     */
+    public List<LocationLog> filter(ProtectedUser protectedUser, List<LocationLog> logs) {
+        if (!enabled || logs.isEmpty()) {
+            return logs;
+        }
+
+        Long protectedUserId = protectedUser.getId();
+        List<LocationLog> toStore = new ArrayList<>(logs.size());
+        // 기준점 읽기부터 체류 구간 갱신, 새 기준점 저장까지를 한 단위로 처리
+        synchronized (lockFor(protectedUserId)) {
+            anchors.put(protectedUserId, apply(protectedUser, anchors.getIfPresent(protectedUserId), logs, toStore));
+        }
+        invalidateOnRollback(protectedUserId);
+
+        if (toStore.size() < logs.size()) {
+            log.debug("[체류압축] 피보호자 ID: {}의 위치 {}건 중 {}건을 체류 구간으로 합쳤습니다.",
+                    protectedUserId, logs.size(), logs.size() - toStore.size());
+        }
+        return toStore;
+    }
+
+    /*기준점에서 시작해 위치들을 차례로 반영하고, 저장할 위치는 toStore에 담아 새 기준점을 반환하는 헬퍼 메소드.*/
+    private Anchor apply(ProtectedUser protectedUser, Anchor anchor, List<LocationLog> logs, List<LocationLog> toStore) {
+        int pendingCount = 0;
+        for (LocationLog newLog : logs) {
+            if (anchor != null && newLog.getRecordedAt().isBefore(anchor.lastSeenAt())) {
+                // 이미 반영한 위치보다 과거의 위치는 기록만 남기고 기준점과 체류 구간은 그대로 둠
+                toStore.add(newLog);
+                continue;
+            }
+            if (anchor != null && isStationary(anchor, newLog)) {
+                if (anchor.dwellId() == null) {
+                    LocationDwell dwell = locationDwellRepository.save(LocationDwell.builder()
+                            .protectedUser(protectedUser)
+                            .latitude(anchor.latitude())
+                            .longitude(anchor.longitude())
+                            .startedAt(anchor.anchoredAt())
+                            .endedAt(newLog.getRecordedAt())
+                            .pointCount(1)
+                            .build());
+                    anchor = new Anchor(anchor.latitude(), anchor.longitude(), anchor.anchoredAt(),
+                            newLog.getRecordedAt(), dwell.getId());
+                } else {
+                    pendingCount++;
+                    anchor = new Anchor(anchor.latitude(), anchor.longitude(), anchor.anchoredAt(),
+                            newLog.getRecordedAt(), anchor.dwellId());
+                }
+                continue;
+            }
+
+            // 기준점을 벗어났으므로 진행 중이던 체류 구간을 마무리하고, 이 위치를 새 기준점으로 삼음
+            extendDwell(anchor, pendingCount);
+            pendingCount = 0;
+            toStore.add(newLog);
+            anchor = new Anchor(newLog.getLatitude(), newLog.getLongitude(), newLog.getRecordedAt(),
+                    newLog.getRecordedAt(), null);
+        }
+        extendDwell(anchor, pendingCount);
+        return anchor;
+    }
+
+    private Object lockFor(Long protectedUserId) {
+        return locks[Math.floorMod(protectedUserId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /*새 위치가 기준점 반경 이내이고, 직전 위치 이후 maxGap 이내에 기록되었는지 확인하는 헬퍼 메소드.*/
+    private boolean isStationary(Anchor anchor, LocationLog newLog) {
+        if (Duration.between(anchor.lastSeenAt(), newLog.getRecordedAt()).compareTo(maxGap) > 0) {
+            return false;
+        }
+        return GeoUtils.haversine(anchor.latitude(), anchor.longitude(), newLog.getLatitude(), newLog.getLongitude())
+                <= radiusMeters;
+    }
+
+    /*진행 중인 체류 구간에 이번 요청에서 합친 위치들을 한 번의 UPDATE로 반영하는 헬퍼 메소드.*/
+    private void extendDwell(Anchor anchor, int pendingCount) {
+        if (anchor == null || anchor.dwellId() == null || pendingCount == 0) {
+            return;
+        }
+        locationDwellRepository.extend(anchor.dwellId(), anchor.lastSeenAt(), pendingCount);
+    }
+
+    /*트랜잭션이 롤백되면 저장되지 않은 위치가 기준점으로 남지 않도록 기준점을 버리는 헬퍼 메소드.*/
+    private void invalidateOnRollback(Long protectedUserId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    anchors.invalidate(protectedUserId);
+                }
+            }
+        });
+    }
+}
@@ -1,18 +1,29 @@
 package com.Guard.Back.Service;
 
+import com.Guard.Back.Domain.DevicePlatform;
 import com.Guard.Back.Domain.ProtectedUser;
 import com.Guard.Back.Domain.User;
+import com.Guard.Back.Domain.UserRole;
+import com.Guard.Back.Event.AccountChangedEvent;
 import com.Guard.Back.Dto.UserInfoDto;
+import com.Guard.Back.Event.DeviceTokenChangedEvent;
+import com.Guard.Back.Event.GeofenceChangedEvent;
+import com.Guard.Back.Event.RelationshipChangedEvent;
 import com.Guard.Back.Exception.CustomException;
 import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Repository.DeviceTokenRepository;
 import com.Guard.Back.Repository.ProtectedUserRepository;
 import com.Guard.Back.Repository.RefreshTokenRepository;
 import com.Guard.Back.Repository.RelationshipRepository;
 import com.Guard.Back.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /*사용자 계정(보호자, 피보호자) 삭제와 관련된 비즈니스 로직을 처리하는 서비스 클래스.*/
 @Service
@@ -24,10 +35,15 @@ public class UserService {
     private final ProtectedUserRepository protectedUserRepository;
     private final RelationshipRepository relationshipRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final LocationRetentionService locationRetentionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FcmTokenHealthRegistry fcmTokenHealthRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 특정 보호자 계정을 탈퇴
-     * 연관된 모든 관계, 리프레시 토큰이 함께 삭제
+     * 연관된 모든 관계, 리프레시 토큰, 기기 토큰이 함께 삭제
      *
      * @param guardianId 삭제할 보호자의 ID.
      * @throws CustomException 보호자가 존재하지 않을 경우 발생.
@@ -42,39 +58,67 @@ public class UserService {
                 });
 
         log.debug("[회원 탈퇴] 보호자 ID: {}와 연결된 모든 관계를 삭제합니다.", guardianId);
+        List<Long> protectedUserIds = relationshipRepository.findProtectedUserIdsByGuardianId(guardianId);
         relationshipRepository.deleteAllByGuardian(guardian);
+        protectedUserIds.forEach(protectedUserId ->
+                eventPublisher.publishEvent(new RelationshipChangedEvent(guardianId, protectedUserId, false)));
 
         log.debug("[회원 탈퇴] 보호자 ID: {}의 리프레시 토큰을 삭제합니다.", guardianId);
         refreshTokenRepository.findByUser(guardian).ifPresent(refreshTokenRepository::delete);
 
+        log.debug("[회원 탈퇴] 보호자 ID: {}의 기기 토큰을 삭제합니다.", guardianId);
+        deviceTokenRepository.deleteAllByGuardianId(guardianId);
+        eventPublisher.publishEvent(new DeviceTokenChangedEvent(guardianId));
+
         userRepository.delete(guardian);
+        eventPublisher.publishEvent(new AccountChangedEvent(UserRole.GUARDIAN, false));
         log.info("[회원 탈퇴] 보호자 ID: {}의 계정 삭제가 성공적으로 완료되었습니다.", guardianId);
     }
 
     /**
      * 특정 피보호자 계정을 탈퇴
-     * 연관된 모든 관계, 리프레시 토큰, 위치 기록이 함께 삭제. (위치 기록은 Cascade 설정에 의해 자동 삭제됨)
+     * 연관된 모든 관계, 리프레시 토큰, 위치 기록이 함께 삭제
+     *
+     * 위치 기록은 양이 많아 청크마다 바로 커밋하며 먼저 삭제하고, 그 뒤 계정 삭제를 별도 트랜잭션으로 처리
+     * (청크 삭제를 롤백될 수 있는 트랜잭션 안에서 하지 않기 위해 이 메소드에는 트랜잭션을 걸지 않음)
+     * 계정 삭제가 실패하면 위치 기록만 지워진 상태로 남지만, 탈퇴를 다시 요청하면 이어서 완료됨
      *
      * @param protectedUserId 삭제할 피보호자의 ID.
      * @throws CustomException 피보호자가 존재하지 않을 경우 발생.
      */
-    @Transactional
     public void deleteProtectedUser(Long protectedUserId) {
         log.info("[회원 탈퇴] 피보호자 ID: {}의 계정 삭제를 시작합니다.", protectedUserId);
+        // 존재하지 않는 계정이면 위치 기록을 건드리기 전에 실패
+        if (!protectedUserRepository.existsById(protectedUserId)) {
+            log.error("[회원 탈퇴] 존재하지 않는 피보호자 ID({})에 대한 탈퇴가 요청되었습니다.", protectedUserId);
+            throw new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
+        }
+
+        log.debug("[회원 탈퇴] 피보호자 ID: {}의 위치 기록을 삭제합니다.", protectedUserId);
+        locationRetentionService.purgeProtectedUser(protectedUserId);
+
+        transactionTemplate.executeWithoutResult(status -> deleteProtectedUserAccount(protectedUserId));
+        log.info("[회원 탈퇴] 피보호자 ID: {}의 계정 삭제가 성공적으로 완료되었습니다.", protectedUserId);
+    }
+
+    /*위치 기록을 지운 뒤 관계, 리프레시 토큰, 피보호자 계정을 한 트랜잭션에서 삭제하는 헬퍼 메소드.*/
+    private void deleteProtectedUserAccount(Long protectedUserId) {
         ProtectedUser protectedUser = protectedUserRepository.findById(protectedUserId)
-                .orElseThrow(() -> {
-                    log.error("[회원 탈퇴] 존재하지 않는 피보호자 ID({})에 대한 탈퇴가 요청되었습니다.", protectedUserId);
-                    return new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND);
-                });
+                .orElseThrow(() -> new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND));
 
         log.debug("[회원 탈퇴] 피보호자 ID: {}와 연결된 모든 관계를 삭제합니다.", protectedUserId);
+        List<Long> guardianIds = relationshipRepository.findGuardianIdsByProtectedUserId(protectedUserId);
         relationshipRepository.deleteAllByProtectedUser(protectedUser);
+        guardianIds.forEach(guardianId ->
+                eventPublisher.publishEvent(new RelationshipChangedEvent(guardianId, protectedUserId, false)));
 
         log.debug("[회원 탈퇴] 피보호자 ID: {}의 리프레시 토큰을 삭제합니다.", protectedUserId);
         refreshTokenRepository.findByProtectedUser(protectedUser).ifPresent(refreshTokenRepository::delete);
 
         protectedUserRepository.delete(protectedUser);
-        log.info("[회원 탈퇴] 피보호자 ID: {}의 계정 삭제가 성공적으로 완료되었습니다.", protectedUserId);
+        eventPublisher.publishEvent(new AccountChangedEvent(UserRole.PROTECTED, false));
+        // 서버 메모리에 남은 안심 구역 정보도 커밋 후 버림
+        eventPublisher.publishEvent(new GeofenceChangedEvent(protectedUserId));
     }
 
     /**
@@ -112,14 +156,32 @@ public class UserService {
     }
 
     /**
-     * 보호자의 FCM 토큰을 찾아 갱신
-     * @param guardianId 토큰을 갱신할 보호자의 ID.
-     * @param fcmToken   새로운 FCM 토큰.
+     * 보호자의 기기 FCM 토큰을 등록
+     * 보호자는 기기마다 토큰을 따로 등록하며, 같은 기기의 토큰이 다시 등록되면 마지막 등록 시간만 갱신
+     * 예전 버전 호환을 위해 users.fcm_token에도 마지막으로 등록한 토큰을 함께 저장
+     * 다른 보호자에게 등록되어 있던 토큰이면 새 보호자에게 옮기고, 이전 보호자의 토큰 캐시도 커밋 후 무효화
+     * (무효화하지 않으면 캐시가 만료될 때까지 이전 보호자의 알림이 이 기기로 발송됨)
+     *
+     * @param guardianId 토큰을 등록할 보호자의 ID.
+     * @param fcmToken   기기의 FCM 토큰.
+     * @param platform   기기 플랫폼. 알 수 없으면 UNKNOWN
      */
     @Transactional
-    public void updateFcmToken(Long guardianId, String fcmToken) {
+    public void updateFcmToken(Long guardianId, String fcmToken, DevicePlatform platform) {
         User guardian = userRepository.findById(guardianId)
                 .orElseThrow(() -> new CustomException(ErrorCode.GUARDIAN_NOT_FOUND));
+        List<Long> previousOwners = deviceTokenRepository.findGuardianIdsByTokens(List.of(fcmToken));
+        userRepository.clearFcmTokenOfOthers(fcmToken, guardianId);
         guardian.setFcmToken(fcmToken);
+        deviceTokenRepository.upsert(guardianId, fcmToken, platform.name(), LocalDateTime.now());
+        for (Long previousOwner : previousOwners) {
+            if (!previousOwner.equals(guardianId)) {
+                log.info("[FCM 토큰] 보호자 ID: {}의 기기 토큰을 보호자 ID: {}에게 옮깁니다.", previousOwner, guardianId);
+                eventPublisher.publishEvent(new DeviceTokenChangedEvent(previousOwner));
+            }
+        }
+        eventPublisher.publishEvent(new DeviceTokenChangedEvent(guardianId));
+        // 같은 토큰이 다시 등록된 경우, 이전에 죽은 토큰으로 기록된 것을 되돌림
+        fcmTokenHealthRegistry.markHealthy(fcmToken);
     }
 }
\ No newline at end of file
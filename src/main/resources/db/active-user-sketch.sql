@@ -0,0 +1,17 @@
+-- =========================================
+-- 활성 사용자 스케치 (active_user_sketch)
+-- =========================================
+-- 서버별, 5분 구간별로 위치를 보낸 피보호자 집합을 HyperLogLog 레지스터(정밀도 12, 4096바이트)로 저장
+-- ActiveUserCounter가 주기적으로 덮어쓰고, 관리자 대시보드는 모든 서버의 최근 24시간 구간을 합쳐 활성 사용자 수를 구함
+-- 집계 구간을 벗어난 행은 ActiveUserCounter가 삭제
+
+CREATE TABLE IF NOT EXISTS active_user_sketch (
+    id           BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    node         VARCHAR(100) NOT NULL,
+    bucket_start DATETIME(6)  NOT NULL,
+    registers    BLOB         NOT NULL,
+    updated_at   DATETIME(6)  NOT NULL,
+    CONSTRAINT uk_active_user_sketch_node_bucket UNIQUE (node, bucket_start)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_active_user_sketch_bucket ON active_user_sketch (bucket_start);
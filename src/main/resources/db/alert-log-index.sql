@@ -0,0 +1,15 @@
+-- =========================================
+-- 알림 기록 조회(keyset 페이지네이션)용 인덱스
+-- =========================================
+-- WHERE protected_user_id = ? AND (event_time, id) < (?, ?) ORDER BY event_time DESC, id DESC 를
+-- 인덱스를 거꾸로 읽어 처리하므로 기록이 늘어나도 페이지 하나의 비용이 일정
+
+CREATE INDEX idx_alert_log_user_time ON alert_log (protected_user_id, event_time, id);
+
+-- 종류를 골라 조회하는 경우(types). 종류별로 WHERE protected_user_id = ? AND event_type = ? ... 를 조회하여 합치므로
+-- 종류마다 이 인덱스를 거꾸로 limit건만 읽음 (idx_alert_log_user_time으로는 다른 종류의 기록도 모두 읽고 걸러야 함)
+CREATE INDEX idx_alert_log_user_type_time ON alert_log (protected_user_id, event_type, event_time, id);
+
+-- 피보호자의 마지막 알림 ID(ETag) 조회. SELECT MAX(id) FROM alert_log WHERE protected_user_id = ? 를
+-- 인덱스의 마지막 항목 하나만 읽어 처리 (idx_alert_log_user_time으로는 그 피보호자의 항목을 모두 읽어야 함)
+CREATE INDEX idx_alert_log_user_id ON alert_log (protected_user_id, id);
@@ -0,0 +1,22 @@
+-- =========================================
+-- 피보호자별 최신 위치 (current_location)
+-- =========================================
+-- 위치 저장 시 upsert되며, 보호자의 최신 위치 조회는 location_log 대신 이 테이블의 한 행을 읽음
+
+CREATE TABLE IF NOT EXISTS current_location (
+    protected_user_id BIGINT      NOT NULL PRIMARY KEY,
+    latitude          DOUBLE      NOT NULL,
+    longitude         DOUBLE      NOT NULL,
+    recorded_at       DATETIME(6) NOT NULL,
+    CONSTRAINT fk_current_location_protected_user
+        FOREIGN KEY (protected_user_id) REFERENCES protected_user (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- 기존 위치 기록에서 피보호자별 마지막 위치로 초기 데이터를 채움
+INSERT INTO current_location (protected_user_id, latitude, longitude, recorded_at)
+SELECT l.protected_user_id, l.latitude, l.longitude, COALESCE(l.recorded_at, NOW())
+FROM location_log l
+JOIN (SELECT protected_user_id, MAX(id) AS max_id
+      FROM location_log
+      GROUP BY protected_user_id) latest ON l.id = latest.max_id
+ON DUPLICATE KEY UPDATE protected_user_id = current_location.protected_user_id;
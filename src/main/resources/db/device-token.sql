@@ -0,0 +1,26 @@
+-- =========================================
+-- 보호자 기기 토큰 (device_token)
+-- =========================================
+-- 보호자 한 명이 여러 기기(휴대폰, 태블릿 등)로 푸시 알림을 받을 수 있도록 토큰을 기기마다 한 행씩 저장
+-- 같은 토큰이 다시 등록되면 INSERT ... ON DUPLICATE KEY UPDATE 로 보호자/플랫폼/마지막 등록 시간만 갱신
+
+CREATE TABLE IF NOT EXISTS device_token (
+    id           BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    guardian_id  BIGINT       NOT NULL,
+    token        VARCHAR(255) NOT NULL,
+    platform     VARCHAR(20)  NOT NULL,
+    last_seen_at DATETIME(6)  NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    CONSTRAINT uk_device_token_token UNIQUE (token)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_device_token_guardian ON device_token (guardian_id);
+
+-- 오래 다시 등록되지 않은 토큰 정리(FcmTokenHealthRegistry.pruneStaleTokens)용 인덱스
+CREATE INDEX idx_device_token_last_seen ON device_token (last_seen_at);
+
+-- 기존에 users.fcm_token에 저장된 토큰을 옮김 (여러 번 실행해도 중복되지 않음)
+INSERT IGNORE INTO device_token (guardian_id, token, platform, last_seen_at, created_at)
+SELECT id, fcm_token, 'UNKNOWN', NOW(6), NOW(6)
+FROM users
+WHERE fcm_token IS NOT NULL AND fcm_token <> '';
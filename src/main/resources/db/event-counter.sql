@@ -0,0 +1,34 @@
+-- =========================================
+-- 관리자 대시보드 카운터 (event_counter)
+-- =========================================
+-- 날짜별 알림 종류별 건수(alert.SOS 등, Asia/Seoul 기준 날짜)와 전체 사용자 수(users.*, day = 1970-01-01)를 미리 집계
+-- EventCounterService가 증감분을 INSERT ... ON DUPLICATE KEY UPDATE 로 더하고, 주기적으로 원본 테이블을 다시 세어 맞춤
+-- 보정을 한 서버만 하도록 가져가는 lease 행(name = 'lease.reconcile', day = 1970-01-01)도 이 테이블에 둠 (처음 보정할 때 만들어짐)
+
+CREATE TABLE IF NOT EXISTS event_counter (
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(50) NOT NULL,
+    day        DATE        NOT NULL,
+    total      BIGINT      NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_event_counter_name_day UNIQUE (name, day)
+) ENGINE = InnoDB;
+
+-- 카운터 정합성 보정(날짜별 알림 수 집계)용 인덱스
+CREATE INDEX idx_alert_log_time ON alert_log (event_time);
+
+-- 처음 배포할 때 현재 값으로 채움 (여러 번 실행해도 현재 값으로 덮어씀)
+INSERT INTO event_counter (name, day, total, updated_at)
+SELECT 'users.guardian', '1970-01-01', COUNT(*), NOW(6) FROM users
+ON DUPLICATE KEY UPDATE total = VALUES(total), updated_at = VALUES(updated_at);
+
+INSERT INTO event_counter (name, day, total, updated_at)
+SELECT 'users.protected', '1970-01-01', COUNT(*), NOW(6) FROM protected_user
+ON DUPLICATE KEY UPDATE total = VALUES(total), updated_at = VALUES(updated_at);
+
+-- 날짜별 알림 수는 DB 세션 시간대(서버 설정 serverTimezone=Asia/Seoul) 기준 날짜로 채움
+INSERT INTO event_counter (name, day, total, updated_at)
+SELECT CONCAT('alert.', event_type), DATE(event_time), COUNT(*), NOW(6)
+FROM alert_log
+GROUP BY event_type, DATE(event_time)
+ON DUPLICATE KEY UPDATE total = VALUES(total), updated_at = VALUES(updated_at);
@@ -0,0 +1,20 @@
+-- =========================================
+-- 추가 안심 구역 (geofence_zone)
+-- =========================================
+-- 피보호자별로 여러 개의 원형/다각형 안심 구역을 저장 (기본 안심 구역은 protected_user 테이블에 그대로 유지)
+
+CREATE TABLE IF NOT EXISTS geofence_zone (
+    id                BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    protected_user_id BIGINT      NOT NULL,
+    name              VARCHAR(50) NOT NULL,
+    type              VARCHAR(20) NOT NULL,
+    latitude          DOUBLE,
+    longitude         DOUBLE,
+    radius            INT,
+    vertices          TEXT,
+    inside_zone       BIT(1)      NOT NULL DEFAULT 0,
+    CONSTRAINT fk_geofence_zone_protected_user
+        FOREIGN KEY (protected_user_id) REFERENCES protected_user (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_geofence_zone_user ON geofence_zone (protected_user_id);
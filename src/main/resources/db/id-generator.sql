@@ -0,0 +1,15 @@
+-- =========================================
+-- LocationLog pooled-lo ID 생성기
+-- =========================================
+-- LocationLog는 IDENTITY 대신 이 테이블에서 ID 블록(500개)을 받아 메모리에서 할당
+-- 애플리케이션 배포 전에 한 번 실행 (ddl-auto=none)
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val      BIGINT      NOT NULL
+) ENGINE = InnoDB;
+
+-- 기존 행과 겹치지 않도록 현재 최대 ID 다음 값부터 할당을 시작
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'location_log', COALESCE(MAX(id), 0) + 1 FROM location_log
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
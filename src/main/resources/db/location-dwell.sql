@@ -0,0 +1,22 @@
+-- =========================================
+-- 체류 구간 (location_dwell)
+-- =========================================
+-- 마지막으로 저장된 위치 근처에 머무는 동안 들어온 위치는 location_log에 저장하지 않고
+-- 이 테이블의 한 행(시작/종료 시간, 합친 개수)으로 기록
+
+CREATE TABLE IF NOT EXISTS location_dwell (
+    id                BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    protected_user_id BIGINT      NOT NULL,
+    latitude          DOUBLE      NOT NULL,
+    longitude         DOUBLE      NOT NULL,
+    started_at        DATETIME(6) NOT NULL,
+    ended_at          DATETIME(6) NOT NULL,
+    point_count       INT         NOT NULL,
+    CONSTRAINT fk_location_dwell_protected_user
+        FOREIGN KEY (protected_user_id) REFERENCES protected_user (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_location_dwell_user_started ON location_dwell (protected_user_id, started_at);
+
+-- 관리자 대시보드의 활성 사용자 집계 (current_location.recorded_at 기준)
+CREATE INDEX idx_current_location_recorded ON current_location (recorded_at);
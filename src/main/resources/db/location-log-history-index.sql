@@ -0,0 +1,6 @@
+-- =========================================
+-- 위치 기록 조회(keyset 페이지네이션)용 인덱스
+-- =========================================
+-- WHERE protected_user_id = ? AND (recorded_at, id) > (?, ?) ORDER BY recorded_at, id 를 인덱스만으로 처리
+
+CREATE INDEX idx_location_log_user_recorded ON location_log (protected_user_id, recorded_at, id);
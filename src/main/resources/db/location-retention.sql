@@ -0,0 +1,24 @@
+-- =========================================
+-- 위치 기록 시간별 요약 (location_hourly_summary)
+-- =========================================
+-- 보존 기간이 지난 location_log 행은 피보호자별 1시간 단위 요약(중심점, 범위, 개수)으로 합친 뒤 삭제
+
+CREATE TABLE IF NOT EXISTS location_hourly_summary (
+    id                BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    protected_user_id BIGINT   NOT NULL,
+    hour_start        DATETIME NOT NULL,
+    point_count       INT      NOT NULL,
+    latitude          DOUBLE   NOT NULL,
+    longitude         DOUBLE   NOT NULL,
+    min_latitude      DOUBLE   NOT NULL,
+    max_latitude      DOUBLE   NOT NULL,
+    min_longitude     DOUBLE   NOT NULL,
+    max_longitude     DOUBLE   NOT NULL,
+    CONSTRAINT uk_location_hourly_summary_user_hour UNIQUE (protected_user_id, hour_start),
+    CONSTRAINT fk_location_hourly_summary_protected_user
+        FOREIGN KEY (protected_user_id) REFERENCES protected_user (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- 정리 범위의 상한(보존 기간이 지난 기록 중 가장 큰 ID)을 기록 시간 인덱스만 읽어 구함
+-- SELECT MAX(id) FROM location_log WHERE recorded_at < ? OR recorded_at IS NULL
+CREATE INDEX idx_location_log_recorded ON location_log (recorded_at);
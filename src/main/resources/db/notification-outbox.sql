@@ -0,0 +1,26 @@
+-- =========================================
+-- 푸시 알림 발송 대기열 (notification_outbox)
+-- =========================================
+-- 알림 기록(alert_log)과 같은 트랜잭션에서 보호자마다 한 행씩 저장하고,
+-- NotificationDispatcher가 UPDATE ... LIMIT 로 가져가(claim) 발송. 실패하면 지수 백오프로 재시도
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id                BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    alert_log_id      BIGINT       NOT NULL,
+    protected_user_id BIGINT       NOT NULL,
+    guardian_id       BIGINT       NOT NULL,
+    event_type        VARCHAR(30)  NOT NULL,
+    title             VARCHAR(100) NOT NULL,
+    body              VARCHAR(255) NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    attempts          INT          NOT NULL DEFAULT 0,
+    next_attempt_at   DATETIME(6)  NOT NULL,
+    claim_token       VARCHAR(36),
+    claimed_at        DATETIME(6),
+    created_at        DATETIME(6)  NOT NULL,
+    sent_at           DATETIME(6),
+    last_error        VARCHAR(500)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_notification_outbox_status_next ON notification_outbox (status, next_attempt_at);
+CREATE INDEX idx_notification_outbox_claim ON notification_outbox (claim_token);
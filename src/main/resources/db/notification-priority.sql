@@ -0,0 +1,13 @@
+-- =========================================
+-- 푸시 알림 우선순위 (notification_outbox.priority, requested_at)
+-- =========================================
+-- SOS(HIGH)와 일반 알림(NORMAL)을 우선순위별 발송 스레드가 따로 가져가도록(claim) 우선순위 컬럼과 인덱스를 추가
+-- requested_at은 알림의 원인이 된 요청을 받은 시간으로, 우선순위별 전체 지연(요청 ~ FCM 접수) 측정에 사용
+
+ALTER TABLE notification_outbox
+    ADD COLUMN IF NOT EXISTS priority     VARCHAR(10) NOT NULL DEFAULT 'NORMAL' AFTER event_type,
+    ADD COLUMN IF NOT EXISTS requested_at DATETIME(6) NULL AFTER created_at;
+
+UPDATE notification_outbox SET priority = 'HIGH' WHERE event_type = 'SOS' AND priority <> 'HIGH';
+
+CREATE INDEX idx_notification_outbox_priority_status_next ON notification_outbox (priority, status, next_attempt_at);
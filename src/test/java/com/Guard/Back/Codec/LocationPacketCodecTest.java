@@ -0,0 +1,121 @@
+package com.Guard.Back.Codec;
+
+import com.Guard.Back.Dto.LocationRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationPacketCodecTest {
+
+    @Test
+    @DisplayName("인코딩한 위치 묶음을 그대로 디코딩")
+    void decode_RoundTrip() {
+        long[] times = {1_700_000_000_000L, 1_700_000_005_000L, 1_700_000_003_000L};
+        double[] lats = {37.4512345, 37.4512400, -33.8688197};
+        double[] lons = {127.1298765, 127.1298700, 151.2092955};
+
+        LocationPacket packet = LocationPacketCodec.decode(LocationPacketCodec.encode(times, lats, lons), 500);
+
+        assertEquals(3, packet.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(times[i], packet.epochMillis(i));
+            assertEquals(lats[i], packet.latitude(i), 1e-7);
+            assertEquals(lons[i], packet.longitude(i), 1e-7);
+        }
+    }
+
+    @Test
+    @DisplayName("기록 시간을 지정한 시간대의 LocalDateTime으로 변환 (밀리초 포함)")
+    void toRequests_ConvertsWithZone() {
+        // 2024-05-01T00:00:00.250Z, 2024-05-01T00:00:05Z
+        long[] times = {1_714_521_600_250L, 1_714_521_605_000L};
+        LocationPacket packet = LocationPacketCodec.decode(
+                LocationPacketCodec.encode(times, new double[]{37.5, 37.6}, new double[]{127.0, 127.1}), 500);
+
+        List<LocationRequest> requests = packet.toRequests(ZoneId.of("Asia/Seoul"));
+
+        assertEquals(LocalDateTime.of(2024, 5, 1, 9, 0, 0, 250_000_000), requests.get(0).recordedAt());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 9, 0, 5), requests.get(1).recordedAt());
+        assertEquals(37.6, requests.get(1).latitude(), 1e-7);
+    }
+
+    @Test
+    @DisplayName("서머타임 전환 전후의 위치도 각각의 오프셋으로 변환")
+    void toRequests_HandlesOffsetTransition() {
+        // 2024-03-10T06:59:59Z(전환 직전, -05:00), 2024-03-10T07:00:00Z(전환 후, -04:00)
+        long[] times = {1_710_053_999_000L, 1_710_054_000_000L};
+        LocationPacket packet = LocationPacketCodec.decode(
+                LocationPacketCodec.encode(times, new double[]{40.7, 40.7}, new double[]{-74.0, -74.0}), 500);
+
+        List<LocationRequest> requests = packet.toRequests(ZoneId.of("America/New_York"));
+
+        assertEquals(LocalDateTime.of(2024, 3, 10, 1, 59, 59), requests.get(0).recordedAt());
+        assertEquals(LocalDateTime.of(2024, 3, 10, 3, 0, 0), requests.get(1).recordedAt());
+    }
+
+    @Test
+    @DisplayName("연속된 위치는 차이만 저장되어 위치당 수 바이트로 인코딩")
+    void encode_IsCompactForNearbyPoints() {
+        int n = 100;
+        long[] times = new long[n];
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = 1_700_000_000_000L + i * 5_000L;
+            lats[i] = 37.45 + i * 1e-5;
+            lons[i] = 127.13 + i * 1e-5;
+        }
+
+        byte[] encoded = LocationPacketCodec.encode(times, lats, lons);
+
+        assertTrue(encoded.length < n * 8, "인코딩 크기: " + encoded.length);
+    }
+
+    @Test
+    @DisplayName("잘린 데이터, 뒤에 남는 데이터, 최대 개수 초과는 거절")
+    void decode_RejectsMalformedPackets() {
+        byte[] encoded = LocationPacketCodec.encode(new long[]{1L, 2L}, new double[]{37.0, 37.0}, new double[]{127.0, 127.0});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationPacketCodec.decode(Arrays.copyOf(encoded, encoded.length - 1), 500));
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationPacketCodec.decode(Arrays.copyOf(encoded, encoded.length + 1), 500));
+        assertThrows(IllegalArgumentException.class, () -> LocationPacketCodec.decode(encoded, 1));
+        assertThrows(IllegalArgumentException.class, () -> LocationPacketCodec.decode(new byte[]{2, 1, 0, 0, 0}, 500));
+    }
+
+    @Test
+    @DisplayName("위도/경도 범위를 벗어난 값은 거절")
+    void decode_RejectsOutOfRangeCoordinates() {
+        byte[] encoded = LocationPacketCodec.encode(new long[]{1L}, new double[]{91.0}, new double[]{127.0});
+
+        assertThrows(IllegalArgumentException.class, () -> LocationPacketCodec.decode(encoded, 500));
+    }
+
+    @Test
+    @DisplayName("절대값이 음수가 되는 Long.MIN_VALUE 위도도 거절")
+    void decode_RejectsMinValueLatitude() {
+        // version 1, 1개, 시간 1, 위도 zigzag(Long.MIN_VALUE) = 0xFFFFFFFFFFFFFFFF (10바이트 varint), 경도 0
+        byte[] packet = {1, 1, 2, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1, 0};
+
+        assertThrows(IllegalArgumentException.class, () -> LocationPacketCodec.decode(packet, 500));
+    }
+
+    @Test
+    @DisplayName("허용하는 가장 늦은 시간보다 늦게 기록된 위치는 거절")
+    void decode_RejectsFarFutureTime() {
+        byte[] latest = LocationPacketCodec.encode(new long[]{LocationPacketCodec.MAX_EPOCH_MILLIS},
+                new double[]{37.0}, new double[]{127.0});
+        byte[] future = LocationPacketCodec.encode(new long[]{LocationPacketCodec.MAX_EPOCH_MILLIS + 1},
+                new double[]{37.0}, new double[]{127.0});
+
+        assertEquals(LocationPacketCodec.MAX_EPOCH_MILLIS, LocationPacketCodec.decode(latest, 500).epochMillis(0));
+        assertThrows(IllegalArgumentException.class, () -> LocationPacketCodec.decode(future, 500));
+    }
+}
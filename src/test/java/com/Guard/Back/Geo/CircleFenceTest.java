@@ -0,0 +1,103 @@
+package com.Guard.Back.Geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircleFenceTest {
+
+    @Test
+    @DisplayName("단계적 판정 결과가 Haversine 거리 비교와 항상 같음 (다양한 위도/반경, 경계 근처 포함)")
+    void contains_MatchesHaversine() {
+        Random random = new Random(42);
+        double[] latitudes = {-33.87, 0.0, 37.45, 60.17, 69.65};
+        double[] radii = {30, 100, 500, 2_000, 20_000, 100_000};
+
+        for (double centerLat : latitudes) {
+            for (double radius : radii) {
+                CircleFence fence = new CircleFence(centerLat, 127.0, radius);
+                for (int i = 0; i < 20_000; i++) {
+                    // 중심에서 반경의 0~2배 거리, 경계 근처에 많이 몰리도록 생성
+                    double bearing = random.nextDouble() * 2 * Math.PI;
+                    double ratio = i % 2 == 0 ? random.nextDouble() * 2 : 1 + (random.nextDouble() - 0.5) * 0.04;
+                    double meters = radius * ratio;
+                    double lat = centerLat + Math.cos(bearing) * meters / 111_195.0;
+                    double lon = 127.0 + Math.sin(bearing) * meters / (111_195.0 * Math.cos(Math.toRadians(centerLat)));
+
+                    boolean expected = GeoUtils.haversine(centerLat, 127.0, lat, lon) <= radius;
+                    assertEquals(expected, fence.contains(lat, lon),
+                            "center=" + centerLat + ", radius=" + radius + ", point=(" + lat + ", " + lon + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("경계 띠 분류 결과가 Haversine 거리 기준 분류와 항상 같음")
+    void classify_MatchesHaversine() {
+        Random random = new Random(7);
+        double[] radii = {40, 300, 5_000};
+        double band = 20;
+
+        for (double radius : radii) {
+            CircleFence fence = new CircleFence(37.45, 127.13, radius);
+            double effectiveBand = Math.min(band, radius / 2);
+            for (int i = 0; i < 20_000; i++) {
+                double bearing = random.nextDouble() * 2 * Math.PI;
+                double meters = radius * random.nextDouble() * 2;
+                double lat = 37.45 + Math.cos(bearing) * meters / 111_195.0;
+                double lon = 127.13 + Math.sin(bearing) * meters / (111_195.0 * Math.cos(Math.toRadians(37.45)));
+
+                double distance = GeoUtils.haversine(37.45, 127.13, lat, lon);
+                FenceRegion expected = distance <= radius - effectiveBand ? FenceRegion.INSIDE
+                        : distance > radius + effectiveBand ? FenceRegion.OUTSIDE : FenceRegion.BOUNDARY;
+                assertEquals(expected, fence.classify(lat, lon, band), "radius=" + radius + ", distance=" + distance);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("고위도의 큰 구역에서도 경계 바로 안/밖(반경의 ±0.1~0.9%)을 모든 방향에서 Haversine 거리와 같게 판정")
+    void containsAndClassify_WorstCaseNearBoundary() {
+        double[] latitudes = {0.0, 37.45, 60.0, 75.0, 80.0, 84.0, -84.0};
+        double[] radii = {1_000, 5_000, 20_000, 50_000};
+        double[] ratios = {0.991, 0.999, 1.001, 1.009};
+
+        for (double centerLat : latitudes) {
+            for (double radius : radii) {
+                CircleFence fence = new CircleFence(centerLat, 127.0, radius);
+                double band = radius / 2;
+                for (int bearing = 0; bearing < 360; bearing++) {
+                    for (double ratio : ratios) {
+                        // 반경 경계 (contains)
+                        double[] point = destination(centerLat, 127.0, bearing, radius * ratio);
+                        boolean expected = GeoUtils.haversine(centerLat, 127.0, point[0], point[1]) <= radius;
+                        assertEquals(expected, fence.contains(point[0], point[1]),
+                                "center=" + centerLat + ", radius=" + radius + ", bearing=" + bearing + ", ratio=" + ratio);
+
+                        // 가장 넓은 경계 띠의 바깥 경계 (classify, 반경의 1.5배)
+                        double[] far = destination(centerLat, 127.0, bearing, (radius + band) * ratio);
+                        double distance = GeoUtils.haversine(centerLat, 127.0, far[0], far[1]);
+                        FenceRegion expectedRegion = distance > radius + band ? FenceRegion.OUTSIDE : FenceRegion.BOUNDARY;
+                        assertEquals(expectedRegion, fence.classify(far[0], far[1], band),
+                                "center=" + centerLat + ", radius=" + radius + ", bearing=" + bearing + ", ratio=" + ratio);
+                    }
+                }
+            }
+        }
+    }
+
+    /*시작점에서 방위각(도) 방향으로 meters만큼 이동한 지점 [위도, 경도] (구면).*/
+    private static double[] destination(double latitude, double longitude, double bearingDegrees, double meters) {
+        double angle = meters / 6_371_000.0;
+        double bearing = Math.toRadians(bearingDegrees);
+        double lat1 = Math.toRadians(latitude);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angle) + Math.cos(lat1) * Math.sin(angle) * Math.cos(bearing));
+        double lon2 = Math.toRadians(longitude) + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(lat1),
+                Math.cos(angle) - Math.sin(lat1) * Math.sin(lat2));
+        return new double[]{Math.toDegrees(lat2), Math.toDegrees(lon2)};
+    }
+}
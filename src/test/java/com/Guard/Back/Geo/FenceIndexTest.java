@@ -0,0 +1,71 @@
+package com.Guard.Back.Geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenceIndexTest {
+
+    @Test
+    @DisplayName("다각형 내부/외부 판정 (오목한 다각형 포함)")
+    void polygon_Contains() {
+        // ㄷ자 모양: 가운데 오른쪽이 파인 다각형
+        PolygonFence fence = new PolygonFence(
+                new double[]{37.00, 37.00, 37.01, 37.01, 37.03, 37.03},
+                new double[]{127.00, 127.03, 127.03, 127.01, 127.01, 127.00});
+
+        assertTrue(fence.contains(37.005, 127.02));
+        assertTrue(fence.contains(37.02, 127.005));
+        assertFalse(fence.contains(37.02, 127.02));   // 파인 부분
+        assertFalse(fence.contains(36.99, 127.005));  // 범위 밖
+    }
+
+    @Test
+    @DisplayName("다각형 경계 띠 분류 - 가장 가까운 변까지의 거리 기준")
+    void polygon_Classify() {
+        // 약 1.1km x 0.9km 사각형
+        PolygonFence fence = new PolygonFence(
+                new double[]{37.00, 37.00, 37.01, 37.01},
+                new double[]{127.00, 127.01, 127.01, 127.00});
+
+        // 남쪽 변에서 북쪽으로 약 11m, 남쪽으로 약 11m
+        assertEquals(11.1, fence.distanceToBoundary(37.0001, 127.005), 0.5);
+        assertEquals(FenceRegion.BOUNDARY, fence.classify(37.0001, 127.005, 20));
+        assertEquals(FenceRegion.BOUNDARY, fence.classify(36.9999, 127.005, 20));
+        assertEquals(FenceRegion.INSIDE, fence.classify(37.005, 127.005, 20));
+        assertEquals(FenceRegion.OUTSIDE, fence.classify(36.999, 127.005, 20));
+        assertEquals(FenceRegion.INSIDE, fence.classify(37.0001, 127.005, 0));
+    }
+
+    @Test
+    @DisplayName("지점 근처 격자의 구역만 후보로 반환하고, 포함하는 구역만 골라냄")
+    void index_ReturnsOnlyNearbyCandidates() {
+        List<FenceIndex.Entry<Long>> entries = new ArrayList<>();
+        // 서울 일대에 1km 간격으로 원형 구역 100개
+        for (int i = 0; i < 100; i++) {
+            entries.add(new FenceIndex.Entry<>((long) i,
+                    new CircleFence(37.40 + (i / 10) * 0.01, 127.00 + (i % 10) * 0.01, 100)));
+        }
+        FenceIndex<Long> index = new FenceIndex<>(entries);
+
+        List<FenceIndex.Entry<Long>> candidates = index.candidates(37.4500, 127.0500);
+        assertTrue(candidates.size() <= 4, "후보 수: " + candidates.size());
+        assertEquals(List.of(55L), index.containing(37.4500, 127.0500));
+        assertEquals(List.of(), index.containing(37.4550, 127.0550));
+    }
+
+    @Test
+    @DisplayName("아주 큰 구역은 격자와 관계없이 항상 후보로 검사")
+    void index_LargeFenceAlwaysCandidate() {
+        FenceIndex<String> index = new FenceIndex<>(List.of(
+                new FenceIndex.Entry<>("city", new CircleFence(37.5, 127.0, 20_000)),
+                new FenceIndex.Entry<>("home", new CircleFence(37.45, 127.13, 100))));
+
+        assertEquals(List.of("city"), index.containing(37.6, 127.1));
+        assertEquals(List.of("home", "city"), index.containing(37.45, 127.13));
+    }
+}
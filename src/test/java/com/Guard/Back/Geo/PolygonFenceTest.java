@@ -0,0 +1,64 @@
+package com.Guard.Back.Geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolygonFenceTest {
+
+    @Test
+    @DisplayName("사각형 - 안쪽 점은 내부, 바깥 점은 외부")
+    void contains_Square() {
+        PolygonFence fence = new PolygonFence(new double[] {37.0, 37.0, 37.01, 37.01}, new double[] {127.0, 127.01, 127.01, 127.0});
+
+        assertTrue(fence.contains(37.005, 127.005));
+        assertFalse(fence.contains(37.02, 127.005));
+    }
+
+    @Test
+    @DisplayName("닫힌 형식(첫 점을 마지막에 반복)은 마지막 점을 생략하고 받아들임")
+    void create_ClosedRing() {
+        PolygonFence fence = new PolygonFence(new double[] {37.0, 37.0, 37.01, 37.0}, new double[] {127.0, 127.01, 127.0, 127.0});
+
+        assertEquals(3, fence.size());
+    }
+
+    @Test
+    @DisplayName("잘못된 다각형 - 서로 다른 꼭짓점 3개 미만, NaN, 일직선, 자기 교차, 되돌아가는 변은 거부")
+    void create_RejectsInvalid() {
+        // 서로 다른 꼭짓점이 2개
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, 37.01, 37.0}, new double[] {127.0, 127.01, 127.0}));
+        // NaN
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, Double.NaN, 37.01}, new double[] {127.0, 127.01, 127.0}));
+        // 일직선
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, 37.01, 37.02}, new double[] {127.0, 127.01, 127.02}));
+        // 나비 모양 (두 변이 교차)
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, 37.02, 37.0, 37.01}, new double[] {127.0, 127.01, 127.01, 127.0}));
+        // 이웃한 두 변이 한 직선 위에서 겹침
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, 37.0, 37.0, 37.01}, new double[] {127.0, 127.02, 127.01, 127.0}));
+        // 같은 꼭짓점이 두 번 나옴
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolygonFence(new double[] {37.0, 37.0, 37.01, 37.0, 36.99}, new double[] {127.0, 127.01, 127.0, 127.0, 127.0}));
+    }
+
+    @Test
+    @DisplayName("저장 형식으로 변환 후 다시 읽으면 같은 꼭짓점")
+    void encode_RoundTrip() {
+        PolygonFence fence = new PolygonFence(new double[] {37.0, 37.0, 37.01}, new double[] {127.0, 127.01, 127.0});
+
+        PolygonFence parsed = PolygonFence.parse(fence.encode());
+
+        assertEquals(fence.size(), parsed.size());
+        for (int i = 0; i < fence.size(); i++) {
+            assertEquals(fence.latitude(i), parsed.latitude(i));
+            assertEquals(fence.longitude(i), parsed.longitude(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> PolygonFence.parse("37.0;127.0"));
+    }
+}
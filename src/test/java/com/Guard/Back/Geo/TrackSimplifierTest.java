@@ -0,0 +1,61 @@
+package com.Guard.Back.Geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackSimplifierTest {
+
+    private record Point(double lat, double lon) {}
+
+    private List<Point> simplify(List<Point> points, int maxPoints) {
+        return TrackSimplifier.simplify(points, Point::lat, Point::lon, maxPoints);
+    }
+
+    @Test
+    @DisplayName("점 개수가 maxPoints 이하이면 그대로 반환")
+    void simplify_ReturnsOriginal_WhenSmallEnough() {
+        List<Point> points = List.of(new Point(37.0, 127.0), new Point(37.1, 127.1), new Point(37.2, 127.2));
+
+        assertSame(points, simplify(points, 3));
+    }
+
+    @Test
+    @DisplayName("시작점, 끝점, 그리고 경로에서 가장 크게 꺾이는 점을 남김")
+    void simplify_KeepsEndpointsAndCorner() {
+        // 동쪽으로 10칸 이동 후 북쪽으로 10칸 이동하는 L자 경로
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            points.add(new Point(37.0, 127.0 + i * 0.001));
+        }
+        for (int i = 1; i <= 10; i++) {
+            points.add(new Point(37.0 + i * 0.001, 127.01));
+        }
+
+        List<Point> result = simplify(points, 3);
+
+        assertEquals(List.of(points.get(0), points.get(10), points.get(20)), result);
+    }
+
+    @Test
+    @DisplayName("결과는 maxPoints개를 넘지 않고 원래 순서를 유지")
+    void simplify_RespectsLimitAndOrder() {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new Point(37.0 + Math.sin(i / 10.0) * 0.01, 127.0 + i * 0.0001));
+        }
+
+        List<Point> result = simplify(points, 50);
+
+        assertEquals(50, result.size());
+        assertEquals(points.get(0), result.get(0));
+        assertEquals(points.get(999), result.get(49));
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(points.indexOf(result.get(i - 1)) < points.indexOf(result.get(i)));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Dto.AlertLogPage;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Repository.AlertLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertServiceTest {
+
+    @InjectMocks
+    private AlertService alertService;
+
+    @Mock
+    private AlertLogRepository alertLogRepository;
+    @Mock
+    private GuardianAccessCache guardianAccessCache;
+
+    private static AlertLog alert(long id, ZonedDateTime eventTime) {
+        return alert(id, EventType.GEOFENCE_EXIT, eventTime);
+    }
+
+    private static AlertLog alert(long id, EventType eventType, ZonedDateTime eventTime) {
+        return AlertLog.builder().id(id).eventType(eventType).message("알림").eventTime(eventTime).build();
+    }
+
+    @Test
+    @DisplayName("다음 페이지가 있으면 마지막 기록의 커서를 반환하고, 그 커서로 더 오래된 기록을 이어서 조회")
+    void getAlertLogs_KeysetCursor() {
+        // given: limit 2에 3건이 조회되면 다음 페이지가 있음
+        ZonedDateTime t = ZonedDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        when(alertLogRepository.findLatestPage(eq(2L), eq(0L), any()))
+                .thenReturn(List.of(alert(30, t), alert(20, t.minusMinutes(1)), alert(10, t.minusMinutes(2))));
+
+        // when
+        AlertLogPage first = alertService.getAlertLogs(2L, 1L, null, null, 2, null);
+
+        // then
+        assertEquals(List.of(30L, 20L), first.alerts().stream().map(a -> a.id()).toList());
+        assertNotNull(first.nextCursor());
+
+        alertService.getAlertLogs(2L, 1L, null, first.nextCursor(), 2, List.of(EventType.SOS));
+        verify(alertLogRepository).findPageBeforeByType(eq(2L), eq(EventType.SOS), eq(0L),
+                argThat(time -> time.toInstant().equals(t.minusMinutes(1).toInstant())), eq(20L), any());
+        verify(guardianAccessCache, times(2)).verify(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("마지막 페이지면 커서가 없음")
+    void getAlertLogs_LastPage() {
+        when(alertLogRepository.findLatestPage(eq(2L), eq(0L), any()))
+                .thenReturn(List.of(alert(10, ZonedDateTime.now())));
+
+        assertNull(alertService.getAlertLogs(2L, 1L, null, null, 50, null).nextCursor());
+    }
+
+    @Test
+    @DisplayName("limit 범위를 벗어나거나 커서가 올바르지 않으면 CustomException 발생")
+    void getAlertLogs_InvalidRequest() {
+        assertThrows(CustomException.class, () -> alertService.getAlertLogs(2L, 1L, null, null, 0, null));
+        assertThrows(CustomException.class, () -> alertService.getAlertLogs(2L, 1L, null, null, AlertService.MAX_PAGE_SIZE + 1, null));
+        assertThrows(CustomException.class, () -> alertService.getAlertLogs(2L, 1L, null, "not-a-cursor", 50, null));
+        assertThrows(CustomException.class, () -> alertService.getAlertLogs(2L, 1L, -1L, null, 50, null));
+        verifyNoInteractions(alertLogRepository);
+    }
+
+    @Test
+    @DisplayName("sinceId를 지정하면 그보다 새로운 기록만 조회")
+    void getAlertLogs_SinceId() {
+        alertService.getAlertLogs(2L, 1L, 42L, null, 50, null);
+
+        verify(alertLogRepository).findLatestPage(eq(2L), eq(42L), any());
+    }
+
+    @Test
+    @DisplayName("종류를 고르면 종류별 인덱스로 각각 조회하여 최신순으로 합치고, 한 페이지만 남김")
+    void getAlertLogs_TypesMergedNewestFirst() {
+        // given
+        ZonedDateTime t = ZonedDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        when(alertLogRepository.findLatestPageByType(eq(2L), eq(EventType.SOS), eq(0L), any()))
+                .thenReturn(List.of(alert(50, EventType.SOS, t), alert(20, EventType.SOS, t.minusMinutes(3))));
+        when(alertLogRepository.findLatestPageByType(eq(2L), eq(EventType.GEOFENCE_EXIT), eq(0L), any()))
+                .thenReturn(List.of(alert(40, t.minusMinutes(1)), alert(30, t.minusMinutes(2))));
+
+        // when
+        AlertLogPage page = alertService.getAlertLogs(2L, 1L, null, null, 2,
+                List.of(EventType.SOS, EventType.GEOFENCE_EXIT));
+
+        // then
+        assertEquals(List.of(50L, 40L), page.alerts().stream().map(a -> a.id()).toList());
+        assertNotNull(page.nextCursor());
+        verify(alertLogRepository, never()).findLatestPage(any(), any(), any());
+        verify(alertLogRepository, never()).findLatestPageByType(eq(2L), eq(EventType.GEOFENCE_ENTER), any(), any());
+    }
+
+    @Test
+    @DisplayName("모든 종류를 고르면 종류 조건 없이 (protected_user_id, event_time, id) 인덱스로 한 번에 조회")
+    void getAlertLogs_AllTypesUsesSingleQuery() {
+        alertService.getAlertLogs(2L, 1L, null, null, 50, List.of(EventType.values()));
+
+        verify(alertLogRepository).findLatestPage(eq(2L), eq(0L), any());
+        verify(alertLogRepository, never()).findLatestPageByType(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("조회 조건 검증 - 권한 확인이나 ETag 조회 없이 잘못된 조건을 거부")
+    void validateAlertRequest_RejectsBeforeAnyLookup() {
+        assertThrows(CustomException.class, () -> alertService.validateAlertRequest(null, null, 0));
+        assertThrows(CustomException.class, () -> alertService.validateAlertRequest(-1L, null, 50));
+        assertThrows(CustomException.class, () -> alertService.validateAlertRequest(null, "not-a-cursor", 50));
+        assertDoesNotThrow(() -> alertService.validateAlertRequest(10L, null, 50));
+        verifyNoInteractions(guardianAccessCache, alertLogRepository);
+    }
+}
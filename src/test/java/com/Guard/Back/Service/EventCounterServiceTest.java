@@ -0,0 +1,141 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.EventCounter;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Event.AlertRecordedEvent;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.EventCounterRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.Guard.Back.Repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventCounterServiceTest {
+
+    @Mock
+    private EventCounterRepository eventCounterRepository;
+    @Mock
+    private AlertLogRepository alertLogRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EventCounterService(eventCounterRepository, alertLogRepository, userRepository,
+                protectedUserRepository, transactionManager, new SimpleMeterRegistry(), 2, 30);
+    }
+
+    private void recordSos(LocalDate day) {
+        service.onAlertRecorded(new AlertRecordedEvent(1L, 1L, EventType.SOS, day.atTime(12, 0).atZone(ZoneId.of("Asia/Seoul"))));
+    }
+
+    private EventCounter counter(String name, long total) {
+        return EventCounter.builder().name(name).day(EventCounterService.TOTAL_DAY).total(total).updatedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    @DisplayName("모아 둔 증감분을 합쳐 한 번에 반영")
+    void flush_AddsSummedDeltas() {
+        // given
+        LocalDate day = EventCounterService.today();
+        recordSos(day);
+        recordSos(day);
+
+        // when
+        service.flush();
+        service.flush();
+
+        // then
+        verify(eventCounterRepository, times(1)).add(eq("alert.SOS"), eq(day), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("반영에 실패하면 증감분을 되돌려 다음 주기에 다시 반영")
+    void flush_RequeuesOnFailure() {
+        // given
+        LocalDate day = EventCounterService.today();
+        recordSos(day);
+        when(eventCounterRepository.add(eq("alert.SOS"), eq(day), anyLong(), any()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+
+        // when
+        service.flush();
+        recordSos(day);
+        service.flush();
+
+        // then: 실패한 1건과 새로 들어온 1건을 합쳐 다시 반영
+        verify(eventCounterRepository).add(eq("alert.SOS"), eq(day), eq(1L), any());
+        verify(eventCounterRepository).add(eq("alert.SOS"), eq(day), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("다른 서버가 lease를 가져갔으면 보정하지 않음")
+    void reconcile_SkipsWithoutLease() {
+        // given
+        when(eventCounterRepository.acquireLease(eq(EventCounterService.RECONCILE_LEASE), eq(EventCounterService.TOTAL_DAY), any(), any()))
+                .thenReturn(0);
+
+        // when
+        service.reconcile();
+
+        // then
+        verifyNoInteractions(userRepository, protectedUserRepository, alertLogRepository);
+        verify(eventCounterRepository, never()).set(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("보정 - 끝난 날의 알림 수만 덮어쓰고, 사용자 수는 같은 차이가 연속으로 관측될 때만 더함")
+    void reconcile_ClosedDaysAndStableDrift() {
+        // given: 원본은 보호자 10명, 카운터는 8명 (다른 서버의 반영 대기분일 수도 있음)
+        when(eventCounterRepository.acquireLease(eq(EventCounterService.RECONCILE_LEASE), eq(EventCounterService.TOTAL_DAY), any(), any()))
+                .thenReturn(1);
+        when(userRepository.count()).thenReturn(10L);
+        when(protectedUserRepository.count()).thenReturn(5L);
+        when(eventCounterRepository.findByNameAndDay(EventCounterService.GUARDIANS, EventCounterService.TOTAL_DAY))
+                .thenReturn(Optional.of(counter(EventCounterService.GUARDIANS, 8)));
+        when(eventCounterRepository.findByNameAndDay(EventCounterService.PROTECTED_USERS, EventCounterService.TOTAL_DAY))
+                .thenReturn(Optional.of(counter(EventCounterService.PROTECTED_USERS, 5)));
+        when(alertLogRepository.countByEventTypeBetween(any(), any())).thenReturn(List.of());
+        LocalDate today = EventCounterService.today();
+
+        // when: 첫 보정에서는 차이를 기록만 함
+        service.reconcile();
+
+        // then
+        verify(eventCounterRepository, never()).add(eq(EventCounterService.GUARDIANS), any(), anyLong(), any());
+        verify(eventCounterRepository).set(eq("alert.SOS"), eq(today.minusDays(1)), eq(0L), any());
+        verify(eventCounterRepository).set(eq("alert.SOS"), eq(today.minusDays(2)), eq(0L), any());
+        verify(eventCounterRepository, never()).set(any(), eq(today), anyLong(), any());
+
+        // when: 다음 보정에서도 같은 차이면 그만큼 더함
+        service.reconcile();
+
+        // then
+        verify(eventCounterRepository).add(eq(EventCounterService.GUARDIANS), eq(EventCounterService.TOTAL_DAY), eq(2L), any());
+        verify(eventCounterRepository, never()).add(eq(EventCounterService.PROTECTED_USERS), any(), anyLong(), any());
+    }
+}
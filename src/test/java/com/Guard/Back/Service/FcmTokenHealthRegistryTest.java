@@ -0,0 +1,162 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Repository.DeviceTokenRepository;
+import com.Guard.Back.Repository.UserRepository;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FcmTokenHealthRegistryTest {
+
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private DeviceTokenCache deviceTokenCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FcmTokenHealthRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new FcmTokenHealthRegistry(deviceTokenRepository, userRepository, deviceTokenCache,
+                transactionManager, new SimpleMeterRegistry(), 100, 10, 90);
+    }
+
+    private static DeviceTokenRepository.GuardianToken row(Long guardianId, String token) {
+        return new DeviceTokenRepository.GuardianToken() {
+            public Long getGuardianId() { return guardianId; }
+            public String getToken() { return token; }
+        };
+    }
+
+    private static FirebaseMessagingException fcmError(MessagingErrorCode code) {
+        FirebaseMessagingException e = mock(FirebaseMessagingException.class);
+        when(e.getMessagingErrorCode()).thenReturn(code);
+        return e;
+    }
+
+    @Test
+    @DisplayName("분류 - UNREGISTERED, SENDER_ID_MISMATCH만 죽은 토큰이고, INVALID_ARGUMENT는 토큰을 지우지 않는 요청 오류")
+    void classify_OnlyTokenErrorsAreDead() {
+        assertEquals(FcmTokenHealthRegistry.Failure.DEAD_TOKEN, FcmTokenHealthRegistry.classify(fcmError(MessagingErrorCode.UNREGISTERED)));
+        assertEquals(FcmTokenHealthRegistry.Failure.DEAD_TOKEN, FcmTokenHealthRegistry.classify(fcmError(MessagingErrorCode.SENDER_ID_MISMATCH)));
+        assertEquals(FcmTokenHealthRegistry.Failure.REJECTED, FcmTokenHealthRegistry.classify(fcmError(MessagingErrorCode.INVALID_ARGUMENT)));
+        assertEquals(FcmTokenHealthRegistry.Failure.RETRYABLE, FcmTokenHealthRegistry.classify(fcmError(MessagingErrorCode.UNAVAILABLE)));
+        assertEquals(FcmTokenHealthRegistry.Failure.RETRYABLE, FcmTokenHealthRegistry.classify(new IllegalStateException("network")));
+    }
+
+    @Test
+    @DisplayName("분류 - 멀티캐스트 요청 전체가 실패한 경우는 토큰 문제로 보지 않음")
+    void classify_RequestErrorIsNeverDead() {
+        FirebaseMessagingException error = fcmError(MessagingErrorCode.UNREGISTERED);
+
+        assertEquals(FcmTokenHealthRegistry.Failure.RETRYABLE,
+                FcmTokenHealthRegistry.classify(new FCMService.SendResult("a", null, error, true)));
+        assertEquals(FcmTokenHealthRegistry.Failure.DEAD_TOKEN,
+                FcmTokenHealthRegistry.classify(new FCMService.SendResult("a", null, error, false)));
+    }
+
+    @Test
+    @DisplayName("정리 - 죽은 것으로 표시한 뒤 다시 등록되지 않은 토큰만 지우고 주인의 캐시를 무효화")
+    void flush_DeletesTokensNotReRegistered() {
+        // given
+        registry.markDead("a");
+        assertTrue(registry.isDead("a"));
+        when(deviceTokenRepository.findGuardianIdsByTokens(any())).thenReturn(List.of(1L));
+        when(deviceTokenRepository.deleteByTokensSeenBefore(eq(List.of("a")), any(LocalDateTime.class))).thenReturn(1);
+
+        // when
+        registry.flush();
+        registry.flush();
+
+        // then
+        verify(deviceTokenRepository, times(1)).deleteByTokensSeenBefore(eq(List.of("a")), any(LocalDateTime.class));
+        verify(userRepository).clearFcmTokens(List.of("a"));
+        verify(deviceTokenCache).invalidateAll(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("정리 - 그 사이 다른 서버에서 다시 등록된 토큰(삭제 0건)은 예전 토큰 값도 지우지 않음")
+    void flush_KeepsReRegisteredToken() {
+        // given
+        registry.markDead("a");
+        when(deviceTokenRepository.findGuardianIdsByTokens(any())).thenReturn(List.of(1L));
+        when(deviceTokenRepository.deleteByTokensSeenBefore(eq(List.of("a")), any(LocalDateTime.class))).thenReturn(0);
+
+        // when
+        registry.flush();
+
+        // then
+        verify(userRepository, never()).clearFcmTokens(any());
+    }
+
+    @Test
+    @DisplayName("정리 - 실패하면 다음 주기에 다시 시도")
+    void flush_RequeuesOnFailure() {
+        // given
+        registry.markDead("a");
+        when(deviceTokenRepository.findGuardianIdsByTokens(any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of(1L));
+        when(deviceTokenRepository.deleteByTokensSeenBefore(eq(List.of("a")), any(LocalDateTime.class))).thenReturn(1);
+
+        // when
+        registry.flush();
+        registry.flush();
+
+        // then
+        verify(deviceTokenRepository, times(1)).deleteByTokensSeenBefore(eq(List.of("a")), any(LocalDateTime.class));
+        verify(deviceTokenCache).invalidateAll(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("다시 등록 - 이 서버에서 다시 등록된 토큰은 바로 정상으로 되돌리고 지우기도 취소")
+    void markHealthy_CancelsPendingClear() {
+        // given
+        registry.markDead("a");
+
+        // when
+        registry.markHealthy("a");
+        registry.flush();
+
+        // then
+        assertFalse(registry.isDead("a"));
+        verifyNoInteractions(deviceTokenRepository, userRepository, deviceTokenCache);
+    }
+
+    @Test
+    @DisplayName("오래된 토큰 정리 - 다시 등록되지 않은 토큰을 지우고 주인의 캐시를 무효화")
+    void pruneStaleTokens_DeletesAndInvalidates() {
+        // given
+        when(deviceTokenRepository.findStaleTokens(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(row(1L, "a"), row(2L, "b")))
+                .thenReturn(List.of());
+        when(deviceTokenRepository.deleteByTokensSeenBefore(eq(List.of("a", "b")), any(LocalDateTime.class))).thenReturn(2);
+
+        // when
+        registry.pruneStaleTokens();
+
+        // then
+        verify(userRepository).clearFcmTokens(List.of("a", "b"));
+        verify(deviceTokenCache).invalidateAll(List.of(1L, 2L));
+        verify(deviceTokenRepository, times(2)).findStaleTokens(any(LocalDateTime.class), anyInt());
+    }
+}
@@ -0,0 +1,218 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Event.LocationsRecordedEvent;
+import com.Guard.Back.Geo.CircleFence;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.GeofenceZoneRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeofenceEvaluationServiceTest {
+
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
+    @Mock
+    private AlertLogRepository alertLogRepository;
+    @Mock
+    private GeofenceZoneRepository geofenceZoneRepository;
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
+    @Mock
+    private GeofenceZoneRegistry geofenceZoneRegistry;
+    @Mock
+    private GeofenceTransitionDebouncer transitionDebouncer;
+    @Mock
+    private GeofenceSnapshotCache geofenceSnapshotCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GeofenceEvaluationService service;
+
+    /*안심 구역 안에 있던 피보호자가 반경 밖 위치를 보내고, 이탈이 확정되는 상황.*/
+    private final List<LocationsRecordedEvent.Point> exitPoint =
+            List.of(new LocationsRecordedEvent.Point(37.51, 127.0, LocalDateTime.of(2024, 5, 1, 9, 0)));
+
+    @BeforeEach
+    void setUp() {
+        // worker 1개, 큐 용량 1, 최대 2번 시도
+        meterRegistry = new SimpleMeterRegistry();
+        service = new GeofenceEvaluationService(protectedUserRepository, alertLogRepository, geofenceZoneRepository,
+                notificationOutboxService, geofenceZoneRegistry, transitionDebouncer, geofenceSnapshotCache,
+                eventPublisher, transactionManager, meterRegistry, 1, 1, 2, 1);
+
+        ProtectedUser protectedUser = mock(ProtectedUser.class);
+        when(protectedUser.getId()).thenReturn(1L);
+        when(protectedUserRepository.getReferenceById(1L)).thenReturn(protectedUser);
+        when(geofenceSnapshotCache.get(1L)).thenReturn(
+                new GeofenceSnapshotCache.GeofenceSnapshot(new CircleFence(37.5, 127.0, 100), true));
+        when(transitionDebouncer.observe(eq(1L), eq(GeofenceTransitionDebouncer.HOME_FENCE_ID), any(), eq(true),
+                anyDouble(), anyDouble(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("이탈 확정 - 상태를 바꾼 서버만 기록을 저장하고 알림을 대기열에 넣음")
+    void evaluate_ExitRecordedOnce() {
+        // given
+        when(protectedUserRepository.updateInsideGeofence(1L, false)).thenReturn(1);
+        when(alertLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // when
+        service.evaluate(1L, exitPoint);
+
+        // then
+        ArgumentCaptor<AlertLog> alert = ArgumentCaptor.forClass(AlertLog.class);
+        verify(alertLogRepository).save(alert.capture());
+        assertEquals(EventType.GEOFENCE_EXIT, alert.getValue().getEventType());
+        verify(notificationOutboxService).enqueue(eq(alert.getValue()), anyString(), anyString());
+        verify(geofenceSnapshotCache).markInside(1L, false);
+    }
+
+    @Test
+    @DisplayName("이탈 확정 - 다른 서버가 이미 같은 상태로 바꿨으면(갱신 0건) 기록과 알림을 생략하고 캐시만 맞춤")
+    void evaluate_AlreadyUpdatedElsewhere() {
+        // given
+        when(protectedUserRepository.updateInsideGeofence(1L, false)).thenReturn(0);
+
+        // when
+        service.evaluate(1L, exitPoint);
+
+        // then
+        verify(geofenceSnapshotCache).markInside(1L, false);
+        verify(alertLogRepository, never()).save(any());
+        verifyNoInteractions(notificationOutboxService);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 커밋 스레드를 막지 않고 미뤘다가, 자리가 나면 다시 적재하여 판정")
+    void onLocationsRecorded_DefersWhenQueueFull() throws InterruptedException {
+        // given: worker가 첫 작업을 처리하는 동안 멈춰 있고, 큐(용량 1)는 두 번째 작업으로 가득 찬 상황
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(protectedUserRepository.updateInsideGeofence(1L, false)).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return 0;
+        });
+        LocationsRecordedEvent event = new LocationsRecordedEvent(1L, exitPoint);
+        service.onLocationsRecorded(event);
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        service.onLocationsRecorded(event);
+
+        // when
+        long startedAt = System.nanoTime();
+        service.onLocationsRecorded(event);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        // then: 기다리지 않고 미룸
+        assertTrue(waitedMillis < 1_000);
+        assertEquals(1, meterRegistry.counter("geofence.evaluation.deferred").count());
+
+        release.countDown();
+        verify(protectedUserRepository, timeout(2_000).times(2)).updateInsideGeofence(1L, false);
+        service.requeueDeferred();
+        verify(protectedUserRepository, timeout(2_000).times(3)).updateInsideGeofence(1L, false);
+    }
+
+    @Test
+    @DisplayName("미뤄 둔 위치가 있는 동안에는 큐에 자리가 나도 나중 위치를 대기 목록에 합쳐 순서를 지킴")
+    void onLocationsRecorded_MergesBehindDeferred() throws InterruptedException {
+        // given: 세 번째 묶음이 미뤄진 뒤 worker가 큐를 모두 비운 상황
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(protectedUserRepository.updateInsideGeofence(1L, false)).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return 0;
+        });
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, pointAt(0)));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, pointAt(1)));
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, pointAt(2)));
+        release.countDown();
+        verify(protectedUserRepository, timeout(2_000).times(2)).updateInsideGeofence(1L, false);
+
+        // when
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, pointAt(3)));
+
+        // then: 네 번째 묶음은 미뤄진 세 번째 묶음 뒤에 합쳐지고, 다시 적재될 때 함께 순서대로 판정됨
+        verify(protectedUserRepository, after(200).times(2)).updateInsideGeofence(1L, false);
+        assertEquals(1, meterRegistry.counter("geofence.evaluation.deferred").count());
+        service.requeueDeferred();
+        verify(protectedUserRepository, timeout(2_000).times(4)).updateInsideGeofence(1L, false);
+        InOrder inOrder = inOrder(transitionDebouncer);
+        for (int minutes = 0; minutes <= 3; minutes++) {
+            inOrder.verify(transitionDebouncer).observe(eq(1L), eq(GeofenceTransitionDebouncer.HOME_FENCE_ID), any(),
+                    eq(true), anyDouble(), anyDouble(), eq(pointAt(minutes).get(0).recordedAt()));
+        }
+    }
+
+    private static List<LocationsRecordedEvent.Point> pointAt(int minutes) {
+        return List.of(new LocationsRecordedEvent.Point(37.51, 127.0, LocalDateTime.of(2024, 5, 1, 9, minutes)));
+    }
+
+    @Test
+    @DisplayName("판정에 실패하면 같은 worker에서 다시 시도")
+    void process_RetriesFailedTask() {
+        // given
+        when(protectedUserRepository.updateInsideGeofence(1L, false))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(0);
+
+        // when
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, exitPoint));
+
+        // then
+        verify(protectedUserRepository, timeout(2_000).times(2)).updateInsideGeofence(1L, false);
+        verify(geofenceSnapshotCache, timeout(2_000)).markInside(1L, false);
+        assertEquals(1, meterRegistry.counter("geofence.evaluation.retried").count());
+        assertEquals(0, meterRegistry.counter("geofence.evaluation.failed").count());
+    }
+
+    @Test
+    @DisplayName("재시도까지 모두 실패하면 실패한 작업으로 집계")
+    void process_GivesUpAfterMaxAttempts() throws InterruptedException {
+        // given
+        when(protectedUserRepository.updateInsideGeofence(1L, false)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // when
+        service.onLocationsRecorded(new LocationsRecordedEvent(1L, exitPoint));
+        service.shutdown();
+
+        // then
+        verify(protectedUserRepository, times(2)).updateInsideGeofence(1L, false);
+        assertEquals(1, meterRegistry.counter("geofence.evaluation.failed").count());
+    }
+}
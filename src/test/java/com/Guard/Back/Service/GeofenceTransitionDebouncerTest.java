@@ -0,0 +1,55 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Geo.CircleFence;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeofenceTransitionDebouncerTest {
+
+    // 반경 100m, 경계 띠 ±20m
+    private final CircleFence fence = new CircleFence(37.45, 127.13, 100);
+    private final GeofenceTransitionDebouncer debouncer = new GeofenceTransitionDebouncer(20, 3, 60);
+    private final LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    /*중심에서 북쪽으로 meters만큼 떨어진 지점의 위도.*/
+    private double north(double meters) {
+        return 37.45 + meters / 111_195.0;
+    }
+
+    @Test
+    @DisplayName("경계 띠 안에서 흔들리는 위치는 상태 변화를 일으키지 않음")
+    void jitterInsideBand_NoTransition() {
+        for (int i = 0; i < 20; i++) {
+            double meters = i % 2 == 0 ? 95 : 115;
+            assertFalse(debouncer.observe(1L, GeofenceTransitionDebouncer.HOME_FENCE_ID, fence, true,
+                    north(meters), 127.13, start.plusSeconds(i * 5)));
+        }
+    }
+
+    @Test
+    @DisplayName("바깥 위치가 연속 3번 들어와야 이탈을 확정하고, 중간에 안쪽 위치가 오면 처음부터 다시 셈")
+    void exit_ConfirmedAfterConsecutivePoints() {
+        long home = GeofenceTransitionDebouncer.HOME_FENCE_ID;
+        assertFalse(debouncer.observe(1L, home, fence, true, north(200), 127.13, start));
+        assertFalse(debouncer.observe(1L, home, fence, true, north(200), 127.13, start.plusSeconds(5)));
+        assertFalse(debouncer.observe(1L, home, fence, true, north(10), 127.13, start.plusSeconds(10)));
+
+        assertFalse(debouncer.observe(1L, home, fence, true, north(200), 127.13, start.plusSeconds(15)));
+        assertFalse(debouncer.observe(1L, home, fence, true, north(200), 127.13, start.plusSeconds(20)));
+        assertTrue(debouncer.observe(1L, home, fence, true, north(200), 127.13, start.plusSeconds(25)));
+        assertTrue(debouncer.pendingFenceIds(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("위치가 드물게 들어와도 반대쪽에 confirm-seconds 이상 머물면 두 번째 위치에서 확정")
+    void enter_ConfirmedAfterDuration() {
+        assertFalse(debouncer.observe(1L, 7L, fence, false, north(10), 127.13, start));
+        assertEquals(Set.of(7L), debouncer.pendingFenceIds(1L));
+        assertTrue(debouncer.observe(1L, 7L, fence, false, north(10), 127.13, start.plusSeconds(60)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Event.RelationshipChangedEvent;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.Guard.Back.Repository.RelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuardianAccessCacheTest {
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
+
+    private GuardianAccessCache guardianAccessCache;
+
+    @BeforeEach
+    void setUp() {
+        guardianAccessCache = new GuardianAccessCache(relationshipRepository, protectedUserRepository, 100, 60);
+    }
+
+    @Test
+    @DisplayName("권한 확인 - 보호자의 관계 목록은 한 번만 조회")
+    void verify_LoadsRelationshipsOnce() {
+        // given
+        when(relationshipRepository.findProtectedUserIdsByGuardianId(1L)).thenReturn(List.of(2L, 3L));
+
+        // when
+        guardianAccessCache.verify(1L, 2L);
+        guardianAccessCache.verify(1L, 3L);
+        guardianAccessCache.verify(1L, 2L);
+
+        // then
+        verify(relationshipRepository, times(1)).findProtectedUserIdsByGuardianId(1L);
+        verifyNoInteractions(protectedUserRepository);
+    }
+
+    @Test
+    @DisplayName("권한 확인 실패 - 관계가 없으면 UNAUTHORIZED_ACCESS, 피보호자가 없으면 PROTECTED_USER_NOT_FOUND")
+    void verify_Fail() {
+        // given
+        when(relationshipRepository.findProtectedUserIdsByGuardianId(1L)).thenReturn(List.of(2L));
+        when(protectedUserRepository.existsById(3L)).thenReturn(true);
+        when(protectedUserRepository.existsById(4L)).thenReturn(false);
+
+        // when & then
+        CustomException noRelationship = assertThrows(CustomException.class, () -> guardianAccessCache.verify(1L, 3L));
+        CustomException notFound = assertThrows(CustomException.class, () -> guardianAccessCache.verify(1L, 4L));
+        assertEquals(ErrorCode.UNAUTHORIZED_ACCESS, noRelationship.getErrorCode());
+        assertEquals(ErrorCode.PROTECTED_USER_NOT_FOUND, notFound.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("관계 변경 이벤트 - 해당 보호자의 캐시를 무효화하여 새 관계가 바로 반영")
+    void onRelationshipChanged_Invalidates() {
+        // given
+        when(relationshipRepository.findProtectedUserIdsByGuardianId(1L)).thenReturn(List.of(2L), List.of(2L, 3L));
+        assertFalse(guardianAccessCache.canAccess(1L, 3L));
+
+        // when
+        guardianAccessCache.onRelationshipChanged(new RelationshipChangedEvent(1L, 3L, true));
+
+        // then
+        assertTrue(guardianAccessCache.canAccess(1L, 3L));
+        verify(relationshipRepository, times(2)).findProtectedUserIdsByGuardianId(1L);
+    }
+}
@@ -0,0 +1,197 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.AlertLog;
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Domain.LocationLog;
+import com.Guard.Back.Repository.AlertLogRepository;
+import com.Guard.Back.Repository.LocationLogRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryExportServiceTest {
+
+    @Mock
+    private AlertLogRepository alertLogRepository;
+    @Mock
+    private LocationLogRepository locationLogRepository;
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private HistoryExportService service;
+
+    private final LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2024, 5, 2, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        service = new HistoryExportService(alertLogRepository, locationLogRepository, protectedUserRepository,
+                entityManager, objectMapper, transactionManager);
+    }
+
+    private LocationLog location(long id, double latitude, double longitude) {
+        return LocationLog.builder().id(id).latitude(latitude).longitude(longitude)
+                .recordedAt(from.plusMinutes(id)).build();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV 칸은 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고, 따옴표는 두 번 씀")
+    void csvText_Quotes() {
+        assertEquals("", HistoryExportService.csvText(null));
+        assertEquals("안심 구역", HistoryExportService.csvText("안심 구역"));
+        assertEquals("\"집, 학교\"", HistoryExportService.csvText("집, 학교"));
+        assertEquals("\"\"\"SOS\"\" 호출\"", HistoryExportService.csvText("\"SOS\" 호출"));
+        assertEquals("\"첫 줄\n둘째 줄\"", HistoryExportService.csvText("첫 줄\n둘째 줄"));
+        assertEquals("\"첫 줄\r\n둘째 줄\"", HistoryExportService.csvText("첫 줄\r\n둘째 줄"));
+    }
+
+    @Test
+    @DisplayName("수식으로 해석될 수 있는 CSV 칸은 앞에 작은따옴표를 붙임")
+    void csvText_EscapesFormula() {
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\"", HistoryExportService.csvText("=HYPERLINK(\"x\")"));
+        assertEquals("'+1", HistoryExportService.csvText("+1"));
+        assertEquals("'-1", HistoryExportService.csvText("-1"));
+        assertEquals("'@SUM(A1)", HistoryExportService.csvText("@SUM(A1)"));
+        assertEquals("'\t=1", HistoryExportService.csvText("\t=1"));
+        assertEquals("\"'\r=1\"", HistoryExportService.csvText("\r=1"));
+        assertEquals("1+1", HistoryExportService.csvText("1+1"));
+    }
+
+    @Test
+    @DisplayName("CSV로 내보내면 헤더 다음에 기록을 한 줄씩 쓰고, 쓴 엔티티는 분리")
+    void exportLocations_Csv() throws IOException {
+        // given
+        LocationLog first = location(1, 37.5, 127.0);
+        LocationLog second = location(2, 37.6, 127.1);
+        when(locationLogRepository.streamByProtectedUserId(1L, from, to)).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = service.exportLocations(1L, from, to, HistoryExportService.Format.CSV, false, out);
+
+        // then
+        assertEquals(2, count);
+        assertEquals("id,latitude,longitude,recordedAt\n"
+                        + "1,37.5,127.0,2024-05-01T00:01\n"
+                        + "2,37.6,127.1,2024-05-01T00:02\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @DisplayName("NDJSON으로 내보내면 한 줄에 JSON 객체 하나씩 씀")
+    void exportAlerts_Ndjson() throws IOException {
+        // given
+        ZonedDateTime eventTime = ZonedDateTime.of(from, ZoneId.of("Asia/Seoul"));
+        AlertLog sos = AlertLog.builder().id(10L).eventType(EventType.SOS).message("SOS, \"긴급\"")
+                .eventTime(eventTime).latitude(37.5).longitude(127.0).build();
+        AlertLog noLocation = AlertLog.builder().id(11L).eventType(EventType.SOS).message("위치 없음")
+                .eventTime(eventTime.plusMinutes(1)).build();
+        when(alertLogRepository.streamByProtectedUserId(eq(1L), any(), any())).thenReturn(Stream.of(sos, noLocation));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = service.exportAlerts(1L, eventTime, eventTime.plusDays(1), HistoryExportService.Format.NDJSON,
+                false, out);
+
+        // then
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(10, first.get("id").asLong());
+        assertEquals("SOS", first.get("eventType").asText());
+        assertEquals("SOS, \"긴급\"", first.get("message").asText());
+        assertEquals(37.5, first.get("latitude").asDouble());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(11, second.get("id").asLong());
+        assertTrue(second.get("latitude").isNull());
+    }
+
+    @Test
+    @DisplayName("gzip으로 내보내면 압축을 풀었을 때 같은 내용")
+    void exportLocations_Gzip() throws IOException {
+        // given
+        when(locationLogRepository.streamByProtectedUserId(1L, from, to))
+                .thenReturn(Stream.of(location(1, 37.5, 127.0)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long count = service.exportLocations(1L, from, to, HistoryExportService.Format.CSV, true, out);
+
+        // then
+        assertEquals(1, count);
+        assertEquals("id,latitude,longitude,recordedAt\n1,37.5,127.0,2024-05-01T00:01\n", gunzip(out.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("기록을 읽는 도중 DB 오류가 나면 중단 표시를 마지막 줄로 남기고 예외를 던짐")
+    void exportLocations_AbortsOnReadFailure() throws IOException {
+        // given
+        Stream<LocationLog> failing = Stream.of(1L, 2L).map(id -> {
+            if (id == 2L) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return location(id, 37.5, 127.0);
+        });
+        when(locationLogRepository.streamByProtectedUserId(1L, from, to)).thenReturn(failing);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when & then
+        assertThrows(QueryTimeoutException.class,
+                () -> service.exportLocations(1L, from, to, HistoryExportService.Format.NDJSON, true, out));
+        String[] lines = gunzip(out.toByteArray()).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readTree(lines[0]).get("id").asLong());
+        JsonNode trailer = objectMapper.readTree(lines[1]);
+        assertEquals(HistoryExportService.EXPORT_ABORTED, trailer.get("error").asText());
+        assertEquals(1, trailer.get("written").asLong());
+    }
+
+    @Test
+    @DisplayName("CSV 중단 표시는 쓴 기록 수를 담은 한 줄")
+    void abortedTrailer_Csv() {
+        assertEquals("#EXPORT_ABORTED,42", HistoryExportService.abortedTrailer(HistoryExportService.Format.CSV, 42));
+    }
+}
@@ -0,0 +1,114 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Dto.LocationRequest;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationIngestServiceTest {
+
+    @Mock
+    private LocationService locationService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocationIngestService service;
+
+    private final List<LocationRequest> requests = List.of(new LocationRequest(37.5, 127.0, LocalDateTime.now()));
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LocationIngestService(locationService, meterRegistry, true, 1, 1000, 500, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    private double dropped() {
+        return meterRegistry.counter("location.ingest.dropped").count();
+    }
+
+    @Test
+    @DisplayName("일시적인 오류로 저장에 실패하면 다시 시도하여 저장")
+    void enqueue_RetriesTransientFailure() {
+        // given
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(locationService).saveLocations(eq(1L), anyList());
+
+        // when
+        assertTrue(service.enqueue(1L, requests));
+
+        // then
+        verify(locationService, timeout(2_000).times(2)).saveLocations(eq(1L), anyList());
+        assertEquals(1, meterRegistry.counter("location.ingest.retried").count());
+        assertEquals(0, dropped());
+    }
+
+    @Test
+    @DisplayName("재시도를 모두 실패하면 버린 위치 수를 집계")
+    void enqueue_DropsAfterMaxAttempts() throws InterruptedException {
+        // given
+        doThrow(new QueryTimeoutException("timeout")).when(locationService).saveLocations(eq(1L), anyList());
+
+        // when
+        assertTrue(service.enqueue(1L, requests));
+        service.shutdown();
+
+        // then
+        verify(locationService, times(3)).saveLocations(eq(1L), anyList());
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    @DisplayName("요청 자체가 잘못된 경우(탈퇴한 피보호자 등)는 다시 시도하지 않고 버림")
+    void enqueue_DoesNotRetryRequestErrors() throws InterruptedException {
+        // given
+        doThrow(new CustomException(ErrorCode.PROTECTED_USER_NOT_FOUND)).when(locationService).saveLocations(eq(1L), anyList());
+
+        // when
+        assertTrue(service.enqueue(1L, requests));
+        service.shutdown();
+
+        // then
+        verify(locationService, times(1)).saveLocations(eq(1L), anyList());
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    @DisplayName("큐 하나의 용량이 일괄 업로드 최대 개수보다 작으면 시작할 때 거절")
+    void constructor_RejectsPartitionSmallerThanMaxBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LocationIngestService(locationService, meterRegistry, true, 4, 1000, 500, 3, 1));
+    }
+
+    @Test
+    @DisplayName("종료를 시작한 뒤의 적재 요청은 거절하여, 응답한 위치가 저장되지 않고 버려지지 않음")
+    void enqueue_RejectsAfterShutdown() throws InterruptedException {
+        // given
+        service.shutdown();
+
+        // when
+        boolean accepted = service.enqueue(1L, requests);
+
+        // then
+        assertFalse(accepted);
+        verify(locationService, never()).saveLocations(anyLong(), anyList());
+    }
+}
@@ -0,0 +1,107 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Repository.LocationDwellRepository;
+import com.Guard.Back.Repository.LocationHourlySummaryRepository;
+import com.Guard.Back.Repository.LocationLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationRetentionServiceTest {
+
+    @Mock
+    private LocationLogRepository locationLogRepository;
+    @Mock
+    private LocationHourlySummaryRepository locationHourlySummaryRepository;
+    @Mock
+    private LocationDwellRepository locationDwellRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocationRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LocationRetentionService(locationLogRepository, locationHourlySummaryRepository,
+                locationDwellRepository, transactionManager, new SimpleMeterRegistry(), true, 90, 2, 0);
+    }
+
+    @Test
+    @DisplayName("보존 정리 - 정리할 기록이 없으면 청크 조회를 하지 않음")
+    void purgeExpired_NothingExpired() {
+        // given
+        when(locationLogRepository.findMaxExpiredId(any())).thenReturn(null);
+
+        // when
+        service.purgeExpired();
+
+        // then
+        verify(locationLogRepository, never()).findExpiredIds(anyLong(), anyLong(), any(), anyInt());
+        verify(locationLogRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    @DisplayName("보존 정리 - 상한 ID가 담긴 청크까지만 처리하고, 그 뒤를 훑는 빈 조회를 하지 않음")
+    void purgeExpired_StopsAtUpperBound() {
+        // given
+        when(locationLogRepository.findMaxExpiredId(any())).thenReturn(7L);
+        when(locationLogRepository.findExpiredIds(eq(0L), eq(7L), any(), eq(2))).thenReturn(List.of(3L, 5L));
+        when(locationLogRepository.findExpiredIds(eq(5L), eq(7L), any(), eq(2))).thenReturn(List.of(7L));
+        when(locationLogRepository.deleteByIds(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+
+        // when
+        service.purgeExpired();
+
+        // then
+        verify(locationHourlySummaryRepository).rollUp(List.of(3L, 5L));
+        verify(locationHourlySummaryRepository).rollUp(List.of(7L));
+        verify(locationLogRepository).deleteByIds(List.of(7L));
+        verify(locationLogRepository, times(2)).findExpiredIds(anyLong(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("예약 실행 - 정리는 전용 스레드에서 실행하고 스케줄러 스레드는 바로 반환")
+    void runScheduled_RunsOnDedicatedThread() {
+        // given
+        AtomicReference<String> purgeThread = new AtomicReference<>();
+        when(locationLogRepository.findMaxExpiredId(any())).thenAnswer(inv -> {
+            purgeThread.set(Thread.currentThread().getName());
+            return null;
+        });
+
+        // when
+        service.runScheduled();
+
+        // then
+        verify(locationDwellRepository, timeout(1000)).deleteChunkEndedBefore(any(), eq(2));
+        assertEquals("location-retention", purgeThread.get());
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("탈퇴 정리 - 청크 크기보다 적게 삭제될 때까지 반복")
+    void purgeProtectedUser_DeletesInChunks() {
+        // given
+        when(locationLogRepository.deleteChunkByProtectedUserId(1L, 2)).thenReturn(2, 2, 1);
+
+        // when
+        long deleted = service.purgeProtectedUser(1L);
+
+        // then
+        assertEquals(5, deleted);
+        verify(locationLogRepository, times(3)).deleteChunkByProtectedUserId(1L, 2);
+    }
+}
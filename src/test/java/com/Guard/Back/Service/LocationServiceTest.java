@@ -1,29 +1,34 @@
 package com.Guard.Back.Service;
 
+import com.Guard.Back.Codec.LocationPacketCodec;
+import com.Guard.Back.Domain.LocationDwell;
 import com.Guard.Back.Domain.LocationLog;
-import com.Guard.Back.Domain.ProtectedUser;
-import com.Guard.Back.Domain.User;
+import com.Guard.Back.Dto.LocationHistoryResponse;
 import com.Guard.Back.Dto.LocationResponse;
 import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Dto.LocationRequest;
+import com.Guard.Back.Repository.CurrentLocationRepository;
+import com.Guard.Back.Repository.LocationDwellRepository;
 import com.Guard.Back.Repository.LocationLogRepository;
 import com.Guard.Back.Repository.ProtectedUserRepository;
-import com.Guard.Back.Repository.RelationshipRepository;
-import com.Guard.Back.Repository.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import com.Guard.Back.Domain.OAuthProvider;
-
 @ExtendWith(MockitoExtension.class)
 class LocationServiceTest {
 
@@ -31,26 +36,27 @@ class LocationServiceTest {
     private LocationService locationService;
 
     @Mock
-    private UserRepository userRepository;
-    @Mock
-    private ProtectedUserRepository protectedUserRepository;
+    private GuardianAccessCache guardianAccessCache;
     @Mock
-    private RelationshipRepository relationshipRepository;
+    private CurrentLocationCache currentLocationCache;
     @Mock
     private LocationLogRepository locationLogRepository;
+    @Mock
+    private LocationDwellRepository locationDwellRepository;
+    @Mock
+    private GeofenceSnapshotCache geofenceSnapshotCache;
+    @Mock
+    private CurrentLocationRepository currentLocationRepository;
+    @Mock
+    private StationaryPointFilter stationaryPointFilter;
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
 
     @Test
     @DisplayName("위치 조회 성공 - 보호자와 피보호자가 정상적으로 연결된 경우")
     void getLatestLocation_Success() {
         // given
-        User guardian = new User(1L, "guardian@test.com", "보호자", "profile.jpg", OAuthProvider.KAKAO, "g1", "fcmToken1");
-        ProtectedUser protectedUser = new ProtectedUser(2L, "p1", "code", 37.5, 127.0, 500, true);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(guardian));
-        when(protectedUserRepository.findById(2L)).thenReturn(Optional.of(protectedUser));
-        when(relationshipRepository.existsByGuardianAndProtectedUser(guardian, protectedUser)).thenReturn(true);
-        LocationLog fakeLog = LocationLog.builder().latitude(37.5).longitude(127.0).recordedAt(LocalDateTime.now()).build();
-        when(locationLogRepository.findTopByProtectedUserOrderByIdDesc(protectedUser)).thenReturn(Optional.of(fakeLog));
+        when(currentLocationCache.get(2L)).thenReturn(new LocationResponse(37.5, 127.0, LocalDateTime.now()));
 
         // when
         LocationResponse response = locationService.getLatestLocation(2L, 1L);
@@ -58,24 +64,128 @@ class LocationServiceTest {
         // then
         assertNotNull(response);
         assertEquals(37.5, response.latitude());
-        verify(relationshipRepository, times(1)).existsByGuardianAndProtectedUser(guardian, protectedUser);
+        verify(guardianAccessCache, times(1)).verify(1L, 2L);
     }
 
     @Test
     @DisplayName("위치 조회 실패 - 관계가 없는 경우 CustomException 발생")
     void getLatestLocation_Fail_NoRelationship() {
         // given
-        User guardian = new User(1L, "guardian@test.com", "보호자", "profile.jpg", OAuthProvider.KAKAO, "g1", "fcmToken1");
-        ProtectedUser protectedUser = new ProtectedUser(2L, "p1", "code", 37.5, 127.0, 500, true);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(guardian));
-        when(protectedUserRepository.findById(2L)).thenReturn(Optional.of(protectedUser));
-        when(relationshipRepository.existsByGuardianAndProtectedUser(guardian, protectedUser)).thenReturn(false);
+        doThrow(new CustomException(ErrorCode.UNAUTHORIZED_ACCESS)).when(guardianAccessCache).verify(1L, 2L);
 
         // when & then
         assertThrows(CustomException.class, () -> {
             locationService.getLatestLocation(2L, 1L);
         });
-        verify(locationLogRepository, never()).findTopByProtectedUserOrderByIdDesc(any());
+        verify(currentLocationCache, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("위치 기록 조회 - 페이지 구간에서 시작한 체류 구간을 함께 반환")
+    void getLocationHistory_IncludesDwells() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        LocationLog log = LocationLog.builder().id(1L).latitude(37.5).longitude(127.0).recordedAt(from.plusHours(9)).build();
+        when(locationLogRepository.findHistoryPage(eq(2L), eq(from), eq(to), eq(from), eq(0L), any())).thenReturn(List.of(log));
+        when(locationDwellRepository.findStartedBetween(2L, from, to)).thenReturn(List.of(LocationDwell.builder()
+                .latitude(37.5).longitude(127.0).startedAt(from.plusHours(9)).endedAt(from.plusHours(11)).pointCount(40).build()));
+
+        // when
+        LocationHistoryResponse response = locationService.getLocationHistory(2L, 1L, from, to, null, 100, null);
+
+        // then
+        assertEquals(1, response.points().size());
+        assertEquals(1, response.dwells().size());
+        assertEquals(40, response.dwells().get(0).pointCount());
+        assertNull(response.nextCursor());
+    }
+
+    @Test
+    @DisplayName("위치 기록 단순화 - 페이지가 아닌 기간 전체의 경로를 maxPoints개 이하로 단순화하고 커서는 반환하지 않음")
+    void getLocationHistory_SimplifiesWholeRange() {
+        // given: 직선 위의 위치 100개
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        List<LocationLog> track = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            track.add(LocationLog.builder().id((long) i + 1).latitude(37.5 + i * 0.0001).longitude(127.0)
+                    .recordedAt(from.plusMinutes(i)).build());
+        }
+        when(locationLogRepository.findHistoryPage(eq(2L), eq(from), eq(to), eq(from), eq(0L), any())).thenReturn(track);
+
+        // when: limit(10)보다 많은 위치도 한 번에 단순화
+        LocationHistoryResponse response = locationService.getLocationHistory(2L, 1L, from, to, null, 10, 5);
+
+        // then
+        assertTrue(response.points().size() <= 5);
+        assertEquals(from, response.points().get(0).recordedAt());
+        assertEquals(from.plusMinutes(99), response.points().get(response.points().size() - 1).recordedAt());
+        assertNull(response.nextCursor());
+        verify(locationDwellRepository).findStartedBetween(2L, from, to);
+    }
+
+    @Test
+    @DisplayName("위치 기록 단순화 실패 - 커서와 함께 maxPoints를 지정하면 INVALID_HISTORY_REQUEST")
+    void getLocationHistory_Fail_MaxPointsWithCursor() {
+        // when
+        CustomException exception = assertThrows(CustomException.class, () -> locationService.getLocationHistory(
+                2L, 1L, null, null, "cursor", 100, 50));
+
+        // then
+        assertEquals(ErrorCode.INVALID_HISTORY_REQUEST, exception.getErrorCode());
+        verifyNoInteractions(locationLogRepository);
+    }
+
+    @Test
+    @DisplayName("바이너리 업로드 실패 - 위치 개수가 MAX_BATCH_SIZE를 넘으면 INVALID_LOCATION_PACKET")
+    void decodePacket_Fail_TooManyPoints() {
+        // given
+        int n = LocationService.MAX_BATCH_SIZE + 1;
+        byte[] body = LocationPacketCodec.encode(new long[n], new double[n], new double[n]);
+
+        // when
+        CustomException exception = assertThrows(CustomException.class, () -> locationService.decodePacket(2L, body));
+
+        // then
+        assertEquals(ErrorCode.INVALID_LOCATION_PACKET, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("위치 저장 실패 - 캐시에는 남아 있지만 이미 탈퇴한 피보호자면 500 대신 PROTECTED_USER_NOT_FOUND")
+    void saveLocation_Fail_DeletedProtectedUser() {
+        // given
+        when(geofenceSnapshotCache.get(2L)).thenReturn(new GeofenceSnapshotCache.GeofenceSnapshot(null, false));
+        doThrow(new DataIntegrityViolationException("could not execute statement", new SQLIntegrityConstraintViolationException(
+                "Cannot add or update a child row: a foreign key constraint fails (`guard`.`current_location`, "
+                        + "CONSTRAINT `fk_current_location_protected_user` FOREIGN KEY (`protected_user_id`) "
+                        + "REFERENCES `protected_user` (`id`) ON DELETE CASCADE)", "23000", 1452)))
+                .when(currentLocationRepository).upsert(eq(2L), anyDouble(), anyDouble(), any());
+
+        // when
+        CustomException exception = assertThrows(CustomException.class,
+                () -> locationService.saveLocation(2L, new LocationRequest(37.5, 127.0, LocalDateTime.now())));
+
+        // then
+        assertEquals(ErrorCode.PROTECTED_USER_NOT_FOUND, exception.getErrorCode());
+        verify(geofenceSnapshotCache).invalidate(2L);
+    }
+
+    @Test
+    @DisplayName("위치 저장 실패 - 피보호자 외래 키가 아닌 무결성 위반은 원인을 그대로 던짐")
+    void saveLocation_Fail_OtherIntegrityViolation() {
+        // given
+        when(geofenceSnapshotCache.get(2L)).thenReturn(new GeofenceSnapshotCache.GeofenceSnapshot(null, false));
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry '1001' for key 'PRIMARY'", "23000", 1062));
+        when(locationLogRepository.saveAll(any())).thenThrow(duplicate);
+
+        // when
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> locationService.saveLocation(2L, new LocationRequest(37.5, 127.0, LocalDateTime.now())));
+
+        // then
+        assertSame(duplicate, exception);
+        verify(geofenceSnapshotCache, never()).invalidate(any());
     }
-}
\ No newline at end of file
+}
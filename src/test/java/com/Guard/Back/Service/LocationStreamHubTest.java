@@ -0,0 +1,143 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Dto.LocationResponse;
+import com.Guard.Back.Event.LocationSavedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationStreamHubTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    /*보낸 위치를 기록하고, gate가 열릴 때까지 전송을 붙잡아 둘 수 있는 SseEmitter.*/
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<LocationResponse> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private volatile Throwable failure;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new IOException("interrupted");
+            }
+            builder.build().stream()
+                    .map(data -> data.getData())
+                    .filter(LocationResponse.class::isInstance)
+                    .forEach(data -> sent.add((LocationResponse) data));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+        }
+    }
+
+    private LocationStreamHub hub;
+
+    private LocationStreamHub hub(RecordingEmitter emitter, long writeTimeoutMillis) {
+        hub = new LocationStreamHub(1, 30, writeTimeoutMillis) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitter;
+            }
+        };
+        return hub;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private static LocationResponse location(int minutes) {
+        return new LocationResponse(37.5, 127.0, T0.plusMinutes(minutes));
+    }
+
+    private static LocationSavedEvent saved(int minutes) {
+        return new LocationSavedEvent(1L, 37.5, 127.0, T0.plusMinutes(minutes));
+    }
+
+    private static void awaitSent(RecordingEmitter emitter, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && emitter.sent.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("구독 직후 현재 위치를 보내고, 이후 저장된 위치를 전달")
+    void subscribe_SendsCurrentThenPublished() throws InterruptedException {
+        // given
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        LocationStreamHub hub = hub(emitter, 5_000);
+
+        // when
+        hub.subscribe(1L, 2L, location(0));
+        awaitSent(emitter, 1);
+        hub.onLocationSaved(saved(1));
+        awaitSent(emitter, 2);
+
+        // then
+        assertEquals(List.of(location(0), location(1)), emitter.sent);
+        assertEquals(1, hub.subscriberCount(1L));
+    }
+
+    @Test
+    @DisplayName("전송이 밀리는 동안 들어온 위치는 쌓이지 않고 가장 최신 위치만 전송")
+    void publish_LatestValueWins() throws InterruptedException {
+        // given
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(gate);
+        LocationStreamHub hub = hub(emitter, 5_000);
+        hub.subscribe(1L, 2L, location(0));
+        assertTrue(emitter.sending.await(1, TimeUnit.SECONDS));
+
+        // when
+        hub.onLocationSaved(saved(1));
+        hub.onLocationSaved(saved(3));
+        hub.onLocationSaved(saved(2));
+        gate.countDown();
+        awaitSent(emitter, 2);
+        Thread.sleep(50);
+
+        // then
+        assertEquals(List.of(location(0), location(3)), emitter.sent);
+    }
+
+    @Test
+    @DisplayName("전송이 제한 시간을 넘긴 구독자는 연결을 닫고 목록에서 제거")
+    void evictSlowSubscribers_ClosesStuckEmitter() throws InterruptedException {
+        // given
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(1));
+        LocationStreamHub hub = hub(emitter, 20);
+        hub.subscribe(1L, 2L, location(0));
+        assertTrue(emitter.sending.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        // when
+        hub.evictSlowSubscribers();
+
+        // then
+        assertNotNull(emitter.failure);
+        assertEquals(0, hub.subscriberCount(1L));
+        assertTrue(emitter.sent.isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.EventType;
+import com.Guard.Back.Domain.NotificationOutbox;
+import com.Guard.Back.Domain.NotificationPriority;
+import com.Guard.Back.Domain.NotificationStatus;
+import com.Guard.Back.Repository.NotificationOutboxRepository;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final NotificationOutboxRepository notificationOutboxRepository = mock(NotificationOutboxRepository.class);
+    private final DeviceTokenCache deviceTokenCache = mock(DeviceTokenCache.class);
+    private final FCMService fcmService = mock(FCMService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 기본 간격 1초, 최대 간격 60초, lease 300초
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(
+            notificationOutboxRepository, deviceTokenCache, fcmService,
+            mock(FcmTokenHealthRegistry.class),
+            mock(PlatformTransactionManager.class), meterRegistry,
+            true, 100, 2, 1, 1000, 8, 1000, 60_000, 300, 7);
+
+    private static NotificationOutbox item(Long id, Long guardianId, String claimToken) {
+        return NotificationOutbox.builder()
+                .id(id).alertLogId(10L).protectedUserId(20L).guardianId(guardianId)
+                .eventType(EventType.SOS).priority(NotificationPriority.HIGH)
+                .title("SOS").body("body").status(NotificationStatus.SENDING)
+                .nextAttemptAt(LocalDateTime.now()).claimToken(claimToken)
+                .createdAt(LocalDateTime.now()).build();
+    }
+
+    /*claim한 발송 작업의 claimToken으로 항목 하나를 돌려주도록 설정하고, 그 claimToken을 담을 captor를 반환*/
+    private ArgumentCaptor<String> claimOne() {
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        when(notificationOutboxRepository.claim(eq("HIGH"), claimToken.capture(), any(), any(), anyInt())).thenReturn(1);
+        when(notificationOutboxRepository.findAllByClaimToken(anyString()))
+                .thenAnswer(invocation -> List.of(item(1L, 5L, invocation.getArgument(0))));
+        when(deviceTokenCache.getTokens(any())).thenReturn(Map.of(5L, List.of("token")));
+        return claimToken;
+    }
+
+    @Test
+    @DisplayName("재시도 간격은 시도 횟수마다 두 배로 늘어나고, 무작위 지연은 간격의 절반~전체 범위")
+    void backoff_ExponentialWithJitter() {
+        for (int attempts = 1; attempts <= 6; attempts++) {
+            long expected = 1000L << (attempts - 1);
+            for (int i = 0; i < 100; i++) {
+                long millis = dispatcher.backoff(attempts).toMillis();
+                assertTrue(millis >= expected / 2 && millis <= expected, "attempts=" + attempts + ", backoff=" + millis);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("재시도 간격은 최대 간격을 넘지 않음 (시도 횟수가 아주 커도 overflow 없음)")
+    void backoff_Capped() {
+        for (int attempts : new int[]{7, 20, 63, 1000}) {
+            Duration backoff = dispatcher.backoff(attempts);
+            assertTrue(backoff.toMillis() >= 30_000 && backoff.toMillis() <= 60_000, "attempts=" + attempts + ", backoff=" + backoff);
+        }
+    }
+
+    @Test
+    @DisplayName("claim - lease 시간보다 오래 발송 중인 항목만 다시 가져가도록 요청")
+    void dispatch_ClaimsWithLease() {
+        // given
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(notificationOutboxRepository.claim(eq("NORMAL"), anyString(), now.capture(), staleBefore.capture(), eq(100))).thenReturn(0);
+
+        // when
+        int claimed = dispatcher.dispatchOnce(NotificationPriority.NORMAL);
+
+        // then
+        assertEquals(0, claimed);
+        assertEquals(Duration.ofSeconds(300), Duration.between(staleBefore.getValue(), now.getValue()));
+        verify(notificationOutboxRepository, never()).findAllByClaimToken(anyString());
+    }
+
+    @Test
+    @DisplayName("발송 성공 - 가져간 발송 작업의 claimToken 조건으로 완료 기록")
+    void dispatch_MarksSentWithClaimToken() {
+        // given
+        ArgumentCaptor<String> claimToken = claimOne();
+        when(fcmService.sendMulticast(List.of("token"), "SOS", "body", true))
+                .thenReturn(List.of(new FCMService.SendResult("token", "message-id", null, false)));
+        when(notificationOutboxRepository.markSent(eq(List.of(1L)), anyString(), any())).thenReturn(1);
+
+        // when
+        dispatcher.dispatchOnce(NotificationPriority.HIGH);
+
+        // then
+        verify(notificationOutboxRepository).markSent(eq(List.of(1L)), eq(claimToken.getValue()), any());
+        assertEquals(0, meterRegistry.counter("notification.outbox.claim.lost").count());
+    }
+
+    @Test
+    @DisplayName("claim을 잃음 - lease가 지나 다른 작업이 다시 가져간 항목은 재시도로 되돌리지 않음 (영향받은 행 0)")
+    void dispatch_LostClaimIsNotOverwritten() {
+        // given: 일시적인 오류(오류 코드 없음)로 실패
+        ArgumentCaptor<String> claimToken = claimOne();
+        when(fcmService.sendMulticast(anyList(), anyString(), anyString(), anyBoolean()))
+                .thenReturn(List.of(new FCMService.SendResult("token", null, mock(FirebaseMessagingException.class), false)));
+        when(notificationOutboxRepository.reschedule(eq(1L), anyString(), any(), anyString())).thenReturn(0);
+
+        // when
+        dispatcher.dispatchOnce(NotificationPriority.HIGH);
+
+        // then
+        verify(notificationOutboxRepository).reschedule(eq(1L), eq(claimToken.getValue()), any(), anyString());
+        assertEquals(1, meterRegistry.counter("notification.outbox.claim.lost").count());
+        assertEquals(0, meterRegistry.counter("notification.outbox.retried").count());
+    }
+
+    @Test
+    @DisplayName("종료 - 발송 도중에 종료되면 결과를 기록하지 못한 항목을 바로 대기 상태로 되돌림")
+    @SuppressWarnings("unchecked")
+    void releaseClaims_ReleasesInFlightClaims() {
+        // given: FCM 발송 도중 종료가 시작됨
+        ArgumentCaptor<String> claimToken = claimOne();
+        when(fcmService.sendMulticast(anyList(), anyString(), anyString(), anyBoolean())).thenAnswer(invocation -> {
+            dispatcher.releaseClaims();
+            return List.of(new FCMService.SendResult("token", "message-id", null, false));
+        });
+        when(notificationOutboxRepository.release(any())).thenReturn(1);
+
+        // when
+        dispatcher.dispatchOnce(NotificationPriority.HIGH);
+        dispatcher.releaseClaims();
+
+        // then: 발송 도중에 한 번만 되돌리고, 발송이 끝난 뒤에는 되돌릴 항목이 없음
+        ArgumentCaptor<Collection<String>> released = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationOutboxRepository, times(1)).release(released.capture());
+        assertEquals(List.of(claimToken.getValue()), List.copyOf(released.getValue()));
+    }
+}
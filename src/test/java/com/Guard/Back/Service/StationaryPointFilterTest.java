@@ -0,0 +1,140 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.LocationDwell;
+import com.Guard.Back.Domain.LocationLog;
+import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Repository.LocationDwellRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StationaryPointFilterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Mock
+    private LocationDwellRepository locationDwellRepository;
+
+    private StationaryPointFilter filter;
+    private ProtectedUser protectedUser;
+
+    @BeforeEach
+    void setUp() {
+        filter = new StationaryPointFilter(locationDwellRepository, true, 30, 600);
+        protectedUser = mock(ProtectedUser.class);
+        lenient().when(protectedUser.getId()).thenReturn(1L);
+        lenient().when(locationDwellRepository.save(any())).thenReturn(LocationDwell.builder().id(10L).build());
+    }
+
+    private LocationLog point(double latitude, double longitude, int minutes) {
+        return LocationLog.builder().protectedUser(protectedUser)
+                .latitude(latitude).longitude(longitude).recordedAt(T0.plusMinutes(minutes)).build();
+    }
+
+    @Test
+    @DisplayName("기준점 근처의 위치는 저장하지 않고 체류 구간으로 합침")
+    void filter_MergesStationaryPoints() {
+        // given
+        LocationLog first = point(37.5, 127.0, 0);
+
+        // when
+        List<LocationLog> stored = filter.filter(protectedUser, List.of(first, point(37.5001, 127.0, 1), point(37.5, 127.0001, 2)));
+
+        // then
+        assertEquals(List.of(first), stored);
+        verify(locationDwellRepository, times(1)).save(any());
+        verify(locationDwellRepository).extend(10L, T0.plusMinutes(2), 1);
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 이전 위치는 저장하되 기준점을 과거로 되돌리지 않음")
+    void filter_OlderPointDoesNotResetAnchor() {
+        // given
+        filter.filter(protectedUser, List.of(point(37.5, 127.0, 10)));
+
+        // when: 기준점보다 먼저 기록된 먼 위치가 늦게 도착한 뒤, 기준점 근처 위치가 들어옴
+        List<LocationLog> late = filter.filter(protectedUser, List.of(point(37.6, 127.1, 5)));
+        List<LocationLog> next = filter.filter(protectedUser, List.of(point(37.5001, 127.0, 11)));
+
+        // then
+        assertEquals(1, late.size());
+        assertTrue(next.isEmpty());
+        verify(locationDwellRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("같은 피보호자의 요청이 동시에 들어와도 체류 구간은 하나만 만들고 모든 위치를 반영")
+    void filter_SerializesPerUser() throws InterruptedException {
+        // given
+        filter.filter(protectedUser, List.of(point(37.5, 127.0, 0)));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    filter.filter(protectedUser, List.of(point(37.5001, 127.0, 1)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // then
+        verify(locationDwellRepository, times(1)).save(any());
+        verify(locationDwellRepository, times(threads - 1)).extend(10L, T0.plusMinutes(1), 1);
+    }
+
+    @Test
+    @DisplayName("한 피보호자의 체류 구간 저장이 오래 걸려도 다른 피보호자의 위치는 기다리지 않고 처리")
+    void filter_SlowWriteDoesNotBlockOtherUsers() throws Exception {
+        // given: 피보호자 1의 체류 구간 INSERT가 끝나지 않은 상태
+        ProtectedUser other = mock(ProtectedUser.class);
+        when(other.getId()).thenReturn(17L);
+        filter.filter(protectedUser, List.of(point(37.5, 127.0, 0)));
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(locationDwellRepository.save(any())).thenAnswer(inv -> {
+            saving.countDown();
+            release.await();
+            return LocationDwell.builder().id(10L).build();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.execute(() -> filter.filter(protectedUser, List.of(point(37.5001, 127.0, 1))));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        // when
+        Future<List<LocationLog>> stored = executor.submit(() -> filter.filter(other, List.of(point(35.1, 129.0, 1))));
+
+        // then
+        try {
+            assertEquals(1, stored.get(1, TimeUnit.SECONDS).size());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
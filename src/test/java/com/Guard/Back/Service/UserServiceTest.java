@@ -0,0 +1,134 @@
+package com.Guard.Back.Service;
+
+import com.Guard.Back.Domain.DevicePlatform;
+import com.Guard.Back.Domain.OAuthProvider;
+import com.Guard.Back.Domain.ProtectedUser;
+import com.Guard.Back.Domain.User;
+import com.Guard.Back.Event.DeviceTokenChangedEvent;
+import com.Guard.Back.Exception.CustomException;
+import com.Guard.Back.Exception.ErrorCode;
+import com.Guard.Back.Repository.DeviceTokenRepository;
+import com.Guard.Back.Repository.ProtectedUserRepository;
+import com.Guard.Back.Repository.RefreshTokenRepository;
+import com.Guard.Back.Repository.RelationshipRepository;
+import com.Guard.Back.Repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @InjectMocks
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private FcmTokenHealthRegistry fcmTokenHealthRegistry;
+    @Mock
+    private ProtectedUserRepository protectedUserRepository;
+    @Mock
+    private RelationshipRepository relationshipRepository;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private LocationRetentionService locationRetentionService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private User guardian() {
+        return User.builder().nickname("보호자").provider(OAuthProvider.KAKAO).providerId("2").build();
+    }
+
+    @Test
+    @DisplayName("토큰 등록 - 다른 보호자의 토큰이면 새 보호자에게 옮기고 이전 보호자의 캐시도 무효화")
+    void updateFcmToken_MovesTokenFromPreviousOwner() {
+        // given
+        User guardian = guardian();
+        when(userRepository.findById(2L)).thenReturn(Optional.of(guardian));
+        when(deviceTokenRepository.findGuardianIdsByTokens(List.of("token"))).thenReturn(List.of(1L));
+
+        // when
+        userService.updateFcmToken(2L, "token", DevicePlatform.ANDROID);
+
+        // then
+        assertEquals("token", guardian.getFcmToken());
+        verify(userRepository).clearFcmTokenOfOthers("token", 2L);
+        verify(deviceTokenRepository).upsert(eq(2L), eq("token"), eq("ANDROID"), any());
+        verify(eventPublisher).publishEvent(new DeviceTokenChangedEvent(1L));
+        verify(eventPublisher).publishEvent(new DeviceTokenChangedEvent(2L));
+        verify(fcmTokenHealthRegistry).markHealthy("token");
+    }
+
+    @Test
+    @DisplayName("토큰 등록 - 같은 보호자가 다시 등록하면 그 보호자의 캐시만 무효화")
+    void updateFcmToken_SameOwner() {
+        // given
+        when(userRepository.findById(2L)).thenReturn(Optional.of(guardian()));
+        when(deviceTokenRepository.findGuardianIdsByTokens(List.of("token"))).thenReturn(List.of(2L));
+
+        // when
+        userService.updateFcmToken(2L, "token", DevicePlatform.IOS);
+
+        // then
+        verify(eventPublisher, times(1)).publishEvent(any(DeviceTokenChangedEvent.class));
+        verify(eventPublisher).publishEvent(new DeviceTokenChangedEvent(2L));
+    }
+
+    @Test
+    @DisplayName("피보호자 탈퇴 - 위치 기록을 트랜잭션 밖에서 먼저 지운 뒤 계정을 별도 트랜잭션으로 삭제")
+    void deleteProtectedUser_PurgesOutsideAccountTransaction() {
+        // given
+        ProtectedUser protectedUser = new ProtectedUser("device", "123456");
+        when(protectedUserRepository.existsById(1L)).thenReturn(true);
+        when(protectedUserRepository.findById(1L)).thenReturn(Optional.of(protectedUser));
+        when(refreshTokenRepository.findByProtectedUser(protectedUser)).thenReturn(Optional.empty());
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // when
+        userService.deleteProtectedUser(1L);
+
+        // then
+        InOrder inOrder = inOrder(locationRetentionService, transactionTemplate, protectedUserRepository);
+        inOrder.verify(locationRetentionService).purgeProtectedUser(1L);
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        inOrder.verify(protectedUserRepository).delete(protectedUser);
+    }
+
+    @Test
+    @DisplayName("피보호자 탈퇴 - 존재하지 않는 계정이면 위치 기록을 지우지 않음")
+    void deleteProtectedUser_NotFound() {
+        // given
+        when(protectedUserRepository.existsById(1L)).thenReturn(false);
+
+        // when
+        CustomException exception = assertThrows(CustomException.class, () -> userService.deleteProtectedUser(1L));
+
+        // then
+        assertEquals(ErrorCode.PROTECTED_USER_NOT_FOUND, exception.getErrorCode());
+        verifyNoInteractions(locationRetentionService, transactionTemplate);
+    }
+}
@@ -0,0 +1,64 @@
+package com.Guard.Back.Stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("적은 수의 값은 거의 정확하게 셈")
+    void estimate_Small() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 100; id++) {
+            sketch.add(id);
+            sketch.add(id);
+        }
+
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    @DisplayName("많은 수의 값도 오차 범위(5%) 안에서 셈")
+    void estimate_Large() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 200_000; id++) {
+            sketch.add(id);
+        }
+
+        assertEquals(200_000, sketch.estimate(), 10_000);
+    }
+
+    @Test
+    @DisplayName("두 스케치를 합치면 합집합의 개수를 셈")
+    void merge_CountsUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (long id = 1; id <= 30_000; id++) {
+            first.add(id);
+        }
+        for (long id = 20_001; id <= 50_000; id++) {
+            second.add(id);
+        }
+
+        first.merge(second);
+
+        assertEquals(50_000, first.estimate(), 2_500);
+    }
+
+    @Test
+    @DisplayName("저장한 레지스터로 복원하면 같은 값을 추정")
+    void fromBytes_RoundTrip() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 5_000; id++) {
+            sketch.add(id);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.precision(), restored.precision());
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertFalse(restored.add(1L));
+    }
+}